@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.audit.Logger;
+import com.yahoo.elide.audit.Slf4jLogger;
+import com.yahoo.elide.benchmarks.models.Author;
+import com.yahoo.elide.benchmarks.models.Book;
+import com.yahoo.elide.benchmarks.models.Publisher;
+import com.yahoo.elide.benchmarks.models.WideEntity;
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.datastores.inmemory.InMemoryDataStore;
+import com.yahoo.elide.jsonapi.JsonApiMapper;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.security.User;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * In-memory store seeded with the same books, authors, publishers and wide entities for every benchmark.
+ */
+public class BenchmarkData {
+    public static final int PUBLISHERS = 10;
+    public static final int AUTHORS = 200;
+    public static final int BOOKS = 1000;
+    public static final int AUTHORS_PER_BOOK = 3;
+    public static final int WIDE_ENTITIES = 100;
+    public static final int WIDE_ATTRIBUTES = 32;
+
+    private static final String[] GENRES = {"fiction", "history", "science", "poetry", "travel"};
+
+    @Getter private final InMemoryDataStore dataStore;
+    @Getter private final EntityDictionary dictionary;
+    @Getter private final JsonApiMapper mapper;
+    @Getter private final Logger logger;
+    @Getter private final Elide elide;
+    @Getter private long firstPublisherId;
+    @Getter private long firstBookId;
+
+    public BenchmarkData() {
+        dataStore = new InMemoryDataStore(Book.class.getPackage());
+        dictionary = new EntityDictionary();
+        logger = new Slf4jLogger();
+        elide = new Elide.Builder(dataStore).withAuditLogger(logger).withEntityDictionary(dictionary).build();
+        mapper = new JsonApiMapper(dictionary);
+        seed();
+    }
+
+    /**
+     * Start a request against the seeded store.  The caller closes the transaction.
+     *
+     * @param queryParams the request query parameters, may be null
+     * @return the request scope
+     */
+    public RequestScope newRequestScope(MultivaluedMap<String, String> queryParams) {
+        DataStoreTransaction transaction = dataStore.beginTransaction();
+        return new RequestScope(new JsonApiDocument(), transaction, new User(null), dictionary, mapper, logger,
+                queryParams);
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        try (DataStoreTransaction tx = dataStore.beginTransaction()) {
+            List<Publisher> publishers = new ArrayList<>();
+            for (int i = 0; i < PUBLISHERS; i++) {
+                Publisher publisher = tx.createObject(Publisher.class);
+                publisher.setName("Publisher " + i);
+                publishers.add(publisher);
+            }
+            firstPublisherId = publishers.get(0).getId();
+
+            List<Author> authors = new ArrayList<>();
+            for (int i = 0; i < AUTHORS; i++) {
+                Author author = tx.createObject(Author.class);
+                author.setName("Author " + random.nextInt(AUTHORS));
+                authors.add(author);
+            }
+
+            for (int i = 0; i < BOOKS; i++) {
+                Book book = tx.createObject(Book.class);
+                book.setTitle("Title " + random.nextInt(BOOKS));
+                book.setGenre(GENRES[random.nextInt(GENRES.length)]);
+                book.setPages(50 + random.nextInt(950));
+                Publisher publisher = publishers.get(random.nextInt(PUBLISHERS));
+                book.setPublisher(publisher);
+                publisher.getBooks().add(book);
+                for (int j = 0; j < AUTHORS_PER_BOOK; j++) {
+                    Author author = authors.get(random.nextInt(AUTHORS));
+                    book.getAuthors().add(author);
+                    author.getBooks().add(book);
+                }
+                tx.save(book);
+                if (i == 0) {
+                    firstBookId = book.getId();
+                }
+            }
+            publishers.forEach(tx::save);
+            authors.forEach(tx::save);
+
+            for (int i = 0; i < WIDE_ENTITIES; i++) {
+                WideEntity wide = tx.createObject(WideEntity.class);
+                for (int j = 1; j <= WIDE_ATTRIBUTES; j++) {
+                    WideEntity.class.getField(String.format("attribute%02d", j))
+                            .set(wide, "value " + random.nextInt(1000));
+                }
+                tx.save(wide);
+            }
+            tx.commit();
+        } catch (IOException | ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.benchmarks.models.Book;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.jsonapi.document.processors.IncludedProcessor;
+import com.yahoo.elide.jsonapi.document.processors.SortProcessor;
+import com.yahoo.elide.jsonapi.models.Data;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.jsonapi.models.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Sorting of document data and expansion of deep include paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentProcessorBenchmark {
+    private static final int INCLUDED_BOOKS = 20;
+
+    private final SortProcessor sortProcessor = new SortProcessor();
+    private final IncludedProcessor includedProcessor = new IncludedProcessor();
+    private final Random random = new Random(42);
+
+    private BenchmarkData data;
+    private RequestScope requestScope;
+    private Set<PersistentResource> books;
+    private Set<PersistentResource> includeBooks;
+    private List<Resource> bookResources;
+    private JsonApiDocument unsortedDocument;
+    private Optional<MultivaluedMap<String, String>> sortParams;
+    private Optional<MultivaluedMap<String, String>> includeParams;
+
+    @Setup
+    public void setup() {
+        data = new BenchmarkData();
+        requestScope = data.newRequestScope(null);
+
+        books = new LinkedHashSet<>();
+        includeBooks = new LinkedHashSet<>();
+        bookResources = new ArrayList<>();
+        for (Object book : requestScope.getTransaction().loadObjects(Book.class)) {
+            PersistentResource resource = new PersistentResource<>(book, requestScope);
+            books.add(resource);
+            bookResources.add(resource.toResource());
+            if (includeBooks.size() < INCLUDED_BOOKS) {
+                includeBooks.add(resource);
+            }
+        }
+
+        MultivaluedMap<String, String> sort = new MultivaluedHashMap<>();
+        sort.putSingle("sort", "genre,-pages,title");
+        sortParams = Optional.of(sort);
+
+        MultivaluedMap<String, String> include = new MultivaluedHashMap<>();
+        include.putSingle("include", "authors.books.publisher,publisher.books.authors");
+        includeParams = Optional.of(include);
+    }
+
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        Collections.shuffle(bookResources, random);
+        unsortedDocument = new JsonApiDocument(new Data<>(new ArrayList<>(bookResources)));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        requestScope.getTransaction().close();
+    }
+
+    @Benchmark
+    public JsonApiDocument sort() {
+        sortProcessor.execute(unsortedDocument, books, sortParams);
+        return unsortedDocument;
+    }
+
+    @Benchmark
+    public JsonApiDocument includeDeepPaths() {
+        JsonApiDocument document = new JsonApiDocument();
+        includedProcessor.execute(document, includeBooks, includeParams);
+        return document;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.core.filter.Predicate;
+import com.yahoo.elide.parsers.PathParser;
+import com.yahoo.elide.parsers.Route;
+import com.yahoo.elide.parsers.RouteCache;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * URL path and filter query parameter parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    private BenchmarkData data;
+    private MultivaluedMap<String, String> filters;
+    private RouteCache routeCache;
+
+    @Setup
+    public void setup() {
+        data = new BenchmarkData();
+        filters = new MultivaluedHashMap<>();
+        filters.putSingle("filter[book.genre]", "fiction,history,science");
+        filters.putSingle("filter[book.title][prefix]", "Title 1");
+        filters.putSingle("filter[book.pages][ge]", "100");
+        filters.putSingle("filter[author.name][in]", "Author 1,Author 2,Author 3");
+        filters.putSingle("page[limit]", "10");
+        routeCache = new RouteCache(RouteCache.DEFAULT_MAXIMUM_ROUTES);
+    }
+
+    @Benchmark
+    public ParseTree parseCollection() {
+        return Elide.parse("/book");
+    }
+
+    @Benchmark
+    public ParseTree parseRelationship() {
+        return Elide.parse("/publisher/1/books/10/relationships/authors");
+    }
+
+    @Benchmark
+    public Route resolveCollection() {
+        return routeCache.resolve("/book");
+    }
+
+    @Benchmark
+    public Route resolveRelationship() {
+        return routeCache.resolve("/publisher/1/books/10/relationships/authors");
+    }
+
+    @Benchmark
+    public Route handWrittenCollection() {
+        return PathParser.parse("/book");
+    }
+
+    @Benchmark
+    public Route handWrittenRelationship() {
+        return PathParser.parse("/publisher/1/books/10/relationships/authors");
+    }
+
+    @Benchmark
+    public Map<String, Set<Predicate>> parsePredicates() {
+        return Predicate.parseQueryParams(data.getDictionary(), filters);
+    }
+}
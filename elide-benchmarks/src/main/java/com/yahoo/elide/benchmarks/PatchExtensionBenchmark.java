@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.extensions.JsonApiPatch;
+import com.yahoo.elide.extensions.PatchRequestScope;
+import com.yahoo.elide.security.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON Patch extension documents with many operations.  Transactions are never committed, so every invocation
+ * sees the same store.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatchExtensionBenchmark {
+    @Param({"1000"})
+    public int operations;
+
+    private BenchmarkData data;
+    private String patchDocument;
+
+    @Setup
+    public void setup() {
+        data = new BenchmarkData();
+
+        StringBuilder patch = new StringBuilder("[");
+        for (int i = 0; i < operations; i++) {
+            if (i > 0) {
+                patch.append(',');
+            }
+            if (i % 2 == 0) {
+                patch.append(String.format("{\"op\":\"add\",\"path\":\"/book\",\"value\":{\"type\":\"book\","
+                        + "\"id\":\"%s\",\"attributes\":{\"title\":\"New %d\",\"genre\":\"fiction\",\"pages\":%d},"
+                        + "\"relationships\":{\"publisher\":{\"data\":{\"type\":\"publisher\",\"id\":\"%d\"}}}}}",
+                        new UUID(0, i), i, i, data.getFirstPublisherId() + i % BenchmarkData.PUBLISHERS));
+            } else {
+                long bookId = data.getFirstBookId() + i % BenchmarkData.BOOKS;
+                patch.append(String.format("{\"op\":\"replace\",\"path\":\"/book/%d\",\"value\":{\"type\":\"book\","
+                        + "\"id\":\"%d\",\"attributes\":{\"title\":\"Renamed %d\"}}}",
+                        bookId, bookId, i));
+            }
+        }
+        patchDocument = patch.append(']').toString();
+    }
+
+    @Benchmark
+    public Pair<Integer, JsonNode> processJsonPatch() throws IOException {
+        try (DataStoreTransaction transaction = data.getDataStore().beginTransaction()) {
+            PatchRequestScope requestScope = new PatchRequestScope(transaction, new User(null),
+                    data.getDictionary(), data.getMapper(), data.getLogger());
+            Pair<Integer, JsonNode> response =
+                    JsonApiPatch.processJsonPatch(data.getDataStore(), "/", patchDocument, requestScope).get();
+            requestScope.runDeferredPermissionChecks();
+            return response;
+        }
+    }
+}
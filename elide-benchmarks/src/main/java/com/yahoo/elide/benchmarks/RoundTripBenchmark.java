@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.ElideResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Full Elide requests against the in-memory store, from URL parsing to the response body.  Posts are committed,
+ * so the store is rebuilt before every iteration to keep them from growing it across the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+    private static final String CONTENT_TYPE = "application/vnd.api+json";
+
+    private BenchmarkData data;
+    private MultivaluedMap<String, String> collectionParams;
+    private MultivaluedMap<String, String> includeParams;
+    private String postDocument;
+    private String bookPath;
+    private String patchDocument;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        data = new BenchmarkData();
+
+        collectionParams = new MultivaluedHashMap<>();
+        collectionParams.putSingle("sort", "-title");
+        collectionParams.putSingle("page[limit]", "100");
+
+        includeParams = new MultivaluedHashMap<>();
+        includeParams.putSingle("include", "authors,publisher");
+
+        postDocument = "{\"data\":{\"type\":\"publisher\",\"attributes\":{\"name\":\"New Publisher\"}}}";
+        bookPath = "/book/" + data.getFirstBookId();
+        patchDocument = String.format(
+                "{\"data\":{\"type\":\"book\",\"id\":\"%d\",\"attributes\":{\"title\":\"Renamed\"}}}",
+                data.getFirstBookId());
+    }
+
+    @Benchmark
+    public ElideResponse getCollection() {
+        return data.getElide().get("/book", collectionParams, null);
+    }
+
+    @Benchmark
+    public ElideResponse getRecordWithIncludes() {
+        return data.getElide().get(bookPath, includeParams, null);
+    }
+
+    @Benchmark
+    public ElideResponse post() {
+        return data.getElide().post("/publisher", postDocument, null);
+    }
+
+    @Benchmark
+    public ElideResponse patch() {
+        return data.getElide().patch(CONTENT_TYPE, CONTENT_TYPE, bookPath, patchDocument, null);
+    }
+}
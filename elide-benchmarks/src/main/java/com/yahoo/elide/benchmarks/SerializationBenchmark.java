@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.benchmarks.models.Book;
+import com.yahoo.elide.benchmarks.models.WideEntity;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.jsonapi.models.Data;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.jsonapi.models.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of entities to JSON API resources and of documents to and from JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private BenchmarkData data;
+    private RequestScope requestScope;
+    private List<PersistentResource> wideResources;
+    private JsonApiDocument bookDocument;
+    private String bookJson;
+
+    @Setup
+    public void setup() throws IOException {
+        data = new BenchmarkData();
+        requestScope = data.newRequestScope(null);
+
+        wideResources = new ArrayList<>();
+        for (Object wide : requestScope.getTransaction().loadObjects(WideEntity.class)) {
+            wideResources.add(new PersistentResource<>(wide, requestScope));
+        }
+
+        List<Resource> books = new ArrayList<>();
+        for (Object book : requestScope.getTransaction().loadObjects(Book.class)) {
+            books.add(new PersistentResource<>(book, requestScope).toResource());
+            if (books.size() == 100) {
+                break;
+            }
+        }
+        bookDocument = new JsonApiDocument(new Data<>(books));
+        bookJson = data.getMapper().writeJsonApiDocument(bookDocument);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        requestScope.getTransaction().close();
+    }
+
+    @Benchmark
+    public List<Resource> toResourceWide() {
+        List<Resource> resources = new ArrayList<>(wideResources.size());
+        for (PersistentResource resource : wideResources) {
+            resources.add(resource.toResource());
+        }
+        return resources;
+    }
+
+    @Benchmark
+    public String writeDocument() throws IOException {
+        return data.getMapper().writeJsonApiDocument(bookDocument);
+    }
+
+    @Benchmark
+    public JsonApiDocument readDocument() throws IOException {
+        return data.getMapper().readJsonApiDocument(bookJson);
+    }
+}
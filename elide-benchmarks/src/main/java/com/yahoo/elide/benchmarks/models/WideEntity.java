@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks.models;
+
+import com.yahoo.elide.annotation.Include;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * Entity with many attributes, to measure per-field serialization cost.
+ */
+@Entity
+@Include(rootLevel = true, type = "wide")
+public class WideEntity {
+    @Id @GeneratedValue(strategy = GenerationType.AUTO)
+    public long id;
+    public String attribute01;
+    public String attribute02;
+    public String attribute03;
+    public String attribute04;
+    public String attribute05;
+    public String attribute06;
+    public String attribute07;
+    public String attribute08;
+    public String attribute09;
+    public String attribute10;
+    public String attribute11;
+    public String attribute12;
+    public String attribute13;
+    public String attribute14;
+    public String attribute15;
+    public String attribute16;
+    public String attribute17;
+    public String attribute18;
+    public String attribute19;
+    public String attribute20;
+    public String attribute21;
+    public String attribute22;
+    public String attribute23;
+    public String attribute24;
+    public String attribute25;
+    public String attribute26;
+    public String attribute27;
+    public String attribute28;
+    public String attribute29;
+    public String attribute30;
+    public String attribute31;
+    public String attribute32;
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+/**
+ * Models exercised by the benchmarks.
+ */
+@SharePermission(any = {Role.ALL.class})
+package com.yahoo.elide.benchmarks.models;
+
+import com.yahoo.elide.annotation.SharePermission;
+import com.yahoo.elide.security.Role;
@@ -7,11 +7,14 @@ package com.yahoo.elide;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Preconditions;
 import com.yahoo.elide.audit.Logger;
+import com.yahoo.elide.audit.Slf4jLogger;
 import com.yahoo.elide.core.DataStore;
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.HttpStatus;
+import com.yahoo.elide.core.Pagination;
 import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.core.SecurityMode;
 import com.yahoo.elide.core.exceptions.HttpStatusException;
@@ -24,10 +27,17 @@ import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import com.yahoo.elide.parsers.DeleteVisitor;
 import com.yahoo.elide.parsers.GetVisitor;
 import com.yahoo.elide.parsers.PatchVisitor;
+import com.yahoo.elide.parsers.PathParser;
+import com.yahoo.elide.parsers.PathParserType;
 import com.yahoo.elide.parsers.PostVisitor;
+import com.yahoo.elide.parsers.Route;
+import com.yahoo.elide.parsers.RouteCache;
 import com.yahoo.elide.generated.parsers.CoreLexer;
 import com.yahoo.elide.generated.parsers.CoreParser;
+import com.yahoo.elide.security.CheckStatistics;
 import com.yahoo.elide.security.User;
+import com.yahoo.elide.security.UserCheckCache;
+import lombok.Getter;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
@@ -40,7 +50,7 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import javax.ws.rs.core.MultivaluedMap;
 import java.io.IOException;
-import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 /**
@@ -52,19 +62,26 @@ public class Elide {
     private final DataStore dataStore;
     private final EntityDictionary dictionary;
     private final JsonApiMapper mapper;
+    private final int maxPageSize;
+    @Getter private final UserCheckCache userCheckCache;
+    @Getter private final RouteCache routeCache = new RouteCache(RouteCache.DEFAULT_MAXIMUM_ROUTES);
+    @Getter private final PathParserType pathParserType;
+    @Getter private final ForkJoinPool serializationPool;
+    @Getter private final int parallelSerializationThreshold;
+    @Getter private final CheckStatistics checkStatistics;
+    @Getter private final boolean streamingGet;
+
     /**
      * Instantiates a new Elide.
      *
      * @param auditLogger the audit logger
      * @param dataStore the dataStore
      * @param dictionary the dictionary
+     * @deprecated use {@link Builder}
      */
+    @Deprecated
     public Elide(Logger auditLogger, DataStore dataStore, EntityDictionary dictionary) {
-        this.auditLogger = auditLogger;
-        this.dataStore = dataStore;
-        this.dictionary = dictionary;
-        dataStore.populateEntityDictionary(dictionary);
-        this.mapper = new JsonApiMapper(dictionary);
+        this(new Builder(dataStore).withAuditLogger(auditLogger).withEntityDictionary(dictionary));
     }
 
     /**
@@ -72,9 +89,149 @@ public class Elide {
      *
      * @param auditLogger the audit logger
      * @param dataStore the dataStore
+     * @deprecated use {@link Builder}
      */
+    @Deprecated
     public Elide(Logger auditLogger, DataStore dataStore) {
-        this(auditLogger, dataStore, new EntityDictionary());
+        this(new Builder(dataStore).withAuditLogger(auditLogger));
+    }
+
+    private Elide(Builder builder) {
+        this.auditLogger = builder.auditLogger;
+        this.dataStore = builder.dataStore;
+        this.dictionary = builder.dictionary;
+        dataStore.populateEntityDictionary(dictionary);
+        this.mapper = new JsonApiMapper(dictionary);
+        this.maxPageSize = builder.maxPageSize;
+        this.userCheckCache = builder.userCheckCache;
+        this.pathParserType = builder.pathParserType;
+        this.serializationPool = builder.serializationPool;
+        this.parallelSerializationThreshold = builder.parallelSerializationThreshold;
+        this.checkStatistics = builder.checkStatistics;
+        this.streamingGet = builder.streamingGet;
+    }
+
+    /**
+     * Builder of Elide.  Only the data store is required; every other setting has a default.
+     */
+    public static class Builder {
+        private final DataStore dataStore;
+        private Logger auditLogger = new Slf4jLogger();
+        private EntityDictionary dictionary = new EntityDictionary();
+        private int maxPageSize = Pagination.DEFAULT_MAX_PAGE_SIZE;
+        private UserCheckCache userCheckCache = null;
+        private PathParserType pathParserType = PathParserType.ANTLR;
+        private ForkJoinPool serializationPool = null;
+        private int parallelSerializationThreshold = RequestScope.DEFAULT_PARALLEL_SERIALIZATION_THRESHOLD;
+        private CheckStatistics checkStatistics = null;
+        private boolean streamingGet = false;
+
+        /**
+         * @param dataStore the dataStore
+         */
+        public Builder(DataStore dataStore) {
+            Preconditions.checkNotNull(dataStore);
+            this.dataStore = dataStore;
+        }
+
+        /**
+         * @param auditLogger the audit logger, by default an {@link Slf4jLogger}
+         * @return this builder
+         */
+        public Builder withAuditLogger(Logger auditLogger) {
+            Preconditions.checkNotNull(auditLogger);
+            this.auditLogger = auditLogger;
+            return this;
+        }
+
+        /**
+         * @param dictionary the dictionary the data store binds its entities in, by default an empty one
+         * @return this builder
+         */
+        public Builder withEntityDictionary(EntityDictionary dictionary) {
+            Preconditions.checkNotNull(dictionary);
+            this.dictionary = dictionary;
+            return this;
+        }
+
+        /**
+         * @param maxPageSize largest page a collection GET may request, and the page size of collection GETs without
+         *                    page parameters; Integer.MAX_VALUE leaves those uncapped
+         * @return this builder
+         */
+        public Builder withMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+            return this;
+        }
+
+        /**
+         * @param userCheckCache UserCheck results shared across requests, or null to run them once per request
+         * @return this builder
+         */
+        public Builder withUserCheckCache(UserCheckCache userCheckCache) {
+            this.userCheckCache = userCheckCache;
+            return this;
+        }
+
+        /**
+         * @param pathParserType how request paths are parsed
+         * @return this builder
+         */
+        public Builder withPathParserType(PathParserType pathParserType) {
+            Preconditions.checkNotNull(pathParserType);
+            this.pathParserType = pathParserType;
+            return this;
+        }
+
+        /**
+         * With a serialization pool, the resources of a loaded collection are built on that pool in parallel, so
+         * the entities' getters and the ReadPermission checks they run must be thread-safe.  The pool is only used
+         * with transactions which support concurrent reads of their records.
+         *
+         * @param serializationPool pool to serialize large collections on, or null to serialize on the request
+         *                          thread
+         * @return this builder
+         */
+        public Builder withSerializationPool(ForkJoinPool serializationPool) {
+            this.serializationPool = serializationPool;
+            return this;
+        }
+
+        /**
+         * @param parallelSerializationThreshold smallest collection serialized on the serialization pool
+         * @return this builder
+         */
+        public Builder withParallelSerializationThreshold(int parallelSerializationThreshold) {
+            this.parallelSerializationThreshold = parallelSerializationThreshold;
+            return this;
+        }
+
+        /**
+         * @param checkStatistics statistics to record checks in and order them by, or null to evaluate checks in
+         *                        declaration order
+         * @return this builder
+         */
+        public Builder withCheckStatistics(CheckStatistics checkStatistics) {
+            this.checkStatistics = checkStatistics;
+            return this;
+        }
+
+        /**
+         * @param streamingGet true for the JSON API endpoint to write GET responses with
+         *                     {@link Elide#getStreaming(String, MultivaluedMap, Object)}
+         * @return this builder
+         */
+        public Builder withStreamingGet(boolean streamingGet) {
+            this.streamingGet = streamingGet;
+            return this;
+        }
+
+        /**
+         * @return the configured Elide
+         */
+        public Elide build() {
+            return new Elide(this);
+        }
     }
 
     /**
@@ -93,7 +250,7 @@ public class Elide {
             SecurityMode securityMode) {
 
         try (DataStoreTransaction transaction = dataStore.beginReadTransaction()) {
-            final User user = transaction.accessUser(opaqueUser);
+            final User user = accessUser(transaction, opaqueUser);
             RequestScope requestScope = new RequestScope(
                     new JsonApiDocument(),
                     transaction,
@@ -102,9 +259,12 @@ public class Elide {
                     mapper,
                     auditLogger,
                     queryParams,
-                    securityMode);
+                    securityMode,
+                    maxPageSize);
+            requestScope.setSerializationPool(serializationPool);
+            requestScope.setParallelSerializationThreshold(parallelSerializationThreshold);
             GetVisitor visitor = new GetVisitor(requestScope);
-            Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(parse(path));
+            Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(resolve(path));
             requestScope.runDeferredPermissionChecks();
             transaction.flush();
             ElideResponse response = buildResponse(responder.get());
@@ -136,6 +296,76 @@ public class Elide {
         return this.get(path, queryParams, opaqueUser, SecurityMode.SECURITY_ACTIVE);
     }
 
+    /**
+     * Handle GET, writing the response document straight to the response stream.
+     *
+     * The response document is built and the read transaction closed before this returns, so errors still produce
+     * an error status and the transaction does not depend on the body being written.  The document is then
+     * serialized to the stream rather than being held as a JSON tree and string, so attribute values must be
+     * readable once the transaction is closed.
+     *
+     * @param path the path
+     * @param queryParams the query params
+     * @param opaqueUser the opaque user
+     * @param securityMode only for test mode
+     * @return Elide streaming response object
+     */
+    public ElideStreamingResponse getStreaming(
+            String path,
+            MultivaluedMap<String, String> queryParams,
+            Object opaqueUser,
+            SecurityMode securityMode) {
+
+        try (DataStoreTransaction transaction = dataStore.beginReadTransaction()) {
+            final User user = accessUser(transaction, opaqueUser);
+            RequestScope requestScope = new RequestScope(
+                    new JsonApiDocument(),
+                    transaction,
+                    user,
+                    dictionary,
+                    mapper,
+                    auditLogger,
+                    queryParams,
+                    securityMode,
+                    maxPageSize);
+            requestScope.setSerializationPool(serializationPool);
+            requestScope.setParallelSerializationThreshold(parallelSerializationThreshold);
+            GetVisitor visitor = new GetVisitor(requestScope);
+            Supplier<Pair<Integer, JsonApiDocument>> responder = visitor.visitDocument(resolve(path));
+            requestScope.runDeferredPermissionChecks();
+            transaction.flush();
+            Pair<Integer, JsonApiDocument> response = responder.get();
+            JsonApiDocument document = response.getRight();
+            // the body is written after the transaction closes, so read lazily loaded attribute values now
+            mapper.detachAttributes(document);
+            auditLogger.commit();
+            transaction.commit();
+            requestScope.runCommitTriggers();
+            return new ElideStreamingResponse(response.getLeft(), out -> mapper.writeJsonApiDocument(document, out));
+        } catch (HttpStatusException e) {
+            return ElideStreamingResponse.of(buildErrorResponse(e, securityMode));
+        } catch (IOException e) {
+            return ElideStreamingResponse.of(buildErrorResponse(new TransactionException(e), securityMode));
+        } catch (ParseCancellationException e) {
+            return ElideStreamingResponse.of(buildErrorResponse(new InvalidURLException(e), securityMode));
+        }
+    }
+
+    /**
+     * Handle GET, writing the response document straight to the response stream.
+     *
+     * @param path the path
+     * @param queryParams the query params
+     * @param opaqueUser the opaque user
+     * @return Elide streaming response object
+     */
+    public ElideStreamingResponse getStreaming(
+            String path,
+            MultivaluedMap<String, String> queryParams,
+            Object opaqueUser) {
+        return this.getStreaming(path, queryParams, opaqueUser, SecurityMode.SECURITY_ACTIVE);
+    }
+
     /**
      * Handle POST.
      *
@@ -151,7 +381,7 @@ public class Elide {
             Object opaqueUser,
             SecurityMode securityMode) {
         try (DataStoreTransaction transaction = dataStore.beginTransaction()) {
-            User user = transaction.accessUser(opaqueUser);
+            User user = accessUser(transaction, opaqueUser);
             JsonApiDocument doc = mapper.readJsonApiDocument(jsonApiDocument);
             RequestScope requestScope = new RequestScope(doc,
                     transaction,
@@ -161,7 +391,7 @@ public class Elide {
                     auditLogger,
                     securityMode);
             PostVisitor visitor = new PostVisitor(requestScope);
-            Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(parse(path));
+            Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(resolve(path));
             requestScope.runDeferredPermissionChecks();
             transaction.flush();
             ElideResponse response = buildResponse(responder.get());
@@ -212,7 +442,7 @@ public class Elide {
             Object opaqueUser,
             SecurityMode securityMode) {
         try (DataStoreTransaction transaction = dataStore.beginTransaction()) {
-            User user = transaction.accessUser(opaqueUser);
+            User user = accessUser(transaction, opaqueUser);
 
             RequestScope requestScope;
             Supplier<Pair<Integer, JsonNode>> responder;
@@ -221,12 +451,13 @@ public class Elide {
                 PatchRequestScope patchRequestScope = new PatchRequestScope(
                         transaction, user, dictionary, mapper, auditLogger);
                 requestScope = patchRequestScope;
-                responder = JsonApiPatch.processJsonPatch(dataStore, path, jsonApiDocument, patchRequestScope);
+                responder = JsonApiPatch.processJsonPatch(dataStore, path, jsonApiDocument, patchRequestScope,
+                        this::resolve);
             } else {
                 JsonApiDocument doc = mapper.readJsonApiDocument(jsonApiDocument);
                 requestScope = new RequestScope(doc, transaction, user, dictionary, mapper, auditLogger, securityMode);
                 PatchVisitor visitor = new PatchVisitor(requestScope);
-                responder = visitor.visit(parse(path));
+                responder = visitor.visit(resolve(path));
             }
             requestScope.runDeferredPermissionChecks();
             transaction.flush();
@@ -279,7 +510,7 @@ public class Elide {
             SecurityMode securityMode) {
         JsonApiDocument doc;
         try (DataStoreTransaction transaction = dataStore.beginTransaction()) {
-            User user = transaction.accessUser(opaqueUser);
+            User user = accessUser(transaction, opaqueUser);
             if (jsonApiDocument != null && !jsonApiDocument.equals("")) {
                 doc = mapper.readJsonApiDocument(jsonApiDocument);
             } else {
@@ -288,7 +519,7 @@ public class Elide {
             RequestScope requestScope = new RequestScope(
                     doc, transaction, user, dictionary, mapper, auditLogger, securityMode);
             DeleteVisitor visitor = new DeleteVisitor(requestScope);
-            Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(parse(path));
+            Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(resolve(path));
             requestScope.runDeferredPermissionChecks();
             transaction.flush();
             ElideResponse response = buildResponse(responder.get());
@@ -320,6 +551,21 @@ public class Elide {
         return this.delete(path, jsonApiDocument, opaqueUser, SecurityMode.SECURITY_ACTIVE);
     }
 
+    private User accessUser(DataStoreTransaction transaction, Object opaqueUser) {
+        User user = transaction.accessUser(opaqueUser);
+        if (userCheckCache != null) {
+            user.setUserCheckCache(userCheckCache);
+        }
+        if (checkStatistics != null) {
+            user.setCheckStatistics(checkStatistics);
+        }
+        return user;
+    }
+
+    private Route resolve(String path) {
+        return pathParserType == PathParserType.HAND_WRITTEN ? PathParser.parse(path) : routeCache.resolve(path);
+    }
+
     /**
      * Compile request to AST.
      *
@@ -327,11 +573,7 @@ public class Elide {
      * @return AST parse tree
      */
     public static ParseTree parse(String path) {
-        path = Paths.get(path).normalize().toString();
-        if (path.startsWith("/")) {
-            path = path.substring(1);
-        }
-        ANTLRInputStream is = new ANTLRInputStream(path);
+        ANTLRInputStream is = new ANTLRInputStream(RouteCache.normalize(path));
         CoreLexer lexer = new CoreLexer(is);
         lexer.removeErrorListeners();
         lexer.addErrorListener(new BaseErrorListener() {
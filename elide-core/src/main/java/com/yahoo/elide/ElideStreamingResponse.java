@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Elide response object whose body is written to the response stream on demand.
+ */
+public class ElideStreamingResponse {
+    @Getter private final int responseCode;
+    @Getter private final StreamingOutput body;
+
+    /**
+     * Constructor.
+     *
+     * @param responseCode HTTP response code
+     * @param body writer of the response body
+     */
+    public ElideStreamingResponse(int responseCode, StreamingOutput body) {
+        this.responseCode = responseCode;
+        this.body = body;
+    }
+
+    /**
+     * Wrap a response whose body has already been built.
+     *
+     * @param response the response
+     * @return streaming response writing the same body
+     */
+    public static ElideStreamingResponse of(ElideResponse response) {
+        String body = response.getBody();
+        return new ElideStreamingResponse(response.getResponseCode(), out -> {
+            if (body != null) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
@@ -5,13 +5,18 @@
  */
 package com.yahoo.elide.core;
 
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.InMemoryFilterVisitor;
 import com.yahoo.elide.core.filter.Predicate;
 import com.yahoo.elide.security.User;
 
 import java.io.Closeable;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Wraps the Database Transaction type.
@@ -94,6 +99,89 @@ public interface DataStoreTransaction extends Closeable {
         return loadObjects(entityClass);
     }
 
+    /**
+     * Read a window of entity records from database table with applied criteria.
+     *
+     * @param <T>         the type parameter
+     * @param entityClass the entity class
+     * @param filterScope scope for filter processing
+     * @param pagination  the offset and limit of the window
+     * @return records iterable
+     */
+    default <T> Iterable<T> loadObjects(Class<T> entityClass, FilterScope<T> filterScope, Pagination pagination) {
+        // default to paginating in memory
+        return pagination.apply(loadObjects(entityClass, filterScope));
+    }
+
+    /**
+     * Read a sorted window of entity records from database table with applied criteria.
+     *
+     * @param <T>         the type parameter
+     * @param entityClass the entity class
+     * @param filterScope scope for filter processing
+     * @param sorting     the requested sort rules
+     * @param pagination  the offset and limit of the window
+     * @return records iterable
+     */
+    default <T> Iterable<T> loadObjects(Class<T> entityClass, FilterScope<T> filterScope, Sorting sorting,
+                                        Pagination pagination) {
+        if (sorting.isDefault() && !pagination.isKeyset()) {
+            return loadObjects(entityClass, filterScope, pagination);
+        }
+
+        // default to sorting in memory, which has to happen before paginating
+        EntityDictionary dictionary = filterScope.getRequestScope().getDictionary();
+        List<T> records = new ArrayList<>();
+        loadObjects(entityClass, filterScope).forEach(records::add);
+        if (pagination.isKeyset()) {
+            KeysetCursor after = pagination.getAfter();
+            records.removeIf(record -> !after.precedes(record, entityClass, sorting, dictionary));
+            records.sort(KeysetCursor.comparator(entityClass, sorting, dictionary));
+        } else {
+            records.sort(sorting.getComparator(entityClass, dictionary));
+        }
+        return pagination.apply(records);
+    }
+
+    /**
+     * Load a relationship of a batch of entities in a single query, so that reading the relationship of each
+     * entity afterwards does not go back to the database.
+     *
+     * @param <T>          the type parameter
+     * @param entityClass  the entity class
+     * @param entities     entities of entityClass previously loaded by this transaction
+     * @param relationName the relationship to load
+     */
+    default <T> void batchLoadRelation(Class<T> entityClass, Collection<T> entities, String relationName) {
+        // default to loading each relationship lazily
+    }
+
+    /**
+     * Whether the records loaded by this transaction may be read from several threads at once, so the resources of
+     * a collection can be built in parallel.  Records bound to a session which is not thread-safe, such as Hibernate
+     * entities whose lazy properties and collections load through their session, must be read by one thread.
+     *
+     * @return true if loaded records may be read concurrently
+     */
+    default boolean supportsConcurrentReads() {
+        return false;
+    }
+
+    /**
+     * Get the identifiers of the records in a relationship without loading the records themselves.
+     *
+     * @param <T>          the type parameter
+     * @param entityClass  the entity class
+     * @param entity       the entity owning the relationship
+     * @param relationName the relationship
+     * @param relation     the current, possibly lazy, value of the relationship
+     * @return the identifiers, or null if they are not available without loading the related records
+     */
+    default <T> Collection<Serializable> loadRelationIdentifiers(Class<T> entityClass, T entity,
+                                                                 String relationName, Object relation) {
+        return null;
+    }
+
     /**
      * Filter a collection by the Predicates in filterScope.
      *
@@ -106,4 +194,25 @@ public interface DataStoreTransaction extends Closeable {
     default <T> Collection filterCollection(Collection collection, Class<T> entityClass, Set<Predicate> predicates) {
         return collection;
     }
+
+    /**
+     * Filter a collection by a filter expression.
+     *
+     * @param <T>              the type parameter
+     * @param collection       the collection to filter
+     * @param entityClass      the class of the entities in the collection
+     * @param filterExpression the filter expression
+     * @param requestScope     the request scope
+     * @return the filtered collection
+     */
+    default <T> Collection filterCollection(Collection collection, Class<T> entityClass,
+                                            FilterExpression filterExpression, RequestScope requestScope) {
+        if (filterExpression == null) {
+            return collection;
+        }
+        // default to evaluating the expression against the loaded entities
+        java.util.function.Predicate<Object> test =
+                filterExpression.accept(new InMemoryFilterVisitor(requestScope.getDictionary()));
+        return (Collection) ((Collection<Object>) collection).stream().filter(test).collect(Collectors.toList());
+    }
 }
@@ -61,10 +61,14 @@ class EntityBinding {
     public final ConcurrentHashMap<String, Class<?>> fieldsToTypes;
     public final ConcurrentHashMap<String, String> aliasesToFields;
     public final ConcurrentHashMap<String, AccessibleObject> accessibleObject;
+    public final ConcurrentHashMap<String, FieldAccessor> accessors;
+    public final ConcurrentHashMap<Class<? extends Annotation>, PermissionPlan> permissions;
+    public final ConcurrentHashMap<Pair<Class, String>, PermissionPlan> fieldPermissions;
     public final MultiValueMap<Pair<Class, String>, Method> fieldsToTriggers;
     @Getter private AccessibleObject idField;
     @Getter private String idFieldName;
     @Getter private Class<?> idType;
+    @Getter private FieldAccessor idAccessor;
     @Getter @Setter private Initializer initializer;
 
     public static final EntityBinding EMPTY_BINDING = new EntityBinding();
@@ -85,6 +89,9 @@ class EntityBinding {
         fieldsToTriggers = new MultiValueMap();
         aliasesToFields = null;
         accessibleObject = null;
+        accessors = new ConcurrentHashMap<>();
+        permissions = new ConcurrentHashMap<>();
+        fieldPermissions = new ConcurrentHashMap<>();
     }
 
     public EntityBinding(Class<?> cls, String type) {
@@ -104,8 +111,13 @@ class EntityBinding {
         fieldsToTriggers = new MultiValueMap<>();
         aliasesToFields = new ConcurrentHashMap<>();
         accessibleObject = new ConcurrentHashMap<>();
+        accessors = new ConcurrentHashMap<>();
+        permissions = new ConcurrentHashMap<>();
+        fieldPermissions = new ConcurrentHashMap<>();
         bindEntityFields(cls, type, fieldOrMethodList);
         bindAccessibleObjects(cls, fieldOrMethodList);
+        bindAccessors(cls);
+        bindFieldPermissions();
 
         attrs = dequeToList(attrsDeque);
         relationships = dequeToList(relationshipsDeque);
@@ -156,6 +168,51 @@ class EntityBinding {
         }
     }
 
+    /**
+     * Compile the get/set accessors of every accessible field so reads and writes skip reflection.
+     *
+     * @param cls Class type to bind fields
+     */
+    private void bindAccessors(Class<?> cls) {
+        accessibleObject.forEach((fieldName, fieldOrMethod) ->
+                accessors.put(fieldName, FieldAccessor.compile(cls, fieldName, fieldOrMethod)));
+        if (idField != null) {
+            idAccessor = FieldAccessor.compile(cls, idFieldName, idField);
+        }
+    }
+
+    /**
+     * Plan the permission annotations of every attribute and relationship.
+     */
+    private void bindFieldPermissions() {
+        fieldsToValues.forEach((fieldName, fieldOrMethod) -> {
+            for (Class<? extends Annotation> annotationClass : PermissionPlan.PERMISSIONS) {
+                PermissionPlan plan = planPermission(annotationClass, fieldOrMethod.getAnnotation(annotationClass));
+                if (plan != null) {
+                    fieldPermissions.put(Pair.of(annotationClass, fieldName), plan);
+                }
+            }
+        });
+    }
+
+    /**
+     * Plan the entity level permission annotations.
+     *
+     * @param annotationClass the permission annotation class
+     * @param annotation the annotation resolved from the entity class, its parents or packages
+     */
+    void bindPermission(Class<? extends Annotation> annotationClass, Annotation annotation) {
+        PermissionPlan plan = planPermission(annotationClass, annotation);
+        if (plan != null) {
+            permissions.put(annotationClass, plan);
+        }
+    }
+
+    private static <A extends Annotation> PermissionPlan planPermission(Class<A> annotationClass,
+                                                                        Annotation annotation) {
+        return PermissionPlan.of(annotationClass, annotationClass.cast(annotation));
+    }
+
     /**
      * Bind an id field to an entity.
      *
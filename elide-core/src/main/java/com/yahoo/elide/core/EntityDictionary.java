@@ -8,10 +8,16 @@ package com.yahoo.elide.core;
 import com.yahoo.elide.annotation.ComputedAttribute;
 import com.yahoo.elide.annotation.Exclude;
 import com.yahoo.elide.annotation.Include;
+import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.SharePermission;
 import com.yahoo.elide.core.exceptions.DuplicateMappingException;
+import com.yahoo.elide.core.exceptions.InvalidAttributeException;
+import com.yahoo.elide.core.filter.FilterCompiler;
+import com.yahoo.elide.security.FilterExpressionCheck;
+import com.yahoo.elide.utils.coerce.CoerceUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.text.WordUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AccessibleObject;
@@ -45,6 +51,8 @@ public class EntityDictionary {
     protected final ConcurrentHashMap<String, Class<?>> bindJsonApiToEntity = new ConcurrentHashMap<>();
     protected final ConcurrentHashMap<Class<?>, EntityBinding> entityBindings = new ConcurrentHashMap<>();
     protected final CopyOnWriteArrayList<Class<?>>  bindEntityRoots = new CopyOnWriteArrayList<>();
+    private final FilterCompiler filterCompiler = new FilterCompiler(this);
+    private volatile boolean securityFilters = false;
 
     /**
      * Instantiates a new Entity dictionary.
@@ -53,11 +61,37 @@ public class EntityDictionary {
         // Do nothing
     }
 
+    /**
+     * Get the compiler of filter query parameters, which keeps filter keys resolved against this dictionary.
+     *
+     * @return the filter compiler
+     */
+    public FilterCompiler getFilterCompiler() {
+        return filterCompiler;
+    }
+
     protected EntityBinding entityBinding(Class<?> entityClass) {
         EntityBinding entityBinding = entityBindings.get(lookupEntityClass(entityClass));
         return entityBinding == null ? EntityBinding.EMPTY_BINDING : entityBinding;
     }
 
+    /**
+     * Find the binding of a class, resolving proxies and subclasses to their entity class as
+     * {@link #lookupEntityClass(Class)} does.
+     *
+     * @param cls the class
+     * @return the binding, or null if the class is not a bound entity
+     */
+    private EntityBinding findEntityBinding(Class<?> cls) {
+        EntityBinding binding = entityBindings.get(cls);
+        for (Class<?> type = cls; binding == null && type != null; type = type.getSuperclass()) {
+            if (type.isAnnotationPresent(Entity.class)) {
+                return entityBindings.get(type);
+            }
+        }
+        return binding;
+    }
+
     /**
      * Returns the binding class for a given entity name.
      *
@@ -344,6 +378,16 @@ public class EntityDictionary {
         entityBinding(cls).setInitializer(initializer);
     }
 
+    /**
+     * Returns whether the read permission of a bound entity has a {@link FilterExpressionCheck}, whose filter
+     * may be pushed down to the datastore whenever a relationship is read.
+     *
+     * @return true if any entity is read through a security filter
+     */
+    public boolean hasSecurityFilters() {
+        return securityFilters;
+    }
+
     /**
      * Returns whether or not an entity is shareable.
      *
@@ -351,9 +395,7 @@ public class EntityDictionary {
      * @return true if entityClass is shareable.  False otherwise.
      */
     public boolean isShareable(Class<?> entityClass) {
-        SharePermission share = (SharePermission) getFirstAnnotation(entityClass,
-                Collections.singletonList(SharePermission.class));
-        return share != null;
+        return getPermissionPlan(entityClass, SharePermission.class) != null;
     }
 
     /**
@@ -385,7 +427,17 @@ public class EntityDictionary {
             throw new DuplicateMappingException(type + " " + cls.getName() + ":" + duplicate.getName());
         }
 
-        entityBindings.putIfAbsent(lookupEntityClass(cls), new EntityBinding(cls, type));
+        Class<?> entityClass = lookupEntityClass(cls);
+        EntityBinding binding = new EntityBinding(cls, type);
+        for (Class<? extends Annotation> permission : PermissionPlan.PERMISSIONS) {
+            binding.bindPermission(permission, getAnnotation(entityClass, permission));
+        }
+        PermissionPlan readPlan = binding.permissions.get(ReadPermission.class);
+        if (readPlan != null
+                && readPlan.getCheckClasses().stream().anyMatch(FilterExpressionCheck.class::isAssignableFrom)) {
+            securityFilters = true;
+        }
+        entityBindings.putIfAbsent(entityClass, binding);
         if (include.rootLevel()) {
             bindEntityRoots.add(cls);
         }
@@ -423,6 +475,41 @@ public class EntityDictionary {
         return annotation;
     }
 
+    /**
+     * Return the plan for a permission annotation on an entity class, its parents or package.
+     *
+     * @param entityClass the entity class
+     * @param annotationClass the permission annotation class
+     * @param <A> genericClass
+     * @return the plan or null if the entity has no such permission
+     */
+    public <A extends Annotation> PermissionPlan getPermissionPlan(Class<?> entityClass, Class<A> annotationClass) {
+        EntityBinding binding = findEntityBinding(entityClass);
+        if (binding == null || !PermissionPlan.PERMISSIONS.contains(annotationClass)) {
+            return PermissionPlan.of(annotationClass, getAnnotation(entityClass, annotationClass));
+        }
+        return binding.permissions.get(annotationClass);
+    }
+
+    /**
+     * Return the plan for a permission annotation on an attribute or relationship.
+     *
+     * @param entityClass the entity class
+     * @param annotationClass the permission annotation class
+     * @param fieldName the attribute or relationship
+     * @param <A> genericClass
+     * @return the plan or null if the field has no such permission
+     */
+    public <A extends Annotation> PermissionPlan getPermissionPlan(Class<?> entityClass,
+                                                                   Class<A> annotationClass,
+                                                                   String fieldName) {
+        if (!PermissionPlan.PERMISSIONS.contains(annotationClass)) {
+            return PermissionPlan.of(annotationClass,
+                    getAttributeOrRelationAnnotation(entityClass, annotationClass, fieldName));
+        }
+        return entityBinding(entityClass).fieldPermissions.get(Pair.of(annotationClass, fieldName));
+    }
+
     public <A extends Annotation> Collection<Method> getTriggers(Class<?> cls,
             Class<A> annotationClass,
             String fieldName) {
@@ -524,22 +611,43 @@ public class EntityDictionary {
             return null;
         }
         try {
-            AccessibleObject idField = null;
-            for (Class<?> cls = value.getClass(); idField == null && cls != null; cls = cls.getSuperclass()) {
-                idField = entityBinding(cls).getIdField();
-            }
-            if (idField instanceof Field) {
-                return String.valueOf(((Field) idField).get(value));
+            FieldAccessor idAccessor = getIdAccessor(value.getClass());
+            if (idAccessor == null) {
+                return null;
             }
-            if (idField instanceof Method) {
-                return String.valueOf(((Method) idField).invoke(value, (Object[]) null));
-            }
-            return null;
-        } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
+            return String.valueOf(idAccessor.get(value));
+        } catch (IllegalArgumentException | InvocationTargetException e) {
             return null;
         }
     }
 
+    /**
+     * Sets id.
+     *
+     * @param value the value
+     * @param id the id, coerced to the id type
+     * @throws InvalidAttributeException if the entity has no writable id
+     */
+    public void setId(Object value, String id) {
+        FieldAccessor idAccessor = getIdAccessor(value.getClass());
+        if (idAccessor == null) {
+            throw new InvalidAttributeException("id", getBinding(value.getClass()));
+        }
+        try {
+            idAccessor.set(value, CoerceUtil.coerce(id, idAccessor.getType()));
+        } catch (NoSuchMethodException | InvocationTargetException e) {
+            throw new InvalidAttributeException(idAccessor.getName(), getBinding(value.getClass()));
+        }
+    }
+
+    private FieldAccessor getIdAccessor(Class<?> objClass) {
+        FieldAccessor idAccessor = null;
+        for (Class<?> cls = objClass; idAccessor == null && cls != null; cls = cls.getSuperclass()) {
+            idAccessor = entityBinding(cls).getIdAccessor();
+        }
+        return idAccessor;
+    }
+
     /**
      * Returns type of id field.
      *
@@ -626,4 +734,16 @@ public class EntityDictionary {
         ConcurrentHashMap<String, AccessibleObject> map = entityBinding(targetClass).accessibleObject;
         return map.get(fieldName);
     }
+
+    /**
+     * Retrieve the compiled accessor for a field of a target object.
+     *
+     * @param target the object to get or set
+     * @param fieldName the field name
+     * @return the accessor, or null if the field is unknown
+     */
+    FieldAccessor getAccessor(Object target, String fieldName) {
+        Class<?> targetClass = lookupEntityClass(target.getClass());
+        return entityBinding(targetClass).accessors.get(fieldName);
+    }
 }
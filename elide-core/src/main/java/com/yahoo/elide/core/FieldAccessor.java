@@ -0,0 +1,259 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.google.common.primitives.Primitives;
+import lombok.Getter;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Get/set access to one field of an entity, compiled once when the entity is bound.
+ *
+ * Public getter and setter methods are linked through LambdaMetafactory so the JIT can inline them like a direct
+ * call.  Fields, static members and classes not visible to Elide's class loader go through method handles.
+ */
+class FieldAccessor {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Compiled getter.
+     */
+    @FunctionalInterface
+    interface ValueGetter {
+        Object get(Object target) throws Throwable;
+    }
+
+    /**
+     * Compiled setter.
+     */
+    @FunctionalInterface
+    interface ValueSetter {
+        void set(Object target, Object value) throws Throwable;
+    }
+
+    @Getter private final String name;
+    @Getter private final Class<?> type;
+    private final ValueGetter getter;
+    private final ValueSetter setter;
+
+    private FieldAccessor(String name, Class<?> type, ValueGetter getter, ValueSetter setter) {
+        this.name = name;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Read the field.
+     *
+     * @param target the entity
+     * @return the value
+     * @throws InvocationTargetException if the getter throws
+     */
+    public Object get(Object target) throws InvocationTargetException {
+        try {
+            return getter.get(target);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Whether the field has a setter or is a writable public field.
+     *
+     * @return true if {@link #set} is supported
+     */
+    public boolean isWritable() {
+        return setter != null;
+    }
+
+    /**
+     * Write the field.
+     *
+     * @param target the entity
+     * @param value the value, already coerced to {@link #getType()}
+     * @throws NoSuchMethodException if the field is not writable
+     * @throws InvocationTargetException if the setter throws or the value has the wrong type
+     */
+    public void set(Object target, Object value) throws NoSuchMethodException, InvocationTargetException {
+        if (setter == null) {
+            throw new NoSuchMethodException("set" + name);
+        }
+        try {
+            setter.set(target, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Compile the accessor for a bound field or getter.
+     *
+     * @param cls the entity class
+     * @param name the field name
+     * @param fieldOrMethod the public field or getter method
+     * @return the accessor
+     */
+    static FieldAccessor compile(Class<?> cls, String name, AccessibleObject fieldOrMethod) {
+        if (fieldOrMethod instanceof Field) {
+            Field field = (Field) fieldOrMethod;
+            ValueSetter setter = Modifier.isFinal(field.getModifiers()) ? null : fieldSetter(field);
+            return new FieldAccessor(name, field.getType(), fieldGetter(field), setter);
+        }
+
+        Method method = (Method) fieldOrMethod;
+        Class<?> type = method.getReturnType();
+        return new FieldAccessor(name, type, methodGetter(method), findSetter(cls, name, type));
+    }
+
+    /**
+     * Setter method named after the field, otherwise a writable public field of that name.
+     */
+    private static ValueSetter findSetter(Class<?> cls, String name, Class<?> type) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        try {
+            return methodSetter(EntityDictionary.findMethod(cls, "set" + capitalized, type));
+        } catch (NoSuchMethodException e) {
+            // fall through to field
+        }
+        try {
+            Field field = cls.getField(name);
+            return Modifier.isFinal(field.getModifiers()) ? null : fieldSetter(field);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static ValueGetter methodGetter(Method method) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            return target -> {
+                throw e;
+            };
+        }
+        if (isLinkable(method, method.getReturnType())) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                        MethodType.methodType(ValueGetter.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(Object.class, method.getDeclaringClass()));
+                return (ValueGetter) site.getTarget().invoke();
+            } catch (Throwable e) {
+                // fall back to the method handle
+            }
+        }
+        MethodHandle getter = Modifier.isStatic(method.getModifiers())
+                ? MethodHandles.dropArguments(handle, 0, Object.class)
+                : handle;
+        MethodHandle generic = getter.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> (Object) generic.invokeExact(target);
+    }
+
+    private static ValueSetter methodSetter(Method method) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            return (target, value) -> {
+                throw e;
+            };
+        }
+        Class<?> parameterType = method.getParameterTypes()[0];
+        if (isLinkable(method, parameterType) && isVisible(method.getReturnType())) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "set",
+                        MethodType.methodType(ValueSetter.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass(),
+                                Primitives.wrap(parameterType)));
+                return (ValueSetter) site.getTarget().invoke();
+            } catch (Throwable e) {
+                // fall back to the method handle
+            }
+        }
+        MethodHandle setter = Modifier.isStatic(method.getModifiers())
+                ? MethodHandles.dropArguments(handle, 0, Object.class)
+                : handle;
+        MethodHandle generic = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        // a statement, so the call site is typed (Object,Object)void
+        return (target, value) -> {
+            generic.invokeExact(target, value);
+        };
+    }
+
+    private static ValueGetter fieldGetter(Field field) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            return target -> {
+                throw e;
+            };
+        }
+        if (Modifier.isStatic(field.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> (Object) generic.invokeExact(target);
+    }
+
+    private static ValueSetter fieldSetter(Field field) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            return (target, value) -> {
+                throw e;
+            };
+        }
+        if (Modifier.isStatic(field.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (target, value) -> {
+            generic.invokeExact(target, value);
+        };
+    }
+
+    /**
+     * The generated lambda class lives in Elide's class loader and links to the member directly, so the member
+     * must be a public instance method whose types that loader resolves to the same classes.
+     */
+    private static boolean isLinkable(Method method, Class<?> valueType) {
+        return !Modifier.isStatic(method.getModifiers())
+                && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                && isVisible(method.getDeclaringClass())
+                && isVisible(valueType);
+    }
+
+    private static boolean isVisible(Class<?> cls) {
+        if (cls.isPrimitive()) {
+            return true;
+        }
+        if (cls.isArray()) {
+            return isVisible(cls.getComponentType());
+        }
+        try {
+            return Class.forName(cls.getName(), false, FieldAccessor.class.getClassLoader()) == cls;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -5,7 +5,11 @@
  */
 package com.yahoo.elide.core;
 
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.OrFilterExpression;
 import com.yahoo.elide.security.Check;
+import com.yahoo.elide.security.FilterExpressionCheck;
 import com.yahoo.elide.security.UserCheck.UserPermission;
 import lombok.Getter;
 
@@ -27,6 +31,8 @@ public class FilterScope<T> {
     @Getter private final boolean isAny;
     @Getter private final List<Check<T>> checks;
     private UserPermission filterUserPermission = null;
+    private FilterExpression securityFilterExpression = null;
+    private boolean securityFilterExpressionBuilt = false;
 
     public FilterScope(RequestScope requestScope) {
         this.requestScope = requestScope;
@@ -49,13 +55,19 @@ public class FilterScope<T> {
         this.checks = checks;
     }
 
+    public FilterScope(RequestScope requestScope, PermissionPlan plan) {
+        this.requestScope = requestScope;
+        this.isAny = plan.isAny();
+        this.checks = (List) plan.getChecks();
+    }
+
     /**
      * Returns true if filters are applied to this query.
      *
      * @return true if there are filters
      */
     public boolean hasPredicates() {
-        return !requestScope.getPredicates().isEmpty();
+        return !requestScope.getCompiledFilter().isEmpty();
     }
 
     /**
@@ -97,4 +109,61 @@ public class FilterScope<T> {
         }
         return this.filterUserPermission = compositeUserPermission;
     }
+
+    /**
+     * Get the filter equivalent to the checks of this scope, for data stores to apply while loading records.
+     *
+     * User checks are resolved for the current user, every other check must be a {@link FilterExpressionCheck}.
+     * Records are still checked one at a time after loading, so a store may ignore the filter.  Pages are then
+     * paginated by the store, though, so a store ignoring it returns pages short of the records the checks deny.
+     *
+     * @return the filter, or null if the checks do not restrict records or cannot be expressed as a filter
+     */
+    public FilterExpression getSecurityFilterExpression() {
+        if (!securityFilterExpressionBuilt) {
+            securityFilterExpression = requestScope.getSecurityMode() == SecurityMode.SECURITY_INACTIVE
+                    ? null
+                    : buildSecurityFilterExpression();
+            securityFilterExpressionBuilt = true;
+        }
+        return securityFilterExpression;
+    }
+
+    private FilterExpression buildSecurityFilterExpression() {
+        FilterExpression compositeExpression = null;
+        for (Check<T> check : checks) {
+            FilterExpression expression = check instanceof FilterExpressionCheck
+                    ? FilterExpressionCheck.filterExpressionOf((FilterExpressionCheck<T>) check, requestScope.getUser())
+                    : null;
+
+            // if no filter, examine userPermission and ANY state
+            if (expression == null) {
+                switch (requestScope.getUser().checkUserPermission(check)) {
+                    // ALLOW and ALL try more filters
+                    case ALLOW:
+                        if (!isAny) {
+                            continue;
+                        }
+                        break;
+
+                    // DENY and ANY try more filters
+                    case DENY:
+                        if (isAny) {
+                            continue;
+                        }
+                        break;
+                }
+
+                // Otherwise no filtering possible
+                return null;
+            } else if (compositeExpression == null) {
+                compositeExpression = expression;
+            } else if (isAny) {
+                compositeExpression = new OrFilterExpression(compositeExpression, expression);
+            } else {
+                compositeExpression = new AndFilterExpression(compositeExpression, expression);
+            }
+        }
+        return compositeExpression;
+    }
 }
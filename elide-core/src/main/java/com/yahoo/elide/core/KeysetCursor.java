@@ -0,0 +1,234 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+import com.yahoo.elide.utils.coerce.CoerceUtil;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Ordering;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque page[after] token for keyset pagination.
+ *
+ * The token holds the sort key values followed by the id of the last record of the previous page.  The next page
+ * is every record ordered after that key, so its cost does not depend on how deep into the collection it is.
+ * Records are ordered by the valid sort rules, nulls before any value, with the id as the final ascending
+ * tie-breaker.  The token also holds the sort it was issued for and cannot be used with another sort.
+ */
+@ToString
+@EqualsAndHashCode
+public class KeysetCursor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> TOKEN_TYPE = new TypeReference<Map<String, Object>>() { };
+    private static final String SORT_KEY = "sort";
+    private static final String VALUES_KEY = "keys";
+
+    /**
+     * Cursor for the first page.
+     */
+    public static final KeysetCursor FIRST = new KeysetCursor(null, Collections.emptyList());
+
+    private final String sort;
+    private final List<Object> values;
+
+    private KeysetCursor(String sort, List<Object> values) {
+        this.sort = sort;
+        this.values = values;
+    }
+
+    /**
+     * Whether this cursor starts at the beginning of the collection.
+     *
+     * @return true if there is no previous page
+     */
+    public boolean isFirst() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Encode this cursor as a page[after] token.
+     *
+     * @return url safe token
+     */
+    public String encode() {
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put(SORT_KEY, sort);
+        token.put(VALUES_KEY, values);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(token));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Decode a page[after] token.  An empty token starts at the beginning of the collection.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws InvalidValueException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            Map<String, Object> fields = MAPPER.readValue(Base64.getUrlDecoder().decode(token), TOKEN_TYPE);
+            @SuppressWarnings("unchecked")
+            List<Object> values = (List<Object>) fields.get(VALUES_KEY);
+            String sort = (String) fields.get(SORT_KEY);
+            if (values == null || values.isEmpty() || sort == null) {
+                throw new InvalidValueException(Pagination.PAGE_AFTER + "=" + token);
+            }
+            return new KeysetCursor(sort, values);
+        } catch (IOException | IllegalArgumentException | ClassCastException e) {
+            throw new InvalidValueException(Pagination.PAGE_AFTER + "=" + token, e);
+        }
+    }
+
+    /**
+     * Build the cursor positioned at a record.
+     *
+     * @param <T> entity type
+     * @param record the last record of a page
+     * @param entityClass the entity class
+     * @param sorting the request sort rules
+     * @param dictionary the entity dictionary
+     * @return the cursor
+     */
+    public static <T> KeysetCursor of(T record, Class<T> entityClass, Sorting sorting, EntityDictionary dictionary) {
+        return new KeysetCursor(sortOf(sorting), keysOf(record, entityClass, sorting, dictionary));
+    }
+
+    /**
+     * Get the key values of this cursor coerced to the entity field types.
+     *
+     * @param entityClass the entity class
+     * @param sorting the request sort rules
+     * @param dictionary the entity dictionary
+     * @return sort key values followed by the id
+     * @throws InvalidValueException if the cursor was issued for different sort rules
+     */
+    public List<Object> getKeys(Class<?> entityClass, Sorting sorting, EntityDictionary dictionary) {
+        List<String> fields = keyFields(entityClass, sorting, dictionary);
+        if (!sortOf(sorting).equals(sort) || fields.size() != values.size()) {
+            throw new InvalidValueException(Pagination.PAGE_AFTER + "=" + encode() + " (issued for "
+                    + Sorting.SORT_PARAM + "=" + sort + ")");
+        }
+        List<Object> keys = new ArrayList<>(values.size());
+        for (int i = 0; i < fields.size(); i++) {
+            keys.add(CoerceUtil.coerce(values.get(i), dictionary.getType(entityClass, fields.get(i))));
+        }
+        return keys;
+    }
+
+    /**
+     * Whether a record is ordered after this cursor.
+     *
+     * @param <T> entity type
+     * @param record the record
+     * @param entityClass the entity class
+     * @param sorting the request sort rules
+     * @param dictionary the entity dictionary
+     * @return true if the record belongs to a following page
+     */
+    public <T> boolean precedes(T record, Class<T> entityClass, Sorting sorting, EntityDictionary dictionary) {
+        if (isFirst()) {
+            return true;
+        }
+        List<Ordering<Object>> orderings = keyOrderings(entityClass, sorting, dictionary);
+        return compareKeys(orderings, getKeys(entityClass, sorting, dictionary),
+                keysOf(record, entityClass, sorting, dictionary)) < 0;
+    }
+
+    /**
+     * Build the comparator for the keyset order of an entity.
+     *
+     * @param <T> entity type
+     * @param entityClass the entity class
+     * @param sorting the request sort rules
+     * @param dictionary the entity dictionary
+     * @return comparator over the sort keys and id
+     */
+    public static <T> Comparator<T> comparator(Class<T> entityClass, Sorting sorting, EntityDictionary dictionary) {
+        List<Ordering<Object>> orderings = keyOrderings(entityClass, sorting, dictionary);
+        return (a, b) -> compareKeys(orderings,
+                keysOf(a, entityClass, sorting, dictionary), keysOf(b, entityClass, sorting, dictionary));
+    }
+
+    /**
+     * Get the names of the key fields of an entity in keyset order.
+     *
+     * @param entityClass the entity class
+     * @param sorting the request sort rules
+     * @param dictionary the entity dictionary
+     * @return valid sort fields followed by the id field
+     */
+    public static List<String> keyFields(Class<?> entityClass, Sorting sorting, EntityDictionary dictionary) {
+        List<String> fields = new ArrayList<>(sorting.getValidSortingRules(entityClass, dictionary).keySet());
+        fields.add(dictionary.getIdFieldName(entityClass));
+        return fields;
+    }
+
+    /**
+     * Get the sort rules a cursor is bound to, in query param form.
+     *
+     * @param sorting the request sort rules
+     * @return the sort rules, e.g. title,-created
+     */
+    private static String sortOf(Sorting sorting) {
+        return sorting.getSortRules().entrySet().stream()
+                .map(rule -> rule.getValue() == Sorting.SortOrder.DESC
+                        ? Sorting.DESCENDING_TOKEN + rule.getKey()
+                        : rule.getKey())
+                .collect(Collectors.joining(","));
+    }
+
+    private static <T> List<Object> keysOf(T record, Class<T> entityClass, Sorting sorting,
+                                           EntityDictionary dictionary) {
+        List<Object> keys = new ArrayList<>();
+        for (String field : keyFields(entityClass, sorting, dictionary)) {
+            keys.add(PersistentResource.getValue(record, field, dictionary));
+        }
+        return keys;
+    }
+
+    private static List<Ordering<Object>> keyOrderings(Class<?> entityClass, Sorting sorting,
+                                                       EntityDictionary dictionary) {
+        List<Ordering<Object>> orderings = new ArrayList<>();
+        for (Map.Entry<String, Sorting.SortOrder> rule
+                : sorting.getValidSortingRules(entityClass, dictionary).entrySet()) {
+            Ordering<Object> ordering = Ordering.from(Sorting::compareObjects).nullsFirst();
+            orderings.add(rule.getValue() == Sorting.SortOrder.DESC ? ordering.reverse() : ordering);
+        }
+        orderings.add(Ordering.from(Sorting::compareObjects).nullsFirst());
+        return orderings;
+    }
+
+    private static int compareKeys(List<Ordering<Object>> orderings, List<Object> a, List<Object> b) {
+        for (int i = 0; i < orderings.size(); i++) {
+            int result = orderings.get(i).compare(a.get(i), b.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+}
@@ -5,26 +5,32 @@
  */
 package com.yahoo.elide.core;
 
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Cache to store object entity.
+ * Identity map of the entities a request has created or loaded, by type and id.
+ *
+ * Entities created under a client-generated id are also mapped back to that id.  The reverse map compares
+ * entities by identity, so it never calls entity equals or hashCode, which may load lazy state.
+ * Both maps are safe to use from the threads a collection is serialized on.
  */
 public class ObjectEntityCache {
-    private final Map<String, Object> resourceCache;
+    private final Map<String, Map<String, Object>> resourceCache;
     private final Map<Object, String> uuidReverseMap;
 
     /**
      * Constructor.
      */
     public ObjectEntityCache() {
-        resourceCache = new LinkedHashMap<>();
-        uuidReverseMap = new LinkedHashMap<>();
+        resourceCache = new ConcurrentHashMap<>();
+        uuidReverseMap = Collections.synchronizedMap(new IdentityHashMap<>());
     }
 
     /**
-     * Add a resource to cache.
+     * Add a resource created under a client-generated id to cache.  Resources created without one are not cached.
      *
      * @param type the type
      * @param id the id
@@ -32,8 +38,26 @@ public class ObjectEntityCache {
      * @return the object
      */
     public Object put(String type, String id, Object entity) {
+        if (id == null) {
+            return null;
+        }
         uuidReverseMap.put(entity, id);
-        return resourceCache.put(getCacheKey(type, id), entity);
+        return resourceCache.computeIfAbsent(type, key -> new ConcurrentHashMap<>()).put(id, entity);
+    }
+
+    /**
+     * Add a loaded resource to cache, unless an entity is already cached for its type and id.
+     *
+     * @param type the type
+     * @param id the id
+     * @param entity the entity
+     * @return the entity already cached, or null
+     */
+    public Object putIfAbsent(String type, String id, Object entity) {
+        if (id == null) {
+            return null;
+        }
+        return resourceCache.computeIfAbsent(type, key -> new ConcurrentHashMap<>()).putIfAbsent(id, entity);
     }
 
     /**
@@ -44,27 +68,41 @@ public class ObjectEntityCache {
      * @return object
      */
     public Object get(String type, String id) {
-        return resourceCache.get(getCacheKey(type, id));
+        Map<String, Object> entities = resourceCache.get(type);
+        return entities == null || id == null ? null : entities.get(id);
     }
 
     /**
-     * Get a UUID for an entity object.
+     * Remove a resource from cache, under its id and any client-generated id.
      *
-     * @param obj the obj
-     * @return uUID
+     * @param type the type
+     * @param id the id
+     * @param entity the entity
      */
-    public String getUUID(Object obj) {
-        return uuidReverseMap.get(obj);
+    public void remove(String type, String id, Object entity) {
+        Map<String, Object> entities = resourceCache.get(type);
+        String uuid = uuidReverseMap.remove(entity);
+        if (entities != null) {
+            removeIfSame(entities, id, entity);
+            if (uuid != null) {
+                removeIfSame(entities, uuid, entity);
+            }
+        }
+    }
+
+    private static void removeIfSame(Map<String, Object> entities, String id, Object entity) {
+        if (id != null && entities.get(id) == entity) {
+            entities.remove(id);
+        }
     }
 
     /**
-     * Get key for resource cache.
+     * Get a UUID for an entity object.
      *
-     * @param type the type
-     * @param id the id
-     * @return key
+     * @param obj the obj
+     * @return uUID
      */
-    private static String getCacheKey(String type, String id) {
-        return type + "_" + id;
+    public String getUUID(Object obj) {
+        return uuidReverseMap.get(obj);
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+
+import com.google.common.collect.Iterables;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Offset/limit window applied to a collection load.
+ *
+ * Parsed from either the page[offset]/page[limit] or the page[number]/page[size] query parameters, or from
+ * page[after]/page[limit] for keyset pagination (see {@link KeysetCursor}).
+ */
+@ToString
+@EqualsAndHashCode
+public class Pagination {
+    public static final String PAGE_OFFSET = "page[offset]";
+    public static final String PAGE_LIMIT = "page[limit]";
+    public static final String PAGE_NUMBER = "page[number]";
+    public static final String PAGE_SIZE = "page[size]";
+    public static final String PAGE_AFTER = "page[after]";
+
+    /**
+     * Page size cap used when none is configured.
+     */
+    public static final int DEFAULT_MAX_PAGE_SIZE = 10000;
+
+    /**
+     * Unbounded window.
+     */
+    public static final Pagination NONE = new Pagination(0, Integer.MAX_VALUE);
+
+    @Getter private final int offset;
+    @Getter private final int limit;
+    @Getter private final KeysetCursor after;
+
+    public Pagination(int offset, int limit) {
+        this.offset = offset;
+        this.limit = limit;
+        this.after = null;
+    }
+
+    public Pagination(KeysetCursor after, int limit) {
+        this.offset = 0;
+        this.limit = limit;
+        this.after = after;
+    }
+
+    /**
+     * Get the window of a collection load without page parameters: the first page of maxPageSize records.
+     * Collections are only loaded uncapped when maxPageSize is configured as Integer.MAX_VALUE.
+     *
+     * @param maxPageSize the largest page a client may request
+     * @return the default window
+     */
+    public static Pagination getDefault(int maxPageSize) {
+        return maxPageSize == NONE.limit ? NONE : new Pagination(0, maxPageSize);
+    }
+
+    /**
+     * Whether this window is positioned by a keyset cursor rather than an offset.
+     *
+     * @return true if page[after] was requested
+     */
+    public boolean isKeyset() {
+        return after != null;
+    }
+
+    /**
+     * Whether this window restricts the number of records returned.
+     *
+     * @return true if a limit is set
+     */
+    public boolean isLimited() {
+        return limit != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Apply this window to records that were loaded without it.
+     *
+     * @param <T> record type
+     * @param records the unpaginated records
+     * @return the records inside the window
+     */
+    public <T> Iterable<T> apply(Iterable<T> records) {
+        Iterable<T> result = offset > 0 ? Iterables.skip(records, offset) : records;
+        return isLimited() ? Iterables.limit(result, limit) : result;
+    }
+
+    /**
+     * Parse the page query parameters.  maxPageSize caps requested pages and is the page size of requests without
+     * page parameters.
+     *
+     * @param queryParams the request query parameters
+     * @param maxPageSize the largest page a client may request
+     * @return the requested window, or the {@link #getDefault(int) default} window without page parameters
+     * @throws InvalidValueException if the parameters are malformed or exceed maxPageSize
+     */
+    public static Pagination parseQueryParams(MultivaluedMap<String, String> queryParams, int maxPageSize) {
+        Integer offset = getInteger(queryParams, PAGE_OFFSET);
+        Integer limit = getInteger(queryParams, PAGE_LIMIT);
+        Integer number = getInteger(queryParams, PAGE_NUMBER);
+        Integer size = getInteger(queryParams, PAGE_SIZE);
+        List<String> after = queryParams.get(PAGE_AFTER);
+
+        if (offset == null && limit == null && number == null && size == null && (after == null || after.isEmpty())) {
+            return getDefault(maxPageSize);
+        }
+
+        if (after != null && !after.isEmpty()) {
+            if (offset != null || number != null || size != null) {
+                throw new InvalidValueException(PAGE_AFTER + " can only be combined with " + PAGE_LIMIT);
+            }
+            return new Pagination(KeysetCursor.decode(after.get(0)),
+                    checkLimit(PAGE_LIMIT, limit == null ? maxPageSize : limit, maxPageSize));
+        }
+
+        if ((offset != null || limit != null) && (number != null || size != null)) {
+            throw new InvalidValueException(PAGE_NUMBER + "/" + PAGE_SIZE
+                    + " cannot be combined with " + PAGE_OFFSET + "/" + PAGE_LIMIT);
+        }
+
+        if (number != null || size != null) {
+            int pageSize = checkLimit(PAGE_SIZE, size == null ? maxPageSize : size, maxPageSize);
+            int pageNumber = number == null ? 1 : number;
+            if (pageNumber < 1) {
+                throw new InvalidValueException(PAGE_NUMBER + "=" + pageNumber);
+            }
+            long firstResult = (long) (pageNumber - 1) * pageSize;
+            if (firstResult > Integer.MAX_VALUE) {
+                throw new InvalidValueException(PAGE_NUMBER + "=" + pageNumber);
+            }
+            return new Pagination((int) firstResult, pageSize);
+        }
+
+        if (offset != null && offset < 0) {
+            throw new InvalidValueException(PAGE_OFFSET + "=" + offset);
+        }
+        return new Pagination(offset == null ? 0 : offset,
+                checkLimit(PAGE_LIMIT, limit == null ? maxPageSize : limit, maxPageSize));
+    }
+
+    private static int checkLimit(String param, int limit, int maxPageSize) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidValueException(param + "=" + limit + " (must be between 1 and " + maxPageSize + ")");
+        }
+        return limit;
+    }
+
+    private static Integer getInteger(MultivaluedMap<String, String> queryParams, String param) {
+        List<String> values = queryParams.get(param);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        String value = values.get(0);
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidValueException(param + "=" + value, e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Supplier;
+
+/**
+ * Outcome of evaluating a permission, ALLOW or DENY with a reason.
+ *
+ * Decisions let the read path skip denied resources and fields without creating exceptions.  The reason of a
+ * denial is only formatted when an exception reports it, in verbose security mode or with debug logging.
+ */
+@Slf4j
+final class PermissionDecision {
+    static final PermissionDecision ALLOW = new PermissionDecision(null);
+
+    private final Supplier<String> reason;
+
+    private PermissionDecision(Supplier<String> reason) {
+        this.reason = reason;
+    }
+
+    /**
+     * Deny with a reason.
+     *
+     * @param reason supplies the message of the denial
+     * @return the decision
+     */
+    static PermissionDecision deny(Supplier<String> reason) {
+        return new PermissionDecision(reason);
+    }
+
+    boolean isAllowed() {
+        return reason == null;
+    }
+
+    /**
+     * Get the reason of a denial.
+     *
+     * @return the message, or null if allowed
+     */
+    String getReason() {
+        return reason == null ? null : reason.get();
+    }
+
+    /**
+     * Build the exception reporting a denial at the request boundary.
+     *
+     * @param requestScope the request scope
+     * @return the exception
+     */
+    ForbiddenAccessException toException(RequestScope requestScope) {
+        String message = null;
+        if (requestScope.getSecurityMode() == SecurityMode.SECURITY_ACTIVE_VERBOSE || log.isDebugEnabled()) {
+            message = getReason();
+            log.debug(message);
+        }
+        return new ForbiddenAccessException(message);
+    }
+
+    /**
+     * Throw if denied.
+     *
+     * @param requestScope the request scope
+     * @throws ForbiddenAccessException if denied
+     */
+    void check(RequestScope requestScope) {
+        if (!isAllowed()) {
+            throw toException(requestScope);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isAllowed() ? "ALLOW" : "DENY";
+    }
+}
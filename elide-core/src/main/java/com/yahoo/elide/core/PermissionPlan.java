@@ -0,0 +1,236 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.yahoo.elide.annotation.CreatePermission;
+import com.yahoo.elide.annotation.DeletePermission;
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.annotation.SharePermission;
+import com.yahoo.elide.annotation.UpdatePermission;
+import com.yahoo.elide.audit.InvalidSyntaxException;
+import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
+import com.yahoo.elide.security.BatchCheck;
+import com.yahoo.elide.security.Check;
+import com.yahoo.elide.security.CheckStatistics;
+import com.yahoo.elide.security.User;
+import lombok.Getter;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resolved checks of one permission annotation on an entity or field.
+ *
+ * Plans for the CRUD and share permissions are built once when the entity is bound, so evaluating a permission
+ * neither walks the class and package hierarchy nor reflects on the annotation nor instantiates its checks.
+ * Checks are evaluated in declaration order, or in the order {@link CheckStatistics} ranks them for this plan.
+ */
+public class PermissionPlan {
+    /**
+     * Permission annotations planned at bind time.
+     */
+    static final List<Class<? extends Annotation>> PERMISSIONS = Collections.unmodifiableList(Arrays.asList(
+            ReadPermission.class,
+            UpdatePermission.class,
+            CreatePermission.class,
+            DeletePermission.class,
+            SharePermission.class));
+
+    @Getter private final Class<? extends Annotation> annotationClass;
+    @Getter private final boolean any;
+    @Getter private final List<Class<? extends Check>> checkClasses;
+    private final List<Check> checks;
+    private final boolean batched;
+
+    /**
+     * Constructor.
+     *
+     * @param annotationClass the permission annotation class
+     * @param any true if ANY, else ALL
+     * @param checkClasses the checks
+     * @throws InvalidSyntaxException if a check cannot be instantiated
+     */
+    private PermissionPlan(Class<? extends Annotation> annotationClass, boolean any,
+                           Class<? extends Check>[] checkClasses) {
+        this.annotationClass = annotationClass;
+        this.any = any;
+        this.checkClasses = Collections.unmodifiableList(Arrays.asList(checkClasses));
+
+        List<Check> checks = new ArrayList<>(checkClasses.length);
+        for (Class<? extends Check> checkClass : checkClasses) {
+            try {
+                checks.add(checkClass.newInstance());
+            } catch (InstantiationException | IllegalAccessException | RuntimeException e) {
+                throw new InvalidSyntaxException("Illegal permission check " + checkClass.getName(), e);
+            }
+        }
+        this.checks = Collections.unmodifiableList(checks);
+        this.batched = checks.stream().anyMatch(check -> check instanceof BatchCheck);
+    }
+
+    /**
+     * Build the plan for a permission annotation.
+     *
+     * @param <A> permission annotation type
+     * @param annotationClass the permission annotation class
+     * @param annotation the annotation instance, may be null
+     * @return the plan, or null if there is no annotation
+     * @throws InvalidSyntaxException if the annotation is not a permission annotation or a check cannot be
+     *                                instantiated
+     */
+    static <A extends Annotation> PermissionPlan of(Class<A> annotationClass, A annotation) {
+        if (annotation == null) {
+            return null;
+        }
+
+        Class<? extends Check>[] anyChecks;
+        Class<? extends Check>[] allChecks;
+        try {
+            anyChecks = (Class<? extends Check>[]) annotationClass.getMethod("any").invoke(annotation);
+            allChecks = (Class<? extends Check>[]) annotationClass.getMethod("all").invoke(annotation);
+        } catch (ReflectiveOperationException e) {
+            throw new InvalidSyntaxException("Unknown permission " + annotationClass.getName(), e);
+        }
+        return anyChecks.length > 0
+                ? new PermissionPlan(annotationClass, PersistentResource.ANY, anyChecks)
+                : new PermissionPlan(annotationClass, PersistentResource.ALL, allChecks);
+    }
+
+    /**
+     * Build a plan from a list of checks.
+     *
+     * @param annotationClass the permission annotation class
+     * @param checkClasses the checks
+     * @param any true if ANY, else ALL
+     * @return the plan
+     * @throws InvalidSyntaxException if a check cannot be instantiated
+     */
+    static PermissionPlan of(Class<? extends Annotation> annotationClass, Class<? extends Check>[] checkClasses,
+                             boolean any) {
+        return new PermissionPlan(annotationClass, any, checkClasses);
+    }
+
+    /**
+     * Validate that this plan can be evaluated.  A permission annotation which lists no checks is only rejected
+     * when it is evaluated.
+     *
+     * @throws InvalidSyntaxException if the annotation lists no checks
+     */
+    public void validate() {
+        if (checks.isEmpty()) {
+            throw new InvalidSyntaxException("Unknown permission " + annotationClass.getName());
+        }
+    }
+
+    /**
+     * Get the check instances, shared by every evaluation of this plan.
+     *
+     * @return the checks in declaration order
+     * @throws InvalidSyntaxException if the annotation lists no checks
+     */
+    public List<Check> getChecks() {
+        validate();
+        return checks;
+    }
+
+    /**
+     * Evaluate this plan against a resource.
+     *
+     * @param resource the resource
+     * @throws ForbiddenAccessException if the checks do not pass
+     * @throws InvalidSyntaxException if the annotation lists no checks
+     */
+    public void evaluate(PersistentResource resource) {
+        decide(resource).check(resource.getRequestScope());
+    }
+
+    /**
+     * Decide this plan for a resource without throwing when access is denied.
+     *
+     * @param resource the resource
+     * @return the decision
+     * @throws InvalidSyntaxException if the annotation lists no checks
+     */
+    PermissionDecision decide(PersistentResource resource) {
+        List<Check> checks = getChecks();
+        User user = resource.getRequestScope().getUser();
+        CheckStatistics statistics = user.getCheckStatistics();
+        int[] order = statistics == null ? null : statistics.order(this);
+        for (int k = 0; k < checks.size(); k++) {
+            int i = order == null ? k : order[k];
+            Check check = checks.get(i);
+            long start = statistics == null ? 0 : System.nanoTime();
+            boolean ok = user.ok(check, resource);
+            if (statistics != null) {
+                statistics.record(this, i, ok, System.nanoTime() - start);
+            }
+
+            if (ok && any) {
+                return PermissionDecision.ALLOW;
+            }
+
+            if (!ok && !any) {
+                Class<? extends Check> checkClass = checkClasses.get(i);
+                return PermissionDecision.deny(() -> String.format("ForbiddenAccess %s %s#%s",
+                        checkClass,
+                        resource.getType(),
+                        resource.getId()));
+            }
+        }
+        if (any) {
+            return PermissionDecision.deny(() -> String.format("ForbiddenAccess %s %s#%s",
+                    checkClasses,
+                    resource.getType(),
+                    resource.getId()));
+        }
+        return PermissionDecision.ALLOW;
+    }
+
+    /**
+     * Run the batch checks of this plan for a collection of resources ahead of evaluating the plan on each.
+     *
+     * Checks run in plan order for the resources they would be evaluated for one at a time, each batch check
+     * once for all of them.  Results are cached by the user, so evaluating the plan afterwards does not run
+     * checks again.
+     *
+     * @param user the user of the resources
+     * @param resources the resources
+     */
+    public void prefetch(User user, Collection<? extends PersistentResource> resources) {
+        if (!batched || resources.size() < 2) {
+            return;
+        }
+
+        Collection<PersistentResource> pending = new ArrayList<>(resources);
+        CheckStatistics statistics = user.getCheckStatistics();
+        int[] order = statistics == null ? null : statistics.order(this);
+        for (int k = 0; k < checks.size(); k++) {
+            int i = order == null ? k : order[k];
+            Check check = checks.get(i);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (check instanceof BatchCheck) {
+                long start = statistics == null ? 0 : System.nanoTime();
+                user.prefetch((BatchCheck) check, pending);
+                if (statistics != null) {
+                    statistics.recordBatch(this, i, System.nanoTime() - start);
+                }
+            }
+            // resources decided by this check are not evaluated by the following ones
+            pending.removeIf(resource -> user.ok(check, resource) == any);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionPlan [" + annotationClass.getSimpleName() + (any ? " any=" : " all=") + checkClasses + "]";
+    }
+}
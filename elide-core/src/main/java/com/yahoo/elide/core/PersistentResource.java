@@ -7,6 +7,8 @@ package com.yahoo.elide.core;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.yahoo.elide.annotation.Audit;
 import com.yahoo.elide.annotation.CreatePermission;
@@ -25,6 +27,8 @@ import com.yahoo.elide.core.exceptions.InvalidAttributeException;
 import com.yahoo.elide.core.exceptions.InvalidEntityBodyException;
 import com.yahoo.elide.core.exceptions.InvalidObjectIdentifierException;
 import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpression;
 import com.yahoo.elide.core.filter.Predicate;
 import com.yahoo.elide.extensions.PatchRequestScope;
 import com.yahoo.elide.jsonapi.models.Data;
@@ -32,27 +36,21 @@ import com.yahoo.elide.jsonapi.models.Relationship;
 import com.yahoo.elide.jsonapi.models.Resource;
 import com.yahoo.elide.jsonapi.models.ResourceIdentifier;
 import com.yahoo.elide.jsonapi.models.SingleElementSet;
-import com.yahoo.elide.security.Check;
 import com.yahoo.elide.security.User;
 import com.yahoo.elide.utils.coerce.CoerceUtil;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.text.WordUtils;
 
 import javax.persistence.GeneratedValue;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.AccessibleObject;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -61,7 +59,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
+import static com.yahoo.elide.security.UserCheck.ALLOW;
 import static com.yahoo.elide.security.UserCheck.DENY;
 
 /**
@@ -96,6 +96,9 @@ public class PersistentResource<T> {
     protected static final boolean ANY = true;
     protected static final boolean ALL = false;
 
+    /* Records checked together while filling a page */
+    private static final int FILTER_BATCH_SIZE = 1000;
+
     /**
      * Create a resource in the database.
      * @param parent - The immediate ancestor in the lineage or null if this is a root.
@@ -250,6 +253,7 @@ public class PersistentResource<T> {
             if (obj == null) {
                 throw new InvalidObjectIdentifierException(id, loadClass.getSimpleName());
             }
+            cache.putIfAbsent(dictionary.getBinding(loadClass), id, obj);
         }
 
         PersistentResource<T> resource = new PersistentResource<>(obj, requestScope);
@@ -275,17 +279,92 @@ public class PersistentResource<T> {
         }
 
         Iterable<T> list;
-        ReadPermission annotation = requestScope.getDictionary().getAnnotation(loadClass, ReadPermission.class);
-        FilterScope filterScope = loadChecks(annotation, requestScope);
-        list = tx.loadObjects(loadClass, filterScope);
-        Set<PersistentResource<T>> resources = new PersistentResourceSet(list, requestScope);
-        resources = filter(ReadPermission.class, resources);
+        PermissionPlan plan = requestScope.getDictionary().getPermissionPlan(loadClass, ReadPermission.class);
+        FilterScope filterScope = loadChecks(plan, requestScope);
+        Pagination pagination = requestScope.getPagination();
+        Set<PersistentResource<T>> resources;
+        if (pagination.equals(Pagination.NONE) || requestScope.getSecurityMode() == SecurityMode.SECURITY_INACTIVE
+                || filterScope.getUserPermission() == ALLOW || filterScope.getSecurityFilterExpression() != null) {
+            // no record is dropped after loading, or the datastore applies the filter the checks evaluate, so the
+            // datastore can paginate
+            list = tx.loadObjects(loadClass, filterScope, requestScope.getSorting(), pagination);
+            if (pagination.isKeyset()) {
+                list = loadKeysetPage(loadClass, list, requestScope);
+            }
+            resources = filter(ReadPermission.class, new PersistentResourceSet(list, requestScope));
+        } else {
+            resources = loadFilteredPage(loadClass, filterScope, requestScope);
+        }
         for (PersistentResource<T> resource : resources) {
             requestScope.queueCommitTrigger(resource);
         }
         return resources;
     }
 
+    /**
+     * Fill a page with readable records when ReadPermission is checked per record.  Records are loaded unpaginated
+     * and checked in batches until the page is full, so denied records neither shorten the page nor shift the offset.
+     *
+     * @param <T> the type parameter
+     * @param loadClass the load class
+     * @param filterScope the read checks
+     * @param requestScope the request scope
+     * @return the readable records of the page
+     */
+    private static <T> Set<PersistentResource<T>> loadFilteredPage(Class<T> loadClass, FilterScope filterScope,
+            RequestScope requestScope) {
+        Pagination pagination = requestScope.getPagination();
+        Pagination unpaginated = pagination.isKeyset()
+                ? new Pagination(pagination.getAfter(), Integer.MAX_VALUE)
+                : Pagination.NONE;
+        Iterable<T> records = requestScope.getTransaction()
+                .loadObjects(loadClass, filterScope, requestScope.getSorting(), unpaginated);
+
+        Set<PersistentResource<T>> page = new LinkedHashSet<>();
+        int skip = pagination.getOffset();
+        int batchSize = Math.max(1, Math.min(pagination.getLimit(), FILTER_BATCH_SIZE));
+        for (List<T> batch : Iterables.partition(records, batchSize)) {
+            Set<PersistentResource<T>> readable =
+                    filter(ReadPermission.class, new PersistentResourceSet(batch, requestScope));
+            for (PersistentResource<T> resource : readable) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                page.add(resource);
+                if (page.size() >= pagination.getLimit()) {
+                    if (pagination.isKeyset()) {
+                        requestScope.setNextPageCursor(KeysetCursor.of(resource.getObject(), loadClass,
+                                requestScope.getSorting(), requestScope.getDictionary()).encode());
+                    }
+                    return page;
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Read a keyset page and record the cursor of the page which follows it.
+     *
+     * @param <T> the type parameter
+     * @param loadClass the load class
+     * @param records the page loaded from the datastore
+     * @param requestScope the request scope
+     * @return the page records
+     */
+    private static <T> List<T> loadKeysetPage(Class<T> loadClass, Iterable<T> records, RequestScope requestScope) {
+        List<T> page = new ArrayList<>();
+        records.forEach(page::add);
+        // read checks were pushed down, so the last loaded record is the last record of the page
+        if (!page.isEmpty() && page.size() >= requestScope.getPagination().getLimit()) {
+            T last = page.get(page.size() - 1);
+            requestScope.setNextPageCursor(KeysetCursor.of(last, loadClass, requestScope.getSorting(),
+                    requestScope.getDictionary()).encode());
+        }
+        return page;
+    }
+
     /**
      * Update attribute in existing resource.
      *
@@ -614,6 +693,7 @@ public class PersistentResource<T> {
         }
 
         transaction.delete(getObject());
+        entityCache.remove(type, getId(), getObject());
         audit(Audit.Action.DELETE);
         runTriggers(OnDelete.class);
     }
@@ -671,10 +751,10 @@ public class PersistentResource<T> {
      * @return PersistentResource relation
      */
     public PersistentResource getRelation(String relation, String id) {
-        Set<Predicate> filters;
+        FilterExpression filter;
         // Filtering not supported in Patxh extension
         if (requestScope instanceof PatchRequestScope) {
-            filters = Collections.emptySet();
+            filter = null;
         } else {
             Class<?> entityType = dictionary.getParameterizedType(getResourceClass(), relation);
             if (entityType == null) {
@@ -682,12 +762,11 @@ public class PersistentResource<T> {
             }
             Object idVal = CoerceUtil.coerce(id, dictionary.getIdType(entityType));
             String idField = dictionary.getIdFieldName(entityType);
-            Predicate idFilter = new Predicate(idField, Operator.IN, Collections.singletonList(idVal));
-            filters = Collections.singleton(idFilter);
+            filter = new Predicate(idField, Operator.IN, Collections.singletonList(idVal));
         }
 
         /* getRelation performs read permission checks */
-        Set<PersistentResource> resources = getRelation(relation, filters);
+        Set<PersistentResource> resources = getRelation(relation, filter);
         for (PersistentResource childResource : resources) {
             if (childResource.matchesId(id)) {
                 return childResource;
@@ -703,14 +782,45 @@ public class PersistentResource<T> {
      * @return collection relation
      */
     public Set<PersistentResource> getRelation(String relationName) {
-        if (requestScope.getTransaction() != null && !requestScope.getPredicates().isEmpty()) {
-            final Class<?> entityClass = dictionary.getParameterizedType(obj, relationName);
+        if (requestScope.getTransaction() != null && !requestScope.getCompiledFilter().isEmpty()) {
+            final Class<?> entityClass = dictionary.getParameterizedType(getResourceClass(), relationName);
             final String valType = dictionary.getBinding(entityClass);
-            final Set<Predicate> filters = new HashSet<>(requestScope.getPredicatesOfType(valType));
-            return getRelation(relationName, filters);
+            return getRelation(relationName, requestScope.getFilterExpressionOfType(valType));
         } else {
-            return getRelation(relationName, Collections.<Predicate>emptySet());
+            return getRelation(relationName, (FilterExpression) null);
+        }
+    }
+
+    /**
+     * Get the requested page of a relation collection.  The collection is sorted and paginated in memory as the
+     * datastores do for root collections, so the sort fields are validated and the page parameters applied on both.
+     *
+     * @param relationName field
+     * @return the requested page of the relation in the requested order
+     */
+    public Set<PersistentResource> getRelationPage(String relationName) {
+        Set<PersistentResource> collection = getRelation(relationName);
+        Sorting sorting = requestScope.getSorting();
+        Pagination pagination = requestScope.getPagination();
+        Class<Object> loadClass = (Class) dictionary.getParameterizedType(getResourceClass(), relationName);
+
+        List<PersistentResource> records = new ArrayList<>(collection);
+        if (pagination.isKeyset()) {
+            KeysetCursor after = pagination.getAfter();
+            records.removeIf(record -> !after.precedes(record.getObject(), loadClass, sorting, dictionary));
+            records.sort(Comparator.comparing(PersistentResource::getObject,
+                    KeysetCursor.comparator(loadClass, sorting, dictionary)));
+        } else if (!sorting.isDefault()) {
+            records.sort(Comparator.comparing(PersistentResource::getObject,
+                    sorting.getComparator(loadClass, dictionary)));
+        }
+
+        List<PersistentResource> page = Lists.newArrayList(pagination.apply(records));
+        if (pagination.isKeyset() && !page.isEmpty() && page.size() >= pagination.getLimit()) {
+            Object last = page.get(page.size() - 1).getObject();
+            requestScope.setNextPageCursor(KeysetCursor.of(last, loadClass, sorting, dictionary).encode());
         }
+        return new LinkedHashSet<>(page);
     }
 
     /**
@@ -722,6 +832,18 @@ public class PersistentResource<T> {
      * @return collection relation
      */
     protected Set<PersistentResource> getRelation(String relationName, Set<Predicate> filters) {
+        return getRelation(relationName, AndFilterExpression.andAll(filters));
+    }
+
+    /**
+     * Get collection of resources from relation field.
+     *
+     * @param relationName field
+     * @param filter A filter, possibly null, to attempt to push down to the data store to filter the returned
+     *               collection.
+     * @return collection relation
+     */
+    protected Set<PersistentResource> getRelation(String relationName, FilterExpression filter) {
         List<String> relations = dictionary.getRelationships(obj);
 
         String realName = dictionary.getNameFromAlias(obj, relationName);
@@ -746,9 +868,15 @@ public class PersistentResource<T> {
         } else if (val instanceof Collection) {
             Collection filteredVal = (Collection) val;
 
-            if (!filters.isEmpty()) {
-                final Class<?> entityClass = dictionary.getParameterizedType(obj, relationName);
-                filteredVal = requestScope.getTransaction().filterCollection(filteredVal, entityClass, filters);
+            // security and request filters are pushed down together
+            final Class<?> entityClass = dictionary.getParameterizedType(getResourceClass(), relationName);
+            FilterExpression securityFilter =
+                    loadChecks(dictionary.getPermissionPlan(entityClass, ReadPermission.class), requestScope)
+                            .getSecurityFilterExpression();
+            filter = AndFilterExpression.andWithNull(securityFilter, filter);
+            if (filter != null) {
+                filteredVal = requestScope.getTransaction()
+                        .filterCollection(filteredVal, entityClass, filter, requestScope);
             }
 
             resources = new PersistentResourceSet(filteredVal, requestScope);
@@ -761,6 +889,116 @@ public class PersistentResource<T> {
         return (Set) filter(ReadPermission.class, resources);
     }
 
+    /**
+     * Get the identifiers of a relationship without loading the related records.  This is only possible when
+     * reading the related records is allowed by user checks alone and no filter applies to them.
+     *
+     * @param relationName the relationship
+     * @return the identifiers, or null if the related records have to be loaded
+     */
+    private Collection<String> getRelationIdentifiers(String relationName) {
+        DataStoreTransaction tx = requestScope.getTransaction();
+        Class<?> relationClass = dictionary.getParameterizedType(getResourceClass(), relationName);
+        if (tx == null || !canLinkByIdentifier(requestScope, relationClass)) {
+            return null;
+        }
+
+        Object val = getValue(relationName);
+        if (val == null) {
+            return Collections.emptyList();
+        }
+
+        Collection<Serializable> ids = tx.loadRelationIdentifiers(getResourceClass(), obj, relationName, val);
+        if (ids == null) {
+            return null;
+        }
+        return ids.stream().map(String::valueOf).collect(Collectors.toList());
+    }
+
+    /**
+     * Load the relationships rendered as linkage of resources in one batch per resource class rather than once per
+     * resource.  Relationships left out by sparse fields and to-one relationships linked by identifier are skipped.
+     *
+     * @param requestScope the request scope
+     * @param resources the resources to render
+     */
+    public static void batchLoadRelationships(RequestScope requestScope, Collection<PersistentResource> resources) {
+        DataStoreTransaction tx = requestScope.getTransaction();
+        if (tx == null || resources.size() < 2) {
+            return;
+        }
+
+        EntityDictionary dictionary = requestScope.getDictionary();
+        groupObjectsByClass(resources).forEach((cls, objects) -> {
+            Set<String> sparseFields = requestScope.getSparseFields().get(dictionary.getBinding(cls));
+            for (String relationName : dictionary.getRelationships(cls)) {
+                if (sparseFields != null && !sparseFields.contains(relationName)) {
+                    continue;
+                }
+                // to-one linkage is rendered from the proxy identifiers without loading the related rows
+                if (dictionary.getRelationshipType(cls, relationName).isToOne()
+                        && canLinkByIdentifier(requestScope, dictionary.getParameterizedType(cls, relationName))) {
+                    continue;
+                }
+                tx.batchLoadRelation((Class) cls, objects, relationName);
+            }
+        });
+    }
+
+    /**
+     * Load a relationship of resources in one batch per resource class rather than once per resource.
+     *
+     * @param requestScope the request scope
+     * @param resources the resources
+     * @param relationName the relationship, or its alias
+     */
+    public static void batchLoadRelation(RequestScope requestScope, Collection<PersistentResource> resources,
+                                         String relationName) {
+        DataStoreTransaction tx = requestScope.getTransaction();
+        if (tx == null || resources.size() < 2) {
+            return;
+        }
+
+        EntityDictionary dictionary = requestScope.getDictionary();
+        groupObjectsByClass(resources).forEach((cls, objects) -> {
+            String realName = dictionary.getNameFromAlias(cls, relationName);
+            String name = realName == null ? relationName : realName;
+            if (dictionary.getRelationships(cls).contains(name)) {
+                tx.batchLoadRelation((Class) cls, objects, name);
+            }
+        });
+    }
+
+    private static Map<Class<?>, List<Object>> groupObjectsByClass(Collection<PersistentResource> resources) {
+        Map<Class<?>, List<Object>> objectsByClass = new LinkedHashMap<>();
+        for (PersistentResource resource : resources) {
+            objectsByClass.computeIfAbsent(resource.getResourceClass(), cls -> new ArrayList<>())
+                    .add(resource.getObject());
+        }
+        return objectsByClass;
+    }
+
+    /**
+     * Whether linkage to records of a type can be rendered from their identifiers alone, that is whether the
+     * ReadPermission of the type is granted by user checks and no filter predicate applies to it.
+     *
+     * @param requestScope the request scope
+     * @param recordClass the related type
+     * @return true if the related records do not need to be inspected
+     */
+    public static boolean canLinkByIdentifier(RequestScope requestScope, Class<?> recordClass) {
+        EntityDictionary dictionary = requestScope.getDictionary();
+        if (requestScope.getFilterExpressionOfType(dictionary.getBinding(recordClass)) != null) {
+            return false;
+        }
+        if (requestScope.getSecurityMode() == SecurityMode.SECURITY_INACTIVE) {
+            return true;
+        }
+
+        PermissionPlan plan = dictionary.getPermissionPlan(recordClass, ReadPermission.class);
+        return loadChecks(plan, requestScope).getUserPermission() == ALLOW;
+    }
+
     /**
      * If relationship collection type is denied, do not read lazy collection.
      *
@@ -772,8 +1010,8 @@ public class PersistentResource<T> {
         }
 
         EntityDictionary dictionary = requestScope.getDictionary();
-        ReadPermission annotation = dictionary.getAnnotation(recordClass, ReadPermission.class);
-        FilterScope filterScope = loadChecks(annotation, requestScope);
+        PermissionPlan plan = dictionary.getPermissionPlan(recordClass, ReadPermission.class);
+        FilterScope filterScope = loadChecks(plan, requestScope);
 
         if (filterScope.getUserPermission() != DENY) {
             return false;
@@ -785,13 +1023,12 @@ public class PersistentResource<T> {
         fields.addAll(dictionary.getAttributes(recordClass));
         fields.addAll(dictionary.getRelationships(recordClass));
         for (String field : fields) {
-            Annotation fieldAnnotation = dictionary.getAttributeOrRelationAnnotation(recordClass,
-                    ReadPermission.class, field);
-            if (fieldAnnotation == null) {
+            PermissionPlan fieldPlan = dictionary.getPermissionPlan(recordClass, ReadPermission.class, field);
+            if (fieldPlan == null) {
                 // no attribute to override this field
                 continue;
             }
-            FilterScope fieldFilterScope = loadChecks(fieldAnnotation, requestScope);
+            FilterScope fieldFilterScope = loadChecks(fieldPlan, requestScope);
             if (fieldFilterScope.getUserPermission() != DENY) {
                 return false;
             }
@@ -928,12 +1165,20 @@ public class PersistentResource<T> {
                 filterFields(ReadPermission.class, this, dictionary.getRelationships(obj));
 
         for (String field : relationshipFields) {
-            Set<PersistentResource> relationships = getRelation(field);
             TreeMap<String, Resource> orderedById = new TreeMap<>(comparator);
-            for (PersistentResource relationship : relationships) {
-                orderedById.put(relationship.getId(),
-                        new ResourceIdentifier(relationship.getType(), relationship.getId()).castToResource());
+            Collection<String> ids = getRelationIdentifiers(field);
+            if (ids != null) {
+                String relationType = dictionary.getBinding(dictionary.getParameterizedType(getResourceClass(), field));
+                for (String id : ids) {
+                    orderedById.put(id, new ResourceIdentifier(relationType, id).castToResource());
+                }
+            } else {
+                Set<PersistentResource> relationships = getRelation(field);
+                for (PersistentResource relationship : relationships) {
+                    orderedById.put(relationship.getId(),
+                            new ResourceIdentifier(relationship.getType(), relationship.getId()).castToResource());
 
+                }
             }
             Collection<Resource> resources = orderedById.values();
 
@@ -1043,23 +1288,16 @@ public class PersistentResource<T> {
      * @param value the value to set
      */
     protected void setValue(String fieldName, Object value) {
-        Class<?> targetClass = obj.getClass();
+        String realName = dictionary.getNameFromAlias(obj, fieldName);
+        fieldName = (realName != null) ? realName : fieldName;
+        FieldAccessor accessor = dictionary.getAccessor(obj, fieldName);
+        if (accessor == null) {
+            throw new InvalidAttributeException(fieldName, type);
+        }
         try {
-            Class<?> fieldClass = dictionary.getType(targetClass, fieldName);
-            String realName = dictionary.getNameFromAlias(obj, fieldName);
-            fieldName = (realName != null) ? realName : fieldName;
-            String setMethod = "set" + WordUtils.capitalize(fieldName);
-            Method method = EntityDictionary.findMethod(targetClass, setMethod, fieldClass);
-            method.invoke(obj, coerce(value, fieldName, fieldClass));
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            accessor.set(obj, coerce(value, fieldName, accessor.getType()));
+        } catch (NoSuchMethodException | InvocationTargetException e) {
             throw new InvalidAttributeException(fieldName, type);
-        } catch (IllegalArgumentException | NoSuchMethodException noMethod) {
-            try {
-                Field field = targetClass.getField(fieldName);
-                field.set(obj, coerce(value, fieldName, field.getType()));
-            } catch (NoSuchFieldException | IllegalAccessException noField) {
-                throw new InvalidAttributeException(fieldName, type);
-            }
         }
 
         runTriggers(OnUpdate.class, fieldName);
@@ -1168,14 +1406,33 @@ public class PersistentResource<T> {
      * @return the value
      */
     public static Object getValue(Object target, String fieldName, EntityDictionary dictionary) {
-        AccessibleObject accessor = dictionary.getAccessibleObject(target, fieldName);
+        FieldAccessor accessor = dictionary.getAccessor(target, fieldName);
         try {
-            if (accessor instanceof Method) {
-                return ((Method) accessor).invoke(target);
-            } else if (accessor instanceof Field) {
-                return ((Field) accessor).get(target);
+            if (accessor != null) {
+                return accessor.get(target);
             }
-        } catch (IllegalAccessException | InvocationTargetException e) {
+        } catch (InvocationTargetException e) {
+            throw new InvalidAttributeException(fieldName, dictionary.getBinding(target.getClass()));
+        }
+        throw new InvalidAttributeException(fieldName, dictionary.getBinding(target.getClass()));
+    }
+
+    /**
+     * Invoke the set[fieldName] method on the target object OR set the field with the corresponding name, without
+     * coercing the value or running triggers.
+     * @param target the object to set
+     * @param fieldName the field name to set or invoke equivalent set method
+     * @param value the value, of the field type
+     * @param dictionary the dictionary
+     */
+    public static void setValue(Object target, String fieldName, Object value, EntityDictionary dictionary) {
+        FieldAccessor accessor = dictionary.getAccessor(target, fieldName);
+        try {
+            if (accessor != null) {
+                accessor.set(target, value);
+                return;
+            }
+        } catch (NoSuchMethodException | InvocationTargetException e) {
             throw new InvalidAttributeException(fieldName, dictionary.getBinding(target.getClass()));
         }
         throw new InvalidAttributeException(fieldName, dictionary.getBinding(target.getClass()));
@@ -1259,13 +1516,18 @@ public class PersistentResource<T> {
      */
     protected static <A extends Annotation, T> Set<PersistentResource<T>> filter(Class<A> permission,
             Set<PersistentResource<T>> resources) {
+        // resources may be read once only
+        List<PersistentResource<T>> candidates = new ArrayList<>();
+        resources.forEach(candidates::add);
+        if (!candidates.isEmpty()) {
+            candidates.get(0).getRequestScope().prefetchPermissions(permission, candidates);
+        }
+
         Set<PersistentResource<T>> filteredSet = new LinkedHashSet<>();
-        for (PersistentResource<T> resource : resources) {
-            try {
-                resource.checkFieldAwarePermissions(permission);
+        for (PersistentResource<T> resource : candidates) {
+            // denied resources are filtered from set
+            if (resource.requestScope.decideFieldAwarePermissions(permission, resource, null).isAllowed()) {
                 filteredSet.add(resource);
-            } catch (ForbiddenAccessException e) {
-                // Do nothing. Filter from set.
             }
         }
         // keep original SingleElementSet
@@ -1291,21 +1553,18 @@ public class PersistentResource<T> {
         // Hack: doNotDefer is a special flag to temporarily disable deferred checking. Presumably, this check
         // should not be running if it needs to be deferred (in which case, deferred checks would also be executing)
         // We should probably find a cleaner way to do this.
-        boolean save = resource.getRequestScope().isNotDeferred();
+        resource.getRequestScope().enterNotDeferred();
         try {
-            resource.getRequestScope().setNotDeferred(true);
             for (String field : fields) {
-                try {
-                    if (checkIncludeSparseField(resource.getRequestScope().getSparseFields(), resource.type, field)) {
-                        resource.checkFieldAwarePermissions(permission, field);
-                        filteredSet.add(field);
-                    }
-                } catch (ForbiddenAccessException e) {
-                    // Do nothing. Filter from set.
+                // denied fields are filtered from set
+                if (checkIncludeSparseField(resource.getRequestScope().getSparseFields(), resource.type, field)
+                        && resource.getRequestScope()
+                                .decideFieldAwarePermissions(permission, resource, field).isAllowed()) {
+                    filteredSet.add(field);
                 }
             }
         } finally {
-            resource.getRequestScope().setNotDeferred(save);
+            resource.getRequestScope().exitNotDeferred();
         }
         return filteredSet;
     }
@@ -1313,65 +1572,25 @@ public class PersistentResource<T> {
     /**
      * Check provided access permission.
      *
-     * @param annotationClass one of Create, Read, Update or Delete permission annotations
-     * @param annotation the instance of the annotation
+     * @param plan the permission plan of one of the Create, Read, Update or Delete permission annotations
      * @param resource given resource
      * @see com.yahoo.elide.annotation.CreatePermission
      * @see com.yahoo.elide.annotation.ReadPermission
      * @see com.yahoo.elide.annotation.UpdatePermission
      * @see com.yahoo.elide.annotation.DeletePermission
      */
-    static <A extends Annotation> void checkPermission(
-            Class<A> annotationClass,
-            A annotation,
-            PersistentResource resource) {
+    static void checkPermission(PermissionPlan plan, PersistentResource resource) {
         if (resource.getRequestScope().getSecurityMode() == SecurityMode.SECURITY_INACTIVE) {
             return;
         }
-        Class<? extends Check>[] anyChecks;
-        Class<? extends Check>[] allChecks;
-        try {
-            anyChecks = (Class<? extends Check>[]) annotationClass.getMethod("any")
-                                                                  .invoke(annotation, (Object[]) null);
-            allChecks = (Class<? extends Check>[]) annotationClass.getMethod("all")
-                                                                  .invoke(annotation, (Object[]) null);
-        } catch (ReflectiveOperationException e) {
-            throw new InvalidSyntaxException("Unknown permission " + annotationClass.getName(), e);
-        }
-
-        if (anyChecks.length > 0) {
-            resource.requestScope.checkPermissions(annotationClass, anyChecks, ANY, resource);
-        } else if (allChecks.length > 0) {
-            resource.requestScope.checkPermissions(annotationClass, allChecks, ALL, resource);
-        } else {
-            throw new InvalidSyntaxException("Unknown permission " + annotationClass.getName());
-        }
+        resource.requestScope.checkPermissions(plan, resource);
     }
 
-    static <A extends Annotation> FilterScope loadChecks(A annotation, RequestScope requestScope) {
-        if (annotation == null) {
+    static FilterScope loadChecks(PermissionPlan plan, RequestScope requestScope) {
+        if (plan == null) {
             return new FilterScope(requestScope);
         }
-
-        Class<? extends Check>[] anyChecks;
-        Class<? extends Check>[] allChecks;
-        Class<? extends Annotation> annotationClass = annotation.getClass();
-        try {
-            anyChecks = (Class<? extends Check>[]) annotationClass.getMethod("any")
-                                                                  .invoke(annotation, (Object[]) null);
-            allChecks = (Class<? extends Check>[]) annotationClass.getMethod("all")
-                                                                  .invoke(annotation, (Object[]) null);
-        } catch (ReflectiveOperationException e) {
-            throw new InvalidSyntaxException("Unknown permission " + annotationClass.getName(), e);
-        }
-
-        if (anyChecks.length > 0) {
-            return new FilterScope(requestScope, ANY, anyChecks);
-        } else if (allChecks.length > 0) {
-            return new FilterScope(requestScope, ALL, allChecks);
-        } else {
-            throw new InvalidSyntaxException("Unknown permission " + annotationClass.getName());
-        }
+        return new FilterScope(requestScope, plan);
     }
 
     /**
@@ -1386,11 +1605,11 @@ public class PersistentResource<T> {
      */
     static <A extends Annotation> void checkPermission(Class<A> annotationClass,
             PersistentResource resource) {
-        A annotation = resource.getDictionary().getAnnotation(resource, annotationClass);
-        if (annotation == null) {
+        PermissionPlan plan = resource.getDictionary().getPermissionPlan(resource.getResourceClass(), annotationClass);
+        if (plan == null) {
             return;
         }
-        checkPermission(annotationClass, annotation, resource);
+        checkPermission(plan, resource);
     }
 
     private <A extends Annotation> void checkFieldAwarePermissions(Class<A> annotationClass) {
@@ -1401,45 +1620,6 @@ public class PersistentResource<T> {
         requestScope.checkFieldAwarePermissions(annotationClass, this, fieldName);
     }
 
-    /**
-     * Execute a set of permission checks.
-     * @param checks Array of Check annotations
-     * @param mode true if ANY, else ALL
-     * @param resource provided PersistentResource to check
-     */
-    static void checkPermissions(Class<? extends Check>[] checks, boolean mode, PersistentResource resource) {
-        for (Class<? extends Check> check : checks) {
-            Check checkHandler;
-            try {
-                checkHandler = check.newInstance();
-            } catch (InstantiationException | IllegalAccessException e) {
-                throw new InvalidSyntaxException("Illegal permission check " + check.getName(), e);
-            }
-            boolean ok = resource.getRequestScope().getUser().ok(checkHandler, resource);
-
-            if (ok && mode == ANY) {
-                return;
-            }
-
-            if (!ok && mode == ALL) {
-                String message = String.format("ForbiddenAccess %s %s#%s",
-                        check,
-                        resource.getType(),
-                        resource.getId());
-                log.debug(message);
-                throw new ForbiddenAccessException(message);
-            }
-        }
-        if (mode == ANY) {
-            String message = String.format("ForbiddenAccess %s %s#%s",
-                    Arrays.asList(checks),
-                    resource.getType(),
-                    resource.getId());
-            log.debug(message);
-            throw new ForbiddenAccessException(message);
-        }
-    }
-
     /**
      * Check a permission on a field.
      * @param <A> the type parameter
@@ -1450,14 +1630,14 @@ public class PersistentResource<T> {
     protected static <A extends Annotation> void checkFieldPermission(Class<A> annotationClass,
             PersistentResource resource,
             String fieldName) {
-        A annotation = resource.getDictionary().getAttributeOrRelationAnnotation(resource.getResourceClass(),
+        PermissionPlan plan = resource.getDictionary().getPermissionPlan(resource.getResourceClass(),
                 annotationClass,
                 fieldName);
-        if (annotation == null) {
+        if (plan == null) {
             return;
         }
 
-        checkPermission(annotationClass, annotation, resource);
+        checkPermission(plan, resource);
     }
 
     /**
@@ -1471,17 +1651,17 @@ public class PersistentResource<T> {
     protected static <A extends Annotation> void checkFieldPermissionIfExists(Class<A> annotationClass,
                                                                               PersistentResource resource,
                                                                               String fieldName) {
-        A annotation = resource.getDictionary().getAttributeOrRelationAnnotation(resource.getResourceClass(),
-                                                                                 annotationClass,
-                                                                                 fieldName);
-        if (annotation == null) {
+        PermissionPlan plan = resource.getDictionary().getPermissionPlan(resource.getResourceClass(),
+                                                                         annotationClass,
+                                                                         fieldName);
+        if (plan == null) {
             throw new ForbiddenAccessException(
                     "Unable to find " + annotationClass.getSimpleName() + " annotation for "
                             + resource.getResourceClass().getSimpleName() + "#" + fieldName
             );
         }
 
-        checkFieldPermission(annotationClass, resource, fieldName);
+        checkPermission(plan, resource);
     }
 
     protected static boolean checkIncludeSparseField(Map<String, Set<String>> sparseFields, String type,
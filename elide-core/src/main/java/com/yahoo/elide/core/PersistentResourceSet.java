@@ -35,7 +35,13 @@ public class PersistentResourceSet<T> extends AbstractSet<PersistentResource<T>>
 
             @Override
             public PersistentResource<T> next() {
-                return new PersistentResource<>(iterator.next(), requestScope);
+                PersistentResource<T> resource = new PersistentResource<>(iterator.next(), requestScope);
+                if (!resource.getUUID().isPresent()) {
+                    // later lookups of this type and id are answered without the datastore
+                    requestScope.getObjectEntityCache()
+                            .putIfAbsent(resource.getType(), resource.getId(), resource.getObject());
+                }
+                return resource;
             }
         };
     }
@@ -10,7 +10,8 @@ import static lombok.AccessLevel.PACKAGE;
 import com.yahoo.elide.annotation.CreatePermission;
 import com.yahoo.elide.annotation.OnCommit;
 import com.yahoo.elide.audit.Logger;
-import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
+import com.yahoo.elide.core.filter.CompiledFilter;
+import com.yahoo.elide.core.filter.FilterExpression;
 import com.yahoo.elide.core.filter.Predicate;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
@@ -23,14 +24,17 @@ import lombok.Setter;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -38,6 +42,8 @@ import javax.ws.rs.core.MultivaluedMap;
  * Request scope object for relaying request-related data to various subsystems.
  */
 public class RequestScope {
+    public static final int DEFAULT_PARALLEL_SERIALIZATION_THRESHOLD = 32;
+
     @Getter private final JsonApiDocument jsonApiDocument;
     @Getter private final DataStoreTransaction transaction;
     @Getter private final User user;
@@ -46,14 +52,20 @@ public class RequestScope {
     @Getter private final Logger logger;
     @Getter private final Optional<MultivaluedMap<String, String>> queryParams;
     @Getter private final Map<String, Set<String>> sparseFields;
+    @Getter private final CompiledFilter compiledFilter;
     @Getter private final Map<String, Set<Predicate>> predicates;
+    @Getter private final Sorting sorting;
+    @Getter private final Pagination pagination;
     @Getter private final ObjectEntityCache objectEntityCache;
     @Getter private final SecurityMode securityMode;
     @Getter private final Set<PersistentResource> newResources;
 
     private transient LinkedHashSet<Runnable> deferredChecks = null;
-    final private transient LinkedHashSet<Runnable> commitTriggers;
-    @Getter(PACKAGE) @Setter(PACKAGE) private boolean notDeferred = false;
+    final private transient Set<Runnable> commitTriggers;
+    private final AtomicInteger notDeferred = new AtomicInteger();
+    @Getter @Setter(PACKAGE) private String nextPageCursor = null;
+    @Setter private ForkJoinPool serializationPool = null;
+    @Getter @Setter private int parallelSerializationThreshold = DEFAULT_PARALLEL_SERIALIZATION_THRESHOLD;
 
     public RequestScope(JsonApiDocument jsonApiDocument,
                         DataStoreTransaction transaction,
@@ -62,7 +74,8 @@ public class RequestScope {
                         JsonApiMapper mapper,
                         Logger logger,
                         MultivaluedMap<String, String> queryParams,
-                        SecurityMode securityMode) {
+                        SecurityMode securityMode,
+                        int maxPageSize) {
         this.jsonApiDocument = jsonApiDocument;
         this.transaction = transaction;
         this.user = user;
@@ -76,14 +89,32 @@ public class RequestScope {
 
         if (this.queryParams.isPresent()) {
             sparseFields = parseSparseFields(this.queryParams.get());
-            predicates = Predicate.parseQueryParams(this.dictionary, this.queryParams.get());
+            compiledFilter = dictionary.getFilterCompiler().compile(this.queryParams.get());
+            predicates = compiledFilter.getPredicates();
+            sorting = Sorting.parseQueryParams(this.queryParams.get());
+            pagination = Pagination.parseQueryParams(this.queryParams.get(), maxPageSize);
         } else {
             sparseFields = Collections.emptyMap();
-            predicates = Collections.emptyMap();
+            compiledFilter = CompiledFilter.EMPTY;
+            predicates = compiledFilter.getPredicates();
+            sorting = Sorting.NONE;
+            pagination = Pagination.getDefault(maxPageSize);
         }
 
         newResources = new LinkedHashSet<>();
-        commitTriggers = new LinkedHashSet<>();
+        commitTriggers = Collections.synchronizedSet(new LinkedHashSet<>());
+    }
+
+    public RequestScope(JsonApiDocument jsonApiDocument,
+                        DataStoreTransaction transaction,
+                        User user,
+                        EntityDictionary dictionary,
+                        JsonApiMapper mapper,
+                        Logger logger,
+                        MultivaluedMap<String, String> queryParams,
+                        SecurityMode securityMode) {
+        this(jsonApiDocument, transaction, user, dictionary, mapper, logger, queryParams, securityMode,
+                Pagination.DEFAULT_MAX_PAGE_SIZE);
     }
 
     public RequestScope(JsonApiDocument jsonApiDocument,
@@ -149,7 +180,10 @@ public class RequestScope {
         this.logger = outerRequestScope.logger;
         this.queryParams = Optional.empty();
         this.sparseFields = Collections.emptyMap();
-        this.predicates = Collections.emptyMap();
+        this.compiledFilter = CompiledFilter.EMPTY;
+        this.predicates = compiledFilter.getPredicates();
+        this.sorting = Sorting.NONE;
+        this.pagination = outerRequestScope.pagination;
         this.objectEntityCache = outerRequestScope.objectEntityCache;
         this.securityMode = outerRequestScope.securityMode;
         this.deferredChecks = outerRequestScope.deferredChecks;
@@ -190,7 +224,56 @@ public class RequestScope {
      * @return The set of predicates for the given type
      */
     public Set<Predicate> getPredicatesOfType(String type) {
-        return predicates.getOrDefault(type, Collections.emptySet());
+        return compiledFilter.getPredicatesOfType(type);
+    }
+
+    /**
+     * Get the filter of a specific collection type.
+     * @param type The name of the type
+     * @return The filter expression for the given type, or null if the type is not filtered
+     */
+    public FilterExpression getFilterExpressionOfType(String type) {
+        return compiledFilter.getExpressionOfType(type);
+    }
+
+    /**
+     * Get the pool to build the resources of a collection on in parallel.
+     *
+     * Empty unless a pool was set and the transaction supports concurrent reads of its records, and while
+     * permission checks may be deferred or a request or security filter may query the datastore for each resource,
+     * since neither is safe to run off the request thread.
+     *
+     * @return the serialization pool
+     */
+    public Optional<ForkJoinPool> getSerializationPool() {
+        if (serializationPool == null || transaction == null || !transaction.supportsConcurrentReads()
+                || deferredChecks != null || !compiledFilter.isEmpty() || dictionary.hasSecurityFilters()) {
+            return Optional.empty();
+        }
+        return Optional.of(serializationPool);
+    }
+
+    /**
+     * Whether checks run now even while other checks are deferred.
+     *
+     * @return true within {@link #enterNotDeferred}
+     */
+    boolean isNotDeferred() {
+        return notDeferred.get() > 0;
+    }
+
+    /**
+     * Run checks now until the matching {@link #exitNotDeferred}.  Calls nest and may overlap across threads.
+     */
+    void enterNotDeferred() {
+        notDeferred.incrementAndGet();
+    }
+
+    /**
+     * End a matching {@link #enterNotDeferred}.
+     */
+    void exitNotDeferred() {
+        notDeferred.decrementAndGet();
     }
 
     /**
@@ -201,7 +284,27 @@ public class RequestScope {
     public void runDeferredPermissionChecks() {
         if (deferredChecks != null) {
             try {
-                new ArrayList<>(deferredChecks).forEach(Runnable::run);
+                List<Runnable> tasks = new ArrayList<>(deferredChecks);
+
+                // run the batch checks of each plan once for all of its resources
+                Map<PermissionPlan, List<PersistentResource>> batches = new LinkedHashMap<>();
+                for (Runnable task : tasks) {
+                    if (task instanceof CheckPermissions) {
+                        CheckPermissions check = (CheckPermissions) task;
+                        batches.computeIfAbsent(check.plan, plan -> new ArrayList<>()).add(check.resource);
+                    } else if (task instanceof FieldAwareCheck) {
+                        FieldAwareCheck<?> check = (FieldAwareCheck<?>) task;
+                        PermissionPlan plan = check.entityPlan();
+                        if (plan != null) {
+                            batches.computeIfAbsent(plan, key -> new ArrayList<>()).add(check.resource);
+                        }
+                    }
+                }
+                if (securityMode != SecurityMode.SECURITY_INACTIVE) {
+                    batches.forEach((plan, resources) -> plan.prefetch(user, resources));
+                }
+
+                tasks.forEach(Runnable::run);
             } finally {
                 deferredChecks = null;
             }
@@ -232,7 +335,21 @@ public class RequestScope {
      */
     public void checkPermissions(Class<?> annotationClass, Class<? extends Check>[] checks, boolean isAny,
             PersistentResource resource) {
-        checkPermissions(annotationClass, new CheckPermissions(annotationClass, checks, isAny, resource));
+        Preconditions.checkArgument(checks.length > 0);
+        checkPermissions(PermissionPlan.of(annotationClass.asSubclass(Annotation.class), checks, isAny), resource);
+    }
+
+    /**
+     * Check provided access permission.
+     *
+     * @param plan the permission plan of one of the Create, Read, Update or Delete permission annotations
+     * @param resource given resource
+     * @throws com.yahoo.elide.audit.InvalidSyntaxException if the annotation lists no checks, even if the checks
+     *                                                      are deferred
+     */
+    public void checkPermissions(PermissionPlan plan, PersistentResource resource) {
+        plan.validate();
+        checkPermissions(plan.getAnnotationClass(), new CheckPermissions(plan, resource));
     }
 
     public <A extends Annotation> void checkFieldAwarePermissions(Class<A> annotationClass,
@@ -246,6 +363,49 @@ public class RequestScope {
         checkPermissions(annotationClass, new FieldAwareCheck<>(annotationClass, resource, fieldName));
     }
 
+    /**
+     * Run the batch checks of the entity permission of a collection of resources once for all of them, ahead of
+     * checking the permission of each resource.  Nothing runs while checks are deferred.
+     *
+     * @param <A> type annotation
+     * @param annotationClass one of Create, Read, Update or Delete permission annotations
+     * @param resources the resources
+     */
+    public <A extends Annotation> void prefetchPermissions(Class<A> annotationClass,
+                                                           Collection<? extends PersistentResource> resources) {
+        if (securityMode == SecurityMode.SECURITY_INACTIVE || (deferredChecks != null && !isNotDeferred())) {
+            return;
+        }
+
+        Map<Class<?>, List<PersistentResource>> byClass = new LinkedHashMap<>();
+        for (PersistentResource resource : resources) {
+            byClass.computeIfAbsent(resource.getResourceClass(), cls -> new ArrayList<>()).add(resource);
+        }
+        byClass.forEach((cls, group) -> {
+            PermissionPlan plan = dictionary.getPermissionPlan(cls, annotationClass);
+            if (plan != null) {
+                plan.prefetch(user, group);
+            }
+        });
+    }
+
+    /**
+     * Decide a field aware permission without throwing when access is denied.  While checks are deferred, the
+     * check is queued and allowed for now, as {@link #checkFieldAwarePermissions} would not throw either.
+     *
+     * @param <A> type annotation
+     * @param annotationClass the annotation class
+     * @param resource the resource
+     * @param fieldName the field, or null for the resource or any of its fields
+     * @return the decision
+     */
+    <A extends Annotation> PermissionDecision decideFieldAwarePermissions(Class<A> annotationClass,
+                                                                     PersistentResource resource,
+                                                                     String fieldName) {
+        FieldAwareCheck<A> check = new FieldAwareCheck<>(annotationClass, resource, fieldName);
+        return defer(annotationClass, check) ? PermissionDecision.ALLOW : check.decide();
+    }
+
     public void queueCommitTrigger(PersistentResource resource) {
         queueCommitTrigger(resource, "");
     }
@@ -263,41 +423,47 @@ public class RequestScope {
      * @param task runnable task
      */
     private void checkPermissions(Class<?> annotationClass, Runnable task) {
+        if (!defer(annotationClass, task)) {
+            task.run();
+        }
+    }
+
+    /**
+     * Queue a permission check if checks are deferred.
+     *
+     * @param annotationClass annotation type
+     * @param task runnable task
+     * @return true if the task was queued, false if it has to run now
+     */
+    private boolean defer(Class<?> annotationClass, Runnable task) {
         // CreatePermission queues deferred permission checks
         if (deferredChecks == null && CreatePermission.class.equals(annotationClass)) {
             deferredChecks = new LinkedHashSet<>();
         }
-        if (deferredChecks == null || notDeferred) {
-            task.run();
-        } else {
-            deferredChecks.add(task);
+        if (deferredChecks == null || isNotDeferred()) {
+            return false;
         }
+        deferredChecks.add(task);
+        return true;
     }
 
     private static class CheckPermissions implements Runnable {
-        final Class<? extends Check>[] anyChecks;
-        final boolean any;
+        final PermissionPlan plan;
         final PersistentResource resource;
 
-        public CheckPermissions(
-                Class<?> annotationClass,
-                Class<? extends Check>[] checks,
-                boolean isAny,
-                PersistentResource resource) {
-            Preconditions.checkArgument(checks.length > 0);
-            this.anyChecks = Arrays.copyOf(checks, checks.length);
-            this.any = isAny;
+        public CheckPermissions(PermissionPlan plan, PersistentResource resource) {
+            this.plan = plan;
             this.resource = resource;
         }
 
         @Override
         public void run() {
-            PersistentResource.checkPermissions(anyChecks, any, resource);
+            plan.evaluate(resource);
         }
 
         @Override
         public String toString() {
-            return "CheckPermissions [anyChecks=" + Arrays.toString(anyChecks) + ", any=" + any + ", resource="
+            return "CheckPermissions [plan=" + plan + ", resource="
                     + resource.getId() + ", user=" + resource.getRequestScope().getUser() + "]";
         }
     }
@@ -327,77 +493,86 @@ public class RequestScope {
 
         @Override
         public void run() {
+            decide().check(resource.getRequestScope());
+        }
+
+        /**
+         * Decide the permission without throwing when access is denied.
+         *
+         * @return the decision
+         */
+        PermissionDecision decide() {
             // Hack: doNotDefer is a special flag to temporarily disable deferred checking. Presumably, this check
             // should not be running if it needs to be deferred (in which case, deferred checks would also be executing)
             // We should probably find a cleaner way to do this.
-            boolean save = resource.getRequestScope().notDeferred;
+            resource.getRequestScope().enterNotDeferred();
             try {
-                resource.getRequestScope().notDeferred = true;
                 if (fieldName != null && !fieldName.isEmpty()) {
-                    specificField(fieldName);
+                    return specificField(fieldName);
                 } else {
-                    allFields();
+                    return allFields();
                 }
             } finally {
-                resource.getRequestScope().notDeferred = save;
+                resource.getRequestScope().exitNotDeferred();
             }
         }
 
         /**
-         * Determine whether or not a specific field has the specified permission. If this field has the permission
-         * either by default or override, then this method will return successfully. Otherwise, a
-         * ForbiddenAccessException is thrown.
+         * Determine whether or not a specific field has the specified permission, either by default or override.
          *
          * @param theField Field to check
+         * @return the decision
          */
-        private void specificField(String theField) {
+        private PermissionDecision specificField(String theField) {
             assert resource.getRequestScope().isNotDeferred();
-            try {
-                resource.checkPermission(annotationClass, resource);
-            } catch (ForbiddenAccessException e) {
-                resource.checkFieldPermissionIfExists(annotationClass, resource, theField);
+            PermissionPlan fieldPlan = fieldPlan(theField);
+            if (!decide(entityPlan()).isAllowed() && fieldPlan == null) {
+                return PermissionDecision.deny(() -> "Unable to find " + annotationClass.getSimpleName()
+                        + " annotation for " + resource.getResourceClass().getSimpleName() + "#" + theField);
             }
-            resource.checkFieldPermission(annotationClass, resource, theField);
+            return decide(fieldPlan);
         }
 
         /**
-         * Checks whether or not the object itself or ANY field on the object has the specified permission.
-         * If either condition is true, then this method will return without error. Otherwise, a
-         * ForbiddenAccessException is thrown.
+         * Determine whether or not the object itself or ANY field on the object has the specified permission.
+         *
+         * @return the decision
          */
-        private void allFields() {
+        private PermissionDecision allFields() {
             assert resource.getRequestScope().isNotDeferred();
             EntityDictionary dictionary = resource.getDictionary();
 
-            try {
-                resource.checkPermission(annotationClass, resource);
-                return; // Object has permission
-            } catch (ForbiddenAccessException e) {
-                // Ignore
-            }
-
-            // Check attrs
-            for (String attr : dictionary.getAttributes(resource.getObject().getClass())) {
-                try {
-                    specificField(attr);
-                    return; // We have at least a single accessible field
-                } catch (ForbiddenAccessException e) {
-                    // Ignore this.
-                }
+            if (decide(entityPlan()).isAllowed()) {
+                return PermissionDecision.ALLOW; // Object has permission
             }
 
-            // Check relationships
-            for (String rel : dictionary.getRelationships(resource.getObject().getClass())) {
-                try {
-                    specificField(rel);
-                    return; // We have at least a single accessible field
-                } catch (ForbiddenAccessException e) {
-                    // Ignore
+            // Check attrs, then relationships. Fields without an override are denied with the object.
+            List<String> fields = new ArrayList<>(dictionary.getAttributes(resource.getObject().getClass()));
+            fields.addAll(dictionary.getRelationships(resource.getObject().getClass()));
+            for (String field : fields) {
+                PermissionPlan fieldPlan = fieldPlan(field);
+                if (fieldPlan != null && decide(fieldPlan).isAllowed()) {
+                    return PermissionDecision.ALLOW; // We have at least a single accessible field
                 }
             }
 
             // No accessible fields and object is not accessible
-            throw new ForbiddenAccessException("Cannot access object '" + resource.getType() + "'");
+            return PermissionDecision.deny(() -> "Cannot access object '" + resource.getType() + "'");
+        }
+
+        private PermissionPlan entityPlan() {
+            return resource.getDictionary().getPermissionPlan(resource.getResourceClass(), annotationClass);
+        }
+
+        private PermissionPlan fieldPlan(String theField) {
+            return resource.getDictionary().getPermissionPlan(resource.getResourceClass(), annotationClass, theField);
+        }
+
+        private PermissionDecision decide(PermissionPlan plan) {
+            if (plan == null || resource.getRequestScope().getSecurityMode() == SecurityMode.SECURITY_INACTIVE) {
+                return PermissionDecision.ALLOW;
+            }
+            return plan.decide(resource);
         }
     }
 }
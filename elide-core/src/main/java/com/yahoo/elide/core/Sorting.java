@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+
+import com.google.common.collect.Ordering;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Sort rules parsed from the JSON API 'sort' query param.
+ *
+ * Fields are separated by ',' and prefixed with '-' for descending order, e.g. sort=title,-created.
+ */
+@ToString
+@EqualsAndHashCode
+public class Sorting {
+    public static final String SORT_PARAM = "sort";
+    public static final char DESCENDING_TOKEN = '-';
+    public static final char ASCENDING_TOKEN = '+';
+
+    /**
+     * No sorting requested.
+     */
+    public static final Sorting NONE = new Sorting(Collections.emptyMap());
+
+    /**
+     * Sort direction.
+     */
+    public enum SortOrder {
+        ASC,
+        DESC
+    }
+
+    private final Map<String, SortOrder> sortRules;
+
+    public Sorting(Map<String, SortOrder> sortRules) {
+        this.sortRules = Collections.unmodifiableMap(new LinkedHashMap<>(sortRules));
+    }
+
+    /**
+     * Whether any sort rules were requested.
+     *
+     * @return true if no sort rules were requested
+     */
+    public boolean isDefault() {
+        return sortRules.isEmpty();
+    }
+
+    /**
+     * Get the requested sort rules in order.
+     *
+     * @return ordered map of field name to direction
+     */
+    public Map<String, SortOrder> getSortRules() {
+        return sortRules;
+    }
+
+    /**
+     * Get the requested sort rules validated against an entity.  The id and the attributes of the entity may be
+     * sorted on.
+     *
+     * @param entityClass the entity being sorted
+     * @param dictionary the entity dictionary
+     * @return ordered map of field name to direction
+     * @throws InvalidValueException if a field is not sortable
+     */
+    public Map<String, SortOrder> getValidSortingRules(Class<?> entityClass, EntityDictionary dictionary) {
+        List<String> attributes = dictionary.getAttributes(entityClass);
+        String idField = dictionary.getIdFieldName(entityClass);
+        sortRules.keySet().forEach(field -> {
+            if (!field.equals(idField) && !attributes.contains(field)) {
+                throw new InvalidValueException(SORT_PARAM + "=" + field);
+            }
+        });
+        return sortRules;
+    }
+
+    /**
+     * Build a comparator over entity objects for the stores that cannot sort.  Null values are sorted first.
+     *
+     * @param <T> entity type
+     * @param entityClass the entity being sorted
+     * @param dictionary the entity dictionary
+     * @return comparator applying the valid sort rules in order
+     */
+    public <T> Comparator<T> getComparator(Class<T> entityClass, EntityDictionary dictionary) {
+        List<Comparator<T>> comparators = new ArrayList<>();
+        getValidSortingRules(entityClass, dictionary).forEach((field, order) -> {
+            Ordering<T> ordering = Ordering.from(Sorting::compareObjects).nullsFirst()
+                    .onResultOf(object -> PersistentResource.getValue(object, field, dictionary));
+            comparators.add(order == SortOrder.DESC ? ordering.reverse() : ordering);
+        });
+        return Ordering.compound(comparators);
+    }
+
+    /**
+     * Parse the 'sort' query param.
+     *
+     * @param queryParams the request query parameters
+     * @return requested sort rules
+     */
+    public static Sorting parseQueryParams(MultivaluedMap<String, String> queryParams) {
+        List<String> values = queryParams.get(SORT_PARAM);
+        if (values == null || values.isEmpty()) {
+            return NONE;
+        }
+
+        Map<String, SortOrder> sortRules = new LinkedHashMap<>();
+        for (String value : values) {
+            for (String token : value.split(",")) {
+                // an explicit '+' for ascending order arrives decoded as a space
+                String field = token.trim();
+                if (field.isEmpty()) {
+                    continue;
+                }
+                if (field.charAt(0) == DESCENDING_TOKEN) {
+                    sortRules.putIfAbsent(field.substring(1), SortOrder.DESC);
+                } else if (field.charAt(0) == ASCENDING_TOKEN) {
+                    sortRules.putIfAbsent(field.substring(1), SortOrder.ASC);
+                } else {
+                    sortRules.putIfAbsent(field, SortOrder.ASC);
+                }
+            }
+        }
+        return new Sorting(sortRules);
+    }
+
+    /**
+     * Compare two sort key values.
+     *
+     * @param a first value
+     * @param b second value
+     * @return the comparison of a to b, or 0 if a is not Comparable
+     */
+    public static int compareObjects(Object a, Object b) {
+        if (a instanceof Comparable) {
+            return ((Comparable) a).compareTo(b);
+        }
+
+        // Can't compare objects without Comparable implementation
+        return 0;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collection;
+
+/**
+ * Conjunction of two filter expressions.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+public class AndFilterExpression implements FilterExpression {
+    @Getter @NonNull private final FilterExpression left;
+    @Getter @NonNull private final FilterExpression right;
+
+    @Override
+    public <T> T accept(FilterExpressionVisitor<T> visitor) {
+        return visitor.visitAndExpression(this);
+    }
+
+    /**
+     * Conjunction of two filter expressions, either of which may be null.
+     *
+     * @param lhs the left expression
+     * @param rhs the right expression
+     * @return the conjunction, or null if both are null
+     */
+    public static FilterExpression andWithNull(FilterExpression lhs, FilterExpression rhs) {
+        if (lhs == null) {
+            return rhs;
+        } else if (rhs == null) {
+            return lhs;
+        } else {
+            return new AndFilterExpression(lhs, rhs);
+        }
+    }
+
+    /**
+     * Conjunction of filter expressions.
+     *
+     * @param expressions the expressions
+     * @return the conjunction, or null if there are no expressions
+     */
+    public static FilterExpression andAll(Collection<? extends FilterExpression> expressions) {
+        FilterExpression result = null;
+        for (FilterExpression expression : expressions) {
+            result = andWithNull(result, expression);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + " AND " + right + ")";
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The filter query parameters of a request, parsed and coerced to the types of their fields.
+ *
+ * Compiled filters are immutable and compare by value, so a data store may key cached query plans on them or on
+ * the filter expression of one type.
+ */
+@EqualsAndHashCode
+@ToString
+public class CompiledFilter {
+    public static final CompiledFilter EMPTY = new CompiledFilter(Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * Predicates given per field, by type name.
+     */
+    @Getter private final Map<String, Set<Predicate>> predicates;
+
+    /**
+     * Conjunction of the predicates and filter expressions of each type, by type name.
+     */
+    @Getter private final Map<String, FilterExpression> expressions;
+
+    CompiledFilter(Map<String, Set<Predicate>> predicates, Map<String, List<FilterExpression>> expressions) {
+        Map<String, Set<Predicate>> copy = new LinkedHashMap<>();
+        predicates.forEach((type, set) -> copy.put(type, Collections.unmodifiableSet(set)));
+        this.predicates = Collections.unmodifiableMap(copy);
+
+        Map<String, FilterExpression> combined = new LinkedHashMap<>();
+        predicates.forEach((type, set) -> combined.put(type, AndFilterExpression.andAll(set)));
+        expressions.forEach((type, list) ->
+                combined.put(type, AndFilterExpression.andWithNull(combined.get(type),
+                        AndFilterExpression.andAll(list))));
+        this.expressions = Collections.unmodifiableMap(combined);
+    }
+
+    /**
+     * Get predicates given per field for a specific collection type.
+     *
+     * @param type the name of the type
+     * @return the predicates of the type
+     */
+    public Set<Predicate> getPredicatesOfType(String type) {
+        return predicates.getOrDefault(type, Collections.emptySet());
+    }
+
+    /**
+     * Get the filter of a specific collection type: the conjunction of its predicates and filter expressions.
+     *
+     * @param type the name of the type
+     * @return the filter expression, or null if the type is not filtered
+     */
+    public FilterExpression getExpressionOfType(String type) {
+        return expressions.get(type);
+    }
+
+    public boolean isEmpty() {
+        return expressions.isEmpty();
+    }
+}
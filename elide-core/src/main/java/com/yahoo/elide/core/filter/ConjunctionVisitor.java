@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects the predicates of a filter expression which is only a conjunction of predicates, for data stores which
+ * filter by a set of predicates.
+ */
+public class ConjunctionVisitor implements FilterExpressionVisitor<Set<Predicate>> {
+    /**
+     * Get the predicates of a conjunction.
+     *
+     * @param expression the filter expression, may be null
+     * @return the predicates, or null if the expression contains OR or NOT
+     */
+    public static Set<Predicate> getPredicates(FilterExpression expression) {
+        return expression == null ? new LinkedHashSet<>() : expression.accept(new ConjunctionVisitor());
+    }
+
+    @Override
+    public Set<Predicate> visitPredicate(Predicate predicate) {
+        Set<Predicate> predicates = new LinkedHashSet<>();
+        predicates.add(predicate);
+        return predicates;
+    }
+
+    @Override
+    public Set<Predicate> visitAndExpression(AndFilterExpression expression) {
+        Set<Predicate> left = expression.getLeft().accept(this);
+        Set<Predicate> right = expression.getRight().accept(this);
+        if (left == null || right == null) {
+            return null;
+        }
+        left.addAll(right);
+        return left;
+    }
+
+    @Override
+    public Set<Predicate> visitOrExpression(OrFilterExpression expression) {
+        return null;
+    }
+
+    @Override
+    public Set<Predicate> visitNotExpression(NotFilterExpression expression) {
+        return null;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RelationshipType;
+import com.yahoo.elide.core.exceptions.InvalidPredicateException;
+import com.yahoo.elide.utils.coerce.CoerceUtil;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.AllArgsConstructor;
+
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles filter query parameters into a {@link CompiledFilter}.
+ *
+ * Filters are given either per field, as filter[type.path][operator]=values, or as a boolean expression over the
+ * type, as filter[type]=expression (see {@link FilterExpressionParser}).  A path is a field of the type or a
+ * dotted path through its relationships, e.g. filter[book.authors.name].
+ *
+ * Each distinct filter, e.g. filter[book.genre][in], is resolved against the dictionary once: its type, path,
+ * operator, field type and value converter are kept and reused for later requests.  Resolved filters are kept by
+ * the matched filter text rather than the raw parameter name, and only if they name a bound type, path and
+ * operator.  Paths through cyclic relationships can be arbitrarily long, so at most
+ * {@value #DEFAULT_MAXIMUM_FILTERS} resolved filters are kept, the least recently used being evicted first.
+ */
+public class FilterCompiler {
+    // Match "filter[<type>.<path>]", "filter[<type>.<path>][<operator>]" OR "filter[<type>]"
+    private static final Pattern FILTER_PATTERN = Pattern.compile("filter\\[([^\\]]+)\\](\\[([^\\]]+)\\])?");
+    private static final String FILTER_PREFIX = "filter[";
+
+    public static final long DEFAULT_MAXIMUM_FILTERS = 1000;
+
+    /**
+     * A resolved filter parameter key.  The field is null for filter expressions.
+     */
+    @AllArgsConstructor
+    private static class FilterKey {
+        final String type;
+        final Class<?> entityClass;
+        final String field;
+        final Operator operator;
+        final Function<String, Object> coercer;
+    }
+
+    private final EntityDictionary dictionary;
+    private final Cache<String, FilterKey> keys = CacheBuilder.newBuilder()
+            .maximumSize(DEFAULT_MAXIMUM_FILTERS)
+            .build();
+
+    public FilterCompiler(EntityDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Compile the filter query parameters of a request without keeping resolved keys.
+     *
+     * @param dictionary the dictionary
+     * @param queryParams the query parameters
+     * @return the compiled filter
+     * @throws InvalidPredicateException if a filter names an unknown type, field or operator
+     */
+    public static CompiledFilter compile(EntityDictionary dictionary, MultivaluedMap<String, String> queryParams) {
+        return new FilterCompiler(dictionary).compile(queryParams);
+    }
+
+    /**
+     * Compile the filter query parameters of a request.
+     *
+     * @param queryParams the query parameters
+     * @return the compiled filter
+     * @throws InvalidPredicateException if a filter names an unknown type, field or operator or an expression
+     *                                   is malformed
+     */
+    public CompiledFilter compile(MultivaluedMap<String, String> queryParams) {
+        Map<String, Set<Predicate>> predicates = null;
+        Map<String, List<FilterExpression>> expressions = null;
+        for (Map.Entry<String, List<String>> queryParameter : queryParams.entrySet()) {
+            String parameter = queryParameter.getKey();
+            if (!parameter.contains(FILTER_PREFIX)) {
+                continue;
+            }
+            Matcher matcher = FILTER_PATTERN.matcher(parameter);
+            if (!matcher.find()) {
+                continue;
+            }
+            String filter = matcher.group();
+            FilterKey key = keys.getIfPresent(filter);
+            if (key == null) {
+                key = resolve(parameter, matcher);
+                keys.put(filter, key);
+            }
+
+            if (key.field == null) {
+                if (expressions == null) {
+                    expressions = new HashMap<>();
+                }
+                List<FilterExpression> typeExpressions =
+                        expressions.computeIfAbsent(key.type, type -> new ArrayList<>());
+                for (String expression : queryParameter.getValue()) {
+                    typeExpressions.add(parse(key.entityClass, expression));
+                }
+                continue;
+            }
+
+            List<Object> values = new ArrayList<>();
+            for (String valueParams : queryParameter.getValue()) {
+                for (String valueParam : valueParams.split(",")) {
+                    values.add(key.coercer.apply(valueParam));
+                }
+            }
+
+            if (predicates == null) {
+                predicates = new HashMap<>();
+            }
+            predicates.computeIfAbsent(key.type, type -> new LinkedHashSet<>())
+                    .add(new Predicate(key.field, key.operator, values));
+        }
+        if (predicates == null && expressions == null) {
+            return CompiledFilter.EMPTY;
+        }
+        return new CompiledFilter(predicates == null ? new HashMap<>() : predicates,
+                expressions == null ? new HashMap<>() : expressions);
+    }
+
+    /**
+     * Number of resolved filters kept.
+     *
+     * @return the filter count
+     */
+    public long size() {
+        return keys.size();
+    }
+
+    /**
+     * Parse a filter expression over an entity type.
+     *
+     * @param entityClass the entity class
+     * @param expression the expression
+     * @return the filter expression
+     * @throws InvalidPredicateException if the expression is malformed or names an unknown path
+     */
+    public FilterExpression parse(Class<?> entityClass, String expression) {
+        return new FilterExpressionParser(expression, path -> CoerceUtil.stringCoercer(resolvePath(entityClass, path)))
+                .parse();
+    }
+
+    /**
+     * Resolve a filter parameter key.
+     *
+     * @param parameter the parameter name
+     * @param matcher the filter pattern matched against the parameter name
+     * @return the resolved key
+     * @throws InvalidPredicateException if the filter names an unknown type, field or operator
+     */
+    private FilterKey resolve(String parameter, Matcher matcher) {
+        final String[] keyParts = matcher.group(1).split("\\.", 2);
+
+        if (keyParts.length == 1 && matcher.group(2) != null) {
+            throw new InvalidPredicateException("Invalid filter format: " + parameter);
+        }
+
+        final String type = keyParts[0];
+
+        final Class<?> entityClass = dictionary.getBinding(type);
+        if (entityClass == null) {
+            throw new InvalidPredicateException("Unknown entity in filter: " + type);
+        }
+
+        if (keyParts.length == 1) {
+            return new FilterKey(type, entityClass, null, null, null);
+        }
+
+        final String field = keyParts[1];
+
+        final Operator operator = (matcher.group(3) == null) ? Operator.IN
+                : Operator.fromString(matcher.group(3));
+
+        final Class<?> fieldType = resolvePath(entityClass, field);
+
+        return new FilterKey(type, entityClass, field, operator, CoerceUtil.stringCoercer(fieldType));
+    }
+
+    /**
+     * Resolve a path through relationships to the type of its field.
+     *
+     * @param entityClass the entity class the path starts from
+     * @param path the dotted path
+     * @return the field type
+     * @throws InvalidPredicateException if the path names an unknown relationship or field
+     */
+    private Class<?> resolvePath(Class<?> entityClass, String path) {
+        final String[] segments = path.split("\\.", -1);
+        Class<?> cls = entityClass;
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (dictionary.getRelationshipType(cls, segments[i]) == RelationshipType.NONE) {
+                throw new InvalidPredicateException("Unknown relationship in filter: " + segments[i]);
+            }
+            cls = dictionary.getParameterizedType(cls, segments[i]);
+        }
+
+        final String field = segments[segments.length - 1];
+        final Class<?> fieldType = ("id".equals(field.toLowerCase(Locale.ENGLISH)))
+                                   ? dictionary.getIdType(cls)
+                                   : dictionary.getParameterizedType(cls, field);
+        if (fieldType == null) {
+            throw new InvalidPredicateException("Unknown field in filter: " + field);
+        }
+        return fieldType;
+    }
+}
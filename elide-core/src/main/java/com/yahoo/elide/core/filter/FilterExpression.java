@@ -0,0 +1,20 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+/**
+ * A boolean filter over the records of one type: a {@link Predicate} or an AND, OR or NOT of filter expressions.
+ */
+public interface FilterExpression {
+    /**
+     * Accept a visitor.
+     *
+     * @param <T> the result type of the visitor
+     * @param visitor the visitor
+     * @return the result of the visitor
+     */
+    <T> T accept(FilterExpressionVisitor<T> visitor);
+}
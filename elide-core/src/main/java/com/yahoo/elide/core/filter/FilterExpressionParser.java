@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import com.yahoo.elide.core.exceptions.InvalidPredicateException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Parses the value of a filter[type] query parameter into a filter expression.
+ *
+ * <pre>
+ * expression := and ( ',' and )*
+ * and        := unary ( ';' unary )*
+ * unary      := '!' unary | '(' expression ')' | comparison
+ * comparison := path '=' operator '=' [ value | '(' value ( ',' value )* ')' ]
+ * value      := quoted string | characters other than ( ) , ; ' "
+ * </pre>
+ *
+ * For example genre=in=('Science Fiction',Fantasy),!(authors.name=prefix=Tolkien).  The path is relative to the
+ * filtered type, the operators are those of filter[type.field][operator], and values may be quoted with ' or "
+ * with \ escaping the quote.  Whitespace between tokens is ignored.
+ */
+class FilterExpressionParser {
+    private final String text;
+    private final Function<String, Function<String, Object>> coercers;
+    private int position;
+
+    /**
+     * @param text the filter expression
+     * @param coercers resolves a path to the coercer of its values
+     */
+    FilterExpressionParser(String text, Function<String, Function<String, Object>> coercers) {
+        this.text = text;
+        this.coercers = coercers;
+    }
+
+    /**
+     * Parse the whole text.
+     *
+     * @return the filter expression
+     * @throws InvalidPredicateException if the text is not a filter expression
+     */
+    FilterExpression parse() {
+        FilterExpression expression = parseOr();
+        skipWhitespace();
+        if (position < text.length()) {
+            throw error("Unexpected '" + text.charAt(position) + "'");
+        }
+        return expression;
+    }
+
+    private FilterExpression parseOr() {
+        FilterExpression expression = parseAnd();
+        while (accept(',')) {
+            expression = new OrFilterExpression(expression, parseAnd());
+        }
+        return expression;
+    }
+
+    private FilterExpression parseAnd() {
+        FilterExpression expression = parseUnary();
+        while (accept(';')) {
+            expression = new AndFilterExpression(expression, parseUnary());
+        }
+        return expression;
+    }
+
+    private FilterExpression parseUnary() {
+        if (accept('!')) {
+            return new NotFilterExpression(parseUnary());
+        }
+        if (accept('(')) {
+            FilterExpression expression = parseOr();
+            expect(')');
+            return expression;
+        }
+        return parseComparison();
+    }
+
+    private Predicate parseComparison() {
+        skipWhitespace();
+        String path = scan(c -> Character.isLetterOrDigit(c) || c == '_' || c == '.');
+        if (path.isEmpty()) {
+            throw error("Expected a field");
+        }
+        Function<String, Object> coercer = coercers.apply(path);
+        expect('=');
+        Operator operator = Operator.fromString(scan(Character::isLetter));
+        expect('=');
+
+        List<Object> values = new ArrayList<>();
+        if (accept('(')) {
+            do {
+                values.add(coercer.apply(parseValue()));
+            } while (accept(','));
+            expect(')');
+        } else if (!atDelimiter()) {
+            values.add(coercer.apply(parseValue()));
+        }
+
+        if (operator.isParameterized() && values.isEmpty()) {
+            throw error("No value for " + path);
+        }
+        if (!operator.isParameterized() && !values.isEmpty()) {
+            throw error("Operator " + operator.getString() + " takes no value");
+        }
+        return new Predicate(path, operator, values);
+    }
+
+    private String parseValue() {
+        skipWhitespace();
+        if (position < text.length() && (text.charAt(position) == '\'' || text.charAt(position) == '"')) {
+            char quote = text.charAt(position++);
+            StringBuilder value = new StringBuilder();
+            while (position < text.length() && text.charAt(position) != quote) {
+                char c = text.charAt(position++);
+                if (c == '\\' && position < text.length()) {
+                    c = text.charAt(position++);
+                }
+                value.append(c);
+            }
+            expect(quote);
+            return value.toString();
+        }
+        String value = scan(c -> "(),;'\"".indexOf(c) < 0).trim();
+        if (value.isEmpty()) {
+            throw error("Expected a value");
+        }
+        return value;
+    }
+
+    private boolean atDelimiter() {
+        skipWhitespace();
+        return position == text.length() || ",;)".indexOf(text.charAt(position)) >= 0;
+    }
+
+    private String scan(java.util.function.Predicate<Character> allowed) {
+        int start = position;
+        while (position < text.length() && allowed.test(text.charAt(position))) {
+            position++;
+        }
+        return text.substring(start, position);
+    }
+
+    private boolean accept(char c) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private InvalidPredicateException error(String message) {
+        return new InvalidPredicateException(message + " at position " + position + " of filter: " + text);
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+/**
+ * Visitor of filter expressions, used by data stores to translate a filter into their own query language.
+ * @param <T> the result type
+ */
+public interface FilterExpressionVisitor<T> {
+    T visitPredicate(Predicate predicate);
+    T visitAndExpression(AndFilterExpression expression);
+    T visitOrExpression(OrFilterExpression expression);
+    T visitNotExpression(NotFilterExpression expression);
+}
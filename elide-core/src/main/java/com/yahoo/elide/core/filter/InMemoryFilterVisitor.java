@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.exceptions.InvalidPredicateException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Translates a filter expression into a test of entity instances, for data stores which filter in memory.
+ *
+ * Expressions are evaluated with SQL's three-valued logic, so records match as they do in the Hibernate stores:
+ * a comparison with a missing value is unknown rather than false, NOT of unknown is unknown, and only records for
+ * which the whole expression is true match.  A relationship path matches if any related record matches, as with
+ * the subqueries of the Hibernate filters, so it is never unknown.
+ */
+public class InMemoryFilterVisitor implements FilterExpressionVisitor<java.util.function.Predicate<Object>> {
+    private final EntityDictionary dictionary;
+    private final TruthVisitor truthVisitor = new TruthVisitor();
+
+    public InMemoryFilterVisitor(EntityDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public java.util.function.Predicate<Object> visitPredicate(Predicate predicate) {
+        return test(predicate);
+    }
+
+    @Override
+    public java.util.function.Predicate<Object> visitAndExpression(AndFilterExpression expression) {
+        return test(expression);
+    }
+
+    @Override
+    public java.util.function.Predicate<Object> visitOrExpression(OrFilterExpression expression) {
+        return test(expression);
+    }
+
+    @Override
+    public java.util.function.Predicate<Object> visitNotExpression(NotFilterExpression expression) {
+        return test(expression);
+    }
+
+    private java.util.function.Predicate<Object> test(FilterExpression expression) {
+        Function<Object, Boolean> truth = expression.accept(truthVisitor);
+        return record -> Boolean.TRUE.equals(truth.apply(record));
+    }
+
+    /**
+     * Evaluates an expression of a record to true, false or null for unknown.
+     */
+    private class TruthVisitor implements FilterExpressionVisitor<Function<Object, Boolean>> {
+        @Override
+        public Function<Object, Boolean> visitPredicate(Predicate predicate) {
+            List<String> path = predicate.getPath();
+            Operator operator = predicate.getOperator();
+            List<Object> values = predicate.getValues();
+            if (operator.isParameterized() && values.isEmpty()) {
+                throw new InvalidPredicateException("No value in filter: " + predicate.getField());
+            }
+            if (path.size() == 1) {
+                return record -> matches(operator, values,
+                        PersistentResource.getValue(record, path.get(0), dictionary));
+            }
+            return record -> anyMatch(record, path, 0, operator, values);
+        }
+
+        @Override
+        public Function<Object, Boolean> visitAndExpression(AndFilterExpression expression) {
+            Function<Object, Boolean> left = expression.getLeft().accept(this);
+            Function<Object, Boolean> right = expression.getRight().accept(this);
+            return record -> {
+                Boolean a = left.apply(record);
+                Boolean b = right.apply(record);
+                if (Boolean.FALSE.equals(a) || Boolean.FALSE.equals(b)) {
+                    return false;
+                }
+                return a == null || b == null ? null : true;
+            };
+        }
+
+        @Override
+        public Function<Object, Boolean> visitOrExpression(OrFilterExpression expression) {
+            Function<Object, Boolean> left = expression.getLeft().accept(this);
+            Function<Object, Boolean> right = expression.getRight().accept(this);
+            return record -> {
+                Boolean a = left.apply(record);
+                Boolean b = right.apply(record);
+                if (Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b)) {
+                    return true;
+                }
+                return a == null || b == null ? null : false;
+            };
+        }
+
+        @Override
+        public Function<Object, Boolean> visitNotExpression(NotFilterExpression expression) {
+            Function<Object, Boolean> negated = expression.getNegated().accept(this);
+            return record -> {
+                Boolean value = negated.apply(record);
+                return value == null ? null : !value;
+            };
+        }
+    }
+
+    /**
+     * Follow the path from a record, matching if any related record matches.
+     */
+    private boolean anyMatch(Object record, List<String> path, int index, Operator operator, List<Object> values) {
+        Object value = PersistentResource.getValue(record, path.get(index), dictionary);
+        if (index == path.size() - 1) {
+            return Boolean.TRUE.equals(matches(operator, values, value));
+        }
+        if (value instanceof Collection) {
+            for (Object related : (Collection<?>) value) {
+                if (related != null && anyMatch(related, path, index + 1, operator, values)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return value != null && anyMatch(value, path, index + 1, operator, values);
+    }
+
+    /**
+     * Compare a value, which is unknown for a missing value unless the operator tests for one.
+     */
+    private static Boolean matches(Operator operator, List<Object> values, Object value) {
+        switch (operator) {
+            case ISNULL:
+                return value == null;
+            case NOTNULL:
+                return value != null;
+            default:
+                break;
+        }
+        if (value == null) {
+            return null;
+        }
+        switch (operator) {
+            case IN:
+                return values.contains(value);
+            case NOT:
+                return !values.contains(value);
+            case PREFIX:
+                return String.valueOf(value).startsWith(String.valueOf(values.get(0)));
+            case POSTFIX:
+                return String.valueOf(value).endsWith(String.valueOf(values.get(0)));
+            case INFIX:
+                return String.valueOf(value).contains(String.valueOf(values.get(0)));
+            case LT:
+                return compare(value, values.get(0)) < 0;
+            case LE:
+                return compare(value, values.get(0)) <= 0;
+            case GT:
+                return compare(value, values.get(0)) > 0;
+            case GE:
+                return compare(value, values.get(0)) >= 0;
+            default:
+                throw new InvalidPredicateException("Operator not implemented: " + operator);
+        }
+    }
+
+    private static int compare(Object value, Object bound) {
+        if (!(value instanceof Comparable)) {
+            throw new InvalidPredicateException("Values are not comparable: " + value.getClass().getSimpleName());
+        }
+        try {
+            return ((Comparable<Object>) value).compareTo(bound);
+        } catch (ClassCastException e) {
+            throw new InvalidPredicateException("Values are not comparable: " + value + ", " + bound);
+        }
+    }
+}
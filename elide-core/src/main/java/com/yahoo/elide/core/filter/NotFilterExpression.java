@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Negation of a filter expression.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+public class NotFilterExpression implements FilterExpression {
+    @Getter @NonNull private final FilterExpression negated;
+
+    @Override
+    public <T> T accept(FilterExpressionVisitor<T> visitor) {
+        return visitor.visitNotExpression(this);
+    }
+
+    @Override
+    public String toString() {
+        return "NOT " + negated;
+    }
+}
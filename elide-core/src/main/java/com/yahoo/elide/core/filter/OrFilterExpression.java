@@ -0,0 +1,31 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Disjunction of two filter expressions.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+public class OrFilterExpression implements FilterExpression {
+    @Getter @NonNull private final FilterExpression left;
+    @Getter @NonNull private final FilterExpression right;
+
+    @Override
+    public <T> T accept(FilterExpressionVisitor<T> visitor) {
+        return visitor.visitOrExpression(this);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + " OR " + right + ")";
+    }
+}
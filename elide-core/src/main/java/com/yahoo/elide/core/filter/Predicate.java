@@ -6,81 +6,55 @@
 package com.yahoo.elide.core.filter;
 
 import com.yahoo.elide.core.EntityDictionary;
-import com.yahoo.elide.core.exceptions.InvalidPredicateException;
-import com.yahoo.elide.utils.coerce.CoerceUtil;
-import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
 
 import javax.ws.rs.core.MultivaluedMap;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Predicate class.
+ *
+ * The field is a path relative to the filtered type: a field of that type, or relationships followed by a field of
+ * the last related type, e.g. authors.name.  A path through a to-many relationship matches a record if any related
+ * record matches.
  */
-@AllArgsConstructor
+@EqualsAndHashCode
 @ToString
-public class Predicate {
-    @Getter @NonNull private String field;
-    @Getter @NonNull private Operator operator;
-    @Getter @NonNull private List<Object> values;
-
-    public static Map<String, Set<Predicate>> parseQueryParams(final EntityDictionary dictionary,
-                                                               final MultivaluedMap<String, String> queryParams) {
-        final Map<String, Set<Predicate>> predicates = new HashMap<>();
-
-        queryParams.entrySet().forEach(queryParameter -> {
-            // Match "filter[<type>.<field>]" OR "filter[<type>.<field>][<operator>]"
-            Matcher matcher = Pattern.compile("filter\\[([^\\]]+)\\](\\[([^\\]]+)\\])?")
-                    .matcher(queryParameter.getKey());
-            if (matcher.find()) {
-                final String[] keyParts = matcher.group(1).split("\\.");
-
-                if (keyParts.length != 2) {
-                    throw new InvalidPredicateException("Invalid filter format: " + queryParameter.getKey());
-                }
-
-                final String type = keyParts[0];
-                final String field = keyParts[1];
-
-                final Operator operator = (matcher.group(3) == null) ? Operator.IN
-                        : Operator.fromString(matcher.group(3));
-
-                final Class<?> entityClass = dictionary.getBinding(type);
-                if (entityClass == null) {
-                    throw new InvalidPredicateException("Unknown entity in filter: " + type);
-                }
-
-                final Class<?> fieldType = ("id".equals(field.toLowerCase(Locale.ENGLISH)))
-                                           ? dictionary.getIdType(entityClass)
-                                           : dictionary.getParameterizedType(entityClass, field);
-                if (fieldType == null) {
-                    throw new InvalidPredicateException("Unknown field in filter: " + field);
-                }
+public class Predicate implements FilterExpression {
+    @Getter private final String field;
+    @Getter private final Operator operator;
+    @Getter private final List<Object> values;
+
+    public Predicate(@NonNull String field, @NonNull Operator operator, @NonNull List<Object> values) {
+        this.field = field;
+        this.operator = operator;
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
 
-                final List<Object> values = new ArrayList<>();
-                for (String valueParams : queryParameter.getValue()) {
-                    for (String valueParam : valueParams.split(",")) {
-                        values.add(CoerceUtil.coerce(valueParam, fieldType));
-                    }
-                }
+    /**
+     * Get the path of the field.
+     *
+     * @return the relationships followed by the field name
+     */
+    public List<String> getPath() {
+        return Arrays.asList(field.split("\\."));
+    }
 
-                if (!predicates.containsKey(type)) {
-                    predicates.put(type, new LinkedHashSet<>());
-                }
-                predicates.get(type).add(new Predicate(field, operator, values));
-            }
-        });
+    @Override
+    public <T> T accept(FilterExpressionVisitor<T> visitor) {
+        return visitor.visitPredicate(this);
+    }
 
-        return predicates;
+    public static Map<String, Set<Predicate>> parseQueryParams(final EntityDictionary dictionary,
+                                                               final MultivaluedMap<String, String> queryParams) {
+        return FilterCompiler.compile(dictionary, queryParams).getPredicates();
     }
 }
@@ -5,7 +5,6 @@
  */
 package com.yahoo.elide.extensions;
 
-import com.yahoo.elide.Elide;
 import com.yahoo.elide.core.DataStore;
 import com.yahoo.elide.core.HttpStatus;
 import com.yahoo.elide.core.RequestScope;
@@ -19,6 +18,8 @@ import com.yahoo.elide.jsonapi.models.Resource;
 import com.yahoo.elide.parsers.DeleteVisitor;
 import com.yahoo.elide.parsers.PatchVisitor;
 import com.yahoo.elide.parsers.PostVisitor;
+import com.yahoo.elide.parsers.Route;
+import com.yahoo.elide.parsers.RouteCache;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -32,6 +33,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -56,13 +58,13 @@ public class JsonApiPatch {
             this.cause = null;
         }
 
-        public void postProcess(PatchRequestScope requestScope) {
+        public void postProcess(PatchRequestScope requestScope, Function<String, Route> router) {
             if (isPostProcessing) {
                 try {
                     // Only update relationships
                     clearAllExceptRelationships(doc);
                     PatchVisitor visitor = new PatchVisitor(new PatchRequestScope(doc, requestScope));
-                    visitor.visit(Elide.parse(path));
+                    visitor.visit(router.apply(path));
                 } catch (HttpStatusException e) {
                     cause = e;
                     throw e;
@@ -73,6 +75,7 @@ public class JsonApiPatch {
 
     private final List<PatchAction> actions;
     private final String rootUri;
+    private final Function<String, Route> router;
 
     private static final ObjectNode ERR_NODE_ERR_IN_SUBSEQUENT_OPERATION;
     private static final ObjectNode ERR_NODE_OPERATION_NOT_RUN;
@@ -102,8 +105,28 @@ public class JsonApiPatch {
             String patchDoc,
             PatchRequestScope requestScope)
             throws IOException {
+        return processJsonPatch(dataStore, uri, patchDoc, requestScope, new RouteCache(0)::resolve);
+    }
+
+    /**
+     * Process json patch.
+     *
+     * @param dataStore the dataStore
+     * @param uri the uri
+     * @param patchDoc the patch doc
+     * @param requestScope request scope
+     * @param router parses the paths of the operations
+     * @return pair
+     * @throws IOException the iO exception
+     */
+    public static Supplier<Pair<Integer, JsonNode>> processJsonPatch(DataStore dataStore,
+            String uri,
+            String patchDoc,
+            PatchRequestScope requestScope,
+            Function<String, Route> router)
+            throws IOException {
         List<Patch> actions = requestScope.getMapper().readJsonApiPatchExtDoc(patchDoc);
-        JsonApiPatch processor = new JsonApiPatch(dataStore, actions, uri, requestScope);
+        JsonApiPatch processor = new JsonApiPatch(dataStore, actions, uri, requestScope, router);
         return processor.processActions(requestScope);
     }
 
@@ -113,13 +136,16 @@ public class JsonApiPatch {
      * @param dataStore Data Store
      * @param actions List of patch actions
      * @param rootUri root URI
+     * @param router parses the paths of the operations
      */
     private JsonApiPatch(DataStore dataStore,
             List<Patch> actions,
             String rootUri,
-            RequestScope requestScope) {
+            RequestScope requestScope,
+            Function<String, Route> router) {
         this.actions = actions.stream().map(PatchAction::new).collect(Collectors.toList());
         this.rootUri = rootUri;
+        this.router = router;
     }
 
     /**
@@ -205,7 +231,7 @@ public class JsonApiPatch {
                 action.isPostProcessing = true;
             }
             PostVisitor visitor = new PostVisitor(new PatchRequestScope(value, requestScope));
-            return visitor.visit(Elide.parse(path));
+            return visitor.visit(router.apply(path));
         } catch (HttpStatusException e) {
             action.cause = e;
             throw e;
@@ -223,7 +249,7 @@ public class JsonApiPatch {
             JsonApiDocument value = requestScope.getMapper().readJsonApiPatchExtValue(patchVal);
             // Defer relationship updating until the end
             PatchVisitor visitor = new PatchVisitor(new PatchRequestScope(value, requestScope));
-            return visitor.visit(Elide.parse(path));
+            return visitor.visit(router.apply(path));
         } catch (IOException e) {
             throw new InvalidEntityBodyException("Could not parse patch extension value: " + patchVal);
         }
@@ -252,7 +278,7 @@ public class JsonApiPatch {
             }
             DeleteVisitor visitor = new DeleteVisitor(
                 new PatchRequestScope(value, requestScope));
-            return visitor.visit(Elide.parse(fullPath));
+            return visitor.visit(router.apply(fullPath));
         } catch (IOException e) {
             throw new InvalidEntityBodyException("Could not parse patch extension value: " + patchValue);
         }
@@ -269,7 +295,7 @@ public class JsonApiPatch {
      * @param requestScope request scope
      */
     private void postProcessRelationships(PatchRequestScope requestScope) {
-        actions.forEach(action -> action.postProcess(requestScope));
+        actions.forEach(action -> action.postProcess(requestScope, router));
     }
 
     /**
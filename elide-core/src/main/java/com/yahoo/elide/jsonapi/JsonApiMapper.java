@@ -5,16 +5,22 @@
  */
 package com.yahoo.elide.jsonapi;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.jsonapi.models.Data;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import com.yahoo.elide.jsonapi.models.Patch;
+import com.yahoo.elide.jsonapi.models.Resource;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Serializer/Deserializer for JSON API.
@@ -43,6 +49,50 @@ public class JsonApiMapper {
         return mapper.writeValueAsString(jsonApiDocument);
     }
 
+    /**
+     * Write out JSON API Document to a stream without building a JSON tree or string first.
+     * The stream is flushed but not closed.
+     *
+     * @param jsonApiDocument the json api document
+     * @param out the output stream
+     * @throws IOException the iO exception
+     */
+    public void writeJsonApiDocument(JsonApiDocument jsonApiDocument, OutputStream out) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            mapper.writeValue(generator, jsonApiDocument);
+        }
+    }
+
+    /**
+     * Convert the attribute values of a document's resources to JSON trees, unless they are plain values, so the
+     * document can still be written once the transaction its entities were loaded in has closed.  Collections and
+     * embedded objects may be loaded lazily by the datastore when they are first read.
+     *
+     * @param jsonApiDocument the json api document
+     */
+    public void detachAttributes(JsonApiDocument jsonApiDocument) {
+        List<Resource> resources = new ArrayList<>();
+        Data<Resource> data = jsonApiDocument.getData();
+        if (data != null && data.get() != null) {
+            resources.addAll(data.get());
+        }
+        if (jsonApiDocument.getIncluded() != null) {
+            resources.addAll(jsonApiDocument.getIncluded());
+        }
+        for (Resource resource : resources) {
+            Map<String, Object> attributes = resource.getAttributes();
+            if (attributes != null) {
+                attributes.replaceAll((field, value) -> isPlainValue(value) ? value : mapper.valueToTree(value));
+            }
+        }
+    }
+
+    private static boolean isPlainValue(Object value) {
+        return value == null || value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || value instanceof JsonNode;
+    }
+
     /**
      * To json object.
      *
@@ -5,25 +5,71 @@
  */
 package com.yahoo.elide.jsonapi.document.processors;
 
-import com.google.common.collect.Lists;
 import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 
 import javax.ws.rs.core.MultivaluedMap;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * A Document Processor that add requested relations to the include block of the JsonApiDocument.
+ *
+ * The include paths are compiled into a prefix tree, so a relation shared by several paths is walked once, and
+ * the tree is expanded one level at a time over all the resources reached at that level.  Each resource is walked
+ * at most once per tree node and converted to a Resource at most once per document.  A relation is loaded for all
+ * the resources of a level in one batch, and so are the relationships of the resources it reaches before they are
+ * rendered, rather than once per resource.
  */
 public class IncludedProcessor implements DocumentProcessor {
     private static final String RELATION_PATH_DELIMITER = "\\.";
     private static final String RELATION_PATH_SEPARATOR = ",";
     private static final String INCLUDE = "include";
 
+    /**
+     * Relations to include below a resource, by relation name.
+     */
+    private static class IncludeTree {
+        final Map<String, IncludeTree> children = new LinkedHashMap<>();
+
+        static IncludeTree compile(List<String> requestedRelationPaths) {
+            IncludeTree root = new IncludeTree();
+            for (String pathParam : requestedRelationPaths) {
+                for (String requestedRelationPath : pathParam.split(RELATION_PATH_SEPARATOR)) {
+                    IncludeTree node = root;
+                    for (String relation : requestedRelationPath.split(RELATION_PATH_DELIMITER)) {
+                        node = node.children.computeIfAbsent(relation, key -> new IncludeTree());
+                    }
+                }
+            }
+            return root;
+        }
+    }
+
+    /**
+     * Type and id of a resource.
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class ResourceKey {
+        private final String type;
+        private final String id;
+
+        ResourceKey(PersistentResource<?> resource) {
+            this(resource.getType(), resource.getId());
+        }
+    }
+
     /**
      * If the include query param is present, this processor will add the requested relations resources
      * to the included block of the JsonApiDocument.
@@ -32,7 +78,8 @@ public class IncludedProcessor implements DocumentProcessor {
     public void execute(JsonApiDocument jsonApiDocument, PersistentResource resource,
                         Optional<MultivaluedMap<String, String>> queryParams) {
         if (isPresent(queryParams, INCLUDE)) {
-            addIncludedResources(jsonApiDocument, resource, queryParams.get().get(INCLUDE));
+            addIncludedResources(jsonApiDocument, Collections.singletonList(resource),
+                    queryParams.get().get(INCLUDE));
         }
     }
 
@@ -44,49 +91,50 @@ public class IncludedProcessor implements DocumentProcessor {
     public void execute(JsonApiDocument jsonApiDocument, Set<PersistentResource> resources,
                         Optional<MultivaluedMap<String, String>> queryParams) {
         if (isPresent(queryParams, INCLUDE)) {
-
-            // Process include for each resource
-            resources.forEach(resource ->
-                    addIncludedResources(jsonApiDocument, resource, queryParams.get().get(INCLUDE)));
+            addIncludedResources(jsonApiDocument, resources, queryParams.get().get(INCLUDE));
         }
     }
 
     /**
      * Adds the requested relation resources to the included block of the JsonApiDocument.
      */
-    private void addIncludedResources(JsonApiDocument jsonApiDocument, PersistentResource rec,
-            List<String> requestedRelationPaths) {
-        // Process each include relation path
-        requestedRelationPaths.forEach(pathParam -> {
-            List<String> pathList = Arrays.asList(pathParam.split(RELATION_PATH_SEPARATOR));
-
-            pathList.forEach(requestedRelationPath -> {
-                List<String> relationPath =
-                        Lists.newArrayList(requestedRelationPath.split(RELATION_PATH_DELIMITER));
-                addResourcesForPath(jsonApiDocument, rec, relationPath);
-            });
-        });
-    }
-
-    /**
-     * Adds all the relation resources for a given relation path to the included block of the
-     * JsonApiDocument.
-     */
-    private void addResourcesForPath(JsonApiDocument jsonApiDocument, PersistentResource<?> rec,
-                                     List<String> relationPath) {
+    private void addIncludedResources(JsonApiDocument jsonApiDocument, Collection<PersistentResource> records,
+                                      List<String> requestedRelationPaths) {
+        Set<ResourceKey> included = new HashSet<>();
+        // walk the records once, since each relation at the first level is fetched from all of them
+        List<PersistentResource> roots = new ArrayList<>();
+        records.forEach(roots::add);
+        Map<IncludeTree, Collection<PersistentResource>> level = new LinkedHashMap<>();
+        level.put(IncludeTree.compile(requestedRelationPaths), roots);
 
-        //Pop off a relation of relation path
-        String relation = relationPath.remove(0);
+        while (!level.isEmpty()) {
+            Map<IncludeTree, Collection<PersistentResource>> nextLevel = new LinkedHashMap<>();
+            level.forEach((node, parents) -> node.children.forEach((relation, child) -> {
+                RequestScope requestScope = parents.iterator().next().getRequestScope();
+                PersistentResource.batchLoadRelation(requestScope, parents, relation);
 
-        rec.getRelation(relation).forEach(resource -> {
-            jsonApiDocument.addIncluded(resource.toResource());
+                // fetch the relation once per distinct parent, whichever paths lead to it
+                Map<ResourceKey, PersistentResource> reached = new LinkedHashMap<>();
+                for (PersistentResource<?> parent : parents) {
+                    for (PersistentResource resource : parent.getRelation(relation)) {
+                        reached.putIfAbsent(new ResourceKey(resource), resource);
+                    }
+                }
 
-            //If more relations left in the path, process a level deeper
-            if (!relationPath.isEmpty()) {
-                //Use a copy of the relationPath to preserve the path for remaining branches of the relationship tree
-                addResourcesForPath(jsonApiDocument, resource, new ArrayList<>(relationPath));
-            }
-        });
+                List<PersistentResource> rendered = new ArrayList<>();
+                reached.forEach((key, resource) -> {
+                    if (included.add(key)) {
+                        rendered.add(resource);
+                    }
+                });
+                PersistentResource.batchLoadRelationships(requestScope, rendered);
+                rendered.forEach(resource -> jsonApiDocument.addIncluded(resource.toResource()));
+                if (!child.children.isEmpty() && !reached.isEmpty()) {
+                    nextLevel.put(child, reached.values());
+                }
+            }));
+            level = nextLevel;
+        }
     }
 
     private static boolean isPresent(Optional<MultivaluedMap<String, String>> queryParams, String key) {
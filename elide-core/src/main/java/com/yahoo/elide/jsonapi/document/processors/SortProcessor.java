@@ -6,16 +6,17 @@
 package com.yahoo.elide.jsonapi.document.processors;
 
 import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.Sorting;
 import com.yahoo.elide.jsonapi.models.Data;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import com.yahoo.elide.jsonapi.models.Resource;
 import com.google.common.collect.Ordering;
 
 import java.util.Comparator;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -23,13 +24,17 @@ import javax.ws.rs.core.MultivaluedMap;
  * Implementation for JSON API 'sort' query param.
  *
  * Sorts a JsonApiDocument's data field based on attributes specified in query param.
- * If an attribute is not found, it will be ignored for sorting.
+ * Fields that are neither the id nor an attribute of the resources are rejected as {@link Sorting} does.
  * Null values are sorted first.
  *
  * Supports sort by multiple fields by separating them with ','
  * Supports descending sorts by prefixing the field with '-'
  * Does not support sorting by a relationship's field (ex: author.name)
  *
+ * Requests are not sorted by this processor: root collections are sorted when they are loaded and relationship
+ * collections before they are serialized, both by the sort rules of the {@link com.yahoo.elide.core.RequestScope}.
+ * This processor sorts documents that were built outside of a request.
+ *
  * Example:
  *  /posts?sort=title,-created
  */
@@ -38,12 +43,12 @@ public class SortProcessor implements DocumentProcessor {
     /**
      * The constant SORT_PARAM.
      */
-    public static final String SORT_PARAM = "sort";
+    public static final String SORT_PARAM = Sorting.SORT_PARAM;
 
     /**
      * The constant DESCENDING_TOKEN.
      */
-    public static final char DESCENDING_TOKEN = '-';
+    public static final char DESCENDING_TOKEN = Sorting.DESCENDING_TOKEN;
 
     /**
      * Sorts a JsonApiDocument's data field based on attributes specified in the 'sort' query param.
@@ -65,6 +70,7 @@ public class SortProcessor implements DocumentProcessor {
      * @param jsonApiDocument the json api document
      * @param resources the resources
      * @param queryParams the query params
+     * @throws com.yahoo.elide.core.exceptions.InvalidValueException if a sort field is not sortable
      */
     @Override
     public void execute(JsonApiDocument jsonApiDocument, Set<PersistentResource> resources,
@@ -72,93 +78,33 @@ public class SortProcessor implements DocumentProcessor {
 
         // Only sort if requested by query param
         queryParams.filter(params -> params.containsKey(SORT_PARAM)).ifPresent(params -> {
-            List<String> sortFields = params.get(SORT_PARAM);
+            Sorting sorting = Sorting.parseQueryParams(params);
+            if (resources.isEmpty() || sorting.isDefault()) {
+                return;
+            }
 
             // Sort the json api document's data property based on the requested sort fields
-            sort(jsonApiDocument.getData(), sortFields);
+            sort(jsonApiDocument.getData(), resources, sorting);
         });
 
     }
 
     /**
-     * Sort data based on provided sort field list.
+     * Sort data by the objects of the resources it was built from, as relationship collections are sorted.
      *
      * @param data resource data to sort
-     * @param sortFields - attribute fields within the data to sort by
-     */
-    private void sort(Data<Resource> data, List<String> sortFields) {
-        List<Comparator<Resource>> comparisonFunctions = buildComparisonFunctions(sortFields);
-
-        data.sort((a, b) ->
-
-            // Apply comparison functions in order until one returns a non-zero value
-            Ordering.compound(comparisonFunctions).compare(a, b)
-        );
-    }
-
-    /**
-     * Build list of comparators.
-     *
-     * @param sortFields attribute fields within the data to sort by
-     * @return list of comparators to do the sorting
-     */
-    private List<Comparator<Resource>> buildComparisonFunctions(List<String> sortFields) {
-        // Convert sort fields to comparisons
-        return sortFields.stream()
-                .map(this::comparisonForField)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Field comparator.
-     *
-     * @param field name of attribute field to compare, prefix with '-' to specify descending order
-     * @return a comparison between resources for the given attribute field
+     * @param resources the resources the data was built from
+     * @param sorting attribute fields within the data to sort by
      */
-    private Comparator<Resource> comparisonForField(String field) {
-        // Determine if ascending or descending
-        if (field.charAt(0) == DESCENDING_TOKEN) {
-            // Remove descending token to get field name
-            String parsedField = field.substring(1);
-            return Ordering.from(attributeComparison(parsedField)).nullsFirst().reverse();
-        } else {
-            return Ordering.from(attributeComparison(field)).nullsFirst();
-        }
-    }
+    private void sort(Data<Resource> data, Set<PersistentResource> resources, Sorting sorting) {
+        PersistentResource first = resources.iterator().next();
+        Comparator<Object> comparator =
+                sorting.getComparator(first.getResourceClass(), first.getRequestScope().getDictionary());
 
-    /**
-     * Attribute comparator.
-     *
-     * @param field - name of attribute field to compare
-     * @return a comparison between resources for the given attribute field
-     */
-    private Comparator<Resource> attributeComparison(String field) {
-        return (a, b) ->
-            // Compare requested attribute using an object comparison
-            Ordering.from(this::compareObjects)
-                .nullsFirst()
-                .compare(
-                        a.getAttributes().get(field),
-                        b.getAttributes().get(field)
-                );
-    }
-
-    /**
-     * Compare objects.
-     *
-     * @param a first object to compare
-     * @param b second object to compare
-     * @return negative number if a < b
-     *         positive number if b > a
-     *         0 if a == b
-     *         0 if a comparison for the given object class cannot be made
-     */
-    private int compareObjects(Object a, Object b) {
-        if (a instanceof Comparable) {
-            return ((Comparable) a).compareTo(b);
-        }
+        Map<String, Object> objects = new HashMap<>();
+        resources.forEach(resource -> objects.put(resource.getId(), resource.getObject()));
 
-        // Can't compare objects without Comparable implementation
-        return 0;
+        // Apply comparison functions in order until one returns a non-zero value
+        data.sort(Ordering.from(comparator).nullsFirst().onResultOf(resource -> objects.get(resource.getId())));
     }
 }
@@ -16,6 +16,15 @@ import java.util.Map;
 public abstract class KeyValMap {
     private final Map<String, Object> map;
 
+    /**
+     * Get the backing map.
+     *
+     * @return the map
+     */
+    protected Map<String, Object> getMap() {
+        return map;
+    }
+
     /**
      * Get an object from map.
      *
@@ -5,7 +5,8 @@
  */
 package com.yahoo.elide.jsonapi.models;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
 
 import java.util.Map;
 
@@ -18,7 +19,14 @@ public class Meta extends KeyValMap {
      *
      * @param meta Object containing meta information
      */
-    private Meta(@JsonProperty("meta") Map<String, Object> meta) {
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public Meta(Map<String, Object> meta) {
         super(meta);
     }
+
+    @JsonValue
+    @Override
+    public Map<String, Object> getMap() {
+        return super.getMap();
+    }
 }
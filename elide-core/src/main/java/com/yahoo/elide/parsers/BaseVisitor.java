@@ -35,13 +35,35 @@ public abstract class BaseVisitor extends CoreBaseVisitor<Supplier<Pair<Integer,
     protected final StateContext state;
 
     public BaseVisitor(RequestScope requestScope) {
-        state = new StateContext(new StartState(), requestScope);
+        this(new StateContext(new StartState(), requestScope));
+    }
+
+    protected BaseVisitor(StateContext state) {
+        this.state = state;
     }
 
     public StateContext getState() {
         return state;
     }
 
+    /**
+     * Walk a request path resolved from a cached plan rather than its parse tree.
+     *
+     * @param route the resolved path
+     * @return the response supplier
+     */
+    public Supplier<Pair<Integer, JsonNode>> visit(Route route) {
+        route.replay(state);
+        return handleQuery();
+    }
+
+    /**
+     * Handle the request once its path has been walked.
+     *
+     * @return the response supplier
+     */
+    protected abstract Supplier<Pair<Integer, JsonNode>> handleQuery();
+
     @Override
     public Supplier<Pair<Integer, JsonNode>> visitStart(StartContext ctx) {
         return super.visitStart(ctx);
@@ -110,7 +132,7 @@ public abstract class BaseVisitor extends CoreBaseVisitor<Supplier<Pair<Integer,
 
     @Override
     public Supplier<Pair<Integer, JsonNode>> visitQuery(QueryContext ctx) {
-        return super.visitQuery(ctx);
+        return handleQuery();
     }
 
     @Override
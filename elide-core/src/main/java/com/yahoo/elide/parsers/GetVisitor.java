@@ -7,7 +7,8 @@ package com.yahoo.elide.parsers;
 
 
 import com.yahoo.elide.core.RequestScope;
-import com.yahoo.elide.generated.parsers.CoreParser.QueryContext;
+import com.yahoo.elide.generated.parsers.CoreParser.StartContext;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -30,7 +31,29 @@ public class GetVisitor extends BaseVisitor {
     }
 
     @Override
-    public Supplier<Pair<Integer, JsonNode>> visitQuery(QueryContext ctx) {
+    protected Supplier<Pair<Integer, JsonNode>> handleQuery() {
         return state.handleGet();
     }
+
+    /**
+     * Walk the request path and return the response document instead of its JSON tree.
+     *
+     * @param ctx the parsed request
+     * @return the response document supplier
+     */
+    public Supplier<Pair<Integer, JsonApiDocument>> visitDocument(StartContext ctx) {
+        visit(ctx.rootCollection());
+        return state.handleGetDocument();
+    }
+
+    /**
+     * Walk a resolved request path and return the response document instead of its JSON tree.
+     *
+     * @param route the resolved path
+     * @return the response document supplier
+     */
+    public Supplier<Pair<Integer, JsonApiDocument>> visitDocument(Route route) {
+        route.replay(state);
+        return state.handleGetDocument();
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.parsers.state.StateContext;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Hand-written parser for the request path grammar (Core.g4).
+ *
+ * The path is scanned once, recording the offsets of its collection and id segments, without lexer tokens or a
+ * parse tree.  It accepts the same paths as the ANTLR parser, including ignoring whatever follows the name of a
+ * relationship, and the route drives the same state transitions as {@link BaseVisitor}.
+ */
+public final class PathParser {
+    private static final String RELATIONSHIPS = "relationships";
+
+    private PathParser() {
+    }
+
+    /**
+     * Parse a request path.
+     *
+     * @param path the request path
+     * @return the route of the path
+     * @throws ParseCancellationException if the path does not parse
+     */
+    public static Route parse(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        if (!isNormalized(path, start)) {
+            path = RouteCache.normalize(path);
+            start = 0;
+        }
+        int length = path.length();
+
+        // start and end offsets of each collection and id, the last pair possibly without an id
+        int[] offsets = new int[8];
+        int count = 0;
+        int relationship = -1;
+        int pos = start;
+        int end = scanName(path, pos);
+        while (true) {
+            offsets = grow(offsets, count + 4);
+            offsets[count++] = pos;
+            offsets[count++] = end;
+            if (end == length) {
+                break;
+            }
+
+            pos = end + 1;
+            end = scanName(path, pos);
+            offsets[count++] = pos;
+            offsets[count++] = end;
+            if (end == length) {
+                break;
+            }
+
+            pos = end + 1;
+            end = scanSegment(path, pos);
+            if (isRelationships(path, pos, end)) {
+                relationship = end + 1;
+                scanName(path, relationship);
+                // anything after the relationship name is not part of the route
+                break;
+            }
+            if (end == pos) {
+                throw invalid(path);
+            }
+        }
+        return new ParsedRoute(path, offsets, count, relationship);
+    }
+
+    private static final class ParsedRoute implements Route {
+        private final String path;
+        private final int[] offsets;
+        private final int count;
+        private final int relationship;
+
+        ParsedRoute(String path, int[] offsets, int count, int relationship) {
+            this.path = path;
+            this.offsets = offsets;
+            this.count = count;
+            this.relationship = relationship;
+        }
+
+        @Override
+        public void replay(StateContext state) {
+            int last = count - 4;
+            for (int i = 0; i < last; i += 4) {
+                state.handleSubCollection(segment(i), segment(i + 2));
+            }
+            if (count % 4 == 2) {
+                state.handleCollection(segment(count - 2));
+            } else if (relationship >= 0) {
+                state.handleRelationship(segment(last), segment(last + 2),
+                        path.substring(relationship, scanSegment(path, relationship)));
+            } else {
+                state.handleEntity(segment(last), segment(last + 2));
+            }
+        }
+
+        private String segment(int index) {
+            return path.substring(offsets[index], offsets[index + 1]);
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+
+    /**
+     * Scan a collection name or id.
+     *
+     * @return the end of the segment
+     * @throws ParseCancellationException if there is no segment at pos or it is the relationships keyword
+     */
+    private static int scanName(String path, int pos) {
+        int end = scanSegment(path, pos);
+        if (end == pos || isRelationships(path, pos, end)) {
+            throw invalid(path);
+        }
+        return end;
+    }
+
+    /**
+     * Scan one segment up to the next '/' or the end of the path.
+     *
+     * @return the end of the segment
+     * @throws ParseCancellationException if the segment contains a character outside the grammar
+     */
+    private static int scanSegment(String path, int pos) {
+        int length = path.length();
+        int end = pos;
+        while (end < length) {
+            char c = path.charAt(end);
+            if (c == '/') {
+                break;
+            }
+            if (!isUnreserved(c)) {
+                throw invalid(path);
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isUnreserved(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || "-_.!~*'()".indexOf(c) >= 0;
+    }
+
+    private static boolean isRelationships(String path, int start, int end) {
+        return end - start == RELATIONSHIPS.length() && path.startsWith(RELATIONSHIPS, start);
+    }
+
+    /**
+     * Whether the path after its leading slash has neither empty, "." nor ".." segments nor a trailing slash, so
+     * normalizing it would not change it.
+     */
+    private static boolean isNormalized(String path, int start) {
+        int length = path.length();
+        int segmentStart = start;
+        for (int i = start; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                int segmentLength = i - segmentStart;
+                if (segmentLength == 0
+                        || segmentLength == 1 && path.charAt(segmentStart) == '.'
+                        || segmentLength == 2 && path.startsWith("..", segmentStart)) {
+                    return false;
+                }
+                segmentStart = i + 1;
+            }
+        }
+        return true;
+    }
+
+    private static int[] grow(int[] offsets, int size) {
+        if (size <= offsets.length) {
+            return offsets;
+        }
+        int[] grown = new int[offsets.length * 2];
+        System.arraycopy(offsets, 0, grown, 0, offsets.length);
+        return grown;
+    }
+
+    private static ParseCancellationException invalid(String path) {
+        return new ParseCancellationException("Invalid path " + path);
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+/**
+ * How {@link com.yahoo.elide.Elide} parses request paths.
+ */
+public enum PathParserType {
+    /**
+     * The ANTLR grammar, cached by route template in a {@link RouteCache}.
+     */
+    ANTLR,
+
+    /**
+     * The hand-written {@link PathParser}.
+     */
+    HAND_WRITTEN
+}
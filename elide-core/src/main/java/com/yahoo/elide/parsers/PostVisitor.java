@@ -6,7 +6,6 @@
 package com.yahoo.elide.parsers;
 
 import com.yahoo.elide.core.RequestScope;
-import com.yahoo.elide.generated.parsers.CoreParser.QueryContext;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -29,7 +28,7 @@ public class PostVisitor extends BaseVisitor {
     }
 
     @Override
-    public Supplier<Pair<Integer, JsonNode>> visitQuery(QueryContext ctx) {
+    protected Supplier<Pair<Integer, JsonNode>> handleQuery() {
         return state.handlePost();
     }
 }
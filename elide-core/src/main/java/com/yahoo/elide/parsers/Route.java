@@ -0,0 +1,21 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.parsers.state.StateContext;
+
+/**
+ * A parsed request path, ready to walk the request states.
+ */
+@FunctionalInterface
+public interface Route {
+    /**
+     * Walk the states of this path.
+     *
+     * @param state the request state
+     */
+    void replay(StateContext state);
+}
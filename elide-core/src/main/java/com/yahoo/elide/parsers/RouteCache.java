@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.generated.parsers.CoreParser.StartContext;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parsed request paths, cached by route template.
+ *
+ * The template of a path replaces its id segments with a placeholder, so /book/1/authors and /book/2/authors share
+ * the plan parsed from book/{@value #ID}/authors.  Paths which do not lex cleanly are parsed on every request so the
+ * parser reports the error.
+ */
+public class RouteCache {
+    public static final long DEFAULT_MAXIMUM_ROUTES = 1000;
+
+    /**
+     * Placeholder for id segments of a template, itself a valid id.
+     */
+    static final String ID = "*";
+    private static final String RELATIONSHIPS = "relationships";
+
+    private final Cache<String, RoutePlan> plans;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumRoutes the most route templates to keep
+     */
+    public RouteCache(long maximumRoutes) {
+        this.plans = CacheBuilder.newBuilder()
+                .maximumSize(maximumRoutes)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Resolve a request path.
+     *
+     * @param path the request path
+     * @return the path bound to the plan of its route
+     * @throws ParseCancellationException if the path does not parse
+     */
+    public Route resolve(String path) {
+        String normalized = normalize(path);
+        String[] segments = normalized.split("/", -1);
+
+        Set<Integer> abstracted = new HashSet<>();
+        StringBuilder template = new StringBuilder(normalized.length());
+        boolean ids = true;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (!isPathSegment(segment)) {
+                return parseRoute(normalized, Collections.emptySet()).bind(segments);
+            }
+            // collections and ids alternate until the relationships keyword
+            if (RELATIONSHIPS.equals(segment)) {
+                ids = false;
+            }
+            if (i > 0) {
+                template.append('/');
+            }
+            if (ids && i % 2 == 1) {
+                abstracted.add(i);
+                template.append(ID);
+            } else {
+                template.append(segment);
+            }
+        }
+
+        String key = template.toString();
+        RoutePlan plan = plans.getIfPresent(key);
+        if (plan != null) {
+            hits.increment();
+            return plan.bind(segments);
+        }
+        misses.increment();
+        try {
+            plan = parseRoute(key, abstracted);
+        } catch (ParseCancellationException e) {
+            // report the error against the path itself
+            plan = null;
+        }
+        if (plan == null) {
+            return parseRoute(normalized, Collections.emptySet()).bind(segments);
+        }
+        plans.put(key, plan);
+        return plan.bind(segments);
+    }
+
+    private static RoutePlan parseRoute(String path, Set<Integer> abstracted) {
+        return RoutePlan.of((StartContext) Elide.parse(path), abstracted);
+    }
+
+    /**
+     * Whether a segment lexes as a single token of the path grammar.
+     */
+    private static boolean isPathSegment(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            boolean alphanum = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+            if (!alphanum && "-_.!~*'()".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Normalize a request path the way {@link Elide#parse} does.
+     *
+     * @param path the request path
+     * @return the path without dot segments or a leading slash
+     */
+    public static String normalize(String path) {
+        String normalized = Paths.get(path).normalize().toString();
+        return normalized.startsWith("/") ? normalized.substring(1) : normalized;
+    }
+
+    /**
+     * Drop all cached plans.
+     */
+    public void invalidateAll() {
+        plans.invalidateAll();
+    }
+
+    /**
+     * Number of paths resolved from a cached plan.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of paths whose template was parsed.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of plans dropped to stay within the maximum size.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return plans.stats().evictionCount();
+    }
+
+    /**
+     * Number of cached plans.
+     *
+     * @return the plan count
+     */
+    public long size() {
+        return plans.size();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.generated.parsers.CoreBaseVisitor;
+import com.yahoo.elide.generated.parsers.CoreParser.EntityContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionLoadEntitiesContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionLoadEntityContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionRelationshipContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionSubCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.StartContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadEntityContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionRelationshipContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionSubCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.TermContext;
+import com.yahoo.elide.parsers.state.StateContext;
+import org.antlr.v4.runtime.ParserRuleContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The state transitions of one route template, e.g. book/{id}/authors/{id}.
+ *
+ * A plan is built once from the parse tree of its template and replayed against the segments of every request path
+ * of that shape, so those paths are not lexed and parsed again.  Collection and relationship names are part of the
+ * plan; ids are read from the request path by segment.
+ */
+public class RoutePlan {
+    private enum Kind {
+        COLLECTION,
+        ENTITY,
+        SUB_COLLECTION,
+        RELATIONSHIP
+    }
+
+    private static class Step {
+        final Kind kind;
+        final String collection;
+        final int idSegment;
+        final String relationName;
+
+        Step(Kind kind, String collection, int idSegment, String relationName) {
+            this.kind = kind;
+            this.collection = collection;
+            this.idSegment = idSegment;
+            this.relationName = relationName;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + collection + (idSegment < 0 ? "" : "/{" + idSegment + "}")
+                    + (relationName == null ? "" : "/relationships/" + relationName);
+        }
+    }
+
+    private final List<Step> steps;
+
+    private RoutePlan(List<Step> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Build the plan of a parsed path.
+     *
+     * @param tree the parse tree of the path
+     * @param abstracted segments of the path which are placeholders rather than names
+     * @return the plan, or null if a collection or relationship name is a placeholder
+     */
+    static RoutePlan of(StartContext tree, Set<Integer> abstracted) {
+        List<Step> steps = new ArrayList<>();
+        Boolean valid = new CoreBaseVisitor<Boolean>() {
+            @Override
+            protected Boolean defaultResult() {
+                return true;
+            }
+
+            @Override
+            protected Boolean aggregateResult(Boolean aggregate, Boolean nextResult) {
+                return aggregate && nextResult;
+            }
+
+            @Override
+            public Boolean visitRootCollectionLoadEntities(RootCollectionLoadEntitiesContext ctx) {
+                return add(Kind.COLLECTION, ctx.term(), null, null) && super.visitRootCollectionLoadEntities(ctx);
+            }
+
+            @Override
+            public Boolean visitRootCollectionLoadEntity(RootCollectionLoadEntityContext ctx) {
+                return add(Kind.ENTITY, ctx.entity().term(), ctx.entity(), null)
+                        && super.visitRootCollectionLoadEntity(ctx);
+            }
+
+            @Override
+            public Boolean visitRootCollectionSubCollection(RootCollectionSubCollectionContext ctx) {
+                return add(Kind.SUB_COLLECTION, ctx.entity().term(), ctx.entity(), null)
+                        && super.visitRootCollectionSubCollection(ctx);
+            }
+
+            @Override
+            public Boolean visitRootCollectionRelationship(RootCollectionRelationshipContext ctx) {
+                return add(Kind.RELATIONSHIP, ctx.entity().term(), ctx.entity(), ctx.relationship().term())
+                        && super.visitRootCollectionRelationship(ctx);
+            }
+
+            @Override
+            public Boolean visitSubCollectionReadCollection(SubCollectionReadCollectionContext ctx) {
+                return add(Kind.COLLECTION, ctx.term(), null, null) && super.visitSubCollectionReadCollection(ctx);
+            }
+
+            @Override
+            public Boolean visitSubCollectionReadEntity(SubCollectionReadEntityContext ctx) {
+                return add(Kind.ENTITY, ctx.entity().term(), ctx.entity(), null)
+                        && super.visitSubCollectionReadEntity(ctx);
+            }
+
+            @Override
+            public Boolean visitSubCollectionSubCollection(SubCollectionSubCollectionContext ctx) {
+                return add(Kind.SUB_COLLECTION, ctx.entity().term(), ctx.entity(), null)
+                        && super.visitSubCollectionSubCollection(ctx);
+            }
+
+            @Override
+            public Boolean visitSubCollectionRelationship(SubCollectionRelationshipContext ctx) {
+                return add(Kind.RELATIONSHIP, ctx.entity().term(), ctx.entity(), ctx.relationship().term())
+                        && super.visitSubCollectionRelationship(ctx);
+            }
+
+            private boolean add(Kind kind, TermContext collection, EntityContext entity, TermContext relation) {
+                if (abstracted.contains(segment(collection))
+                        || relation != null && abstracted.contains(segment(relation))) {
+                    return false;
+                }
+                steps.add(new Step(kind,
+                        collection.getText(),
+                        entity == null ? -1 : segment(entity.id()),
+                        relation == null ? null : relation.getText()));
+                return true;
+            }
+        }.visit(tree.rootCollection());
+
+        return valid ? new RoutePlan(steps) : null;
+    }
+
+    /**
+     * Segment of the path a rule was parsed from.  Paths alternate segment and '/' tokens.
+     */
+    private static int segment(ParserRuleContext ctx) {
+        return ctx.getStart().getTokenIndex() / 2;
+    }
+
+    /**
+     * Bind a request path of this route.
+     *
+     * @param segments the segments of the request path
+     * @return the route of the path
+     */
+    Route bind(String[] segments) {
+        return state -> replay(state, segments);
+    }
+
+    private void replay(StateContext state, String[] segments) {
+        for (Step step : steps) {
+            switch (step.kind) {
+                case COLLECTION:
+                    state.handleCollection(step.collection);
+                    break;
+                case ENTITY:
+                    state.handleEntity(step.collection, segments[step.idSegment]);
+                    break;
+                case SUB_COLLECTION:
+                    state.handleSubCollection(step.collection, segments[step.idSegment]);
+                    break;
+                case RELATIONSHIP:
+                    state.handleRelationship(step.collection, segments[step.idSegment], step.relationName);
+                    break;
+                default:
+                    throw new IllegalStateException(step.kind.toString());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RoutePlan " + steps;
+    }
+}
@@ -14,8 +14,10 @@ import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadCollectionC
 import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadEntityContext;
 import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionRelationshipContext;
 import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionSubCollectionContext;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.function.Supplier;
@@ -31,8 +33,8 @@ public abstract class BaseState {
      * @param state the state
      * @param ctx the ctx
      */
-    public void handle (StateContext state, RootCollectionLoadEntitiesContext ctx) {
-        throw new UnsupportedOperationException(this.getClass().toString());
+    public void handle(StateContext state, RootCollectionLoadEntitiesContext ctx) {
+        handleCollection(state, ctx.term().getText());
     }
 
     /**
@@ -41,8 +43,8 @@ public abstract class BaseState {
      * @param state the state
      * @param ctx the ctx
      */
-    public void handle (StateContext state, RootCollectionLoadEntityContext ctx) {
-        throw new UnsupportedOperationException(this.getClass().toString());
+    public void handle(StateContext state, RootCollectionLoadEntityContext ctx) {
+        handleEntity(state, ctx.entity().term().getText(), ctx.entity().id().getText());
     }
 
     /**
@@ -51,8 +53,8 @@ public abstract class BaseState {
      * @param state the state
      * @param ctx the ctx
      */
-    public void handle (StateContext state, RootCollectionSubCollectionContext ctx) {
-        throw new UnsupportedOperationException(this.getClass().toString());
+    public void handle(StateContext state, RootCollectionSubCollectionContext ctx) {
+        handleSubCollection(state, ctx.entity().term().getText(), ctx.entity().id().getText());
     }
 
     /**
@@ -62,7 +64,8 @@ public abstract class BaseState {
      * @param ctx the ctx
      */
     public void handle(StateContext state, RootCollectionRelationshipContext ctx) {
-        throw new UnsupportedOperationException(this.getClass().toString());
+        handleRelationship(state, ctx.entity().term().getText(), ctx.entity().id().getText(),
+                ctx.relationship().term().getText());
     }
 
     /**
@@ -71,8 +74,8 @@ public abstract class BaseState {
      * @param state the state
      * @param ctx the ctx
      */
-    public void handle (StateContext state, SubCollectionReadCollectionContext ctx) {
-        throw new UnsupportedOperationException(this.getClass().toString());
+    public void handle(StateContext state, SubCollectionReadCollectionContext ctx) {
+        handleCollection(state, ctx.term().getText());
     }
 
     /**
@@ -81,8 +84,8 @@ public abstract class BaseState {
      * @param state the state
      * @param ctx the ctx
      */
-    public void handle (StateContext state, SubCollectionReadEntityContext ctx) {
-        throw new UnsupportedOperationException(this.getClass().toString());
+    public void handle(StateContext state, SubCollectionReadEntityContext ctx) {
+        handleEntity(state, ctx.entity().term().getText(), ctx.entity().id().getText());
     }
 
     /**
@@ -91,11 +94,10 @@ public abstract class BaseState {
      * @param state the state
      * @param ctx the ctx
      */
-    public void handle (StateContext state, SubCollectionSubCollectionContext ctx) {
-        throw new UnsupportedOperationException(this.getClass().toString());
+    public void handle(StateContext state, SubCollectionSubCollectionContext ctx) {
+        handleSubCollection(state, ctx.entity().term().getText(), ctx.entity().id().getText());
     }
 
-
     /**
      * Handle void.
      *
@@ -103,6 +105,51 @@ public abstract class BaseState {
      * @param ctx the ctx
      */
     public void handle(StateContext state, SubCollectionRelationshipContext ctx) {
+        handleRelationship(state, ctx.entity().term().getText(), ctx.entity().id().getText(),
+                ctx.relationship().term().getText());
+    }
+
+    /**
+     * Handle a path ending in a collection, e.g. /book or /book/1/authors.
+     *
+     * @param state the state
+     * @param collection the collection name
+     */
+    public void handleCollection(StateContext state, String collection) {
+        throw new UnsupportedOperationException(this.getClass().toString());
+    }
+
+    /**
+     * Handle a path ending in an entity, e.g. /book/1 or /book/1/authors/2.
+     *
+     * @param state the state
+     * @param collection the collection name
+     * @param id the entity id
+     */
+    public void handleEntity(StateContext state, String collection, String id) {
+        throw new UnsupportedOperationException(this.getClass().toString());
+    }
+
+    /**
+     * Handle an entity followed by more of the path, e.g. the /book/1 of /book/1/authors.
+     *
+     * @param state the state
+     * @param collection the collection name
+     * @param id the entity id
+     */
+    public void handleSubCollection(StateContext state, String collection, String id) {
+        throw new UnsupportedOperationException(this.getClass().toString());
+    }
+
+    /**
+     * Handle a path ending in a relationship, e.g. /book/1/relationships/authors.
+     *
+     * @param state the state
+     * @param collection the collection name
+     * @param id the entity id
+     * @param relationName the relationship name
+     */
+    public void handleRelationship(StateContext state, String collection, String id, String relationName) {
         throw new UnsupportedOperationException(this.getClass().toString());
     }
 
@@ -115,6 +162,25 @@ public abstract class BaseState {
      * @throws HttpStatusException the http status exception
      */
     public Supplier<Pair<Integer, JsonNode>> handleGet(StateContext state) throws HttpStatusException {
+        Supplier<Pair<Integer, JsonApiDocument>> responder = handleGetDocument(state);
+        ObjectMapper mapper = state.getRequestScope().getMapper().getObjectMapper();
+        return () -> {
+            Pair<Integer, JsonApiDocument> response = responder.get();
+            return Pair.of(response.getLeft(), mapper.convertValue(response.getRight(), JsonNode.class));
+        };
+    }
+
+    /**
+     * Handle get without converting the response to a JSON tree, so it can be written straight to the response
+     * stream.  The resources of the document are built by the supplier, while the transaction is still open, but
+     * their attribute values are only serialized when the document is written.
+     *
+     * @param state the state
+     * @return the supplier
+     * @throws HttpStatusException the http status exception
+     */
+    public Supplier<Pair<Integer, JsonApiDocument>> handleGetDocument(StateContext state)
+            throws HttpStatusException {
         throw new UnsupportedOperationException(this.getClass().toString());
     }
 
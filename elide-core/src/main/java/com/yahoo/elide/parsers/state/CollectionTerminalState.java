@@ -7,7 +7,6 @@ package com.yahoo.elide.parsers.state;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
 import com.yahoo.elide.core.HttpStatus;
 import com.yahoo.elide.core.PersistentResource;
@@ -19,20 +18,24 @@ import com.yahoo.elide.core.exceptions.InvalidObjectIdentifierException;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
 import com.yahoo.elide.jsonapi.document.processors.DocumentProcessor;
 import com.yahoo.elide.jsonapi.document.processors.IncludedProcessor;
-import com.yahoo.elide.jsonapi.document.processors.SortProcessor;
 import com.yahoo.elide.jsonapi.models.Data;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.jsonapi.models.Meta;
 import com.yahoo.elide.jsonapi.models.Relationship;
 import com.yahoo.elide.jsonapi.models.Resource;
 import com.yahoo.elide.security.User;
 import lombok.ToString;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -43,6 +46,9 @@ import javax.ws.rs.core.MultivaluedMap;
  */
 @ToString
 public class CollectionTerminalState extends BaseState {
+    private static final String PAGE_META = "page";
+    private static final String NEXT_PAGE_META = "next";
+
     private final Optional<PersistentResource> parent;
     private final Optional<String> relationName;
     private final Class<?> entityClass;
@@ -56,14 +62,15 @@ public class CollectionTerminalState extends BaseState {
     }
 
     @Override
-    public Supplier<Pair<Integer, JsonNode>> handleGet(StateContext state) {
+    public Supplier<Pair<Integer, JsonApiDocument>> handleGetDocument(StateContext state) {
         JsonApiDocument jsonApiDocument = new JsonApiDocument();
         RequestScope requestScope = state.getRequestScope();
-        ObjectMapper mapper = requestScope.getMapper().getObjectMapper();
         Optional<MultivaluedMap<String, String>> queryParams = requestScope.getQueryParams();
 
         Set<PersistentResource> collection = getResourceCollection(requestScope);
 
+        PersistentResource.batchLoadRelationships(requestScope, (Set) collection);
+
         // Set data
         jsonApiDocument.setData(getData(requestScope, collection));
 
@@ -71,11 +78,13 @@ public class CollectionTerminalState extends BaseState {
         DocumentProcessor includedProcessor = new IncludedProcessor();
         includedProcessor.execute(jsonApiDocument, collection, queryParams);
 
-        DocumentProcessor sortProcessor = new SortProcessor();
-        sortProcessor.execute(jsonApiDocument, collection, queryParams);
+        // Hand out the keyset cursor of the next page
+        if (requestScope.getNextPageCursor() != null) {
+            jsonApiDocument.setMeta(new Meta(Collections.singletonMap(PAGE_META,
+                    Collections.singletonMap(NEXT_PAGE_META, requestScope.getNextPageCursor()))));
+        }
 
-        JsonNode responseBody = mapper.convertValue(jsonApiDocument, JsonNode.class);
-        return () -> Pair.of(HttpStatus.SC_OK, responseBody);
+        return () -> Pair.of(HttpStatus.SC_OK, jsonApiDocument);
     }
 
     @Override
@@ -100,7 +109,7 @@ public class CollectionTerminalState extends BaseState {
         final Set<PersistentResource> collection;
 
         if (parent.isPresent()) {
-            collection = parent.get().getRelation(relationName.get());
+            collection = parent.get().getRelationPage(relationName.get());
         } else {
             collection = (Set) PersistentResource.loadRecords(entityClass, requestScope);
         }
@@ -113,10 +122,50 @@ public class CollectionTerminalState extends BaseState {
         Preconditions.checkNotNull(collection);
         Preconditions.checkNotNull(user);
 
-        List<Resource> resources = collection.stream().map(PersistentResource::toResource).collect(Collectors.toList());
+        Optional<ForkJoinPool> pool = requestScope.getSerializationPool();
+        if (pool.isPresent()) {
+            List<PersistentResource> resources = new ArrayList<>();
+            collection.forEach(resources::add);
+            if (resources.size() >= requestScope.getParallelSerializationThreshold()) {
+                return new Data<>(toResources(pool.get(), resources));
+            }
+        }
+
+        // resources are built before the response is committed, so permission errors still set its status
+        List<Resource> resources =
+                collection.stream().map(PersistentResource::toResource).collect(Collectors.toList());
         return new Data<>(resources);
     }
 
+    /**
+     * Build the resources of a loaded collection on a pool, in collection order.  Their relationships are batch
+     * loaded beforehand, so the work is reflection and permission checks rather than datastore access.
+     *
+     * @param pool the serialization pool
+     * @param resources the loaded resources
+     * @return the resources in the same order
+     */
+    private static List<Resource> toResources(ForkJoinPool pool, List<PersistentResource> resources) {
+        try {
+            return pool.submit(() -> resources.parallelStream()
+                    .map(PersistentResource::toResource)
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new InternalServerErrorException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException(e);
+        }
+    }
+
     private PersistentResource createObject(RequestScope requestScope)
         throws ForbiddenAccessException, InvalidObjectIdentifierException {
         JsonApiDocument doc = requestScope.getJsonApiDocument();
@@ -10,10 +10,6 @@ import com.yahoo.elide.core.PersistentResource;
 import com.yahoo.elide.core.exceptions.InvalidAttributeException;
 import com.yahoo.elide.core.exceptions.InvalidCollectionException;
 import com.yahoo.elide.jsonapi.models.SingleElementSet;
-import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadCollectionContext;
-import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadEntityContext;
-import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionRelationshipContext;
-import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionSubCollectionContext;
 
 import com.google.common.base.Preconditions;
 
@@ -32,8 +28,7 @@ public class RecordState extends BaseState {
     }
 
     @Override
-    public void handle(StateContext state, SubCollectionReadCollectionContext ctx) {
-        String subCollection = ctx.term().getText();
+    public void handleCollection(StateContext state, String subCollection) {
         EntityDictionary dictionary = state.getRequestScope().getDictionary();
         try {
             Set<PersistentResource> collection = resource.getRelation(subCollection); // Check if exists.
@@ -59,10 +54,7 @@ public class RecordState extends BaseState {
     }
 
     @Override
-    public void handle(StateContext state, SubCollectionReadEntityContext ctx) {
-        String id = ctx.entity().id().getText();
-        String subCollection = ctx.entity().term().getText();
-
+    public void handleEntity(StateContext state, String subCollection, String id) {
         try {
             PersistentResource nextRecord = resource.getRelation(subCollection, id);
             state.setState(new RecordTerminalState(nextRecord));
@@ -72,9 +64,7 @@ public class RecordState extends BaseState {
     }
 
     @Override
-    public void handle(StateContext state, SubCollectionSubCollectionContext ctx) {
-        String id = ctx.entity().id().getText();
-        String subCollection = ctx.entity().term().getText();
+    public void handleSubCollection(StateContext state, String subCollection, String id) {
         try {
             state.setState(new RecordState(resource.getRelation(subCollection, id)));
         } catch (InvalidAttributeException e) {
@@ -83,10 +73,7 @@ public class RecordState extends BaseState {
     }
 
     @Override
-    public void handle(StateContext state, SubCollectionRelationshipContext ctx) {
-        String id = ctx.entity().id().getText();
-        String subCollection = ctx.entity().term().getText();
-
+    public void handleRelationship(StateContext state, String subCollection, String id, String relationName) {
         PersistentResource childRecord;
         try {
             childRecord = resource.getRelation(subCollection, id);
@@ -94,7 +81,6 @@ public class RecordState extends BaseState {
             throw new InvalidCollectionException(subCollection);
         }
 
-        String relationName = ctx.relationship().term().getText();
         try {
             childRecord.getRelation(relationName);
         } catch (InvalidAttributeException e) {
@@ -20,7 +20,6 @@ import com.yahoo.elide.jsonapi.models.Resource;
 import com.yahoo.elide.jsonapi.models.SingleElementSet;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import lombok.ToString;
 import org.apache.commons.lang3.tuple.Pair;
@@ -51,9 +50,8 @@ public class RecordTerminalState extends BaseState {
     }
 
     @Override
-    public Supplier<Pair<Integer, JsonNode>> handleGet(StateContext state) {
-        ObjectMapper mapper = state.getRequestScope().getMapper().getObjectMapper();
-        return () -> Pair.of(HttpStatus.SC_OK, getResponseBody(record, state.getRequestScope(), mapper));
+    public Supplier<Pair<Integer, JsonApiDocument>> handleGetDocument(StateContext state) {
+        return () -> Pair.of(HttpStatus.SC_OK, getResponseBody(record, state.getRequestScope()));
     }
 
     @Override
@@ -95,7 +93,7 @@ public class RecordTerminalState extends BaseState {
         }
     }
 
-    private JsonNode getResponseBody(PersistentResource rec, RequestScope requestScope, ObjectMapper mapper) {
+    private JsonApiDocument getResponseBody(PersistentResource rec, RequestScope requestScope) {
         Optional<MultivaluedMap<String, String>> queryParams = requestScope.getQueryParams();
         JsonApiDocument jsonApiDocument = new JsonApiDocument();
 
@@ -107,7 +105,7 @@ public class RecordTerminalState extends BaseState {
         DocumentProcessor includedProcessor = new IncludedProcessor();
         includedProcessor.execute(jsonApiDocument, rec, queryParams);
 
-        return mapper.convertValue(jsonApiDocument, JsonNode.class);
+        return jsonApiDocument;
     }
 
     private boolean patch(Resource resource, RequestScope requestScope) {
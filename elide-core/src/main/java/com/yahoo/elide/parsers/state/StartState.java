@@ -9,10 +9,6 @@ import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.PersistentResource;
 import com.yahoo.elide.core.exceptions.InvalidAttributeException;
 import com.yahoo.elide.core.exceptions.InvalidCollectionException;
-import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionLoadEntitiesContext;
-import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionLoadEntityContext;
-import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionRelationshipContext;
-import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionSubCollectionContext;
 
 import java.util.Optional;
 
@@ -21,58 +17,33 @@ import java.util.Optional;
  */
 public class StartState extends BaseState {
     @Override
-    public void handle(StateContext state, RootCollectionLoadEntitiesContext ctx) {
-        String entityName = ctx.term().getText();
-        EntityDictionary dictionary = state.getRequestScope().getDictionary();
-        Class<?> entityClass = dictionary.getBinding(entityName);
-        if (entityClass == null || !dictionary.isRoot(entityClass)) {
-            throw new InvalidCollectionException(entityName);
-        }
+    public void handleCollection(StateContext state, String entityName) {
+        Class<?> entityClass = rootEntityClass(state, entityName);
         state.setState(new CollectionTerminalState(entityClass, Optional.empty(), Optional.empty()));
     }
 
     @Override
-    public void handle(StateContext state, RootCollectionLoadEntityContext ctx) {
-        EntityDictionary dictionary = state.getRequestScope().getDictionary();
-        String entityName = ctx.entity().term().getText();
-        String id = ctx.entity().id().getText();
-        Class<?> entityClass = dictionary.getBinding(entityName);
-        if (entityClass == null || !dictionary.isRoot(entityClass)) {
-            throw new InvalidCollectionException(entityName);
-        }
+    public void handleEntity(StateContext state, String entityName, String id) {
+        Class<?> entityClass = rootEntityClass(state, entityName);
 
         PersistentResource record = PersistentResource.loadRecord(entityClass, id, state.getRequestScope());
         state.setState(new RecordTerminalState(record));
     }
 
     @Override
-    public void handle(StateContext state, RootCollectionSubCollectionContext ctx) {
-        EntityDictionary dictionary = state.getRequestScope().getDictionary();
-        String entityName = ctx.entity().term().getText();
-        String id = ctx.entity().id().getText();
-
-        Class<?> entityClass = dictionary.getBinding(entityName);
-        if (entityClass == null || !dictionary.isRoot(entityClass)) {
-            throw new InvalidCollectionException(entityName);
-        }
+    public void handleSubCollection(StateContext state, String entityName, String id) {
+        Class<?> entityClass = rootEntityClass(state, entityName);
 
         PersistentResource record = PersistentResource.loadRecord(entityClass, id, state.getRequestScope());
         state.setState(new RecordState(record));
     }
 
     @Override
-    public void handle(StateContext state, RootCollectionRelationshipContext ctx) {
-        EntityDictionary dictionary = state.getRequestScope().getDictionary();
-        String entityName = ctx.entity().term().getText();
-        String id = ctx.entity().id().getText();
-        Class<?> entityClass = dictionary.getBinding(entityName);
-        if (entityClass == null || !dictionary.isRoot(entityClass)) {
-            throw new InvalidCollectionException(entityName);
-        }
+    public void handleRelationship(StateContext state, String entityName, String id, String relationName) {
+        Class<?> entityClass = rootEntityClass(state, entityName);
 
         PersistentResource record = PersistentResource.loadRecord(entityClass, id, state.getRequestScope());
 
-        String relationName = ctx.relationship().term().getText();
         try {
             record.getRelation(relationName);
         } catch (InvalidAttributeException e) {
@@ -82,6 +53,15 @@ public class StartState extends BaseState {
         state.setState(new RelationshipTerminalState(record, relationName));
     }
 
+    private static Class<?> rootEntityClass(StateContext state, String entityName) {
+        EntityDictionary dictionary = state.getRequestScope().getDictionary();
+        Class<?> entityClass = dictionary.getBinding(entityName);
+        if (entityClass == null || !dictionary.isRoot(entityClass)) {
+            throw new InvalidCollectionException(entityName);
+        }
+        return entityClass;
+    }
+
     @Override
     public String toString() {
         return this.getClass().getName();
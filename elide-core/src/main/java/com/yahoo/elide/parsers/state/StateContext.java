@@ -106,10 +106,34 @@ public class StateContext {
         currentState.handle(this, ctx);
     }
 
+    public void handleCollection(String collection) {
+        log.debug("collection {}", collection);
+        currentState.handleCollection(this, collection);
+    }
+
+    public void handleEntity(String collection, String id) {
+        log.debug("entity {}/{}", collection, id);
+        currentState.handleEntity(this, collection, id);
+    }
+
+    public void handleSubCollection(String collection, String id) {
+        log.debug("subCollection {}/{}", collection, id);
+        currentState.handleSubCollection(this, collection, id);
+    }
+
+    public void handleRelationship(String collection, String id, String relationName) {
+        log.debug("relationship {}/{}/relationships/{}", collection, id, relationName);
+        currentState.handleRelationship(this, collection, id, relationName);
+    }
+
     public Supplier<Pair<Integer, JsonNode>> handleGet() {
         return currentState.handleGet(this);
     }
 
+    public Supplier<Pair<Integer, JsonApiDocument>> handleGetDocument() {
+        return currentState.handleGetDocument(this);
+    }
+
     public Supplier<Pair<Integer, JsonNode>> handlePatch() {
         return currentState.handlePatch(this);
     }
@@ -7,6 +7,7 @@ package com.yahoo.elide.resources;
 
 import com.yahoo.elide.Elide;
 import com.yahoo.elide.ElideResponse;
+import com.yahoo.elide.ElideStreamingResponse;
 import com.yahoo.elide.annotation.PATCH;
 
 import java.util.function.Function;
@@ -64,7 +65,7 @@ public class JsonApiEndpoint {
     }
 
     /**
-     * Read handler.
+     * Read handler.  The response document is streamed to the client if Elide is configured for streaming GETs.
      *
      * @param path request path
      * @param uriInfo URI info
@@ -78,7 +79,11 @@ public class JsonApiEndpoint {
         @Context UriInfo uriInfo,
         @Context SecurityContext securityContext) {
         MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
-        return build(elide.get(path, queryParams, getUser.apply(securityContext)));
+        if (!elide.isStreamingGet()) {
+            return build(elide.get(path, queryParams, getUser.apply(securityContext)));
+        }
+        ElideStreamingResponse response = elide.getStreaming(path, queryParams, getUser.apply(securityContext));
+        return Response.status(response.getResponseCode()).entity(response.getBody()).build();
     }
 
     /**
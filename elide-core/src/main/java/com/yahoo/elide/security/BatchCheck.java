@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.yahoo.elide.core.PersistentResource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Check which can decide many records at once, e.g. with a single lookup of an access control table.
+ *
+ * Elide evaluates it for every resource of a collection together before checking each resource.
+ *
+ * @param <T> Type of record for Check
+ */
+public interface BatchCheck<T> extends Check<T> {
+    /**
+     * Determines whether the user can access each of the resources.
+     *
+     * @param records the records
+     * @return true for each allowed record, false for each denied record; records missing from the result are
+     *         checked one at a time
+     */
+    Map<PersistentResource<T>, Boolean> ok(Collection<PersistentResource<T>> records);
+
+    /**
+     * Determines whether the user can access the resource.
+     *
+     * @param record the record
+     * @return true if allowed
+     */
+    @Override
+    default boolean ok(PersistentResource<T> record) {
+        return Boolean.TRUE.equals(ok(Collections.singletonList(record)).get(record));
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.yahoo.elide.core.PermissionPlan;
+
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and selectivity of permission checks, counted across requests.
+ *
+ * When configured on {@link com.yahoo.elide.Elide}, every evaluation of a check for a resource is recorded per
+ * permission plan, since the same check may be cheap and decisive on one entity and not on another.  The time of an
+ * evaluation includes running the check only when its result is not cached yet, so a user check, which runs once
+ * per request, and a batch check, which runs once for many resources, are ranked by their cost per resource.
+ *
+ * With reordering enabled, the checks of a plan are evaluated cheapest and most decisive first once each of them
+ * has been evaluated often enough: for ANY, a check is ranked by its mean latency over its pass rate, for ALL over
+ * its fail rate, since passing ends ANY and failing ends ALL.  The order is refreshed as more checks are recorded.
+ *
+ * Reordering assumes checks have no side effects on each other.
+ */
+public class CheckStatistics {
+    public static final long DEFAULT_MINIMUM_SAMPLES = 100;
+    private static final long REORDER_INTERVAL = 1000;
+
+    private final boolean reorder;
+    private final long minimumSamples;
+    private final ConcurrentMap<Class<? extends Check>, Counters> checkCounters = new ConcurrentHashMap<>();
+    // plans built for a single evaluation are dropped with their counters
+    private final ConcurrentMap<PermissionPlan, PlanCounters> planCounters =
+            CacheBuilder.newBuilder().weakKeys().<PermissionPlan, PlanCounters>build().asMap();
+
+    /**
+     * Statistics reordering checks after {@link #DEFAULT_MINIMUM_SAMPLES} evaluations of each.
+     */
+    public CheckStatistics() {
+        this(true, DEFAULT_MINIMUM_SAMPLES);
+    }
+
+    /**
+     * Statistics optionally reordering checks.
+     *
+     * @param reorder true to reorder checks, false to only count
+     * @param minimumSamples evaluations of every check of a plan before its checks are reordered
+     */
+    public CheckStatistics(boolean reorder, long minimumSamples) {
+        this.reorder = reorder;
+        this.minimumSamples = minimumSamples;
+    }
+
+    /**
+     * Record an evaluation of a check for a resource.
+     *
+     * @param plan the plan evaluated
+     * @param index index of the check in the plan
+     * @param passed true if the check allowed access
+     * @param nanos how long the evaluation took
+     */
+    public void record(PermissionPlan plan, int index, boolean passed, long nanos) {
+        PlanCounters counters = getPlanCounters(plan);
+        counters.checks[index].add(passed, nanos);
+        counters.samples.increment();
+        checkCounters.computeIfAbsent(plan.getCheckClasses().get(index), key -> new Counters()).add(passed, nanos);
+    }
+
+    /**
+     * Record a batch check run ahead of evaluating it for several resources.  Its time is spread over the
+     * evaluations which use its results.
+     *
+     * @param plan the plan evaluated
+     * @param index index of the batch check in the plan
+     * @param nanos how long the batch check ran
+     */
+    public void recordBatch(PermissionPlan plan, int index, long nanos) {
+        getPlanCounters(plan).checks[index].nanos.add(nanos);
+        checkCounters.computeIfAbsent(plan.getCheckClasses().get(index), key -> new Counters()).nanos.add(nanos);
+    }
+
+    /**
+     * Get the order to evaluate the checks of a plan in.
+     *
+     * @param plan the plan
+     * @return indexes into the checks of the plan in evaluation order, or null for declaration order
+     */
+    public int[] order(PermissionPlan plan) {
+        if (!reorder || plan.getCheckClasses().size() < 2) {
+            return null;
+        }
+
+        PlanCounters counters = getPlanCounters(plan);
+        long total = counters.samples.sum();
+        Ordering ordering = counters.ordering;
+        if (ordering != null && total - ordering.computedAt < REORDER_INTERVAL) {
+            return ordering.order;
+        }
+        ordering = new Ordering(rank(counters.checks, plan.isAny()), total);
+        counters.ordering = ordering;
+        return ordering.order;
+    }
+
+    private int[] rank(Counters[] checks, boolean any) {
+        Double[] costs = new Double[checks.length];
+        for (int i = 0; i < checks.length; i++) {
+            long invocations = checks[i].invocations.sum();
+            if (invocations < minimumSamples || invocations == 0) {
+                // keep declaration order until every check has been evaluated often enough
+                return null;
+            }
+            long passes = checks[i].passes.sum();
+            long decisive = any ? passes : invocations - passes;
+            double meanNanos = (double) checks[i].nanos.sum() / invocations;
+            // one more evaluation than observed, so a check which never decided still has a finite cost
+            costs[i] = meanNanos * (invocations + 1) / (decisive + 1);
+        }
+
+        Integer[] indexes = new Integer[checks.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, Comparator.comparing(i -> costs[i]));
+        return Arrays.stream(indexes).mapToInt(Integer::intValue).toArray();
+    }
+
+    private PlanCounters getPlanCounters(PermissionPlan plan) {
+        return planCounters.computeIfAbsent(plan, key -> new PlanCounters(key.getCheckClasses().size()));
+    }
+
+    /**
+     * Number of recorded evaluations of a check across all plans.
+     *
+     * @param checkClass the check class
+     * @return the invocation count
+     */
+    public long getInvocationCount(Class<? extends Check> checkClass) {
+        Counters counters = checkCounters.get(checkClass);
+        return counters == null ? 0 : counters.invocations.sum();
+    }
+
+    /**
+     * Number of recorded evaluations of a check across all plans which allowed access.
+     *
+     * @param checkClass the check class
+     * @return the pass count
+     */
+    public long getPassCount(Class<? extends Check> checkClass) {
+        Counters counters = checkCounters.get(checkClass);
+        return counters == null ? 0 : counters.passes.sum();
+    }
+
+    /**
+     * Total time of the recorded evaluations of a check across all plans.
+     *
+     * @param checkClass the check class
+     * @return the time in nanoseconds
+     */
+    public long getTotalNanos(Class<? extends Check> checkClass) {
+        Counters counters = checkCounters.get(checkClass);
+        return counters == null ? 0 : counters.nanos.sum();
+    }
+
+    /**
+     * Check classes with recorded evaluations.
+     *
+     * @return the check classes
+     */
+    public Set<Class<? extends Check>> getCheckClasses() {
+        return Collections.unmodifiableSet(checkCounters.keySet());
+    }
+
+    /**
+     * Drop all counters and orders.
+     */
+    public void reset() {
+        checkCounters.clear();
+        planCounters.clear();
+    }
+
+    private static class Counters {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder passes = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        void add(boolean passed, long nanos) {
+            invocations.increment();
+            if (passed) {
+                passes.increment();
+            }
+            this.nanos.add(nanos);
+        }
+    }
+
+    private static class PlanCounters {
+        final Counters[] checks;
+        final LongAdder samples = new LongAdder();
+        volatile Ordering ordering;
+
+        PlanCounters(int size) {
+            checks = new Counters[size];
+            for (int i = 0; i < size; i++) {
+                checks[i] = new Counters();
+            }
+        }
+    }
+
+    private static class Ordering {
+        final int[] order;
+        final long computedAt;
+
+        Ordering(int[] order, long computedAt) {
+            this.order = order;
+            this.computedAt = computedAt;
+        }
+    }
+}
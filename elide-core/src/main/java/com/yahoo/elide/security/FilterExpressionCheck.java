@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.google.common.base.Preconditions;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.InMemoryFilterVisitor;
+
+/**
+ * Check expressed as a filter on the records a user may access, so any data store can apply it while loading
+ * records, as it applies request filters.
+ *
+ * Paths of the filter are relative to the checked type, as in request filters.  The filter may depend on the user
+ * but must never be null; a permission which does not filter some users combines the check with a {@link UserCheck}.
+ *
+ * @param <T> Type of record for Check
+ */
+public interface FilterExpressionCheck<T> extends Check<T> {
+    /**
+     * Get the filter selecting the records the user may access.
+     *
+     * @param user the user
+     * @return the filter, never null
+     */
+    FilterExpression getFilterExpression(User user);
+
+    /**
+     * Determines whether the user can access the resource, by evaluating the filter in memory.
+     *
+     * @param record the record
+     * @return true if allowed
+     */
+    @Override
+    default boolean ok(PersistentResource<T> record) {
+        return filterExpressionOf(this, record.getRequestScope().getUser())
+                .accept(new InMemoryFilterVisitor(record.getDictionary())).test(record.getObject());
+    }
+
+    /**
+     * Get the filter of a check for a user.
+     *
+     * @param check the check
+     * @param user the user
+     * @return the filter
+     * @throws NullPointerException if the check returns a null filter
+     */
+    static FilterExpression filterExpressionOf(FilterExpressionCheck<?> check, User user) {
+        return Preconditions.checkNotNull(check.getFilterExpression(user), "%s returned a null filter expression",
+                check.getClass().getName());
+    }
+}
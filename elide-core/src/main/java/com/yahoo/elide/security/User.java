@@ -10,27 +10,36 @@ import com.yahoo.elide.security.UserCheck.UserPermission;
 
 import com.google.common.base.Preconditions;
 import lombok.Getter;
+import lombok.Setter;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Wrapper for opaque user passed in every request. This user wrapper keeps track of
  * which checks have already been run (so they are not repeated.
+ *
+ * The results are kept in concurrent maps, since resources may be serialized on several threads.
  */
 public class User {
     @Getter private final Object opaqueUser;
     private final Map<Class<? extends Check>, UserPermission> okUserPermissions;
     private final Map<Class<? extends Check>, Map<PersistentResource, Boolean>> okCheckResources;
+    @Getter @Setter private UserCheckCache userCheckCache;
+    @Getter @Setter private CheckStatistics checkStatistics;
 
     public User(Object opaqueUser) {
         this.opaqueUser = opaqueUser;
-        this.okUserPermissions = new LinkedHashMap<>();
-        this.okCheckResources = new LinkedHashMap<>();
+        this.okUserPermissions = new ConcurrentHashMap<>();
+        this.okCheckResources = new ConcurrentHashMap<>();
     }
 
     /**
      * get UserPermission for provided check, cache result.
+     * Results are shared with other requests of the same user when a {@link UserCheckCache} is set.
      *
      * @param check Check to run
      * @return UserPermission type
@@ -39,7 +48,9 @@ public class User {
         if (check instanceof UserCheck) {
             UserPermission checkType = okUserPermissions.get(check.getClass());
             if (checkType == null) {
-                checkType = ((UserCheck) check).userPermission(this);
+                checkType = userCheckCache == null
+                        ? ((UserCheck) check).userPermission(this)
+                        : userCheckCache.userPermission(this, (UserCheck) check);
                 okUserPermissions.put(check.getClass(), checkType);
             }
             return checkType;
@@ -56,7 +67,6 @@ public class User {
      */
     public boolean ok(Check check, PersistentResource resource) {
         Preconditions.checkState(this == resource.getRequestScope().getUser());
-        Map<PersistentResource, Boolean> okResourceMap;
 
         /* check user permission for ALLOW or DENY */
         switch (checkUserPermission(check)) {
@@ -69,14 +79,11 @@ public class User {
         }
 
         /* check resource cache */
-        if (okCheckResources.containsKey(check.getClass())) {
-            okResourceMap = okCheckResources.get(check.getClass());
-            if (okResourceMap.containsKey(resource)) {
-                return okResourceMap.get(resource);
-            }
-        } else {
-            okResourceMap = new LinkedHashMap<>();
-            okCheckResources.put(check.getClass(), okResourceMap);
+        Map<PersistentResource, Boolean> okResourceMap =
+                okCheckResources.computeIfAbsent(check.getClass(), key -> new ConcurrentHashMap<>());
+        Boolean cached = okResourceMap.get(resource);
+        if (cached != null) {
+            return cached;
         }
 
         /* run check and cache results */
@@ -84,4 +91,37 @@ public class User {
         okResourceMap.put(resource, ok);
         return ok;
     }
+
+    /**
+     * run batch check against the provided resources not already checked and cache results.
+     *
+     * @param check BatchCheck to run
+     * @param resources provided resources
+     */
+    public void prefetch(BatchCheck check, Collection<? extends PersistentResource> resources) {
+        if (checkUserPermission(check) != UserPermission.FILTER) {
+            return;
+        }
+
+        Map<PersistentResource, Boolean> okResourceMap =
+                okCheckResources.computeIfAbsent(check.getClass(), key -> new ConcurrentHashMap<>());
+        List<PersistentResource> unchecked = new ArrayList<>();
+        for (PersistentResource resource : resources) {
+            Preconditions.checkState(this == resource.getRequestScope().getUser());
+            if (!okResourceMap.containsKey(resource)) {
+                unchecked.add(resource);
+            }
+        }
+        if (unchecked.isEmpty()) {
+            return;
+        }
+
+        /* run check once and cache results */
+        Map<PersistentResource, Boolean> results = check.ok(unchecked);
+        results.forEach((resource, ok) -> {
+            if (resource != null && ok != null) {
+                okResourceMap.put(resource, ok);
+            }
+        });
+    }
 }
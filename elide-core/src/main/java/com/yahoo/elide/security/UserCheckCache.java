@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.yahoo.elide.security.UserCheck.UserPermission;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * UserCheck results shared across requests.
+ *
+ * {@link User} only remembers {@link UserCheck#userPermission} for one request.  When configured on
+ * {@link com.yahoo.elide.Elide}, this cache keeps the results per opaque user and check class for a fixed time
+ * after the first check of that user, for at most a bounded number of users.  Results are only as fresh as the
+ * time to live, so call {@link #invalidate} when the roles of a user change.
+ */
+public class UserCheckCache {
+    private final Function<Object, Object> userKey;
+    private final Cache<Object, ConcurrentMap<Class<? extends Check>, UserPermission>> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Cache keyed by the opaque user itself, compared with equals.
+     *
+     * @param maximumUsers the most users to keep results for
+     * @param timeToLive how long results are kept
+     * @param unit unit of timeToLive
+     */
+    public UserCheckCache(long maximumUsers, long timeToLive, TimeUnit unit) {
+        this(Function.identity(), maximumUsers, timeToLive, unit);
+    }
+
+    /**
+     * Cache keyed by an identity derived from the opaque user, e.g. a principal name.
+     *
+     * @param userKey maps an opaque user to its cache key
+     * @param maximumUsers the most users to keep results for
+     * @param timeToLive how long results are kept
+     * @param unit unit of timeToLive
+     */
+    public UserCheckCache(Function<Object, Object> userKey, long maximumUsers, long timeToLive, TimeUnit unit) {
+        this(userKey, maximumUsers, timeToLive, unit, Ticker.systemTicker());
+    }
+
+    UserCheckCache(Function<Object, Object> userKey, long maximumUsers, long timeToLive, TimeUnit unit,
+                   Ticker ticker) {
+        this.userKey = userKey;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(timeToLive, unit)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the cached result of a UserCheck, running the check on a miss.
+     *
+     * @param user the user of the current request
+     * @param check the check
+     * @return the user permission
+     */
+    public UserPermission userPermission(User user, UserCheck check) {
+        Object key = user.getOpaqueUser() == null ? null : userKey.apply(user.getOpaqueUser());
+        if (key == null) {
+            misses.increment();
+            return check.userPermission(user);
+        }
+
+        ConcurrentMap<Class<? extends Check>, UserPermission> permissions;
+        try {
+            permissions = cache.get(key, ConcurrentHashMap::new);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        UserPermission permission = permissions.get(check.getClass());
+        if (permission != null) {
+            hits.increment();
+            return permission;
+        }
+        misses.increment();
+        permission = check.userPermission(user);
+        permissions.put(check.getClass(), permission);
+        return permission;
+    }
+
+    /**
+     * Drop the cached results of a user.
+     *
+     * @param opaqueUser the opaque user
+     */
+    public void invalidate(Object opaqueUser) {
+        Object key = userKey.apply(opaqueUser);
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Drop all cached results.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Number of check lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of check lookups which ran the check.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of users whose results were dropped for size or age, not counting explicit invalidation.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Number of users with cached results, including expired users not yet cleaned up.
+     *
+     * @return the user count
+     */
+    public long size() {
+        return cache.size();
+    }
+}
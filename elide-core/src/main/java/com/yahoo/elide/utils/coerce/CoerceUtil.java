@@ -16,6 +16,8 @@ import org.apache.commons.beanutils.ConvertUtilsBean;
 import org.apache.commons.beanutils.Converter;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Class for coercing a value to a target class.
@@ -24,6 +26,8 @@ public class CoerceUtil {
 
     private static final ToEnumConverter TO_ENUM_CONVERTER = new ToEnumConverter();
     private static final FromMapConverter FROM_MAP_CONVERTER = new FromMapConverter();
+    private static final ConcurrentHashMap<Class<?>, Function<String, Object>> STRING_COERCERS =
+            new ConcurrentHashMap<>();
 
     //static block for setup and registering new converters
     static {
@@ -50,6 +54,37 @@ public class CoerceUtil {
         }
     }
 
+    /**
+     * Get the coercion of strings to a target class, with its converter looked up once per class.
+     * Equivalent to {@link #coerce} of a string value.
+     *
+     * @param cls class to convert to
+     * @return function from a string to the coerced value
+     */
+    public static Function<String, Object> stringCoercer(Class<?> cls) {
+        if (cls == null || cls.isAssignableFrom(String.class)) {
+            return value -> value;
+        }
+        return STRING_COERCERS.computeIfAbsent(cls, CoerceUtil::lookupStringCoercer);
+    }
+
+    private static Function<String, Object> lookupStringCoercer(Class<?> cls) {
+        Converter converter = BeanUtilsBean.getInstance().getConvertUtils().lookup(String.class, cls);
+        if (converter == null) {
+            return value -> coerce(value, cls);
+        }
+        return value -> {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return converter.convert(cls, value);
+            } catch (ConversionException | InvalidAttributeException | IllegalArgumentException e) {
+                throw new InvalidValueException(value);
+            }
+        };
+    }
+
     /**
      * Perform CoerceUtil setup.
      */
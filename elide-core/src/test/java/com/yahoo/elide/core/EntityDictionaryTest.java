@@ -5,7 +5,11 @@
  */
 package com.yahoo.elide.core;
 
+import com.yahoo.elide.annotation.DeletePermission;
 import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.annotation.SharePermission;
+import com.yahoo.elide.annotation.UpdatePermission;
+import com.yahoo.elide.security.Role;
 import example.Child;
 import example.FieldAnnotations;
 import example.FunWithPermissions;
@@ -34,6 +38,9 @@ public class EntityDictionaryTest extends EntityDictionary {
     //Test class to validate inheritance logic
     private class Friend extends Child { }
 
+    //Unbound subclass, as generated for a proxy
+    private class FunWithPermissionsProxy extends FunWithPermissions { }
+
     @BeforeTest
     public void init() {
         this.bindEntity(FunWithPermissions.class);
@@ -47,6 +54,35 @@ public class EntityDictionaryTest extends EntityDictionary {
         this.bindEntity(FieldAnnotations.class);
     }
 
+    @Test
+    public void testPermissionPlan() {
+        PermissionPlan plan = getPermissionPlan(FunWithPermissions.class, UpdatePermission.class);
+        Assert.assertTrue(plan.isAny());
+        Assert.assertEquals(plan.getCheckClasses(), Arrays.asList(Role.NONE.class, Role.ALL.class));
+        Assert.assertSame(getPermissionPlan(FunWithPermissions.class, UpdatePermission.class), plan,
+                "Plans are built once at bind time");
+        Assert.assertSame(plan.getChecks().get(0), plan.getChecks().get(0));
+
+        PermissionPlan deletePlan = getPermissionPlan(FunWithPermissions.class, DeletePermission.class);
+        Assert.assertFalse(deletePlan.isAny());
+        Assert.assertEquals(deletePlan.getCheckClasses(), Arrays.asList(Role.ALL.class, Role.NONE.class));
+
+        PermissionPlan fieldPlan = getPermissionPlan(FunWithPermissions.class, ReadPermission.class, "field1");
+        Assert.assertEquals(fieldPlan.getCheckClasses(), Collections.singletonList(Role.NONE.class));
+        Assert.assertSame(getPermissionPlan(FunWithPermissions.class, ReadPermission.class, "field1"), fieldPlan);
+        Assert.assertNull(getPermissionPlan(FunWithPermissions.class, ReadPermission.class, "field4"));
+        Assert.assertNull(getPermissionPlan(FunWithPermissions.class, SharePermission.class));
+    }
+
+    @Test
+    public void testPermissionPlanOfSubclass() {
+        Assert.assertSame(getPermissionPlan(FunWithPermissionsProxy.class, UpdatePermission.class),
+                getPermissionPlan(FunWithPermissions.class, UpdatePermission.class),
+                "Proxies should use the plan of their entity");
+        Assert.assertSame(getPermissionPlan(Friend.class, ReadPermission.class),
+                getPermissionPlan(Child.class, ReadPermission.class));
+    }
+
     @Test
     public void testGetAttributeOrRelationAnnotation() {
         String[] fields = {"field1", "field2", "field3", "relation1", "relation2"};
@@ -189,4 +225,32 @@ public class EntityDictionaryTest extends EntityDictionary {
         Assert.assertTrue(!rels.contains("excludedEntity") && !rels.contains("excludedRelationship")
             && !rels.contains("excludedEntityList"));
     }
+
+    @Test
+    public void testSetId() {
+        Parent parent = new Parent();
+        this.setId(parent, "42");
+        Assert.assertEquals(parent.getId(), 42L, "The id should be coerced to the primitive id type");
+        Assert.assertEquals(this.getId(parent), "42");
+
+        StringId stringId = new StringId();
+        this.setId(stringId, "abc");
+        Assert.assertEquals(this.getId(stringId), "abc");
+    }
+
+    @Test
+    public void testAccessors() throws Exception {
+        FunWithPermissions fun = new FunWithPermissions();
+        FieldAccessor field1 = this.getAccessor(fun, "field1");
+        FieldAccessor field3 = this.getAccessor(fun, "field3");
+
+        field1.set(fun, "method");
+        field3.set(fun, "field");
+
+        Assert.assertEquals(fun.getField1(), "method");
+        Assert.assertEquals(fun.field3, "field");
+        Assert.assertEquals(field1.get(fun), "method");
+        Assert.assertEquals(field3.get(fun), "field");
+        Assert.assertNull(this.getAccessor(fun, "unknown"));
+    }
 }
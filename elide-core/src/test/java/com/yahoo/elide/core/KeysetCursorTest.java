@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.google.common.collect.Lists;
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+import example.Post;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class KeysetCursorTest {
+    private final EntityDictionary dictionary = new EntityDictionary();
+
+    private final Post post1 = newPost(1, "b", 10);
+    private final Post post2 = newPost(2, "a", 20);
+    private final Post post3 = newPost(3, "b", 30);
+    private final Post post4 = newPost(4, null, 40);
+    private final List<Post> posts = Arrays.asList(post1, post2, post3, post4);
+
+    @BeforeTest
+    public void init() {
+        dictionary.bindEntity(Post.class);
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        Sorting sorting = sortBy("title");
+        KeysetCursor cursor = KeysetCursor.of(post3, Post.class, sorting, dictionary);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        Assert.assertEquals(decoded.encode(), cursor.encode());
+        Assert.assertEquals(decoded.getKeys(Post.class, sorting, dictionary), Arrays.asList("b", 3L));
+        Assert.assertTrue(KeysetCursor.decode("").isFirst());
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testMalformedToken() {
+        KeysetCursor.decode("not a cursor");
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testTokenForOtherSort() {
+        KeysetCursor cursor = KeysetCursor.of(post3, Post.class, sortBy("title"), dictionary);
+        cursor.getKeys(Post.class, sortBy("title,created"), dictionary);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testTokenForReversedSort() {
+        KeysetCursor cursor = KeysetCursor.of(post3, Post.class, sortBy("title"), dictionary);
+        KeysetCursor.decode(cursor.encode()).getKeys(Post.class, sortBy("-title"), dictionary);
+    }
+
+    @Test
+    public void testPaginationParsesAfter() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[after]", "");
+        queryParams.putSingle("page[limit]", "2");
+
+        Pagination pagination = Pagination.parseQueryParams(queryParams, 10);
+        Assert.assertTrue(pagination.isKeyset());
+        Assert.assertTrue(pagination.getAfter().isFirst());
+        Assert.assertEquals(pagination.getLimit(), 2);
+    }
+
+    @Test
+    public void testInMemoryKeysetPages() {
+        Sorting sorting = sortBy("title");
+        DataStoreTransaction tx = new ListTransaction(posts);
+        RequestScope scope = new RequestScope(null, tx, null, dictionary, null, null);
+        FilterScope<Post> filterScope = new FilterScope<>(scope);
+
+        // nulls first, then title, then id
+        List<Post> page = Lists.newArrayList(
+                tx.loadObjects(Post.class, filterScope, sorting, new Pagination(KeysetCursor.FIRST, 2)));
+        Assert.assertEquals(page, Arrays.asList(post4, post2));
+
+        KeysetCursor after = KeysetCursor.decode(KeysetCursor.of(post2, Post.class, sorting, dictionary).encode());
+        page = Lists.newArrayList(tx.loadObjects(Post.class, filterScope, sorting, new Pagination(after, 2)));
+        Assert.assertEquals(page, Arrays.asList(post1, post3));
+
+        after = KeysetCursor.of(post3, Post.class, sorting, dictionary);
+        page = Lists.newArrayList(tx.loadObjects(Post.class, filterScope, sorting, new Pagination(after, 2)));
+        Assert.assertEquals(page, Collections.emptyList());
+    }
+
+    @Test
+    public void testDescendingPrecedes() {
+        Sorting sorting = sortBy("-created");
+        KeysetCursor after = KeysetCursor.of(post2, Post.class, sorting, dictionary);
+
+        Assert.assertTrue(after.precedes(post1, Post.class, sorting, dictionary));
+        Assert.assertFalse(after.precedes(post2, Post.class, sorting, dictionary));
+        Assert.assertFalse(after.precedes(post3, Post.class, sorting, dictionary));
+    }
+
+    private static Sorting sortBy(String fields) {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", fields);
+        return Sorting.parseQueryParams(queryParams);
+    }
+
+    private static Post newPost(long id, String title, int created) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setCreated(created);
+        return post;
+    }
+
+    /**
+     * Transaction over a fixed list which relies on the default in-memory sorting and pagination.
+     */
+    private static class ListTransaction implements DataStoreTransaction {
+        private final List<Post> records;
+
+        ListTransaction(List<Post> records) {
+            this.records = records;
+        }
+
+        @Override
+        public void save(Object entity) {
+        }
+
+        @Override
+        public void delete(Object entity) {
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public <T> T createObject(Class<T> entityClass) {
+            return null;
+        }
+
+        @Override
+        public <T> T loadObject(Class<T> entityClass, Serializable id) {
+            return null;
+        }
+
+        @Override
+        public <T> Iterable<T> loadObjects(Class<T> entityClass) {
+            return (Iterable<T>) records;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -98,7 +98,8 @@ public class LifeCycleTest {
     public void loadRecordsOnCommit() {
         Book book = mock(Book.class);
         DataStoreTransaction tx = mock(DataStoreTransaction.class);
-        when(tx.loadObjects(eq(Book.class), isA(FilterScope.class))).thenReturn(Arrays.asList(book));
+        when(tx.loadObjects(eq(Book.class), isA(FilterScope.class), isA(Sorting.class),
+                isA(Pagination.class))).thenReturn(Arrays.asList(book));
         RequestScope scope = new RequestScope(null, tx, new User(1), dictionary, null, MOCK_LOGGER);
         Set<PersistentResource<Book>> resources = PersistentResource.loadRecords(Book.class, scope);
         scope.runCommitTriggers();
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.google.common.collect.Lists;
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.List;
+
+public class PaginationTest {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Test
+    public void testOffsetLimit() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[offset]", "20");
+        queryParams.putSingle("page[limit]", "10");
+
+        Pagination pagination = Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE);
+        Assert.assertEquals(pagination.getOffset(), 20);
+        Assert.assertEquals(pagination.getLimit(), 10);
+    }
+
+    @Test
+    public void testNumberSize() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[number]", "3");
+        queryParams.putSingle("page[size]", "10");
+
+        Pagination pagination = Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE);
+        Assert.assertEquals(pagination.getOffset(), 20, "Page 3 of size 10 starts at record 20");
+        Assert.assertEquals(pagination.getLimit(), 10);
+    }
+
+    @Test
+    public void testDefaultsToMaxPageSize() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[offset]", "5");
+
+        Pagination pagination = Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE);
+        Assert.assertEquals(pagination.getOffset(), 5);
+        Assert.assertEquals(pagination.getLimit(), MAX_PAGE_SIZE);
+        Assert.assertTrue(pagination.isLimited());
+    }
+
+    @Test
+    public void testNoPageParameters() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "title");
+
+        Assert.assertEquals(Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE), new Pagination(0, MAX_PAGE_SIZE),
+                "Requests without page parameters get the first page of the max page size");
+        Assert.assertEquals(Pagination.parseQueryParams(queryParams, Integer.MAX_VALUE), Pagination.NONE);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testLimitAboveMax() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[limit]", "101");
+        Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testNegativeOffset() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[offset]", "-1");
+        Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testNotANumber() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[size]", "ten");
+        Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testMixedStyles() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[offset]", "0");
+        queryParams.putSingle("page[size]", "10");
+        Pagination.parseQueryParams(queryParams, MAX_PAGE_SIZE);
+    }
+
+    @Test
+    public void testApply() {
+        List<Integer> records = Arrays.asList(1, 2, 3, 4, 5, 6);
+
+        Assert.assertEquals(Lists.newArrayList(new Pagination(2, 3).apply(records)), Arrays.asList(3, 4, 5));
+        Assert.assertEquals(Lists.newArrayList(new Pagination(4, 3).apply(records)), Arrays.asList(5, 6));
+        Assert.assertEquals(Lists.newArrayList(Pagination.NONE.apply(records)), records);
+    }
+
+    @Test
+    public void testRequestScopeParsesPagination() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[limit]", "7");
+
+        RequestScope scope = new RequestScope(null, null, null, new EntityDictionary(), null, null, queryParams);
+        Assert.assertEquals(scope.getPagination(), new Pagination(0, 7));
+
+        scope = new RequestScope(null, null, null, new EntityDictionary(), null, null);
+        Assert.assertEquals(scope.getPagination(), new Pagination(0, Pagination.DEFAULT_MAX_PAGE_SIZE),
+                "Requests without page parameters are capped at the max page size");
+    }
+}
@@ -7,17 +7,23 @@ package com.yahoo.elide.core;
 
 import com.yahoo.elide.annotation.CreatePermission;
 import com.yahoo.elide.annotation.DeletePermission;
+import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.UpdatePermission;
+import com.yahoo.elide.audit.InvalidSyntaxException;
 import com.yahoo.elide.audit.Logger;
 import com.yahoo.elide.audit.TestLogger;
 import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
+import com.yahoo.elide.security.Check;
 import com.yahoo.elide.security.User;
 
 import example.FunWithPermissions;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
 /**
  * Tests audit functions inside RecordDao.
  */
@@ -111,4 +117,31 @@ public class PermissionAnnotationTest {
     public void testField8PermissionNotOk() {
         PersistentResource.checkFieldPermission(ReadPermission.class, badRecord, "field8");
     }
+
+    /**
+     * Verifies a check which cannot be instantiated fails when its entity is bound.
+     */
+    @Test(expectedExceptions = InvalidSyntaxException.class)
+    public void testIllegalCheckFailsAtBind() {
+        new EntityDictionary().bindEntity(IllegalCheckEntity.class);
+    }
+
+    @Include
+    @Entity
+    @ReadPermission(any = {IllegalCheck.class})
+    public static class IllegalCheckEntity {
+        @Id
+        public long id;
+    }
+
+    public static class IllegalCheck implements Check<IllegalCheckEntity> {
+        public IllegalCheck() {
+            throw new IllegalStateException("no check");
+        }
+
+        @Override
+        public boolean ok(PersistentResource<IllegalCheckEntity> record) {
+            return true;
+        }
+    }
 }
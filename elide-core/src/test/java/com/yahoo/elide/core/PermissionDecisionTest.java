@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.yahoo.elide.audit.TestLogger;
+import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.security.User;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PermissionDecisionTest {
+    private final EntityDictionary dictionary = new EntityDictionary();
+
+    @Test
+    public void testAllow() {
+        Assert.assertTrue(PermissionDecision.ALLOW.isAllowed());
+        Assert.assertNull(PermissionDecision.ALLOW.getReason());
+        PermissionDecision.ALLOW.check(getScope(SecurityMode.SECURITY_ACTIVE_VERBOSE));
+    }
+
+    @Test
+    public void testReasonFormattedOnlyWhenReported() {
+        AtomicInteger formatted = new AtomicInteger();
+        PermissionDecision deny = PermissionDecision.deny(() -> "denied #" + formatted.incrementAndGet());
+
+        Assert.assertFalse(deny.isAllowed());
+        Assert.assertEquals(formatted.get(), 0, "A denial should not format its reason");
+
+        ForbiddenAccessException verbose = deny.toException(getScope(SecurityMode.SECURITY_ACTIVE_VERBOSE));
+        Assert.assertEquals(verbose.getVerboseMessage(), "denied #1");
+    }
+
+    @Test(expectedExceptions = ForbiddenAccessException.class)
+    public void testCheckThrowsWhenDenied() {
+        PermissionDecision.deny(() -> "denied").check(getScope(SecurityMode.SECURITY_ACTIVE));
+    }
+
+    private RequestScope getScope(SecurityMode securityMode) {
+        return new RequestScope(new JsonApiDocument(), null, new User(1), dictionary, null, new TestLogger(),
+                securityMode);
+    }
+}
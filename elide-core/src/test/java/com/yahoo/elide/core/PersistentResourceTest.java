@@ -16,6 +16,7 @@ import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
 import com.yahoo.elide.core.exceptions.InvalidAttributeException;
 import com.yahoo.elide.core.exceptions.InvalidObjectIdentifierException;
 import com.yahoo.elide.core.exceptions.InvalidValueException;
+import com.yahoo.elide.core.filter.FilterExpression;
 import com.yahoo.elide.jsonapi.models.Data;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import com.yahoo.elide.jsonapi.models.Relationship;
@@ -45,6 +46,7 @@ import org.testng.annotations.Test;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -62,6 +64,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -121,6 +124,30 @@ public class PersistentResourceTest extends PersistentResource {
         Assert.assertEquals(relationships.size(), 0, "All relationships should be filtered out");
     }
 
+    @Test
+    public void testGetRelationshipsByIdentifier() {
+        Parent parent = newParent(1);
+        parent.setSpouses(Sets.newHashSet(newParent(7)));
+        parent.setChildren(Sets.newHashSet(newChild(2)));
+
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        when(tx.loadRelationIdentifiers(eq(Parent.class), eq(parent), eq("spouses"), any()))
+                .thenReturn(Lists.newArrayList(7L, 8L));
+        RequestScope goodScope = new RequestScope(null, tx, new User(1), dictionary, null, MOCK_LOGGER);
+        PersistentResource<Parent> parentResource = new PersistentResource<>(parent, null, "1", goodScope);
+
+        Map<String, Relationship> relationships = parentResource.getRelationships();
+
+        List<String> spouseIds = relationships.get("spouses").getData().get().stream()
+                .map(Resource::getId)
+                .collect(Collectors.toList());
+        Assert.assertEquals(spouseIds, Lists.newArrayList("7", "8"),
+                "Linkage should come from the identifiers of the store");
+        Assert.assertEquals(relationships.get("children").getData().get().size(), 1,
+                "Relationships guarded by record checks should be loaded");
+        verify(tx, never()).loadRelationIdentifiers(eq(Parent.class), eq(parent), eq("children"), any());
+    }
+
     @Test
     public void testGetAttributes() {
         FunWithPermissions fun = new FunWithPermissions();
@@ -552,7 +579,7 @@ public class PersistentResourceTest extends PersistentResource {
         parent.setChildren(Sets.newHashSet(child1, child2, child3));
 
         DataStoreTransaction tx = mock(DataStoreTransaction.class);
-        when(tx.filterCollection(anyCollection(), any(), any())).thenReturn(Sets.newHashSet(child1));
+        when(tx.filterCollection(anyCollection(), any(), any(FilterExpression.class), any())).thenReturn(Sets.newHashSet(child1));
         User goodUser = new User(1);
 
         MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
@@ -641,7 +668,7 @@ public class PersistentResourceTest extends PersistentResource {
         User goodUser = new User(1);
 
         DataStoreTransaction tx = mock(DataStoreTransaction.class);
-        when(tx.filterCollection(anyCollection(), any(), any())).thenReturn(Sets.newHashSet(child1));
+        when(tx.filterCollection(anyCollection(), any(), any(FilterExpression.class), any())).thenReturn(Sets.newHashSet(child1));
 
         RequestScope goodScope = new RequestScope(null, tx, goodUser, dictionary, null, MOCK_LOGGER);
         PersistentResource<FunWithPermissions> funResource = new PersistentResource<>(fun, null, "3", goodScope);
@@ -662,7 +689,7 @@ public class PersistentResourceTest extends PersistentResource {
         User goodUser = new User(1);
 
         DataStoreTransaction tx = mock(DataStoreTransaction.class);
-        when(tx.filterCollection(anyCollection(), any(), any())).thenReturn(Collections.emptySet());
+        when(tx.filterCollection(anyCollection(), any(), any(FilterExpression.class), any())).thenReturn(Collections.emptySet());
 
         RequestScope goodScope = new RequestScope(null, tx, goodUser, dictionary, null, MOCK_LOGGER);
         PersistentResource<FunWithPermissions> funResource = new PersistentResource<>(fun, null, "3", goodScope);
@@ -1162,7 +1189,7 @@ public class PersistentResourceTest extends PersistentResource {
         DataStoreTransaction tx = mock(DataStoreTransaction.class);
         User goodUser = new User(1);
 
-        when(tx.loadObjects(eq(Child.class), anyObject()))
+        when(tx.loadObjects(eq(Child.class), anyObject(), anyObject(), anyObject()))
             .thenReturn(Lists.newArrayList(child1, child2, child3, child4, child5));
 
         RequestScope goodScope = new RequestScope(null, tx, goodUser, dictionary, null, MOCK_LOGGER);
@@ -1180,6 +1207,31 @@ public class PersistentResourceTest extends PersistentResource {
         );
     }
 
+    @Test()
+    public void testLoadRecordsPaginatesReadableRecords() {
+        Child child1 = newChild(1);
+        Child child2 = newChild(-2);
+        Child child3 = newChild(-3);
+        Child child4 = newChild(4);
+        Child child5 = newChild(5);
+
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        User goodUser = new User(1);
+
+        when(tx.loadObjects(eq(Child.class), anyObject(), anyObject(), eq(Pagination.NONE)))
+            .thenReturn(Lists.newArrayList(child1, child2, child3, child4, child5));
+
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("page[offset]", "1");
+        queryParams.putSingle("page[limit]", "2");
+        RequestScope goodScope = new RequestScope(null, tx, goodUser, dictionary, null, MOCK_LOGGER, queryParams);
+        Set<PersistentResource<Child>> loaded = PersistentResource.loadRecords(Child.class, goodScope);
+
+        Assert.assertEquals(loaded.stream().map(PersistentResource::getObject).collect(Collectors.toList()),
+                Arrays.asList(child4, child5),
+                "Denied records should neither shorten the page nor count toward the offset");
+    }
+
     @Test()
     public void testLoadRecordSuccess() {
         Child child1 = newChild(1);
@@ -1197,6 +1249,30 @@ public class PersistentResourceTest extends PersistentResource {
         );
     }
 
+    @Test()
+    public void testLoadRecordCached() {
+        Child child1 = newChild(1);
+        Child child4 = newChild(4);
+
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        User goodUser = new User(1);
+
+        when(tx.loadObject(Child.class, 1L)).thenReturn(child1);
+        when(tx.loadObjects(eq(Child.class), anyObject(), anyObject(), anyObject()))
+            .thenReturn(Lists.newArrayList(child4));
+
+        RequestScope goodScope = new RequestScope(null, tx, goodUser, dictionary, null, MOCK_LOGGER);
+        PersistentResource.loadRecord(Child.class, "1", goodScope);
+        PersistentResource<Child> loaded = PersistentResource.loadRecord(Child.class, "1", goodScope);
+        Assert.assertSame(loaded.getObject(), child1);
+        verify(tx, times(1)).loadObject(Child.class, 1L);
+
+        PersistentResource.loadRecords(Child.class, goodScope);
+        Assert.assertSame(PersistentResource.loadRecord(Child.class, "4", goodScope).getObject(), child4,
+                "Records loaded in a collection should be found by id without the datastore");
+        verify(tx, never()).loadObject(Child.class, 4L);
+    }
+
     @Test(expectedExceptions = InvalidObjectIdentifierException.class)
     public void testLoadRecordInvalidId() {
         DataStoreTransaction tx = mock(DataStoreTransaction.class);
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.google.common.collect.ImmutableMap;
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+import example.Post;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class SortingTest {
+    private final EntityDictionary dictionary = new EntityDictionary();
+
+    @BeforeTest
+    public void init() {
+        dictionary.bindEntity(Post.class);
+    }
+
+    @Test
+    public void testParseQueryParams() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.put("sort", Arrays.asList("title,-created", "title"));
+
+        Sorting sorting = Sorting.parseQueryParams(queryParams);
+        Assert.assertFalse(sorting.isDefault());
+        Assert.assertEquals(sorting.getSortRules(),
+                ImmutableMap.of("title", Sorting.SortOrder.ASC, "created", Sorting.SortOrder.DESC));
+        Assert.assertTrue(Sorting.parseQueryParams(new MultivaluedHashMap<>()).isDefault());
+
+        queryParams.put("sort", Arrays.asList(" title,+created"));
+        Assert.assertEquals(Sorting.parseQueryParams(queryParams).getSortRules(),
+                ImmutableMap.of("title", Sorting.SortOrder.ASC, "created", Sorting.SortOrder.ASC));
+    }
+
+    @Test
+    public void testValidSortingRules() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "-created,id");
+
+        Map<String, Sorting.SortOrder> rules =
+                Sorting.parseQueryParams(queryParams).getValidSortingRules(Post.class, dictionary);
+        Assert.assertEquals(rules, ImmutableMap.of("created", Sorting.SortOrder.DESC, "id", Sorting.SortOrder.ASC));
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testUnknownSortField() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "-doesNotExist,created");
+        Sorting.parseQueryParams(queryParams).getValidSortingRules(Post.class, dictionary);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testRelationshipSortField() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "spouses");
+        Sorting.parseQueryParams(queryParams).getValidSortingRules(Post.class, dictionary);
+    }
+
+    @Test
+    public void testComparator() {
+        Post post1 = newPost(1, "Hello world!", 10);
+        Post post2 = newPost(2, "Hello world!", 20);
+        Post post3 = newPost(3, "Goodbye world!", 10);
+        Post post4 = newPost(4, null, 30);
+
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "title,-created");
+
+        List<Post> posts = Arrays.asList(post1, post2, post3, post4);
+        posts.sort(Sorting.parseQueryParams(queryParams).getComparator(Post.class, dictionary));
+        Assert.assertEquals(posts, Arrays.asList(post4, post3, post2, post1),
+                "Null values sort first, ties are resolved by the following rules");
+    }
+
+    private static Post newPost(long id, String title, int created) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setCreated(created);
+        return post;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.exceptions.InvalidPredicateException;
+import example.Author;
+import example.Book;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class FilterCompilerTest {
+    private FilterCompiler compiler;
+
+    @BeforeMethod
+    public void setup() {
+        EntityDictionary dictionary = new EntityDictionary();
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Author.class);
+        compiler = new FilterCompiler(dictionary);
+    }
+
+    @Test
+    public void testEqualFiltersCompileEqual() {
+        MultivaluedMap<String, String> first = new MultivaluedHashMap<>();
+        first.add("filter[book.genre][in]", "Science Fiction,Literary Fiction");
+        first.add("page[size]", "10");
+        MultivaluedMap<String, String> second = new MultivaluedHashMap<>();
+        second.add("filter[book.genre][in]", "Science Fiction,Literary Fiction");
+
+        CompiledFilter filter = compiler.compile(first);
+        Assert.assertEquals(compiler.compile(second), filter);
+        Assert.assertEquals(compiler.compile(second).hashCode(), filter.hashCode());
+        Assert.assertEquals(filter.getPredicatesOfType("book"), Collections.singleton(
+                new Predicate("genre", Operator.IN, Arrays.<Object>asList("Science Fiction", "Literary Fiction"))));
+        Assert.assertTrue(filter.getPredicatesOfType("author").isEmpty());
+    }
+
+    @Test
+    public void testCoercesToFieldType() {
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        params.add("filter[book.id]", "1,2");
+
+        Predicate predicate = compiler.compile(params).getPredicatesOfType("book").iterator().next();
+        Assert.assertEquals(predicate.getOperator(), Operator.IN);
+        Assert.assertEquals(predicate.getValues(), Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    public void testVaryingParameterNamesCompileEqual() {
+        CompiledFilter filter = null;
+        for (String parameter : Arrays.asList("filter[book.genre]", "filter[book.genre]1", "xfilter[book.genre]")) {
+            MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+            params.add(parameter, "Science Fiction");
+            CompiledFilter compiled = compiler.compile(params);
+            if (filter != null) {
+                Assert.assertEquals(compiled, filter, parameter);
+            }
+            filter = compiled;
+        }
+    }
+
+    @Test
+    public void testCyclicPathsBounded() {
+        // every path through the cyclic books and authors relationships is a distinct valid filter
+        StringBuilder path = new StringBuilder("book");
+        for (int i = 0; i < FilterCompiler.DEFAULT_MAXIMUM_FILTERS + 10; i++) {
+            MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+            params.add("filter[" + path + ".title]", "Foundation");
+            compiler.compile(params);
+            path.append(".authors.books");
+        }
+        Assert.assertTrue(compiler.size() <= FilterCompiler.DEFAULT_MAXIMUM_FILTERS);
+    }
+
+    @Test
+    public void testNoFilters() {
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        params.add("sort", "title");
+
+        CompiledFilter filter = compiler.compile(params);
+        Assert.assertSame(filter, CompiledFilter.EMPTY);
+        Assert.assertTrue(filter.isEmpty());
+    }
+
+    @Test(expectedExceptions = InvalidPredicateException.class)
+    public void testUnknownField() {
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        params.add("filter[book.publisher]", "Baen");
+        compiler.compile(params);
+    }
+
+    @Test(expectedExceptions = InvalidPredicateException.class)
+    public void testUnknownType() {
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        params.add("filter[magazine.title]", "Analog");
+        compiler.compile(params);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.InvalidPredicateException;
+import example.Author;
+import example.Book;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FilterExpressionTest {
+    private EntityDictionary dictionary;
+    private FilterCompiler compiler;
+    private List<Book> books;
+
+    @BeforeMethod
+    public void setup() {
+        dictionary = new EntityDictionary();
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Author.class);
+        compiler = new FilterCompiler(dictionary);
+
+        Author tolkien = author(1, "J.R.R. Tolkien");
+        Author asimov = author(2, "Isaac Asimov");
+        Author pratchett = author(3, "Terry Pratchett");
+        Author gaiman = author(4, "Neil Gaiman");
+        books = Arrays.asList(
+                book(1, "The Hobbit", "Fantasy", tolkien),
+                book(2, "Foundation", "Science Fiction", asimov),
+                book(3, "Good Omens", "Fantasy", pratchett, gaiman),
+                book(4, "The Caves of Steel", null, asimov));
+    }
+
+    @Test
+    public void testPrecedence() {
+        FilterExpression expression = compiler.parse(Book.class, "genre=in=Fantasy;title=prefix=The,id=ge=4");
+
+        Predicate genre = new Predicate("genre", Operator.IN, Collections.singletonList("Fantasy"));
+        Predicate title = new Predicate("title", Operator.PREFIX, Collections.singletonList("The"));
+        Predicate id = new Predicate("id", Operator.GE, Collections.singletonList(4L));
+        Assert.assertEquals(expression, new OrFilterExpression(new AndFilterExpression(genre, title), id));
+        Assert.assertEquals(titles(expression), Arrays.asList("The Hobbit", "The Caves of Steel"));
+    }
+
+    @Test
+    public void testGroupingNegationAndQuoting() {
+        FilterExpression expression = compiler.parse(Book.class,
+                " !( genre=in=('Science Fiction', \"Fantasy\") ) , title=infix='Omens' ");
+        Assert.assertEquals(titles(expression), Collections.singletonList("Good Omens"));
+
+        expression = compiler.parse(Book.class, "title=in='It\\'s';genre=isnull=");
+        Assert.assertEquals(((Predicate) ((AndFilterExpression) expression).getLeft()).getValues(),
+                Collections.singletonList("It's"));
+        Assert.assertTrue(titles(expression).isEmpty());
+        Assert.assertEquals(titles(compiler.parse(Book.class, "genre=isnull=")),
+                Collections.singletonList("The Caves of Steel"));
+    }
+
+    @Test
+    public void testRelationshipPath() {
+        FilterExpression expression = compiler.parse(Book.class, "authors.name=postfix=Gaiman,authors.id=in=(1)");
+        Assert.assertEquals(titles(expression), Arrays.asList("The Hobbit", "Good Omens"));
+
+        expression = compiler.parse(Book.class, "!authors.name=in='Isaac Asimov'");
+        Assert.assertEquals(titles(expression), Arrays.asList("The Hobbit", "Good Omens"));
+    }
+
+    @Test
+    public void testQueryParameters() {
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        params.add("filter[book]", "genre=in=Fantasy,authors.name=in='Isaac Asimov'");
+        params.add("filter[book.authors.name][prefix]", "Terry");
+        params.add("filter[author]", "name=prefix=N");
+
+        CompiledFilter filter = compiler.compile(params);
+        Assert.assertEquals(filter.getPredicatesOfType("book"), Collections.singleton(
+                new Predicate("authors.name", Operator.PREFIX, Collections.singletonList("Terry"))));
+        Assert.assertTrue(filter.getPredicatesOfType("author").isEmpty());
+        Assert.assertEquals(titles(filter.getExpressionOfType("book")), Collections.singletonList("Good Omens"));
+        Assert.assertNotNull(filter.getExpressionOfType("author"));
+        Assert.assertEquals(compiler.compile(params), filter);
+    }
+
+    @Test
+    public void testDefaultFilterCollection() {
+        DataStoreTransaction tx = new EmptyTransaction();
+        RequestScope scope = new RequestScope(null, tx, null, dictionary, null, null);
+        FilterExpression expression = compiler.parse(Book.class, "genre=in=Fantasy,authors.name=in='Isaac Asimov'");
+
+        Collection<Book> filtered = tx.filterCollection(books, Book.class, expression, scope);
+        Assert.assertEquals(filtered.stream().map(Book::getTitle).collect(Collectors.toList()),
+                Arrays.asList("The Hobbit", "Foundation", "Good Omens", "The Caves of Steel"));
+        filtered = tx.filterCollection(books, Book.class, compiler.parse(Book.class, "!genre=in=Fantasy"), scope);
+        Assert.assertEquals(filtered.stream().map(Book::getTitle).collect(Collectors.toList()),
+                Collections.singletonList("Foundation"));
+    }
+
+    @Test
+    public void testMissingValuesAreUnknown() {
+        // as in SQL, a comparison with a missing genre is unknown and stays unknown under NOT
+        Assert.assertEquals(titles(compiler.parse(Book.class, "!genre=in=Fantasy")),
+                Collections.singletonList("Foundation"));
+        Assert.assertEquals(titles(compiler.parse(Book.class, "!(genre=in=Fantasy,title=in=x)")),
+                Collections.singletonList("Foundation"));
+
+        // unknown AND false is false, so its negation is true
+        Assert.assertEquals(titles(compiler.parse(Book.class, "!(genre=in=Fantasy;title=in=x)")),
+                Arrays.asList("The Hobbit", "Foundation", "Good Omens", "The Caves of Steel"));
+        Assert.assertEquals(titles(compiler.parse(Book.class, "genre=isnull=,!genre=in=Fantasy")),
+                Arrays.asList("Foundation", "The Caves of Steel"));
+    }
+
+    @Test
+    public void testConjunction() {
+        Assert.assertEquals(ConjunctionVisitor.getPredicates(compiler.parse(Book.class, "genre=in=a;title=in=b")),
+                compiler.parse(Book.class, "title=in=b;genre=in=a").accept(new ConjunctionVisitor()));
+        Assert.assertNull(ConjunctionVisitor.getPredicates(compiler.parse(Book.class, "genre=in=a,title=in=b")));
+        Assert.assertNull(ConjunctionVisitor.getPredicates(compiler.parse(Book.class, "!genre=in=a")));
+    }
+
+    @Test
+    public void testInvalidExpressions() {
+        for (String expression : Arrays.asList("", "genre", "genre=in=", "genre=is=a", "genre=isnull=a",
+                "(genre=in=a", "genre=in=a)", "genre=in=(a,", "publisher=in=a", "title.name=in=a",
+                "authors.publisher=in=a", "genre=in='a")) {
+            try {
+                compiler.parse(Book.class, expression);
+                Assert.fail("Expected an invalid filter: " + expression);
+            } catch (InvalidPredicateException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expectedExceptions = InvalidPredicateException.class)
+    public void testExpressionWithOperator() {
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        params.add("filter[book][in]", "genre=in=Fantasy");
+        compiler.compile(params);
+    }
+
+    /**
+     * Transaction which relies on the default in-memory filtering.
+     */
+    private static class EmptyTransaction implements DataStoreTransaction {
+        @Override
+        public void save(Object entity) {
+        }
+
+        @Override
+        public void delete(Object entity) {
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public <T> T createObject(Class<T> entityClass) {
+            return null;
+        }
+
+        @Override
+        public <T> T loadObject(Class<T> entityClass, Serializable id) {
+            return null;
+        }
+
+        @Override
+        public <T> Iterable<T> loadObjects(Class<T> entityClass) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+        private List<String> titles(FilterExpression expression) {
+        java.util.function.Predicate<Object> test = expression.accept(new InMemoryFilterVisitor(dictionary));
+        return books.stream().filter(test).map(Book::getTitle).collect(Collectors.toList());
+    }
+
+    private static Author author(long id, String name) {
+        Author author = new Author();
+        author.setId(id);
+        author.setName(name);
+        return author;
+    }
+
+    private static Book book(long id, String title, String genre, Author... authors) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setGenre(genre);
+        book.setAuthors(Arrays.asList(authors));
+        return book;
+    }
+}
@@ -27,10 +27,14 @@ import example.Parent;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -272,4 +276,44 @@ public class JsonApiTest {
         assertEquals(includedChild.getId(), "2");
         assertEquals(parent.getId(), "123");
     }
+
+    @Test
+    public void writeDetachedAttributes() throws IOException {
+        // a list which, like a lazy collection, cannot be read once its session has closed
+        boolean[] closed = {false};
+        List<String> nicknames = Arrays.asList("a", "b");
+        List<String> lazy = new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return read().get(index);
+            }
+
+            @Override
+            public int size() {
+                return read().size();
+            }
+
+            private List<String> read() {
+                if (closed[0]) {
+                    throw new IllegalStateException("closed");
+                }
+                return nicknames;
+            }
+        };
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("name", "bob");
+        attributes.put("nicknames", lazy);
+        Resource resource = new Resource("parent", "123");
+        resource.setAttributes(attributes);
+        JsonApiDocument jsonApiDocument = new JsonApiDocument(new Data<>(resource));
+        String expected = mapper.writeJsonApiDocument(jsonApiDocument);
+
+        mapper.detachAttributes(jsonApiDocument);
+        closed[0] = true;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapper.writeJsonApiDocument(jsonApiDocument, out);
+        assertEquals(out.toString("UTF-8"), expected);
+        assertEquals(attributes.get("name"), "bob");
+    }
 }
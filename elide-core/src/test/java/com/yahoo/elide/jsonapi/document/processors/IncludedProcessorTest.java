@@ -7,6 +7,7 @@ package com.yahoo.elide.jsonapi.document.processors;
 
 import com.google.common.collect.Sets;
 import com.yahoo.elide.audit.TestLogger;
+import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.PersistentResource;
 import com.yahoo.elide.core.RequestScope;
@@ -28,11 +29,20 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class IncludedProcessorTest {
     private static final String INCLUDE = "include";
 
     private IncludedProcessor includedProcessor;
+    private EntityDictionary dictionary;
 
     private PersistentResource<Parent> parentRecord1;
     private PersistentResource<Parent> parentRecord2;
@@ -47,7 +57,7 @@ public class IncludedProcessorTest {
     public void setUp() throws Exception {
         includedProcessor = new IncludedProcessor();
 
-        EntityDictionary dictionary = new EntityDictionary();
+        dictionary = new EntityDictionary();
         dictionary.bindEntity(Child.class);
         dictionary.bindEntity(Parent.class);
 
@@ -172,6 +182,48 @@ public class IncludedProcessorTest {
                 "Included Processor added multiple nested requested resource collections from 'include' query param");
     }
 
+    @Test
+    public void testExecuteSharedPrefix() throws Exception {
+        JsonApiDocument jsonApiDocument = new JsonApiDocument();
+        PersistentResource<Parent> parent = spy(parentRecord3);
+
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.put(INCLUDE, Arrays.asList("children,children.friends", "children"));
+        includedProcessor.execute(jsonApiDocument, parent, Optional.of(queryParams));
+
+        Set<Resource> expectedIncluded =
+                Sets.newHashSet(
+                        childRecord1.toResource(),
+                        childRecord2.toResource(),
+                        childRecord3.toResource(),
+                        childRecord4.toResource()
+                );
+        Assert.assertEquals(jsonApiDocument.getIncluded().size(), expectedIncluded.size(),
+                "Each resource is included once");
+        Assert.assertEquals(new HashSet<>(jsonApiDocument.getIncluded()), expectedIncluded);
+        verify(parent, times(1)).getRelation("children");
+    }
+
+    @Test
+    public void testRelationsBatchLoaded() throws Exception {
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        RequestScope scope = new RequestScope(new JsonApiDocument(), tx, new User(1), dictionary, null,
+                new TestLogger());
+        Set<PersistentResource> parents = Sets.newLinkedHashSet(Arrays.asList(
+                new PersistentResource<>(parentRecord1.getObject(), scope),
+                new PersistentResource<>(parentRecord2.getObject(), scope)));
+
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.put(INCLUDE, Collections.singletonList("children.friends"));
+        includedProcessor.execute(new JsonApiDocument(), parents, Optional.of(queryParams));
+
+        verify(tx, times(1)).batchLoadRelation(eq(Parent.class), anyCollection(), eq("children"));
+        verify(tx, never()).batchLoadRelation(eq(Parent.class), anyCollection(), eq("spouses"));
+        // the included children are rendered and walked to their friends in batches
+        verify(tx, atLeastOnce()).batchLoadRelation(eq(Child.class), anyCollection(), eq("friends"));
+        verify(tx, atLeastOnce()).batchLoadRelation(eq(Child.class), anyCollection(), eq("parents"));
+    }
+
     @Test
     public void testNoQueryParams() throws Exception {
         JsonApiDocument jsonApiDocument = new JsonApiDocument();
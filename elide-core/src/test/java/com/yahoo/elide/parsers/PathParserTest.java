@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.parsers.state.StateContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.apache.commons.lang3.tuple.Pair;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Differential tests of the hand-written path parser against the ANTLR grammar.
+ */
+public class PathParserTest {
+    private static final String[] SEGMENTS = {
+            "book", "authors", "1", "42", "relationships", "relationshipsX", "xrelationships", "x-y_z.(!)~*'",
+            "a|b", "a b", "%20", "a#b", "", ".", "..", "*"
+    };
+
+    private static class RecordingVisitor extends BaseVisitor {
+        RecordingVisitor(RecordingState recorder) {
+            super(new StateContext(recorder, (RequestScope) null));
+        }
+
+        @Override
+        protected Supplier<Pair<Integer, JsonNode>> handleQuery() {
+            return null;
+        }
+    }
+
+    /**
+     * Transitions driven by BaseVisitor over the ANTLR parse tree, or null if the path does not parse.
+     */
+    private static List<String> antlr(String path) {
+        RecordingState recorder = new RecordingState();
+        try {
+            new RecordingVisitor(recorder).visit(Elide.parse(path));
+        } catch (ParseCancellationException e) {
+            return null;
+        }
+        return recorder.calls;
+    }
+
+    private static List<String> handWritten(String path) {
+        try {
+            return RecordingState.replay(PathParser.parse(path));
+        } catch (ParseCancellationException e) {
+            return null;
+        }
+    }
+
+    private static List<String> cached(RouteCache cache, String path) {
+        try {
+            return RecordingState.replay(cache.resolve(path));
+        } catch (ParseCancellationException e) {
+            return null;
+        }
+    }
+
+    private static void assertSame(RouteCache cache, String path) {
+        List<String> expected = antlr(path);
+        Assert.assertEquals(handWritten(path), expected, "Hand-written parse of " + path);
+        Assert.assertEquals(cached(cache, path), expected, "Cached parse of " + path);
+    }
+
+    @Test
+    public void testKnownPaths() {
+        RouteCache cache = new RouteCache(100);
+        for (String path : Arrays.asList(
+                "book", "/book", "/book/", "book/1", "/book/1/authors", "/book/1/authors/2",
+                "/book/1/authors/2/books/3/publisher", "/parent/123/relationships/children",
+                "company/123/cities/2/relationships/states/1", "company/123/cities/2/relationships/states/|",
+                "company/123/relationships", "company/relationships", "company/123|apps/2/links/foo",
+                "relationships", "relationships/1", "book/relationships/authors", "book/1/relationships/relationships",
+                "/book/./1/../2", "../book/1", "/", "", "//book//1//authors")) {
+            assertSame(cache, path);
+        }
+        Assert.assertEquals(handWritten("/book/1/authors/2/books/3/publisher"), Arrays.asList(
+                "subCollection book 1", "subCollection authors 2", "subCollection books 3", "collection publisher"));
+        Assert.assertNull(handWritten("company/123/relationships"));
+    }
+
+    @Test
+    public void testRandomPaths() {
+        RouteCache cache = new RouteCache(100);
+        Random random = new Random(12);
+        for (int n = 0; n < 20000; n++) {
+            StringBuilder path = new StringBuilder();
+            if (random.nextBoolean()) {
+                path.append('/');
+            }
+            int segments = 1 + random.nextInt(8);
+            for (int i = 0; i < segments; i++) {
+                if (i > 0) {
+                    path.append('/');
+                }
+                // mostly well formed names so that deeper paths are reached
+                path.append(random.nextInt(3) > 0
+                        ? SEGMENTS[random.nextInt(6)]
+                        : SEGMENTS[random.nextInt(SEGMENTS.length)]);
+            }
+            if (random.nextInt(10) == 0) {
+                path.append('/');
+            }
+            assertSame(cache, path.toString());
+        }
+    }
+}
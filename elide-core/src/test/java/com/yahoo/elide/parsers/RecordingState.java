@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.parsers.state.BaseState;
+import com.yahoo.elide.parsers.state.StateContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State which records the path transitions it is asked to make instead of making them.
+ */
+public class RecordingState extends BaseState {
+    public final List<String> calls = new ArrayList<>();
+
+    @Override
+    public void handleCollection(StateContext state, String collection) {
+        calls.add("collection " + collection);
+    }
+
+    @Override
+    public void handleEntity(StateContext state, String collection, String id) {
+        calls.add("entity " + collection + " " + id);
+    }
+
+    @Override
+    public void handleSubCollection(StateContext state, String collection, String id) {
+        calls.add("subCollection " + collection + " " + id);
+    }
+
+    @Override
+    public void handleRelationship(StateContext state, String collection, String id, String relationName) {
+        calls.add("relationship " + collection + " " + id + " " + relationName);
+    }
+
+    /**
+     * Record the transitions of a route.
+     *
+     * @param route the route
+     * @return the transitions
+     */
+    public static List<String> replay(Route route) {
+        RecordingState recorder = new RecordingState();
+        route.replay(new StateContext(recorder, null));
+        return recorder.calls;
+    }
+}
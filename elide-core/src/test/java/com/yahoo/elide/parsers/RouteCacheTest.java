@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class RouteCacheTest {
+    private static List<String> replay(RouteCache cache, String path) {
+        return RecordingState.replay(cache.resolve(path));
+    }
+
+    @Test
+    public void testReplay() {
+        RouteCache cache = new RouteCache(10);
+        Assert.assertEquals(replay(cache, "/book"), Arrays.asList("collection book"));
+        Assert.assertEquals(replay(cache, "/book/1"), Arrays.asList("entity book 1"));
+        Assert.assertEquals(replay(cache, "book/1/authors"),
+                Arrays.asList("subCollection book 1", "collection authors"));
+        Assert.assertEquals(replay(cache, "/book/1/authors/2/books/3"),
+                Arrays.asList("subCollection book 1", "subCollection authors 2", "entity books 3"));
+        Assert.assertEquals(replay(cache, "/book/1/relationships/authors"),
+                Arrays.asList("relationship book 1 authors"));
+        Assert.assertEquals(replay(cache, "/company/123/cities/2/relationships/states/1"),
+                Arrays.asList("subCollection company 123", "relationship cities 2 states"));
+        Assert.assertEquals(replay(cache, "/book/./1/../1/"), Arrays.asList("entity book 1"));
+    }
+
+    @Test
+    public void testTemplatesShared() {
+        RouteCache cache = new RouteCache(10);
+        Assert.assertEquals(replay(cache, "/book/1/authors/2"),
+                Arrays.asList("subCollection book 1", "entity authors 2"));
+        Assert.assertEquals(replay(cache, "/book/3/publisher/4"),
+                Arrays.asList("subCollection book 3", "entity publisher 4"));
+        Assert.assertEquals(replay(cache, "/book/4/relationships/authors"),
+                Arrays.asList("relationship book 4 authors"));
+        Assert.assertEquals(replay(cache, "/book/5/relationships/publisher"),
+                Arrays.asList("relationship book 5 publisher"));
+
+        Assert.assertEquals(cache.getMissCount(), 4);
+        Assert.assertEquals(replay(cache, "/book/abc/authors/x-y"),
+                Arrays.asList("subCollection book abc", "entity authors x-y"));
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.size(), 4);
+    }
+
+    @Test
+    public void testBounded() {
+        RouteCache cache = new RouteCache(1);
+        replay(cache, "/book/1");
+        replay(cache, "/author/1");
+        replay(cache, "/publisher/1");
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(cache.getEvictionCount(), 2);
+    }
+
+    @Test(expectedExceptions = ParseCancellationException.class)
+    public void testRelationshipsWithoutName() {
+        new RouteCache(10).resolve("company/123/relationships");
+    }
+
+    @Test(expectedExceptions = ParseCancellationException.class)
+    public void testRelationshipsWithoutId() {
+        new RouteCache(10).resolve("company/relationships");
+    }
+
+    @Test(expectedExceptions = ParseCancellationException.class)
+    public void testInvalidCharacter() {
+        new RouteCache(10).resolve("company/123|apps/2/links/foo");
+    }
+
+    @Test
+    public void testFailuresNotCached() {
+        RouteCache cache = new RouteCache(10);
+        try {
+            cache.resolve("company/123/relationships");
+            Assert.fail("Expected parse failure");
+        } catch (ParseCancellationException e) {
+            Assert.assertEquals(cache.size(), 0);
+        }
+    }
+}
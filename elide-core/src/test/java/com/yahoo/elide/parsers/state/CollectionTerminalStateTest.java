@@ -0,0 +1,244 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers.state;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yahoo.elide.audit.TestLogger;
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.HttpStatus;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+import com.yahoo.elide.jsonapi.JsonApiMapper;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.security.User;
+import example.Child;
+import example.Parent;
+import org.apache.commons.lang3.tuple.Pair;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CollectionTerminalStateTest {
+    private final EntityDictionary dictionary = new EntityDictionary();
+
+    @BeforeTest
+    public void init() {
+        dictionary.bindEntity(Parent.class);
+        dictionary.bindEntity(Child.class);
+    }
+
+    @Test
+    public void testRelationshipsBatchLoaded() {
+        DataStoreTransaction tx = mockTransaction();
+
+        handleGet(tx, new MultivaluedHashMap<>());
+
+        verify(tx, times(1)).batchLoadRelation(eq(Parent.class), anyCollection(), eq("children"));
+        verify(tx, times(1)).batchLoadRelation(eq(Parent.class), anyCollection(), eq("spouses"));
+    }
+
+    @Test
+    public void testSparseRelationshipsNotBatchLoaded() {
+        DataStoreTransaction tx = mockTransaction();
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("fields[parent]", "children");
+
+        handleGet(tx, queryParams);
+
+        verify(tx, times(1)).batchLoadRelation(eq(Parent.class), anyCollection(), eq("children"));
+        verify(tx, never()).batchLoadRelation(eq(Parent.class), anyCollection(), eq("spouses"));
+    }
+
+    @Test
+    public void testStreamedDocumentMatchesTree() throws IOException {
+        JsonApiMapper mapper = new JsonApiMapper(dictionary);
+        CollectionTerminalState state = new CollectionTerminalState(Parent.class, Optional.empty(), Optional.empty());
+
+        RequestScope scope = new RequestScope(new JsonApiDocument(), mockTransaction(), new User(1), dictionary,
+                mapper, new TestLogger(), new MultivaluedHashMap<>());
+        JsonNode tree = state.handleGet(new StateContext(state, scope)).get().getRight();
+
+        scope = new RequestScope(new JsonApiDocument(), mockTransaction(), new User(1), dictionary,
+                mapper, new TestLogger(), new MultivaluedHashMap<>());
+        Pair<Integer, JsonApiDocument> response = state.handleGetDocument(new StateContext(state, scope)).get();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapper.writeJsonApiDocument(response.getRight(), out);
+
+        Assert.assertEquals((int) response.getLeft(), HttpStatus.SC_OK);
+        Assert.assertEquals(mapper.getObjectMapper().readTree(out.toByteArray()), tree);
+        Assert.assertEquals(tree.get("data").size(), 2);
+    }
+
+    @Test
+    public void testParallelSerializationKeepsOrder() throws IOException {
+        JsonApiMapper mapper = new JsonApiMapper(dictionary);
+        CollectionTerminalState state = new CollectionTerminalState(Parent.class, Optional.empty(), Optional.empty());
+
+        RequestScope scope = new RequestScope(new JsonApiDocument(), mockTransaction(100), new User(1), dictionary,
+                mapper, new TestLogger(), new MultivaluedHashMap<>());
+        JsonNode sequential = state.handleGet(new StateContext(state, scope)).get().getRight();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            scope = new RequestScope(new JsonApiDocument(), mockTransaction(100), new User(1), dictionary,
+                    mapper, new TestLogger(), new MultivaluedHashMap<>());
+            scope.setSerializationPool(pool);
+            Assert.assertTrue(scope.getSerializationPool().isPresent());
+            JsonNode parallel = state.handleGet(new StateContext(state, scope)).get().getRight();
+
+            Assert.assertEquals(parallel, sequential);
+            Assert.assertEquals(parallel.get("data").size(), 100);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelSerializationThreshold() {
+        JsonApiMapper mapper = new JsonApiMapper(dictionary);
+        CollectionTerminalState state = new CollectionTerminalState(Parent.class, Optional.empty(), Optional.empty());
+
+        RequestScope scope = new RequestScope(new JsonApiDocument(), mockTransaction(), new User(1), dictionary,
+                mapper, new TestLogger(), new MultivaluedHashMap<>());
+        Assert.assertEquals(scope.getParallelSerializationThreshold(),
+                RequestScope.DEFAULT_PARALLEL_SERIALIZATION_THRESHOLD);
+        JsonNode sequential = state.handleGet(new StateContext(state, scope)).get().getRight();
+
+        scope = new RequestScope(new JsonApiDocument(), mockTransaction(), new User(1), dictionary,
+                mapper, new TestLogger(), new MultivaluedHashMap<>());
+        scope.setSerializationPool(ForkJoinPool.commonPool());
+        scope.setParallelSerializationThreshold(2);
+        Assert.assertEquals(state.handleGet(new StateContext(state, scope)).get().getRight(), sequential);
+    }
+
+    @Test
+    public void testFilteredRequestNotParallel() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("filter[child.name]", "paul");
+        RequestScope scope = new RequestScope(new JsonApiDocument(), mockTransaction(), new User(1), dictionary,
+                new JsonApiMapper(dictionary), new TestLogger(), queryParams);
+        scope.setSerializationPool(ForkJoinPool.commonPool());
+
+        Assert.assertFalse(scope.getSerializationPool().isPresent());
+    }
+
+    @Test
+    public void testPoolRequiresConcurrentReads() {
+        DataStoreTransaction tx = mockTransaction();
+        when(tx.supportsConcurrentReads()).thenReturn(false);
+        RequestScope scope = new RequestScope(new JsonApiDocument(), tx, new User(1), dictionary,
+                new JsonApiMapper(dictionary), new TestLogger(), new MultivaluedHashMap<>());
+        scope.setSerializationPool(ForkJoinPool.commonPool());
+
+        Assert.assertFalse(scope.getSerializationPool().isPresent());
+    }
+
+    @Test
+    public void testRelationshipSorted() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "-name");
+
+        JsonNode data = handleGetChildren(queryParams).get("data");
+
+        Assert.assertEquals(data.size(), 3);
+        Assert.assertEquals(data.get(0).get("attributes").get("name").asText(), "c");
+        Assert.assertEquals(data.get(1).get("attributes").get("name").asText(), "b");
+        Assert.assertEquals(data.get(2).get("attributes").get("name").asText(), "a");
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testRelationshipUnknownSortField() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "doesNotExist");
+
+        handleGetChildren(queryParams);
+    }
+
+    @Test
+    public void testRelationshipPaginated() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle("sort", "name");
+        queryParams.putSingle("page[number]", "2");
+        queryParams.putSingle("page[size]", "2");
+
+        JsonNode data = handleGetChildren(queryParams).get("data");
+
+        Assert.assertEquals(data.size(), 1);
+        Assert.assertEquals(data.get(0).get("attributes").get("name").asText(), "c");
+    }
+
+    private JsonNode handleGetChildren(MultivaluedMap<String, String> queryParams) {
+        Parent parent = newParent(1);
+        parent.setChildren(new LinkedHashSet<>(Arrays.asList(newChild(1, "b"), newChild(2, "c"), newChild(3, "a"))));
+        RequestScope scope = new RequestScope(new JsonApiDocument(), mockTransaction(), new User(1), dictionary,
+                new JsonApiMapper(dictionary), new TestLogger(), queryParams);
+        CollectionTerminalState state = new CollectionTerminalState(Child.class,
+                Optional.of(new PersistentResource<>(parent, scope)), Optional.of("children"));
+        return state.handleGet(new StateContext(state, scope)).get().getRight();
+    }
+
+    private void handleGet(DataStoreTransaction tx, MultivaluedMap<String, String> queryParams) {
+        RequestScope scope = new RequestScope(new JsonApiDocument(), tx, new User(1), dictionary,
+                new JsonApiMapper(dictionary), new TestLogger(), queryParams);
+        CollectionTerminalState state = new CollectionTerminalState(Parent.class, Optional.empty(), Optional.empty());
+        state.handleGet(new StateContext(state, scope));
+    }
+
+    private static DataStoreTransaction mockTransaction() {
+        return mockTransaction(2);
+    }
+
+    private static DataStoreTransaction mockTransaction(int count) {
+        List<Parent> parents = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            parents.add(newParent(id));
+        }
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        when(tx.loadObjects(eq(Parent.class), any(), any(), any())).thenReturn(parents);
+        when(tx.supportsConcurrentReads()).thenReturn(true);
+        return tx;
+    }
+
+    private static Parent newParent(int id) {
+        Parent parent = new Parent();
+        parent.setId(id);
+        parent.setChildren(new HashSet<>());
+        parent.setSpouses(new HashSet<>());
+        return parent;
+    }
+
+    private static Child newChild(int id, String name) {
+        Child child = new Child();
+        child.setId(id);
+        child.setName(name);
+        child.setParents(new HashSet<>());
+        child.setFriends(new HashSet<>());
+        return child;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.yahoo.elide.annotation.DeletePermission;
+import com.yahoo.elide.annotation.Include;
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.annotation.UpdatePermission;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.PermissionPlan;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+public class CheckStatisticsTest {
+    public static class SlowCheck implements Check {
+        @Override
+        public boolean ok(PersistentResource record) {
+            return true;
+        }
+    }
+
+    public static class FastCheck implements Check {
+        @Override
+        public boolean ok(PersistentResource record) {
+            return true;
+        }
+    }
+
+    public static class AllowCheck implements UserCheck {
+        @Override
+        public UserPermission userPermission(User user) {
+            return ALLOW;
+        }
+    }
+
+    @Include
+    @Entity
+    @ReadPermission(any = {SlowCheck.class, FastCheck.class})
+    @UpdatePermission(any = {SlowCheck.class, FastCheck.class})
+    @DeletePermission(all = {SlowCheck.class, FastCheck.class})
+    public static class Checked {
+        @Id
+        public long id;
+    }
+
+    @Include
+    @Entity
+    @ReadPermission(all = {AllowCheck.class, SlowCheck.class})
+    public static class UserChecked {
+        @Id
+        public long id;
+    }
+
+    private EntityDictionary dictionary;
+    private PermissionPlan read;
+    private PermissionPlan update;
+
+    @BeforeMethod
+    public void setup() {
+        dictionary = new EntityDictionary();
+        dictionary.bindEntity(Checked.class);
+        dictionary.bindEntity(UserChecked.class);
+        read = dictionary.getPermissionPlan(Checked.class, ReadPermission.class);
+        update = dictionary.getPermissionPlan(Checked.class, UpdatePermission.class);
+    }
+
+    @Test
+    public void testCounters() {
+        CheckStatistics statistics = new CheckStatistics();
+        statistics.record(read, 0, true, 100);
+        statistics.record(update, 0, false, 300);
+
+        Assert.assertEquals(statistics.getInvocationCount(SlowCheck.class), 2);
+        Assert.assertEquals(statistics.getPassCount(SlowCheck.class), 1);
+        Assert.assertEquals(statistics.getTotalNanos(SlowCheck.class), 400);
+        Assert.assertEquals(statistics.getInvocationCount(FastCheck.class), 0);
+        Assert.assertTrue(statistics.getCheckClasses().contains(SlowCheck.class));
+
+        statistics.reset();
+        Assert.assertEquals(statistics.getInvocationCount(SlowCheck.class), 0);
+    }
+
+    @Test
+    public void testDeclarationOrderUntilSampled() {
+        CheckStatistics statistics = new CheckStatistics(true, 10);
+        record(statistics, read, 0, 9, 9, 1000);
+        record(statistics, read, 1, 9, 9, 10);
+
+        Assert.assertNull(statistics.order(read));
+    }
+
+    @Test
+    public void testCheapDecisiveFirst() {
+        CheckStatistics statistics = new CheckStatistics(true, 10);
+        record(statistics, read, 0, 10, 5, 1000);
+        record(statistics, read, 1, 10, 5, 10);
+
+        Assert.assertEquals(statistics.order(read), new int[] {1, 0});
+    }
+
+    @Test
+    public void testSelectivityOutweighsLatency() {
+        CheckStatistics statistics = new CheckStatistics(true, 10);
+        // the fast check almost always passes, so it rarely ends ALL but always ends ANY
+        PermissionPlan delete = dictionary.getPermissionPlan(Checked.class, DeletePermission.class);
+        record(statistics, delete, 0, 100, 0, 20);
+        record(statistics, delete, 1, 100, 100, 10);
+        record(statistics, read, 0, 100, 0, 20);
+        record(statistics, read, 1, 100, 100, 10);
+
+        Assert.assertEquals(statistics.order(delete), new int[] {0, 1});
+        Assert.assertEquals(statistics.order(read), new int[] {1, 0});
+    }
+
+    @Test
+    public void testOrderedPerPlan() {
+        CheckStatistics statistics = new CheckStatistics(true, 10);
+        // the same checks are cheap on reads and expensive on updates
+        record(statistics, read, 0, 10, 5, 1000);
+        record(statistics, read, 1, 10, 5, 10);
+        record(statistics, update, 0, 10, 5, 10);
+        record(statistics, update, 1, 10, 5, 1000);
+
+        Assert.assertEquals(statistics.order(read), new int[] {1, 0});
+        Assert.assertEquals(statistics.order(update), new int[] {0, 1});
+        Assert.assertEquals(statistics.getInvocationCount(FastCheck.class), 20);
+    }
+
+    @Test
+    public void testUserChecksPerResource() {
+        CheckStatistics statistics = new CheckStatistics(true, 10);
+        RequestScope scope = new RequestScope(null, null, new User(null), dictionary, null, null);
+        scope.getUser().setCheckStatistics(statistics);
+        PermissionPlan plan = dictionary.getPermissionPlan(UserChecked.class, ReadPermission.class);
+
+        // the user check runs once, but is evaluated for every resource
+        for (int i = 0; i < 10; i++) {
+            UserChecked object = new UserChecked();
+            object.id = i;
+            plan.evaluate(new PersistentResource<>(object, scope));
+        }
+        Assert.assertEquals(statistics.getInvocationCount(AllowCheck.class), 10);
+        Assert.assertEquals(statistics.getPassCount(AllowCheck.class), 10);
+        Assert.assertEquals(statistics.getInvocationCount(SlowCheck.class), 10);
+    }
+
+    @Test
+    public void testReorderDisabled() {
+        CheckStatistics statistics = new CheckStatistics(false, 0);
+        record(statistics, read, 0, 10, 5, 1000);
+        record(statistics, read, 1, 10, 5, 10);
+
+        Assert.assertNull(statistics.order(read));
+        Assert.assertEquals(statistics.getInvocationCount(FastCheck.class), 10);
+    }
+
+    private static void record(CheckStatistics statistics, PermissionPlan plan, int index, int runs, int passes,
+                               long nanos) {
+        for (int i = 0; i < runs; i++) {
+            statistics.record(plan, index, i < passes, nanos);
+        }
+    }
+}
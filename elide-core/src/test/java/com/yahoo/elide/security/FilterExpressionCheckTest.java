@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.yahoo.elide.audit.TestLogger;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.FilterScope;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.OrFilterExpression;
+import com.yahoo.elide.core.filter.Predicate;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+
+import example.Child;
+import example.NegativeIntegerUserCheck;
+import example.Parent;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+public class FilterExpressionCheckTest {
+    private static final Predicate NAMED_BOB = new Predicate("name", Operator.IN, Collections.singletonList("bob"));
+    private static final Predicate NAMED_AMY = new Predicate("name", Operator.IN, Collections.singletonList("amy"));
+
+    private final EntityDictionary dictionary = new EntityDictionary();
+
+    public static class BobCheck implements FilterExpressionCheck<Child> {
+        @Override
+        public FilterExpression getFilterExpression(User user) {
+            return NAMED_BOB;
+        }
+    }
+
+    public static class AmyCheck implements FilterExpressionCheck<Child> {
+        @Override
+        public FilterExpression getFilterExpression(User user) {
+            return NAMED_AMY;
+        }
+    }
+
+    public static class NullCheck implements FilterExpressionCheck<Child> {
+        @Override
+        public FilterExpression getFilterExpression(User user) {
+            return null;
+        }
+    }
+
+    public static class RecordCheck implements Check<Child> {
+        @Override
+        public boolean ok(PersistentResource<Child> record) {
+            return true;
+        }
+    }
+
+    @BeforeTest
+    void init() {
+        dictionary.bindEntity(Child.class);
+        dictionary.bindEntity(Parent.class);
+    }
+
+    @Test
+    public void testOkEvaluatesFilter() {
+        RequestScope scope = getScope(new User(1));
+        Child bob = new Child();
+        bob.setName("bob");
+        Child amy = new Child();
+        amy.setName("amy");
+
+        Assert.assertTrue(new BobCheck().ok(new PersistentResource<>(bob, scope)));
+        Assert.assertFalse(new BobCheck().ok(new PersistentResource<>(amy, scope)));
+    }
+
+    @Test
+    public void testCombinedFilter() {
+        RequestScope scope = getScope(new User(1));
+
+        Assert.assertEquals(new FilterScope<Child>(scope, false, checks(BobCheck.class, AmyCheck.class))
+                .getSecurityFilterExpression(), new AndFilterExpression(NAMED_BOB, NAMED_AMY));
+        Assert.assertEquals(new FilterScope<Child>(scope, true, checks(BobCheck.class, AmyCheck.class))
+                .getSecurityFilterExpression(), new OrFilterExpression(NAMED_BOB, NAMED_AMY));
+    }
+
+    @Test
+    public void testUserChecksResolved() {
+        Class<? extends Check>[] checks = checks(NegativeIntegerUserCheck.class, BobCheck.class);
+
+        // an allowing user check is dropped from ALL, a denying one from ANY
+        Assert.assertEquals(new FilterScope<Child>(getScope(new User(1)), false, checks)
+                .getSecurityFilterExpression(), NAMED_BOB);
+        Assert.assertEquals(new FilterScope<Child>(getScope(new User(-1)), true, checks)
+                .getSecurityFilterExpression(), NAMED_BOB);
+
+        // otherwise the user check decides alone
+        Assert.assertNull(new FilterScope<Child>(getScope(new User(-1)), false, checks)
+                .getSecurityFilterExpression());
+        Assert.assertNull(new FilterScope<Child>(getScope(new User(1)), true, checks)
+                .getSecurityFilterExpression());
+    }
+
+    @Test
+    public void testRecordCheckNotExpressible() {
+        Assert.assertNull(new FilterScope<Child>(getScope(new User(1)), false, checks(BobCheck.class,
+                RecordCheck.class)).getSecurityFilterExpression());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testNullFilterRejectedInMemory() {
+        new NullCheck().ok(new PersistentResource<>(new Child(), getScope(new User(1))));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testNullFilterRejected() {
+        new FilterScope<Child>(getScope(new User(1)), true, checks(NullCheck.class)).getSecurityFilterExpression();
+    }
+
+    @SafeVarargs
+    private static Class<? extends Check>[] checks(Class<? extends Check>... checkClasses) {
+        return checkClasses;
+    }
+
+    private RequestScope getScope(User user) {
+        return new RequestScope(new JsonApiDocument(), null, user, dictionary, null, new TestLogger());
+    }
+}
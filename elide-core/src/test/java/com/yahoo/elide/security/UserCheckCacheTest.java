@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.yahoo.elide.security.UserCheck.UserPermission;
+
+import com.google.common.base.Ticker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class UserCheckCacheTest {
+    public static class CounterUserCheck implements UserCheck {
+        public int callCounter = 0;
+        @Override
+        public UserPermission userPermission(User user) {
+            callCounter++;
+            return "admin".equals(user.getOpaqueUser()) ? ALLOW : DENY;
+        }
+    }
+
+    private static class ManualTicker extends Ticker {
+        final AtomicLong nanos = new AtomicLong();
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+
+    @Test
+    public void testSharedAcrossRequests() {
+        UserCheckCache cache = new UserCheckCache(100, 1, TimeUnit.MINUTES);
+        CounterUserCheck check = new CounterUserCheck();
+
+        for (int request = 0; request < 3; request++) {
+            User user = new User("admin");
+            user.setUserCheckCache(cache);
+            Assert.assertEquals(user.checkUserPermission(check), UserPermission.ALLOW);
+        }
+        User other = new User("guest");
+        other.setUserCheckCache(cache);
+        Assert.assertEquals(other.checkUserPermission(check), UserPermission.DENY);
+
+        Assert.assertEquals(check.callCounter, 2, "Each user should be checked once");
+        Assert.assertEquals(cache.getHitCount(), 2);
+        Assert.assertEquals(cache.getMissCount(), 2);
+    }
+
+    @Test
+    public void testExpiresAndInvalidates() {
+        ManualTicker ticker = new ManualTicker();
+        UserCheckCache cache = new UserCheckCache(Function.identity(), 100, 10, TimeUnit.SECONDS, ticker);
+        CounterUserCheck check = new CounterUserCheck();
+
+        cache.userPermission(new User("admin"), check);
+        cache.userPermission(new User("admin"), check);
+        Assert.assertEquals(check.callCounter, 1);
+
+        ticker.nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        cache.userPermission(new User("admin"), check);
+        Assert.assertEquals(check.callCounter, 2, "Expired results should be checked again");
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+
+        cache.invalidate("admin");
+        cache.userPermission(new User("admin"), check);
+        Assert.assertEquals(check.callCounter, 3, "Invalidated results should be checked again");
+    }
+
+    @Test
+    public void testBounded() {
+        UserCheckCache cache = new UserCheckCache(2, 1, TimeUnit.MINUTES);
+        CounterUserCheck check = new CounterUserCheck();
+
+        for (int i = 0; i < 10; i++) {
+            cache.userPermission(new User("user" + i), check);
+        }
+        Assert.assertTrue(cache.size() <= 2);
+        Assert.assertEquals(cache.getEvictionCount() + cache.size(), 10);
+    }
+
+    @Test
+    public void testUserKey() {
+        UserCheckCache cache = new UserCheckCache(user -> ((String) user).toLowerCase(Locale.ENGLISH), 100, 1, TimeUnit.MINUTES);
+        CounterUserCheck check = new CounterUserCheck();
+
+        cache.userPermission(new User("admin"), check);
+        cache.userPermission(new User("ADMIN"), check);
+        Assert.assertEquals(check.callCounter, 1, "Users with the same key share results");
+
+        cache.userPermission(new User(null), check);
+        cache.userPermission(new User(null), check);
+        Assert.assertEquals(check.callCounter, 3, "Anonymous users are not cached");
+    }
+}
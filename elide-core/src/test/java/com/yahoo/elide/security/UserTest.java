@@ -18,6 +18,11 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public class UserTest {
     private final EntityDictionary dictionary = new EntityDictionary();
     private final Logger testLogger = new TestLogger();
@@ -31,6 +36,21 @@ public class UserTest {
         }
     }
 
+    public static class CounterBatchCheck implements BatchCheck {
+        public int callCounter = 0;
+        public int resourceCounter = 0;
+        @Override
+        public Map<PersistentResource, Boolean> ok(Collection records) {
+            callCounter++;
+            Map<PersistentResource, Boolean> results = new HashMap<>();
+            for (Object record : records) {
+                resourceCounter++;
+                results.put((PersistentResource) record, record.hashCode() % 2 == 0);
+            }
+            return results;
+        }
+    }
+
     @BeforeTest
     void init() {
         dictionary.bindEntity(Child.class);
@@ -59,6 +79,26 @@ public class UserTest {
         Assert.assertEquals(counterCheck.callCounter, 2, "The same check on two different objects should be evaluated twice.");
     }
 
+    @Test
+    public void testBatchCheckCalledOnceForAll() throws Exception {
+        CounterBatchCheck batchCheck = new CounterBatchCheck();
+
+        User user = new User(new Object());
+        Child first = new Child();
+        first.setId(1);
+        Child second = new Child();
+        second.setId(2);
+        PersistentResource firstResource = new PersistentResource(first, getScope(user));
+        PersistentResource secondResource = new PersistentResource(second, getScope(user));
+
+        user.prefetch(batchCheck, Arrays.asList(firstResource, secondResource));
+        user.prefetch(batchCheck, Arrays.asList(firstResource, secondResource));
+        Assert.assertEquals(user.ok(batchCheck, firstResource), firstResource.hashCode() % 2 == 0);
+        Assert.assertEquals(user.ok(batchCheck, secondResource), secondResource.hashCode() % 2 == 0);
+        Assert.assertEquals(batchCheck.callCounter, 1, "The batch check should be evaluated once for both resources");
+        Assert.assertEquals(batchCheck.resourceCounter, 2, "Each resource should be checked once");
+    }
+
     private RequestScope getScope(User user) {
         return new RequestScope(new JsonApiDocument(), null, user, dictionary, null, testLogger);
     }
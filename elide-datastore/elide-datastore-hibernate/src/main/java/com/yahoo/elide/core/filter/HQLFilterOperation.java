@@ -15,32 +15,44 @@ import java.util.Set;
 public class HQLFilterOperation implements FilterOperation<String> {
     @Override
     public String apply(Predicate predicate) {
-        switch (predicate.getOperator()) {
+        return apply(predicate.getOperator(), predicate.getField(), predicate.getField());
+    }
+
+    /**
+     * Create the fragment comparing a field with a named parameter.
+     *
+     * @param operator the operator
+     * @param field the field, possibly qualified by an alias
+     * @param parameter the name of the parameter holding the values
+     * @return the fragment
+     */
+    public String apply(Operator operator, String field, String parameter) {
+        switch (operator) {
             case IN:
-                return String.format("%s IN (:%s)", predicate.getField(), predicate.getField());
+                return String.format("%s IN (:%s)", field, parameter);
             case NOT:
-                return String.format("%s NOT IN (:%s)", predicate.getField(), predicate.getField());
+                return String.format("%s NOT IN (:%s)", field, parameter);
             case PREFIX:
-                return String.format("%s LIKE CONCAT(:%s, '%%')", predicate.getField(), predicate.getField());
+                return String.format("%s LIKE CONCAT(:%s, '%%')", field, parameter);
             case POSTFIX:
-                return String.format("%s LIKE CONCAT('%%', :%s)", predicate.getField(), predicate.getField());
+                return String.format("%s LIKE CONCAT('%%', :%s)", field, parameter);
             case INFIX:
-                return String.format("%s LIKE CONCAT('%%', :%s, '%%')", predicate.getField(), predicate.getField());
+                return String.format("%s LIKE CONCAT('%%', :%s, '%%')", field, parameter);
             case ISNULL:
-                return String.format("%s IS NULL", predicate.getField());
+                return String.format("%s IS NULL", field);
             case NOTNULL:
-                return String.format("%s IS NOT NULL", predicate.getField());
+                return String.format("%s IS NOT NULL", field);
             case LT:
-                return String.format("%s < :%s", predicate.getField(), predicate.getField());
+                return String.format("%s < :%s", field, parameter);
             case LE:
-                return String.format("%s <= :%s", predicate.getField(), predicate.getField());
+                return String.format("%s <= :%s", field, parameter);
             case GT:
-                return String.format("%s > :%s", predicate.getField(), predicate.getField());
+                return String.format("%s > :%s", field, parameter);
             case GE:
-                return String.format("%s >= :%s", predicate.getField(), predicate.getField());
+                return String.format("%s >= :%s", field, parameter);
 
             default:
-                throw new InvalidPredicateException("Operator not implemented: " + predicate.getOperator());
+                throw new InvalidPredicateException("Operator not implemented: " + operator);
         }
     }
 
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a filter expression into the condition of a Hibernate collection filter.
+ *
+ * Each predicate binds its values to its own named parameter.  A predicate on a path through relationships
+ * becomes a subquery joining those relationships, so records are neither repeated nor dropped by the joins.
+ */
+public class HQLFilterVisitor implements FilterExpressionVisitor<String> {
+    private static final String PARAMETER_PREFIX = "elideFilter";
+    private static final String ROOT_ALIAS = "elideRoot";
+    private static final String JOIN_ALIAS_PREFIX = "elideJoin";
+
+    private final HQLFilterOperation operation = new HQLFilterOperation();
+    private final String entityName;
+
+    private final Map<String, List<Object>> parameters = new LinkedHashMap<>();
+
+    /**
+     * @param entityClass the class of the filtered records
+     */
+    public HQLFilterVisitor(Class<?> entityClass) {
+        this.entityName = entityClass.getName();
+    }
+
+    /**
+     * Get the values to bind, by parameter name, after visiting the filter expression.
+     *
+     * @return the parameters
+     */
+    public Map<String, List<Object>> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String visitPredicate(Predicate predicate) {
+        String parameter = PARAMETER_PREFIX + parameters.size();
+        if (predicate.getOperator().isParameterized()) {
+            parameters.put(parameter, predicate.getValues());
+        }
+
+        List<String> path = predicate.getPath();
+        if (path.size() == 1) {
+            return operation.apply(predicate.getOperator(), predicate.getField(), parameter);
+        }
+
+        StringBuilder subquery = new StringBuilder("this.id IN (SELECT ").append(ROOT_ALIAS).append(".id FROM ")
+                .append(entityName).append(' ').append(ROOT_ALIAS);
+        String alias = ROOT_ALIAS;
+        for (int i = 0; i < path.size() - 1; i++) {
+            String join = JOIN_ALIAS_PREFIX + i;
+            subquery.append(" JOIN ").append(alias).append('.').append(path.get(i)).append(' ').append(join);
+            alias = join;
+        }
+        String field = alias + "." + path.get(path.size() - 1);
+        return subquery.append(" WHERE ").append(operation.apply(predicate.getOperator(), field, parameter))
+                .append(')').toString();
+    }
+
+    @Override
+    public String visitAndExpression(AndFilterExpression expression) {
+        return "(" + expression.getLeft().accept(this) + " AND " + expression.getRight().accept(this) + ")";
+    }
+
+    @Override
+    public String visitOrExpression(OrFilterExpression expression) {
+        return "(" + expression.getLeft().accept(this) + " OR " + expression.getRight().accept(this) + ")";
+    }
+
+    @Override
+    public String visitNotExpression(NotFilterExpression expression) {
+        return "NOT (" + expression.getNegated().accept(this) + ")";
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.filter;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.KeysetCursor;
+import com.yahoo.elide.core.Sorting;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the filter expression selecting the records of the pages which follow a keyset cursor, for the Hibernate
+ * stores to translate with their filter visitors.
+ *
+ * Records are ordered as in memory: nulls before any value, so first in ascending and last in descending order.
+ * Databases disagree on where nulls sort, so a store using this filter must pin the same null order in its query.
+ */
+public final class KeysetFilter {
+    private KeysetFilter() {
+    }
+
+    /**
+     * Build the filter selecting the records ordered after a cursor.
+     *
+     * @param entityClass the entity class
+     * @param sorting the request sort rules
+     * @param after the keyset cursor
+     * @param dictionary the entity dictionary
+     * @return the filter, or null if the cursor is at the beginning of the collection
+     */
+    public static FilterExpression after(Class<?> entityClass, Sorting sorting, KeysetCursor after,
+                                         EntityDictionary dictionary) {
+        if (after.isFirst()) {
+            return null;
+        }
+
+        Map<String, Sorting.SortOrder> rules = sorting.getValidSortingRules(entityClass, dictionary);
+        List<String> fields = KeysetCursor.keyFields(entityClass, sorting, dictionary);
+        List<Object> keys = after.getKeys(entityClass, sorting, dictionary);
+
+        // (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...
+        FilterExpression keyset = null;
+        FilterExpression equalPrefix = null;
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            Object key = keys.get(i);
+
+            FilterExpression afterKey = afterKey(field, key, rules.get(field) == Sorting.SortOrder.DESC);
+            if (afterKey != null) {
+                FilterExpression term = equalPrefix == null ? afterKey : new AndFilterExpression(equalPrefix, afterKey);
+                keyset = keyset == null ? term : new OrFilterExpression(keyset, term);
+            }
+
+            FilterExpression equal = key == null
+                    ? new Predicate(field, Operator.ISNULL, Collections.emptyList())
+                    : new Predicate(field, Operator.IN, Collections.singletonList(key));
+            equalPrefix = equalPrefix == null ? equal : new AndFilterExpression(equalPrefix, equal);
+        }
+        return keyset;
+    }
+
+    /**
+     * Build the filter for values ordered after a key.
+     *
+     * @param field the field
+     * @param key the key value
+     * @param descending true if the field is sorted in descending order
+     * @return the filter, or null if no value is ordered after the key
+     */
+    private static FilterExpression afterKey(String field, Object key, boolean descending) {
+        if (descending) {
+            return key == null
+                    ? null
+                    : new OrFilterExpression(new Predicate(field, Operator.LT, Collections.singletonList(key)),
+                            new Predicate(field, Operator.ISNULL, Collections.emptyList()));
+        }
+        return key == null
+                ? new Predicate(field, Operator.NOTNULL, Collections.emptyList())
+                : new Predicate(field, Operator.GT, Collections.singletonList(key));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate3;
+
+import org.hibernate.Criteria;
+import org.hibernate.criterion.CriteriaQuery;
+import org.hibernate.criterion.Order;
+
+/**
+ * Order which sorts nulls before any value, so first in ascending and last in descending order, on every database.
+ *
+ * Hibernate 3 cannot set the null precedence of an order, so each column is preceded by an expression ranking
+ * nulls lowest.
+ */
+public class NullsLowestOrder extends Order {
+    private final String propertyName;
+    private final boolean ascending;
+
+    /**
+     * @param propertyName the sorted property
+     * @param ascending true for ascending, false for descending order
+     */
+    public NullsLowestOrder(String propertyName, boolean ascending) {
+        super(propertyName, ascending);
+        this.propertyName = propertyName;
+        this.ascending = ascending;
+    }
+
+    @Override
+    public String toSqlString(Criteria criteria, CriteriaQuery criteriaQuery) {
+        StringBuilder sql = new StringBuilder();
+        for (String column : criteriaQuery.getColumnsUsingProjection(criteria, propertyName)) {
+            sql.append("case when ").append(column).append(" is null then 0 else 1 end")
+                    .append(ascending ? " asc" : " desc").append(", ");
+        }
+        return sql.append(super.toSqlString(criteria, criteriaQuery)).toString();
+    }
+}
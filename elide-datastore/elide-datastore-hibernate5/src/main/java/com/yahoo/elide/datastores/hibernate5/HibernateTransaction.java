@@ -6,41 +6,64 @@
 package com.yahoo.elide.datastores.hibernate5;
 
 import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.FilterScope;
+import com.yahoo.elide.core.Pagination;
 import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.Sorting;
 import com.yahoo.elide.core.exceptions.TransactionException;
-import com.yahoo.elide.core.filter.HQLFilterOperation;
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.FilterExpressionVisitor;
+import com.yahoo.elide.core.filter.HQLFilterVisitor;
+import com.yahoo.elide.core.filter.KeysetFilter;
 import com.yahoo.elide.core.filter.Predicate;
 import com.yahoo.elide.datastores.hibernate5.filter.CriterionFilterOperation;
+import com.yahoo.elide.datastores.hibernate5.filter.CriterionFilterVisitor;
 import com.yahoo.elide.datastores.hibernate5.security.CriteriaCheck;
 import com.yahoo.elide.security.Check;
+import com.yahoo.elide.security.FilterExpressionCheck;
 import com.yahoo.elide.security.User;
 
+import org.hibernate.Criteria;
 import org.hibernate.Hibernate;
 import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.NullPrecedence;
 import org.hibernate.ObjectNotFoundException;
 import org.hibernate.Query;
 import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.collection.internal.AbstractPersistentCollection;
 import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metadata.ClassMetadata;
+import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.hibernate.type.AssociationType;
+import org.hibernate.type.Type;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Hibernate Transaction implementation.
  */
 public class HibernateTransaction implements DataStoreTransaction {
+    private static final int BATCH_LOAD_SIZE = 500;
+
     private final Session session;
     private final LinkedHashSet<Runnable> deferredTasks = new LinkedHashSet<>();
-    private final HQLFilterOperation hqlFilterOperation = new HQLFilterOperation();
     private final CriterionFilterOperation criterionFilterOperation = new CriterionFilterOperation();
 
 
@@ -116,22 +139,54 @@ public class HibernateTransaction implements DataStoreTransaction {
 
     @Override
     public <T> Iterable<T> loadObjects(Class<T> loadClass, FilterScope<T> filterScope) {
-        Criterion criterion = buildCheckCriterion(filterScope);
+        return loadObjects(loadClass, filterScope, Pagination.NONE);
+    }
+
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> loadClass, FilterScope<T> filterScope, Pagination pagination) {
+        return loadObjects(loadClass, filterScope, Sorting.NONE, pagination);
+    }
+
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> loadClass, FilterScope<T> filterScope, Sorting sorting,
+                                       Pagination pagination) {
+        EntityDictionary dictionary = filterScope.getRequestScope().getDictionary();
+        CriterionFilterVisitor visitor = new CriterionFilterVisitor(criterionFilterOperation, loadClass,
+                dictionary.getIdFieldName(loadClass));
+        Criterion criterion = buildCheckCriterion(filterScope, visitor);
 
-        String type = filterScope.getRequestScope().getDictionary().getBinding(loadClass);
-        Set<Predicate> filteredPredicates = filterScope.getRequestScope().getPredicatesOfType(type);
-        criterion = CriterionFilterOperation.andWithNull(criterion,
-                criterionFilterOperation.applyAll(filteredPredicates));
+        String type = dictionary.getBinding(loadClass);
+        FilterExpression filterExpression = filterScope.getRequestScope().getFilterExpressionOfType(type);
+        if (filterExpression != null) {
+            criterion = CriterionFilterOperation.andWithNull(criterion, filterExpression.accept(visitor));
+        }
 
+        Criteria criteria = session.createCriteria(loadClass);
         // if no criterion then return all objects
-        if (criterion == null) {
-            return loadObjects(loadClass);
+        if (criterion != null) {
+            criteria.add(criterion);
+        }
+        sorting.getValidSortingRules(loadClass, dictionary).forEach((field, order) ->
+                criteria.addOrder(order == Sorting.SortOrder.DESC
+                        ? Order.desc(field).nulls(NullPrecedence.LAST)
+                        : Order.asc(field).nulls(NullPrecedence.FIRST)));
+        if (pagination.isKeyset()) {
+            // id breaks ties so every record has a distinct position
+            criteria.addOrder(Order.asc(dictionary.getIdFieldName(loadClass)));
+            FilterExpression keyset = KeysetFilter.after(loadClass, sorting, pagination.getAfter(), dictionary);
+            if (keyset != null) {
+                criteria.add(keyset.accept(visitor));
+            }
+        }
+        if (pagination.getOffset() > 0) {
+            criteria.setFirstResult(pagination.getOffset());
+        }
+        if (pagination.isLimited()) {
+            criteria.setMaxResults(pagination.getLimit());
         }
 
         @SuppressWarnings("unchecked")
-        Iterable<T> list = new ScrollableIterator(session.createCriteria(loadClass)
-                .add(criterion)
-                .scroll(ScrollMode.FORWARD_ONLY));
+        Iterable<T> list = new ScrollableIterator(criteria.scroll(ScrollMode.FORWARD_ONLY));
         return list;
     }
 
@@ -142,6 +197,17 @@ public class HibernateTransaction implements DataStoreTransaction {
      * @return the criterion
      */
     public <T> Criterion buildCheckCriterion(FilterScope<T> filterScope) {
+        return buildCheckCriterion(filterScope, null);
+    }
+
+    /**
+     * Build the criterion of the checks if all of them implement CriteriaCheck or FilterExpressionCheck.
+     *
+     * @param filterScope the filterScope
+     * @param visitor translates the filters of FilterExpressionChecks, or null to ignore them
+     * @return the criterion
+     */
+    public <T> Criterion buildCheckCriterion(FilterScope<T> filterScope, FilterExpressionVisitor<Criterion> visitor) {
         Criterion compositeCriterion = null;
         List<Check<T>> checks = filterScope.getChecks();
         RequestScope requestScope = filterScope.getRequestScope();
@@ -149,6 +215,9 @@ public class HibernateTransaction implements DataStoreTransaction {
             Criterion criterion;
             if (check instanceof CriteriaCheck) {
                 criterion = ((CriteriaCheck) check).getCriterion(requestScope);
+            } else if (check instanceof FilterExpressionCheck && visitor != null) {
+                criterion = FilterExpressionCheck.filterExpressionOf((FilterExpressionCheck) check,
+                        requestScope.getUser()).accept(visitor);
             } else {
                 criterion = null;
             }
@@ -186,21 +255,99 @@ public class HibernateTransaction implements DataStoreTransaction {
     }
 
     @Override
-    public <T> Collection filterCollection(Collection collection, Class<T> entityClass, Set<Predicate> predicates) {
-        if (((collection instanceof AbstractPersistentCollection)) && !predicates.isEmpty()) {
-            String filterString = hqlFilterOperation.applyAll(predicates);
+    public <T> void batchLoadRelation(Class<T> entityClass, Collection<T> entities, String relationName) {
+        ClassMetadata metadata = session.getSessionFactory().getClassMetadata(entityClass);
+        if (entities.size() < 2 || metadata == null || metadata.getIdentifierPropertyName() == null
+                || !Arrays.asList(metadata.getPropertyNames()).contains(relationName)
+                || !metadata.getPropertyType(relationName).isAssociationType()) {
+            return;
+        }
 
-            if (filterString.length() != 0) {
-                Query query = session.createFilter(collection, filterString);
+        List<Serializable> ids = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            // skip relationships loaded already, e.g. by an earlier batch
+            if (session.contains(entity)
+                    && !Hibernate.isInitialized(metadata.getPropertyValue(entity, relationName))) {
+                ids.add(session.getIdentifier(entity));
+            }
+        }
 
-                for (Predicate predicate : predicates) {
-                    if (predicate.getOperator().isParameterized()) {
-                        query = query.setParameterList(predicate.getField(), predicate.getValues());
-                    }
-                }
+        // the fetch join initializes the relationship on the instances already held by the session
+        String queryString = "select distinct e from " + entityClass.getName() + " e left join fetch e."
+                + relationName + " where e." + metadata.getIdentifierPropertyName() + " in (:ids)";
+        for (int start = 0; start < ids.size(); start += BATCH_LOAD_SIZE) {
+            session.createQuery(queryString)
+                    .setParameterList("ids", ids.subList(start, Math.min(start + BATCH_LOAD_SIZE, ids.size())))
+                    .list();
+        }
+    }
 
-                return query.list();
+    @Override
+    public <T> Collection<Serializable> loadRelationIdentifiers(Class<T> entityClass, T entity,
+                                                                String relationName, Object relation) {
+        if (relation instanceof HibernateProxy) {
+            return Collections.singletonList(((HibernateProxy) relation).getHibernateLazyInitializer().getIdentifier());
+        }
+        if (relation instanceof AbstractPersistentCollection && !Hibernate.isInitialized(relation)
+                && session.contains(entity)) {
+            ClassMetadata metadata = session.getSessionFactory().getClassMetadata(entityClass);
+            ClassMetadata relatedMetadata = getRelatedMetadata(metadata, relationName);
+            if (relatedMetadata == null || metadata.getIdentifierPropertyName() == null
+                    || relatedMetadata.getIdentifierPropertyName() == null) {
+                return null;
             }
+
+            // project the ids of the related rows instead of initializing the collection
+            String queryString = "select r." + relatedMetadata.getIdentifierPropertyName() + " from "
+                    + entityClass.getName() + " e join e." + relationName + " r where e."
+                    + metadata.getIdentifierPropertyName() + " = :id";
+            return session.createQuery(queryString).setParameter("id", session.getIdentifier(entity)).list();
+        }
+        return null;
+    }
+
+    /**
+     * Get the metadata of the entity a relationship refers to.
+     *
+     * @param metadata metadata of the entity owning the relationship, may be null
+     * @param relationName the relationship
+     * @return the metadata of the related entity, or null if the relationship is not a mapped entity association
+     */
+    private ClassMetadata getRelatedMetadata(ClassMetadata metadata, String relationName) {
+        if (metadata == null || !Arrays.asList(metadata.getPropertyNames()).contains(relationName)) {
+            return null;
+        }
+        Type type = metadata.getPropertyType(relationName);
+        if (!type.isAssociationType()) {
+            return null;
+        }
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) session.getSessionFactory();
+        try {
+            return sessionFactory.getClassMetadata(((AssociationType) type).getAssociatedEntityName(sessionFactory));
+        } catch (MappingException e) {
+            // a collection of values rather than entities
+            return null;
+        }
+    }
+
+    @Override
+    public <T> Collection filterCollection(Collection collection, Class<T> entityClass, Set<Predicate> predicates) {
+        return filterCollection(collection, entityClass, AndFilterExpression.andAll(predicates), null);
+    }
+
+    @Override
+    public <T> Collection filterCollection(Collection collection, Class<T> entityClass,
+                                           FilterExpression filterExpression, RequestScope requestScope) {
+        if ((collection instanceof AbstractPersistentCollection) && filterExpression != null) {
+            HQLFilterVisitor visitor = new HQLFilterVisitor(entityClass);
+            String filterString = "WHERE " + filterExpression.accept(visitor);
+            Query query = session.createFilter(collection, filterString);
+
+            for (Map.Entry<String, List<Object>> parameter : visitor.getParameters().entrySet()) {
+                query = query.setParameterList(parameter.getKey(), parameter.getValue());
+            }
+
+            return query.list();
         }
 
         return collection;
@@ -6,11 +6,40 @@
 package com.yahoo.elide.datastores.hibernate5;
 
 import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.FilterScope;
+import com.yahoo.elide.core.Pagination;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.Sorting;
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.KeysetFilter;
+import com.yahoo.elide.datastores.hibernate5.filter.JpaPredicateFilterVisitor;
+import com.yahoo.elide.datastores.hibernate5.security.JpaCriteriaCheck;
+import com.yahoo.elide.security.Check;
+import com.yahoo.elide.security.FilterExpressionCheck;
 import com.yahoo.elide.security.User;
 
+import org.hibernate.Hibernate;
+import org.hibernate.collection.internal.AbstractPersistentCollection;
+
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
  * The type Persistence transaction.
@@ -65,6 +94,174 @@ public class PersistenceTransaction implements DataStoreTransaction {
         return entityManager.createQuery("from " + entityClass.getName(), entityClass).getResultList();
     }
 
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> entityClass, FilterScope<T> filterScope) {
+        return loadObjects(entityClass, filterScope, Pagination.NONE);
+    }
+
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> entityClass, FilterScope<T> filterScope, Pagination pagination) {
+        return loadObjects(entityClass, filterScope, Sorting.NONE, pagination);
+    }
+
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> entityClass, FilterScope<T> filterScope, Sorting sorting,
+                                       Pagination pagination) {
+        RequestScope requestScope = filterScope.getRequestScope();
+        EntityDictionary dictionary = requestScope.getDictionary();
+        String idFieldName = dictionary.getIdFieldName(entityClass);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+
+        // security and request filters are combined in a single where clause
+        JpaPredicateFilterVisitor visitor = new JpaPredicateFilterVisitor(builder, query, root, entityClass,
+                idFieldName);
+        List<Predicate> restrictions = new ArrayList<>();
+        Predicate checkPredicate = buildCheckPredicate(filterScope, root, builder, visitor);
+        if (checkPredicate != null) {
+            restrictions.add(checkPredicate);
+        }
+        FilterExpression filterExpression =
+                requestScope.getFilterExpressionOfType(dictionary.getBinding(entityClass));
+        if (filterExpression != null) {
+            restrictions.add(filterExpression.accept(visitor));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        sorting.getValidSortingRules(entityClass, dictionary).forEach((field, order) -> {
+            // nulls rank lowest on every database, as in the keyset filter
+            Path<Object> path = root.get(field);
+            Expression<Integer> nullsLowest = builder.<Integer>selectCase().when(builder.isNull(path), 0).otherwise(1);
+            if (order == Sorting.SortOrder.DESC) {
+                orders.add(builder.desc(nullsLowest));
+                orders.add(builder.desc(path));
+            } else {
+                orders.add(builder.asc(nullsLowest));
+                orders.add(builder.asc(path));
+            }
+        });
+        if (pagination.isKeyset()) {
+            // id breaks ties so every record has a distinct position
+            orders.add(builder.asc(root.get(idFieldName)));
+            FilterExpression keyset = KeysetFilter.after(entityClass, sorting, pagination.getAfter(), dictionary);
+            if (keyset != null) {
+                restrictions.add(keyset.accept(visitor));
+            }
+        }
+
+        query.select(root).where(restrictions.toArray(new Predicate[restrictions.size()])).orderBy(orders);
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pagination.getOffset() > 0) {
+            typedQuery.setFirstResult(pagination.getOffset());
+        }
+        if (pagination.isLimited()) {
+            typedQuery.setMaxResults(pagination.getLimit());
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Build the predicate of the checks if all of them implement JpaCriteriaCheck or FilterExpressionCheck.
+     *
+     * @param filterScope the filterScope
+     * @param root the queried entity
+     * @param builder the criteria builder
+     * @param visitor translates the filters of FilterExpressionChecks on the queried entity
+     * @return the predicate
+     */
+    public <T> Predicate buildCheckPredicate(FilterScope<T> filterScope, Root<T> root, CriteriaBuilder builder,
+                                             JpaPredicateFilterVisitor visitor) {
+        Predicate compositePredicate = null;
+        List<Check<T>> checks = filterScope.getChecks();
+        RequestScope requestScope = filterScope.getRequestScope();
+        for (Check<T> check : checks) {
+            Predicate predicate;
+            if (check instanceof JpaCriteriaCheck) {
+                predicate = ((JpaCriteriaCheck<T>) check).getPredicate(root, builder, requestScope);
+            } else if (check instanceof FilterExpressionCheck) {
+                predicate = FilterExpressionCheck.filterExpressionOf((FilterExpressionCheck<T>) check,
+                        requestScope.getUser()).accept(visitor);
+            } else {
+                predicate = null;
+            }
+
+            // if no predicate, examine userPermission and ANY state
+            if (predicate == null) {
+                switch (requestScope.getUser().checkUserPermission(check)) {
+                    // ALLOW and ALL try more predicates
+                    case ALLOW:
+                        if (!filterScope.isAny()) {
+                            continue;
+                        }
+                        break;
+
+                    // DENY and ANY check try more predicates
+                    case DENY:
+                        if (filterScope.isAny()) {
+                            continue;
+                        }
+                        break;
+                }
+
+                // Otherwise no criteria filtering possible
+                return null;
+            } else if (compositePredicate == null) {
+                compositePredicate = predicate;
+            } else if (filterScope.isAny()) {
+                compositePredicate = builder.or(compositePredicate, predicate);
+            } else {
+                compositePredicate = builder.and(compositePredicate, predicate);
+            }
+        }
+
+        return compositePredicate;
+    }
+
+    @Override
+    public <T> Collection filterCollection(Collection collection, Class<T> entityClass,
+                                           Set<com.yahoo.elide.core.filter.Predicate> predicates) {
+        return filterCollection(collection, entityClass, AndFilterExpression.andAll(predicates), null);
+    }
+
+    @Override
+    public <T> Collection filterCollection(Collection collection, Class<T> entityClass,
+                                           FilterExpression filterExpression, RequestScope requestScope) {
+        if (!(collection instanceof AbstractPersistentCollection) || filterExpression == null) {
+            return collection;
+        }
+
+        // query the members of the owner's collection, so an uninitialized collection is never loaded in full
+        AbstractPersistentCollection persistentCollection = (AbstractPersistentCollection) collection;
+        Object owner = persistentCollection.getOwner();
+        String role = persistentCollection.getRole();
+        if (owner == null || role == null) {
+            return collection;
+        }
+        Class<?> ownerClass = Hibernate.getClass(owner);
+        while (ownerClass != null && !role.startsWith(ownerClass.getName() + ".")) {
+            ownerClass = ownerClass.getSuperclass();
+        }
+        if (ownerClass == null) {
+            return collection;
+        }
+        String relationName = role.substring(ownerClass.getName().length() + 1);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(entityClass);
+        Root<?> ownerRoot = query.from(ownerClass);
+        Join<?, T> member = ownerRoot.join(relationName);
+        query.select(member).where(builder.equal(ownerRoot, owner), filterExpression.accept(
+                new JpaPredicateFilterVisitor(builder, query, member, entityClass, getIdFieldName(entityClass))));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private <T> String getIdFieldName(Class<T> entityClass) {
+        EntityType<T> type = entityManager.getMetamodel().entity(entityClass);
+        return type.getId(type.getIdType().getJavaType()).getName();
+    }
+
     @Override
     public void close() throws IOException {
         try {
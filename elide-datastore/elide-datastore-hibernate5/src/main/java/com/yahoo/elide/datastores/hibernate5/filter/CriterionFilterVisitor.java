@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate5.filter;
+
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpressionVisitor;
+import com.yahoo.elide.core.filter.NotFilterExpression;
+import com.yahoo.elide.core.filter.OrFilterExpression;
+import com.yahoo.elide.core.filter.Predicate;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
+
+import java.util.List;
+
+/**
+ * Translates a filter expression into a Hibernate Criterion on the loaded entity.
+ *
+ * A predicate on a path through relationships becomes a subquery joining those relationships, selecting the ids
+ * of matching records, so records are neither repeated nor dropped by the joins and pagination stays exact.
+ */
+public class CriterionFilterVisitor implements FilterExpressionVisitor<Criterion> {
+    private static final String ROOT_ALIAS = "elideRoot";
+    private static final String JOIN_ALIAS_PREFIX = "elideJoin";
+
+    private final CriterionFilterOperation operation;
+    private final Class<?> entityClass;
+    private final String idFieldName;
+
+    /**
+     * @param operation translates single predicates
+     * @param entityClass the loaded entity class
+     * @param idFieldName the name of the id field of the entity class
+     */
+    public CriterionFilterVisitor(CriterionFilterOperation operation, Class<?> entityClass, String idFieldName) {
+        this.operation = operation;
+        this.entityClass = entityClass;
+        this.idFieldName = idFieldName;
+    }
+
+    @Override
+    public Criterion visitPredicate(Predicate predicate) {
+        List<String> path = predicate.getPath();
+        if (path.size() == 1) {
+            return operation.apply(predicate);
+        }
+
+        DetachedCriteria subquery = DetachedCriteria.forClass(entityClass, ROOT_ALIAS);
+        String alias = ROOT_ALIAS;
+        for (int i = 0; i < path.size() - 1; i++) {
+            String join = JOIN_ALIAS_PREFIX + i;
+            subquery.createAlias(alias + "." + path.get(i), join);
+            alias = join;
+        }
+        String field = alias + "." + path.get(path.size() - 1);
+        subquery.add(operation.apply(new Predicate(field, predicate.getOperator(), predicate.getValues())))
+                .setProjection(Projections.id());
+        return Subqueries.propertyIn(idFieldName, subquery);
+    }
+
+    @Override
+    public Criterion visitAndExpression(AndFilterExpression expression) {
+        return Restrictions.and(expression.getLeft().accept(this), expression.getRight().accept(this));
+    }
+
+    @Override
+    public Criterion visitOrExpression(OrFilterExpression expression) {
+        return Restrictions.or(expression.getLeft().accept(this), expression.getRight().accept(this));
+    }
+
+    @Override
+    public Criterion visitNotExpression(NotFilterExpression expression) {
+        return Restrictions.not(expression.getNegated().accept(this));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate5.filter;
+
+import com.yahoo.elide.core.exceptions.InvalidPredicateException;
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpressionVisitor;
+import com.yahoo.elide.core.filter.NotFilterExpression;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.OrFilterExpression;
+
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.util.List;
+
+/**
+ * Translates a filter expression into a JPA Criteria predicate on the queried entity.
+ *
+ * As with {@link CriterionFilterVisitor}, a predicate on a path through relationships becomes a subquery joining
+ * those relationships, selecting the ids of matching records, so records are neither repeated nor dropped by the
+ * joins and pagination stays exact.
+ */
+public class JpaPredicateFilterVisitor implements FilterExpressionVisitor<Predicate> {
+    private final CriteriaBuilder builder;
+    private final AbstractQuery<?> query;
+    private final From<?, ?> from;
+    private final Class<?> entityClass;
+    private final String idFieldName;
+
+    /**
+     * @param builder the criteria builder
+     * @param query the query the predicate is added to, which owns any subqueries
+     * @param from the queried entity, a root or a join
+     * @param entityClass the class of the queried entity
+     * @param idFieldName the name of the id field of the entity class
+     */
+    public JpaPredicateFilterVisitor(CriteriaBuilder builder, AbstractQuery<?> query, From<?, ?> from,
+                                     Class<?> entityClass, String idFieldName) {
+        this.builder = builder;
+        this.query = query;
+        this.from = from;
+        this.entityClass = entityClass;
+        this.idFieldName = idFieldName;
+    }
+
+    @Override
+    public Predicate visitPredicate(com.yahoo.elide.core.filter.Predicate predicate) {
+        List<String> path = predicate.getPath();
+        if (path.size() == 1) {
+            return apply(from, path.get(0), predicate);
+        }
+
+        Subquery<Object> subquery = query.subquery(Object.class);
+        Root<?> root = subquery.from(entityClass);
+        From<?, ?> join = root;
+        for (int i = 0; i < path.size() - 1; i++) {
+            join = join.join(path.get(i));
+        }
+        subquery.select(root.get(idFieldName)).where(apply(join, path.get(path.size() - 1), predicate));
+        return from.get(idFieldName).in(subquery);
+    }
+
+    @Override
+    public Predicate visitAndExpression(AndFilterExpression expression) {
+        return builder.and(expression.getLeft().accept(this), expression.getRight().accept(this));
+    }
+
+    @Override
+    public Predicate visitOrExpression(OrFilterExpression expression) {
+        return builder.or(expression.getLeft().accept(this), expression.getRight().accept(this));
+    }
+
+    @Override
+    public Predicate visitNotExpression(NotFilterExpression expression) {
+        return builder.not(expression.getNegated().accept(this));
+    }
+
+    private Predicate apply(From<?, ?> entity, String field, com.yahoo.elide.core.filter.Predicate predicate) {
+        Path<Object> path = entity.get(field);
+        List<Object> values = predicate.getValues();
+        switch (predicate.getOperator()) {
+            case IN:
+                return path.in(values);
+            case NOT:
+                return builder.not(path.in(values));
+            case PREFIX:
+                return builder.like(entity.get(field), values.get(0) + "%");
+            case POSTFIX:
+                return builder.like(entity.get(field), "%" + values.get(0));
+            case INFIX:
+                return builder.like(entity.get(field), "%" + values.get(0) + "%");
+            case ISNULL:
+                return builder.isNull(path);
+            case NOTNULL:
+                return builder.isNotNull(path);
+            case LT:
+            case LE:
+            case GT:
+            case GE:
+                return compare(predicate.getOperator(), path, (Comparable) values.get(0));
+            default:
+                throw new InvalidPredicateException("Operator not implemented: " + predicate.getOperator());
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Predicate compare(Operator operator, Expression path, Comparable value) {
+        switch (operator) {
+            case LT:
+                return builder.lessThan(path, value);
+            case LE:
+                return builder.lessThanOrEqualTo(path, value);
+            case GT:
+                return builder.greaterThan(path, value);
+            default:
+                return builder.greaterThanOrEqualTo(path, value);
+        }
+    }
+}
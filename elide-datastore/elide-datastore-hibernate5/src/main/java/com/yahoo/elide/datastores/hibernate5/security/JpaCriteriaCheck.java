@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate5.security;
+
+import com.yahoo.elide.core.RequestScope;
+
+import com.yahoo.elide.security.Check;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+/**
+ * Extends Check to support JPA Criteria queries to limit SQL query responses.
+ *
+ * @param <T> Type of record for Check
+ */
+public interface JpaCriteriaCheck<T> extends Check<T> {
+    /**
+     * Gets predicate.
+     *
+     * @param root the queried entity
+     * @param builder the criteria builder of the query
+     * @param requestScope the request scope
+     * @return the predicate, or null if this check cannot be expressed as one
+     * @see javax.persistence.criteria.CriteriaBuilder
+     */
+    Predicate getPredicate(Root<T> root, CriteriaBuilder builder, RequestScope requestScope);
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate5.tests;
+
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.FilterScope;
+import com.yahoo.elide.core.KeysetCursor;
+import com.yahoo.elide.core.Pagination;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.InMemoryFilterVisitor;
+import com.yahoo.elide.datastores.hibernate5.PersistenceStore;
+import com.yahoo.elide.datastores.hibernate5.PersistenceTransaction;
+import com.yahoo.elide.security.User;
+import example.Article;
+import example.Review;
+import example.Writer;
+import org.hibernate.Hibernate;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.TypedQuery;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PersistenceTransaction queries against MySQL.
+ */
+public class PersistenceTransactionIT {
+    private EntityManagerFactory entityManagerFactory;
+    private PersistenceStore store;
+    private EntityDictionary dictionary;
+    private long asimovId;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.url",
+                "jdbc:mysql://localhost:" + System.getProperty("mysql.port", "3306") + "/root");
+        entityManagerFactory = Persistence.createEntityManagerFactory("elide-tests", properties);
+        store = new PersistenceStore(entityManagerFactory);
+        dictionary = new EntityDictionary();
+        store.populateEntityDictionary(dictionary);
+
+        try (DataStoreTransaction tx = store.beginTransaction()) {
+            Writer asimov = writer(tx, "Asimov");
+            Writer pratchett = writer(tx, "Pratchett");
+            article(tx, "a", true, 2, asimov);
+            article(tx, "b", false, 1, asimov);
+            article(tx, "c", true, null, pratchett);
+            article(tx, "d", true, 1, asimov, pratchett);
+            article(tx, "e", true, 3);
+            review(tx, "hidden", false);
+            review(tx, "first", true);
+            review(tx, "second", true);
+            review(tx, "third", true);
+            tx.commit();
+            asimovId = asimov.getId();
+        }
+    }
+
+    @AfterClass
+    public void teardown() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    public void testCheckWithRequestFilter() throws IOException {
+        try (DataStoreTransaction tx = store.beginTransaction()) {
+            RequestScope scope = scope(tx, "filter[article]", "title=in=(a,b,c)");
+            Assert.assertEquals(titles(tx.loadObjects(Article.class, readScope(scope))),
+                    new HashSet<>(Arrays.asList("a", "c")));
+            tx.commit();
+        }
+    }
+
+    @Test
+    public void testRelationshipPathFilter() throws IOException {
+        try (DataStoreTransaction tx = store.beginTransaction()) {
+            RequestScope scope = scope(tx, "filter[article]", "writers.name=in=Pratchett");
+            Assert.assertEquals(titles(tx.loadObjects(Article.class, readScope(scope))),
+                    new HashSet<>(Arrays.asList("c", "d")));
+
+            // articles without writers have no writer named Pratchett
+            scope = scope(tx, "filter[article]", "!writers.name=in=Pratchett");
+            Assert.assertEquals(titles(tx.loadObjects(Article.class, readScope(scope))),
+                    new HashSet<>(Arrays.asList("a", "e")));
+            tx.commit();
+        }
+    }
+
+    @Test
+    public void testKeysetPages() throws IOException {
+        // nulls rank lowest, so first in ascending and last in descending order
+        Assert.assertEquals(keysetTitles("priority"), Arrays.asList("c", "d", "a", "e"));
+        Assert.assertEquals(keysetTitles("-priority"), Arrays.asList("e", "a", "d", "c"));
+    }
+
+    @Test
+    public void testFilterCollectionOfOwner() throws IOException {
+        try (DataStoreTransaction tx = store.beginTransaction()) {
+            RequestScope scope = scope(tx, "filter[article]", "title=in=(a,b,e)");
+            Writer asimov = tx.loadObject(Writer.class, asimovId);
+            FilterExpression expression = scope.getFilterExpressionOfType("article");
+
+            Collection<Article> articles = tx.filterCollection(asimov.getArticles(), Article.class, expression, scope);
+            Assert.assertEquals(titles(articles), new HashSet<>(Arrays.asList("a", "b")));
+            Assert.assertFalse(Hibernate.isInitialized(asimov.getArticles()));
+            tx.commit();
+        }
+    }
+
+    @Test
+    public void testSecurityFilterPaginatedByStore() throws IOException {
+        List<Object> maxResults = new ArrayList<>();
+        EntityManager entityManager = recordMaxResults(entityManagerFactory.createEntityManager(), maxResults);
+        try (DataStoreTransaction tx = new PersistenceTransaction(entityManager)) {
+            RequestScope scope = scope(tx, "page[size]", "2");
+            Set<PersistentResource<Review>> page = PersistentResource.loadRecords(Review.class, scope);
+
+            // the visible filter is applied by the query, so the query is limited to the page
+            Assert.assertEquals(maxResults, Collections.singletonList(2));
+            Assert.assertEquals(page.size(), 2);
+            page.forEach(resource -> Assert.assertTrue(resource.getObject().isVisible()));
+            tx.commit();
+        }
+    }
+
+    @Test
+    public void testMissingValuesMatchInMemoryFilter() throws IOException {
+        // article c has no priority, so comparisons with it are unknown in the query as well as in memory
+        for (String filter : Arrays.asList("!priority=in=1", "!(priority=in=1,title=in=x)",
+                "!(priority=in=1;title=in=a)", "priority=isnull=,!priority=ge=2")) {
+            try (DataStoreTransaction tx = store.beginTransaction()) {
+                RequestScope scope = scope(tx, "filter[article]", filter);
+                java.util.function.Predicate<Object> test = scope.getFilterExpressionOfType("article")
+                        .accept(new InMemoryFilterVisitor(dictionary));
+                List<Article> expected = new ArrayList<>();
+                for (Article article : tx.loadObjects(Article.class)) {
+                    if (article.isPublished() && test.test(article)) {
+                        expected.add(article);
+                    }
+                }
+
+                Assert.assertEquals(titles(tx.loadObjects(Article.class, readScope(scope))), titles(expected),
+                        filter);
+                tx.commit();
+            }
+        }
+    }
+
+    /**
+     * Wrap an entity manager to record the max results set on its queries.
+     */
+    private static EntityManager recordMaxResults(EntityManager entityManager, List<Object> maxResults) {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (proxy, method, args) -> {
+                    Object result = invoke(entityManager, method, args);
+                    if (!(result instanceof TypedQuery)) {
+                        return result;
+                    }
+                    TypedQuery<?> query = (TypedQuery<?>) result;
+                    return Proxy.newProxyInstance(TypedQuery.class.getClassLoader(),
+                            new Class<?>[] {TypedQuery.class}, (queryProxy, queryMethod, queryArgs) -> {
+                                if (queryMethod.getName().equals("setMaxResults")) {
+                                    maxResults.add(queryArgs[0]);
+                                }
+                                Object queryResult = invoke(query, queryMethod, queryArgs);
+                                return queryResult == query ? queryProxy : queryResult;
+                            });
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private List<String> keysetTitles(String sort) throws IOException {
+        List<String> titles = new ArrayList<>();
+        try (DataStoreTransaction tx = store.beginTransaction()) {
+            RequestScope scope = scope(tx, "sort", sort);
+            KeysetCursor after = KeysetCursor.FIRST;
+            while (true) {
+                List<String> page = new ArrayList<>();
+                Article last = null;
+                for (Article article : tx.loadObjects(Article.class, readScope(scope), scope.getSorting(),
+                        new Pagination(after, 2))) {
+                    page.add(article.getTitle());
+                    last = article;
+                }
+                if (last == null) {
+                    break;
+                }
+                Assert.assertTrue(page.size() <= 2);
+                titles.addAll(page);
+                after = KeysetCursor.of(last, Article.class, scope.getSorting(), dictionary);
+            }
+            tx.commit();
+        }
+        return titles;
+    }
+
+    private RequestScope scope(DataStoreTransaction tx, String parameter, String value) {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.putSingle(parameter, value);
+        return new RequestScope(null, tx, new User(null), dictionary, null, null, queryParams);
+    }
+
+    private FilterScope<Article> readScope(RequestScope scope) {
+        return new FilterScope<>(scope, dictionary.getPermissionPlan(Article.class, ReadPermission.class));
+    }
+
+    private static Set<String> titles(Iterable<Article> articles) {
+        Set<String> titles = new HashSet<>();
+        articles.forEach(article -> titles.add(article.getTitle()));
+        return titles;
+    }
+
+    private static Writer writer(DataStoreTransaction tx, String name) {
+        Writer writer = tx.createObject(Writer.class);
+        writer.setName(name);
+        return writer;
+    }
+
+    private static void review(DataStoreTransaction tx, String text, boolean visible) {
+        Review review = tx.createObject(Review.class);
+        review.setText(text);
+        review.setVisible(visible);
+        tx.save(review);
+    }
+
+    private static void article(DataStoreTransaction tx, String title, boolean published, Integer priority,
+                                Writer... writers) {
+        Article article = tx.createObject(Article.class);
+        article.setTitle(title);
+        article.setPublished(published);
+        article.setPriority(priority);
+        article.setWriters(new ArrayList<>(Arrays.asList(writers)));
+        for (Writer writer : writers) {
+            writer.getArticles().add(article);
+        }
+        tx.save(article);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package example;
+
+import com.yahoo.elide.annotation.Include;
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.datastores.hibernate5.security.JpaCriteriaCheck;
+
+import example.Article.PublishedCheck;
+
+import javax.persistence.Entity;
+import javax.persistence.ManyToMany;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Article test bean, readable only once published.
+ */
+@ReadPermission(any = { PublishedCheck.class })
+@Include(rootLevel = true)
+// Hibernate
+@Entity
+public class Article extends BaseId {
+    private String title;
+    private boolean published;
+    private Integer priority;
+    private Collection<Writer> writers = new ArrayList<>();
+
+    /**
+     * Filter for published articles.
+     */
+    static public class PublishedCheck implements JpaCriteriaCheck<Article> {
+        @Override
+        public boolean ok(PersistentResource<Article> record) {
+            return record.getObject().isPublished();
+        }
+
+        @Override
+        public Predicate getPredicate(Root<Article> root, CriteriaBuilder builder, RequestScope requestScope) {
+            return builder.isTrue(root.get("published"));
+        }
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+
+    public void setPublished(boolean published) {
+        this.published = published;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    @ManyToMany
+    public Collection<Writer> getWriters() {
+        return writers;
+    }
+
+    public void setWriters(Collection<Writer> writers) {
+        this.writers = writers;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package example;
+
+import com.yahoo.elide.annotation.Include;
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.Predicate;
+import com.yahoo.elide.security.FilterExpressionCheck;
+import com.yahoo.elide.security.User;
+
+import example.Review.VisibleCheck;
+
+import javax.persistence.Entity;
+import java.util.Collections;
+
+/**
+ * Review test bean, readable only while visible.
+ */
+@ReadPermission(any = { VisibleCheck.class })
+@Include(rootLevel = true)
+// Hibernate
+@Entity
+public class Review extends BaseId {
+    private String text;
+    private boolean visible;
+
+    /**
+     * Filter for visible reviews.
+     */
+    static public class VisibleCheck implements FilterExpressionCheck<Review> {
+        @Override
+        public FilterExpression getFilterExpression(User user) {
+            return new Predicate("visible", Operator.IN, Collections.singletonList(true));
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package example;
+
+import com.yahoo.elide.annotation.Include;
+
+import javax.persistence.Entity;
+import javax.persistence.ManyToMany;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Writer test bean.
+ */
+@Include(rootLevel = true)
+// Hibernate
+@Entity
+public class Writer extends BaseId {
+    private String name;
+    private Collection<Article> articles = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @ManyToMany(mappedBy = "writers")
+    public Collection<Article> getArticles() {
+        return articles;
+    }
+
+    public void setArticles(Collection<Article> articles) {
+        this.articles = articles;
+    }
+}
@@ -16,20 +16,77 @@ import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 
 import javax.persistence.Entity;
-import java.util.Map.Entry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Simple non-persistent in-memory database.
+ * In-memory database, optionally persisted to a directory.
+ *
+ * Transactions are snapshot isolated: each reads the records committed when it began, and the first of two
+ * transactions to commit the same record wins.  Filters are evaluated in memory.  Declare secondary indexes with
+ * {@link #addIndex} to narrow filtered loads of large types to the records holding the requested values.
+ *
+ * Given a directory, the store is durable: each commit is appended to a memory-mapped write-ahead log and synced
+ * before it returns, a compacted snapshot replaces the log every so many commits, and the records are restored
+ * from the snapshot and the log when the entity dictionary is populated.
  */
-public class InMemoryDataStore implements DataStore {
-    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore =
-            new ConcurrentHashMap<>();
+public class InMemoryDataStore implements DataStore, Closeable {
+    /**
+     * Default number of commits between snapshots of a durable store.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10000;
+
+    private static final int LOG_REGION_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Kinds of secondary index.
+     */
+    public enum IndexType {
+        /**
+         * Hash index answering in and isnull filters.
+         */
+        HASH,
+        /**
+         * Sorted index also answering lt, le, gt, ge and prefix filters.  The field type must be Comparable.
+         */
+        SORTED
+    }
+
+    private final VersionedStore store = new VersionedStore();
+    private final Map<Class<?>, Map<String, IndexType>> indexTypes = new ConcurrentHashMap<>();
     @Getter private EntityDictionary dictionary;
     @Getter private final Package beanPackage;
+    @Getter private final Path directory;
+    private final int checkpointInterval;
 
     public InMemoryDataStore(Package beanPackage) {
+        this(beanPackage, null, 0);
+    }
+
+    /**
+     * Durable store.
+     *
+     * @param beanPackage the package of the entities
+     * @param directory the directory of the write-ahead log and snapshots, created if needed
+     */
+    public InMemoryDataStore(Package beanPackage, Path directory) {
+        this(beanPackage, directory, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Durable store.
+     *
+     * @param beanPackage the package of the entities
+     * @param directory the directory of the write-ahead log and snapshots, created if needed
+     * @param checkpointInterval commits between snapshots, or 0 to only snapshot on {@link #checkpoint}
+     */
+    public InMemoryDataStore(Package beanPackage, Path directory, int checkpointInterval) {
         this.beanPackage = beanPackage;
+        this.directory = directory;
+        this.checkpointInterval = checkpointInterval;
     }
 
     @Override
@@ -42,22 +99,86 @@ public class InMemoryDataStore implements DataStore {
                         .startsWith(beanPackage.getName()))
                 .forEach(dictionary::bindEntity);
         this.dictionary = dictionary;
+        indexTypes.forEach((cls, fields) -> fields.forEach((field, type) -> checkIndex(cls, field, type)));
+
+        if (directory != null) {
+            try {
+                store.recover(new StoreJournal(directory, dictionary, LOG_REGION_SIZE), checkpointInterval,
+                        dictionary);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot recover the data store from " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Snapshot a durable store now, replacing its write-ahead log.  Commits continue while the snapshot is written.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void checkpoint() throws IOException {
+        store.checkpoint();
+    }
+
+    /**
+     * Close the write-ahead log of a durable store.  Commits after close fail.
+     *
+     * @throws IOException if the log cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+    /**
+     * Declare a secondary index on an attribute, replacing any index already declared on it.  Records already
+     * committed are indexed immediately.
+     *
+     * @param entityClass the entity class
+     * @param field the attribute
+     * @param type the kind of index
+     * @return this data store
+     * @throws IllegalArgumentException if the attribute is not bound, or is not Comparable for a sorted index
+     */
+    public InMemoryDataStore addIndex(Class<?> entityClass, String field, IndexType type) {
+        if (dictionary != null) {
+            checkIndex(entityClass, field, type);
+        }
+        store.addIndex(entityClass, new InMemoryIndex(field, type), dictionary);
+        indexTypes.computeIfAbsent(entityClass, cls -> new ConcurrentHashMap<>()).put(field, type);
+        return this;
+    }
+
+    private void checkIndex(Class<?> entityClass, String field, IndexType type) {
+        Class<?> fieldType = dictionary.getIdFieldName(entityClass).equals(field)
+                ? dictionary.getIdType(entityClass)
+                : dictionary.getAttributes(entityClass).contains(field)
+                ? dictionary.getType(entityClass, field)
+                : null;
+        if (fieldType == null) {
+            throw new IllegalArgumentException("Unknown attribute " + field + " of " + entityClass.getName());
+        }
+        if (type == IndexType.SORTED && !fieldType.isPrimitive()
+                && !Comparable.class.isAssignableFrom(fieldType)) {
+            throw new IllegalArgumentException("Sorted index on " + field + " of " + entityClass.getName()
+                    + " which is not Comparable");
+        }
     }
 
     @Override
     public DataStoreTransaction beginTransaction() {
-        return new InMemoryTransaction(dataStore, dictionary);
+        return new InMemoryTransaction(store, dictionary);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Data store contents ");
-        for (Class<?> cls : dataStore.keySet()) {
+        long version = store.getVersion();
+        for (Class<?> cls : store.getTypes()) {
             sb.append("\n Table ").append(cls).append(" contents \n");
-            ConcurrentHashMap<String, Object> data = dataStore.get(cls);
-            for (Entry<String, Object> e : data.entrySet()) {
-                sb.append(" Id: ").append(e.getKey()).append(" Value: ").append(e.getValue());
+            for (Object value : store.readAll(cls, version)) {
+                sb.append(" Id: ").append(dictionary.getId(value)).append(" Value: ").append(value);
             }
         }
         return sb.toString();
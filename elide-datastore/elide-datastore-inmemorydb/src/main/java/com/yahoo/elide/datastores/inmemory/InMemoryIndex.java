@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.inmemory;
+
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.Predicate;
+import com.yahoo.elide.datastores.inmemory.InMemoryDataStore.IndexType;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary index of the committed values of one field, mapping values to the ids of the records holding them.
+ *
+ * Lookups return candidate ids.  An index only narrows a filter by the predicates on its own field, so callers must
+ * still test each candidate against the whole filter.
+ */
+class InMemoryIndex {
+    private static final Object NULL_VALUE = new Object();
+
+    @Getter private final String field;
+    @Getter private final IndexType type;
+    private final ConcurrentMap<Object, Set<String>> entries;
+    private final Set<String> nullIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Object> indexedValues = new ConcurrentHashMap<>();
+
+    InMemoryIndex(String field, IndexType type) {
+        this.field = field;
+        this.type = type;
+        this.entries = type == IndexType.SORTED ? new ConcurrentSkipListMap<>() : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Index the value of a record, replacing its previously indexed value.
+     *
+     * @param id the record id
+     * @param value the field value
+     */
+    synchronized void put(String id, Object value) {
+        remove(id);
+        if (value == null) {
+            nullIds.add(id);
+            indexedValues.put(id, NULL_VALUE);
+        } else {
+            entries.computeIfAbsent(value, key -> ConcurrentHashMap.newKeySet()).add(id);
+            indexedValues.put(id, value);
+        }
+    }
+
+    /**
+     * Drop a record from the index.
+     *
+     * @param id the record id
+     */
+    synchronized void remove(String id) {
+        Object value = indexedValues.remove(id);
+        if (value == NULL_VALUE) {
+            nullIds.remove(id);
+        } else if (value != null) {
+            Set<String> ids = entries.get(value);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                entries.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Look up the records which may match a predicate on the indexed field.
+     *
+     * @param predicate the predicate
+     * @return the candidate ids, or null if this index cannot answer the predicate
+     */
+    Set<String> lookup(Predicate predicate) {
+        Operator operator = predicate.getOperator();
+        List<Object> values = predicate.getValues();
+        switch (operator) {
+            case IN:
+                Set<String> ids = new HashSet<>();
+                for (Object value : values) {
+                    if (value != null) {
+                        ids.addAll(entries.getOrDefault(value, Collections.emptySet()));
+                    }
+                }
+                return ids;
+            case ISNULL:
+                return new HashSet<>(nullIds);
+            default:
+                break;
+        }
+
+        if (type != IndexType.SORTED || values.isEmpty() || values.get(0) == null) {
+            return null;
+        }
+        ConcurrentNavigableMap<Object, Set<String>> sorted = (ConcurrentNavigableMap<Object, Set<String>>) entries;
+        Object bound = values.get(0);
+        switch (operator) {
+            case LT:
+                return union(sorted.headMap(bound, false).values());
+            case LE:
+                return union(sorted.headMap(bound, true).values());
+            case GT:
+                return union(sorted.tailMap(bound, false).values());
+            case GE:
+                return union(sorted.tailMap(bound, true).values());
+            case PREFIX:
+                if (!(bound instanceof String)) {
+                    return null;
+                }
+                return union(sorted.subMap(bound, true, bound + String.valueOf(Character.MAX_VALUE), true).values());
+            default:
+                return null;
+        }
+    }
+
+    private static Set<String> union(Collection<Set<String>> sets) {
+        Set<String> ids = new HashSet<>();
+        sets.forEach(ids::addAll);
+        return ids;
+    }
+}
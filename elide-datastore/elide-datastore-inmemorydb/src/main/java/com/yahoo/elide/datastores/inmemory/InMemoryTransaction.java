@@ -7,33 +7,57 @@ package com.yahoo.elide.datastores.inmemory;
 
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
-import com.yahoo.elide.utils.coerce.CoerceUtil;
+import com.yahoo.elide.core.FilterScope;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.yahoo.elide.core.filter.InMemoryFilterVisitor;
+import com.yahoo.elide.core.filter.Predicate;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Iterables;
 
-import javax.persistence.Id;
 import java.io.IOException;
 import java.io.Serializable;
-import java.lang.reflect.Method;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * InMemoryDataStore transaction handler.
+ *
+ * Reads see the records committed when the transaction began, or when it last committed, plus nothing else; writes
+ * are buffered until commit.  Commit fails with a {@link com.yahoo.elide.core.exceptions.TransactionException} if
+ * another transaction committed one of the same records in the meantime.
+ *
+ * Committed records are never handed out: the transaction reads private copies, made on first read, whose
+ * relationships link the copies of the related records visible to its snapshot.  Saved copies are installed as the
+ * new versions on commit, so changes are neither seen by other transactions before commit nor kept after a
+ * rollback.
  */
 public class InMemoryTransaction implements DataStoreTransaction {
     private static final ConcurrentHashMap<Class<?>, AtomicLong> TYPEIDS = new ConcurrentHashMap<>();
 
-    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore;
+    private final VersionedStore store;
     private final List<Operation> operations;
     private final EntityDictionary dictionary;
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+    private long snapshot;
 
-    public InMemoryTransaction(ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore,
-                               EntityDictionary dictionary) {
-        this.dataStore = dataStore;
+    InMemoryTransaction(VersionedStore store, EntityDictionary dictionary) {
+        this.store = store;
         this.dictionary = dictionary;
         this.operations = new ArrayList<>();
+        this.snapshot = store.open(this);
     }
 
     @Override
@@ -65,36 +89,20 @@ public class InMemoryTransaction implements DataStoreTransaction {
 
     @Override
     public void commit() {
-        operations.forEach(op -> {
-            Class<?> cls = op.getType();
-            ConcurrentHashMap<String, Object> data = dataStore.get(cls);
-            Object instance = op.getInstance();
-            if (instance == null) {
-                return;
-            }
-            String id = op.getId();
-            if (op.getDelete()) {
-                if (data != null) {
-                    data.remove(id);
-                }
-            } else {
-                if (data == null) {
-                    data = new ConcurrentHashMap<>();
-                    dataStore.put(cls, data);
-                }
-                data.put(id, instance);
-            }
-        });
-        operations.clear();
+        try {
+            snapshot = store.commit(operations, snapshot, dictionary);
+            store.advance(this, snapshot);
+        } finally {
+            operations.clear();
+            // the saved copies are committed now, later reads copy again
+            copies.clear();
+        }
     }
 
     @Override
     public <T> T createObject(Class<T> entityClass) {
-        if (dataStore.get(entityClass) == null) {
-            dataStore.putIfAbsent(entityClass, new ConcurrentHashMap<>());
-            TYPEIDS.putIfAbsent(entityClass, new AtomicLong(1));
-        }
-        AtomicLong idValue = TYPEIDS.get(entityClass);
+        store.addType(entityClass);
+        AtomicLong idValue = TYPEIDS.computeIfAbsent(entityClass, cls -> new AtomicLong(1));
         String id = String.valueOf(idValue.getAndIncrement());
         try {
             T instance = entityClass.newInstance();
@@ -106,51 +114,170 @@ public class InMemoryTransaction implements DataStoreTransaction {
         return null;
     }
 
+    /**
+     * Records are plain copies private to this transaction, with their relationships linked when copied.
+     *
+     * @return true
+     */
+    @Override
+    public boolean supportsConcurrentReads() {
+        return true;
+    }
+
+    /**
+     * Keep ids created for a type above a restored id.
+     *
+     * @param entityClass the entity class
+     * @param id the restored id
+     */
+    static void reserveId(Class<?> entityClass, String id) {
+        try {
+            long value = Long.parseLong(id);
+            TYPEIDS.computeIfAbsent(entityClass, cls -> new AtomicLong(1)).accumulateAndGet(value + 1, Math::max);
+        } catch (NumberFormatException e) {
+            // not a generated id
+        }
+    }
+
     public void setId(Object value, String id) {
-        for (Class<?> cls = value.getClass(); cls != null; cls = cls.getSuperclass()) {
-            for (Method method : cls.getMethods()) {
-                if (method.isAnnotationPresent(Id.class)) {
-                    if (method.getName().startsWith("get")) {
-                        String setName = "set" + method.getName().substring(3);
-                        for (Method setMethod : cls.getMethods()) {
-                            if (setMethod.getName().equals(setName) && setMethod.getParameterCount() == 1) {
-                                try {
-                                    setMethod.invoke(value,
-                                            CoerceUtil.coerce(id, setMethod.getParameters()[0].getType()));
-                                } catch (ReflectiveOperationException e) {
-                                    e.printStackTrace();
-                                }
-                                return;
-                            }
-                        }
+        dictionary.setId(value, id);
+    }
+
+    @Override
+    public <T> T loadObject(Class<T> loadClass, Serializable id) {
+        return (T) copyOf(store.read(loadClass, id.toString(), snapshot));
+    }
+
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> loadClass) {
+        return (Iterable<T>) Iterables.transform(store.readAll(loadClass, snapshot), this::copyOf);
+    }
+
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> loadClass, FilterScope<T> filterScope) {
+        String type = dictionary.getBinding(loadClass);
+        // security and request filters are applied together
+        FilterExpression filterExpression = AndFilterExpression.andWithNull(filterScope.getSecurityFilterExpression(),
+                filterScope.getRequestScope().getFilterExpressionOfType(type));
+        if (filterExpression == null) {
+            return loadObjects(loadClass);
+        }
+
+        Set<String> candidates = store.lookup(loadClass, filterExpression, snapshot);
+        Iterable<Object> objects = candidates == null
+                ? store.readAll(loadClass, snapshot)
+                : store.readAll(loadClass, candidates, snapshot);
+        return (Iterable<T>) Iterables.filter(Iterables.transform(objects, this::copyOf), matcher(filterExpression));
+    }
+
+    @Override
+    public <T> Collection filterCollection(Collection collection, Class<T> entityClass, Set<Predicate> predicates) {
+        return filterCollection(collection, entityClass, AndFilterExpression.andAll(predicates), null);
+    }
+
+    @Override
+    public <T> Collection filterCollection(Collection collection, Class<T> entityClass,
+                                           FilterExpression filterExpression, RequestScope requestScope) {
+        if (filterExpression == null) {
+            return collection;
+        }
+        return Collections2.filter((Collection<Object>) collection, matcher(filterExpression));
+    }
+
+    /**
+     * Test of records against a filter.
+     */
+    private com.google.common.base.Predicate<Object> matcher(FilterExpression filterExpression) {
+        java.util.function.Predicate<Object> test = filterExpression.accept(new InMemoryFilterVisitor(dictionary));
+        return test::test;
+    }
+
+    /**
+     * Get the private copy of a committed record, copying it on first read.  Synchronized, as records may be read
+     * while the resources of a collection are built in parallel.
+     *
+     * @param record the committed record
+     * @return the copy, or null if the record is null
+     */
+    private synchronized Object copyOf(Object record) {
+        if (record == null) {
+            return null;
+        }
+        Object copy = copies.get(record);
+        if (copy != null) {
+            return copy;
+        }
+
+        Class<?> cls = record.getClass();
+        try {
+            copy = cls.newInstance();
+            for (Class<?> type = cls; type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        field.set(copy, field.get(record));
+                    }
+                }
+            }
+        } catch (InstantiationException | IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Cannot copy " + cls.getName(), e);
+        }
+        // registered before its relationships are copied, so cycles link back to it
+        copies.put(record, copy);
+
+        for (String attribute : dictionary.getAttributes(cls)) {
+            Object value = PersistentResource.getValue(record, attribute, dictionary);
+            if (value instanceof Collection || value instanceof Map) {
+                PersistentResource.setValue(copy, attribute, copyContainer(cls, attribute, value), dictionary);
+            }
+        }
+        for (String relationship : dictionary.getRelationships(cls)) {
+            Object value = PersistentResource.getValue(record, relationship, dictionary);
+            Object linked;
+            if (value instanceof Collection) {
+                Collection<Object> members = Set.class.isAssignableFrom(dictionary.getType(cls, relationship))
+                        ? new LinkedHashSet<>()
+                        : new ArrayList<>();
+                for (Object member : (Collection<?>) value) {
+                    Object related = link(member);
+                    if (related != null) {
+                        members.add(related);
                     }
                 }
+                linked = members;
+            } else {
+                linked = link(value);
             }
+            PersistentResource.setValue(copy, relationship, linked, dictionary);
         }
+        return copy;
     }
 
-    @Override
-    public <T> T loadObject(Class<T> loadClass, Serializable id) {
-        ConcurrentHashMap<String, Object> objs = dataStore.get(loadClass);
-        if (objs == null) {
-            return null;
+    /**
+     * Get the copy of the version of a related record visible to the snapshot.  Records link the instances related
+     * when they were committed, which may since have been replaced by newer versions.  Records of types this store
+     * does not hold are linked as they are.
+     */
+    private Object link(Object related) {
+        if (related == null || !store.getTypes().contains(related.getClass())) {
+            return related;
         }
-        return (T) objs.get(id.toString());
+        return copyOf(store.read(related.getClass(), dictionary.getId(related), snapshot));
     }
 
-    @Override
-    public <T> List<T> loadObjects(Class<T> loadClass) {
-        ConcurrentHashMap<String, Object> objs = dataStore.get(loadClass);
-        if (objs == null) {
-            return Collections.emptyList();
+    private Object copyContainer(Class<?> cls, String attribute, Object value) {
+        if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<?, ?>) value);
         }
-        List<Object> results = new ArrayList<>();
-        objs.forEachValue(1, results::add);
-        return (List<T>) results;
+        return Set.class.isAssignableFrom(dictionary.getType(cls, attribute))
+                ? new LinkedHashSet<>((Collection<?>) value)
+                : new ArrayList<>((Collection<?>) value);
     }
 
     @Override
     public void close() throws IOException {
         operations.clear();
+        copies.clear();
+        store.close(this);
     }
 }
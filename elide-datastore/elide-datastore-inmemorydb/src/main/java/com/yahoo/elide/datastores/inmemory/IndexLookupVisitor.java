@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.inmemory;
+
+import com.yahoo.elide.core.filter.AndFilterExpression;
+import com.yahoo.elide.core.filter.FilterExpressionVisitor;
+import com.yahoo.elide.core.filter.NotFilterExpression;
+import com.yahoo.elide.core.filter.OrFilterExpression;
+import com.yahoo.elide.core.filter.Predicate;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Narrows a filter expression to candidate record ids using the secondary indexes of a type.
+ *
+ * A null result means every record is a candidate.  Candidates are a superset of the matching records.
+ */
+class IndexLookupVisitor implements FilterExpressionVisitor<Set<String>> {
+    private final Map<String, InMemoryIndex> indexes;
+
+    IndexLookupVisitor(Map<String, InMemoryIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    @Override
+    public Set<String> visitPredicate(Predicate predicate) {
+        InMemoryIndex index = indexes.get(predicate.getField());
+        return index == null ? null : index.lookup(predicate);
+    }
+
+    @Override
+    public Set<String> visitAndExpression(AndFilterExpression expression) {
+        Set<String> left = expression.getLeft().accept(this);
+        Set<String> right = expression.getRight().accept(this);
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        return left.size() <= right.size() ? left : right;
+    }
+
+    @Override
+    public Set<String> visitOrExpression(OrFilterExpression expression) {
+        Set<String> left = expression.getLeft().accept(this);
+        if (left == null) {
+            return null;
+        }
+        Set<String> right = expression.getRight().accept(this);
+        if (right == null) {
+            return null;
+        }
+        left.addAll(right);
+        return left;
+    }
+
+    @Override
+    public Set<String> visitNotExpression(NotFilterExpression expression) {
+        return null;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.inmemory;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.PersistentResource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON form of the records written to the write-ahead log and snapshots.
+ *
+ * A record holds the type, id and attributes of an entity, and its relationships as type and id references, so
+ * the entity graph is restored by first decoding every record of a snapshot or commit and then linking them.
+ * Attributes are converted by Jackson to and from their declared field types.
+ */
+class RecordCodec {
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String ATTRIBUTES = "attributes";
+    private static final String RELATIONSHIPS = "relationships";
+
+    private final EntityDictionary dictionary;
+    private final ObjectMapper mapper;
+
+    RecordCodec(EntityDictionary dictionary, ObjectMapper mapper) {
+        this.dictionary = dictionary;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Encode a record.
+     *
+     * @param cls the entity class the record is stored under
+     * @param id the record id
+     * @param entity the entity, or null to encode only the type and id
+     * @return the record
+     */
+    ObjectNode encode(Class<?> cls, String id, Object entity) {
+        ObjectNode record = mapper.createObjectNode();
+        record.put(TYPE, dictionary.getBinding(cls));
+        record.put(ID, id);
+        if (entity == null) {
+            return record;
+        }
+
+        ObjectNode attributes = record.putObject(ATTRIBUTES);
+        for (String attribute : dictionary.getAttributes(cls)) {
+            attributes.set(attribute, mapper.valueToTree(PersistentResource.getValue(entity, attribute, dictionary)));
+        }
+        ObjectNode relationships = record.putObject(RELATIONSHIPS);
+        for (String relationship : dictionary.getRelationships(cls)) {
+            Object value = PersistentResource.getValue(entity, relationship, dictionary);
+            if (value instanceof Collection) {
+                ArrayNode references = relationships.putArray(relationship);
+                for (Object member : (Collection<?>) value) {
+                    if (member != null) {
+                        references.add(reference(member));
+                    }
+                }
+            } else {
+                relationships.set(relationship, value == null ? null : reference(value));
+            }
+        }
+        return record;
+    }
+
+    private ObjectNode reference(Object entity) {
+        ObjectNode reference = mapper.createObjectNode();
+        reference.put(TYPE, dictionary.getBinding(dictionary.lookupEntityClass(entity.getClass())));
+        reference.put(ID, dictionary.getId(entity));
+        return reference;
+    }
+
+    /**
+     * Get the entity class of a record.
+     *
+     * @param record the record
+     * @return the entity class, or null if the type is no longer bound
+     */
+    Class<?> getType(JsonNode record) {
+        return dictionary.getBinding(record.path(TYPE).asText());
+    }
+
+    /**
+     * Get the id of a record.
+     *
+     * @param record the record
+     * @return the id
+     */
+    String getId(JsonNode record) {
+        return record.path(ID).asText();
+    }
+
+    /**
+     * Decode the id and attributes of a record into its entity, creating the entity if it is not yet restored.
+     *
+     * @param record the record
+     * @param records the restored entities by class and id, updated with the entity
+     * @return the entity, or null if the type is no longer bound
+     */
+    Object decode(JsonNode record, Map<Class<?>, Map<String, Object>> records) {
+        Class<?> cls = getType(record);
+        if (cls == null) {
+            return null;
+        }
+        String id = getId(record);
+        Map<String, Object> entities = records.computeIfAbsent(cls, key -> new LinkedHashMap<>());
+        Object entity = entities.get(id);
+        if (entity == null) {
+            try {
+                entity = cls.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException("Cannot restore " + cls.getName(), e);
+            }
+            dictionary.setId(entity, id);
+            entities.put(id, entity);
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> attributes = record.path(ATTRIBUTES).fields();
+        while (attributes.hasNext()) {
+            Map.Entry<String, JsonNode> attribute = attributes.next();
+            if (dictionary.getAttributes(cls).contains(attribute.getKey())) {
+                Type type = genericType(cls, attribute.getKey());
+                Object value = mapper.convertValue(attribute.getValue(), mapper.getTypeFactory().constructType(type));
+                PersistentResource.setValue(entity, attribute.getKey(), value, dictionary);
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * Link a decoded entity to the entities its record references.  References to entities which are not
+     * restored are dropped.
+     *
+     * @param entity the entity
+     * @param record the record
+     * @param records the restored entities by class and id
+     */
+    void link(Object entity, JsonNode record, Map<Class<?>, Map<String, Object>> records) {
+        Class<?> cls = getType(record);
+        Iterator<Map.Entry<String, JsonNode>> relationships = record.path(RELATIONSHIPS).fields();
+        while (relationships.hasNext()) {
+            Map.Entry<String, JsonNode> relationship = relationships.next();
+            String name = relationship.getKey();
+            if (!dictionary.getRelationships(cls).contains(name)) {
+                continue;
+            }
+            JsonNode value = relationship.getValue();
+            Object linked;
+            if (value.isArray()) {
+                Collection<Object> members = Set.class.isAssignableFrom(dictionary.getType(cls, name))
+                        ? new LinkedHashSet<>()
+                        : new ArrayList<>();
+                for (JsonNode reference : value) {
+                    Object member = resolve(reference, records);
+                    if (member != null) {
+                        members.add(member);
+                    }
+                }
+                linked = members;
+            } else {
+                linked = resolve(value, records);
+            }
+            PersistentResource.setValue(entity, name, linked, dictionary);
+        }
+    }
+
+    private Object resolve(JsonNode reference, Map<Class<?>, Map<String, Object>> records) {
+        if (reference == null || reference.isNull()) {
+            return null;
+        }
+        Map<String, Object> entities = records.get(getType(reference));
+        return entities == null ? null : entities.get(getId(reference));
+    }
+
+    private Type genericType(Class<?> cls, String field) {
+        AccessibleObject fieldOrMethod = dictionary.getAccessibleObject(cls, field);
+        if (fieldOrMethod instanceof Field) {
+            return ((Field) fieldOrMethod).getGenericType();
+        }
+        if (fieldOrMethod instanceof Method) {
+            return ((Method) fieldOrMethod).getGenericReturnType();
+        }
+        return dictionary.getType(cls, field);
+    }
+}
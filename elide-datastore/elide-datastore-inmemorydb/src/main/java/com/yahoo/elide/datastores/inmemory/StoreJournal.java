@@ -0,0 +1,276 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.inmemory;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Files which make an {@link InMemoryDataStore} durable: a write-ahead log of commits and snapshots of the whole
+ * store.
+ *
+ * A commit is appended to the log before it is published and synced before the committing transaction returns.
+ * A checkpoint starts a new log segment, writes a snapshot of the last published version next to it and then
+ * deletes older snapshots and segments.  Recovery loads the newest snapshot and replays the commits logged after it.
+ */
+@Slf4j
+class StoreJournal implements Closeable {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".json";
+    private static final String VERSION = "version";
+    private static final String OPERATIONS = "operations";
+    private static final String RECORDS = "records";
+    private static final String DELETE = "delete";
+
+    private final Path directory;
+    private final EntityDictionary dictionary;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RecordCodec codec;
+    private final WriteAheadLog wal;
+
+    /**
+     * Journal in a directory, created if needed.
+     *
+     * @param directory the directory
+     * @param dictionary the dictionary of the stored entities
+     * @param regionSize the size of each mapped log region
+     * @throws IOException if the directory cannot be created
+     */
+    StoreJournal(Path directory, EntityDictionary dictionary, int regionSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.dictionary = dictionary;
+        this.codec = new RecordCodec(dictionary, mapper);
+        this.wal = new WriteAheadLog(directory, regionSize);
+    }
+
+    /**
+     * Restore the store from the newest snapshot and the log, then open a log segment for the next commit.
+     *
+     * @param records receives the restored entities by class and id
+     * @return the recovered store version
+     * @throws IOException if the files cannot be read
+     */
+    long recover(Map<Class<?>, Map<String, Object>> records) throws IOException {
+        long version = 0;
+        List<Path> snapshots = snapshots();
+        if (!snapshots.isEmpty()) {
+            Path snapshot = snapshots.get(snapshots.size() - 1);
+            version = readSnapshot(snapshot, records);
+            log.info("Loaded {} at version {}", snapshot, version);
+        }
+
+        long[] recovered = {version};
+        for (Path segment : WriteAheadLog.segments(directory)) {
+            WriteAheadLog.replay(segment, payload -> {
+                JsonNode commit = read(payload);
+                long commitVersion = commit.path(VERSION).asLong();
+                if (commitVersion > recovered[0]) {
+                    apply(commit.path(OPERATIONS), records);
+                    recovered[0] = commitVersion;
+                }
+            });
+        }
+        if (recovered[0] > version) {
+            log.info("Replayed the write-ahead log up to version {}", recovered[0]);
+        }
+
+        wal.rotate(recovered[0] + 1);
+        return recovered[0];
+    }
+
+    private JsonNode read(byte[] payload) {
+        try {
+            return mapper.readTree(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decode every saved record before linking any, since a record may reference one saved later.
+     */
+    private void apply(JsonNode operations, Map<Class<?>, Map<String, Object>> records) {
+        List<Object> entities = new ArrayList<>();
+        List<JsonNode> saved = new ArrayList<>();
+        for (JsonNode operation : operations) {
+            if (operation.path(DELETE).asBoolean()) {
+                Map<String, Object> deleted = records.get(codec.getType(operation));
+                if (deleted != null) {
+                    deleted.remove(codec.getId(operation));
+                }
+                continue;
+            }
+            Object entity = codec.decode(operation, records);
+            if (entity != null) {
+                entities.add(entity);
+                saved.add(operation);
+            }
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            codec.link(entities.get(i), saved.get(i), records);
+        }
+    }
+
+    /**
+     * Append a commit to the log.
+     *
+     * @param version the store version of the commit
+     * @param operations the writes of the commit
+     * @return the log position to {@link #sync}
+     * @throws IOException if the log cannot be written
+     */
+    long append(long version, List<Operation> operations) throws IOException {
+        ObjectNode commit = mapper.createObjectNode();
+        commit.put(VERSION, version);
+        ArrayNode encoded = commit.putArray(OPERATIONS);
+        for (Operation op : operations) {
+            if (op.getInstance() == null) {
+                continue;
+            }
+            ObjectNode record = codec.encode(op.getType(), op.getId(), op.getDelete() ? null : op.getInstance());
+            if (op.getDelete()) {
+                record.put(DELETE, true);
+            }
+            encoded.add(record);
+        }
+        return wal.append(mapper.writeValueAsBytes(commit));
+    }
+
+    /**
+     * Wait until the log is durable up to a position.
+     *
+     * @param position the position returned by {@link #append}
+     */
+    void sync(long position) {
+        wal.sync(position);
+    }
+
+    /**
+     * Start a log segment for the commits after a version, before that version is snapshot.
+     *
+     * @param version the store version to snapshot
+     * @throws IOException if the segment cannot be created
+     */
+    void startCheckpoint(long version) throws IOException {
+        wal.rotate(version + 1);
+    }
+
+    /**
+     * Write a snapshot, then delete the snapshots and log segments it replaces.
+     *
+     * @param version the store version
+     * @param records the records at that version by class
+     * @throws IOException if the snapshot cannot be written
+     */
+    void finishCheckpoint(long version, Map<Class<?>, Iterable<Object>> records) throws IOException {
+        Path snapshot = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, version, SNAPSHOT_SUFFIX));
+        Path partial = directory.resolve(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartObject();
+                generator.writeNumberField(VERSION, version);
+                generator.writeArrayFieldStart(RECORDS);
+                for (Map.Entry<Class<?>, Iterable<Object>> type : records.entrySet()) {
+                    for (Object entity : type.getValue()) {
+                        mapper.writeTree(generator, codec.encode(type.getKey(), dictionary.getId(entity), entity));
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            channel.force(true);
+        }
+        Files.move(partial, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        WriteAheadLog.syncDirectory(directory);
+
+        for (Path older : snapshots()) {
+            if (!older.equals(snapshot) && snapshotVersion(older) < version) {
+                Files.deleteIfExists(older);
+            }
+        }
+        wal.deleteBefore(version + 1);
+        log.info("Wrote {}", snapshot);
+    }
+
+    private long readSnapshot(Path snapshot, Map<Class<?>, Map<String, Object>> records) throws IOException {
+        long version = 0;
+        List<Object> entities = new ArrayList<>();
+        List<JsonNode> saved = new ArrayList<>();
+        try (JsonParser parser = mapper.getFactory().createParser(snapshot.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Malformed snapshot " + snapshot);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (VERSION.equals(field)) {
+                    version = parser.getLongValue();
+                } else if (RECORDS.equals(field)) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode record = mapper.readTree(parser);
+                        Object entity = codec.decode(record, records);
+                        if (entity != null) {
+                            entities.add(entity);
+                            saved.add(record);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            codec.link(entities.get(i), saved.get(i), records);
+        }
+        return version;
+    }
+
+    private List<Path> snapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> stream =
+                     Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            stream.forEach(snapshots::add);
+        }
+        Collections.sort(snapshots);
+        return snapshots;
+    }
+
+    private static long snapshotVersion(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        wal.close();
+    }
+}
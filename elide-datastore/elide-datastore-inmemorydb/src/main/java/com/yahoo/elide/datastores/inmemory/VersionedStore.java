@@ -0,0 +1,396 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.inmemory;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.exceptions.TransactionException;
+import com.yahoo.elide.core.filter.FilterExpression;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Multi-version records of an {@link InMemoryDataStore}.
+ *
+ * Each record id maps to a chain of committed versions, newest first.  A transaction reads the versions committed
+ * up to the store version at which it began, walking the chains without locking.  Commits are serialized: a commit
+ * fails if another transaction committed one of its records after it began, otherwise it installs all of its
+ * versions and then publishes them at once by bumping the store version.  Versions older than the oldest open
+ * transaction are dropped when their record is next written.  With a {@link StoreJournal}, each commit is logged
+ * before it is published and synced before it returns.
+ */
+@Slf4j
+class VersionedStore {
+    /**
+     * A committed version of a record.  The instance is null if the record was deleted.
+     */
+    private static class Version {
+        final long version;
+        final Object instance;
+        volatile Version previous;
+
+        Version(long version, Object instance, Version previous) {
+            this.version = version;
+            this.instance = instance;
+            this.previous = previous;
+        }
+
+        Object visibleAt(long snapshot) {
+            Version record = this;
+            while (record != null && record.version > snapshot) {
+                record = record.previous;
+            }
+            return record == null ? null : record.instance;
+        }
+    }
+
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Version>> records = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, InMemoryIndex>> indexes =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Long> openSnapshots = new ConcurrentHashMap<>();
+    private final Object commitLock = new Object();
+    private final Object checkpointLock = new Object();
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+    private volatile StoreJournal journal;
+    private int checkpointInterval;
+    private ExecutorService checkpointer;
+    private volatile long version = 0;
+    // odd while a commit is changing the indexes
+    private volatile long indexEpoch = 0;
+
+    /**
+     * Get the last published version.
+     *
+     * @return the store version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Take a snapshot for a transaction, keeping the versions it reads until {@link #close}.
+     *
+     * @param transaction the transaction
+     * @return the snapshot version
+     */
+    long open(Object transaction) {
+        // hold every version while the snapshot is read, so a concurrent commit cannot drop it
+        openSnapshots.put(transaction, 0L);
+        long snapshot = version;
+        openSnapshots.put(transaction, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Move the snapshot of an open transaction.
+     *
+     * @param transaction the transaction
+     * @param snapshot the new snapshot version, not older than the current one
+     */
+    void advance(Object transaction, long snapshot) {
+        openSnapshots.replace(transaction, snapshot);
+    }
+
+    /**
+     * Release the snapshot of a transaction.
+     *
+     * @param transaction the transaction
+     */
+    void close(Object transaction) {
+        openSnapshots.remove(transaction);
+    }
+
+    /**
+     * Register a type, so that it is listed even before records are committed.
+     *
+     * @param cls the entity class
+     */
+    void addType(Class<?> cls) {
+        records.computeIfAbsent(cls, key -> new ConcurrentHashMap<>());
+    }
+
+    Set<Class<?>> getTypes() {
+        return Collections.unmodifiableSet(records.keySet());
+    }
+
+    /**
+     * Read a record as of a snapshot.
+     *
+     * @param cls the entity class
+     * @param id the record id
+     * @param snapshot the snapshot version
+     * @return the record, or null if it did not exist
+     */
+    Object read(Class<?> cls, String id, long snapshot) {
+        ConcurrentHashMap<String, Version> versions = records.get(cls);
+        Version head = versions == null ? null : versions.get(id);
+        return head == null ? null : head.visibleAt(snapshot);
+    }
+
+    /**
+     * Read the records of a type as of a snapshot, lazily.
+     *
+     * @param cls the entity class
+     * @param snapshot the snapshot version
+     * @return the records
+     */
+    Iterable<Object> readAll(Class<?> cls, long snapshot) {
+        ConcurrentHashMap<String, Version> versions = records.get(cls);
+        if (versions == null) {
+            return Collections.emptyList();
+        }
+        return Iterables.filter(Iterables.transform(versions.values(), head -> head.visibleAt(snapshot)),
+                instance -> instance != null);
+    }
+
+    /**
+     * Read the records of a type as of a snapshot, by id.
+     *
+     * @param cls the entity class
+     * @param ids the record ids
+     * @param snapshot the snapshot version
+     * @return the records which existed
+     */
+    Iterable<Object> readAll(Class<?> cls, Iterable<String> ids, long snapshot) {
+        return Iterables.filter(Iterables.transform(ids, id -> read(cls, id, snapshot)), instance -> instance != null);
+    }
+
+    /**
+     * Look up the ids of the records of a type which may match a filter in its secondary indexes.  Indexes hold
+     * the last published values, so they are only used for snapshots of the last published version.
+     *
+     * @param cls the entity class
+     * @param filterExpression the filter
+     * @param snapshot the snapshot version
+     * @return the candidate ids, or null if every record is a candidate
+     */
+    Set<String> lookup(Class<?> cls, FilterExpression filterExpression, long snapshot) {
+        ConcurrentHashMap<String, InMemoryIndex> typeIndexes = indexes.get(cls);
+        if (typeIndexes == null || typeIndexes.isEmpty()) {
+            return null;
+        }
+        long epoch = indexEpoch;
+        if ((epoch & 1) != 0 || version != snapshot) {
+            return null;
+        }
+        Set<String> candidates = filterExpression.accept(new IndexLookupVisitor(typeIndexes));
+        return indexEpoch == epoch ? candidates : null;
+    }
+
+    /**
+     * Declare a secondary index, indexing the last published records.
+     *
+     * @param cls the entity class
+     * @param index the index
+     * @param dictionary the dictionary
+     */
+    void addIndex(Class<?> cls, InMemoryIndex index, EntityDictionary dictionary) {
+        synchronized (commitLock) {
+            indexEpoch++;
+            try {
+                ConcurrentHashMap<String, Version> versions = records.get(cls);
+                if (versions != null) {
+                    versions.forEach((id, head) -> {
+                        Object instance = head.visibleAt(version);
+                        if (instance != null) {
+                            index.put(id, PersistentResource.getValue(instance, index.getField(), dictionary));
+                        }
+                    });
+                }
+                indexes.computeIfAbsent(cls, key -> new ConcurrentHashMap<>()).put(index.getField(), index);
+            } finally {
+                indexEpoch++;
+            }
+        }
+    }
+
+    /**
+     * Commit the operations of a transaction as one new version.
+     *
+     * @param operations the writes, in order
+     * @param snapshot the snapshot version of the transaction
+     * @param dictionary the dictionary
+     * @return the new store version
+     * @throws TransactionException if a record was committed by another transaction after the snapshot
+     */
+    long commit(List<Operation> operations, long snapshot, EntityDictionary dictionary) {
+        long next;
+        long position = 0;
+        synchronized (commitLock) {
+            for (Operation op : operations) {
+                if (op.getInstance() == null) {
+                    continue;
+                }
+                ConcurrentHashMap<String, Version> versions = records.get(op.getType());
+                Version head = versions == null ? null : versions.get(op.getId());
+                if (head != null && head.version > snapshot) {
+                    throw new TransactionException(new ConcurrentModificationException("Write conflict on "
+                            + dictionary.getBinding(op.getType()) + "#" + op.getId()));
+                }
+            }
+
+            next = version + 1;
+            if (journal != null) {
+                try {
+                    position = journal.append(next, operations);
+                } catch (IOException e) {
+                    throw new TransactionException(e);
+                }
+            }
+            long oldest = openSnapshots.values().stream().reduce(version, Math::min);
+            indexEpoch++;
+            try {
+                for (Operation op : operations) {
+                    if (op.getInstance() != null) {
+                        install(op, next, oldest, dictionary);
+                    }
+                }
+                version = next;
+            } finally {
+                indexEpoch++;
+            }
+        }
+
+        if (journal != null) {
+            // outside the lock, so commits made meanwhile are synced together
+            journal.sync(position);
+            if (checkpointInterval > 0 && next % checkpointInterval == 0 && checkpointing.compareAndSet(false, true)) {
+                checkpointer.execute(() -> {
+                    try {
+                        checkpoint();
+                    } catch (IOException | RuntimeException e) {
+                        log.error("Checkpoint failed", e);
+                    } finally {
+                        checkpointing.set(false);
+                    }
+                });
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Make the store durable in a journal, first restoring the records it holds.  Must be called before any
+     * transaction is opened.
+     *
+     * @param journal the journal
+     * @param checkpointInterval commits between automatic checkpoints, or 0 for none
+     * @param dictionary the dictionary
+     * @throws IOException if the journal cannot be read
+     */
+    void recover(StoreJournal journal, int checkpointInterval, EntityDictionary dictionary) throws IOException {
+        synchronized (commitLock) {
+            Map<Class<?>, Map<String, Object>> restored = new LinkedHashMap<>();
+            long recovered = journal.recover(restored);
+            restored.forEach((cls, entities) -> entities.forEach((id, entity) -> {
+                InMemoryTransaction.reserveId(cls, id);
+                install(new Operation(id, entity, cls, false), recovered, recovered, dictionary);
+            }));
+            version = recovered;
+            this.checkpointInterval = checkpointInterval;
+            this.checkpointer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("elide-inmemory-checkpoint-%d")
+                    .setDaemon(true)
+                    .build());
+            // published last, for commits which read it outside the lock
+            this.journal = journal;
+        }
+    }
+
+    /**
+     * Write a snapshot of the last published version to the journal, replacing the log up to that version.
+     * Commits continue while the snapshot is written.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    void checkpoint() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        synchronized (checkpointLock) {
+            Object checkpoint = new Object();
+            long snapshot;
+            synchronized (commitLock) {
+                snapshot = version;
+                openSnapshots.put(checkpoint, snapshot);
+                journal.startCheckpoint(snapshot);
+            }
+            try {
+                Map<Class<?>, Iterable<Object>> all = new LinkedHashMap<>();
+                for (Class<?> cls : records.keySet()) {
+                    all.put(cls, readAll(cls, snapshot));
+                }
+                journal.finishCheckpoint(snapshot, all);
+            } finally {
+                openSnapshots.remove(checkpoint);
+            }
+        }
+    }
+
+    /**
+     * Stop checkpoints and close the journal.  Commits after close fail.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        checkpointer.shutdown();
+        synchronized (checkpointLock) {
+            synchronized (commitLock) {
+                journal.close();
+            }
+        }
+    }
+
+    private void install(Operation op, long next, long oldest, EntityDictionary dictionary) {
+        ConcurrentHashMap<String, Version> versions = records.computeIfAbsent(op.getType(),
+                key -> new ConcurrentHashMap<>());
+        Object instance = op.getDelete() ? null : op.getInstance();
+        String id = op.getId();
+        Version previous = versions.get(id);
+        if (previous != null && previous.version == next) {
+            // written twice by this commit, keep the last write
+            previous = previous.previous;
+        }
+        Version head = new Version(next, instance, previous);
+        versions.put(id, head);
+
+        // keep the newest version visible to the oldest snapshot, drop anything older
+        for (Version record = head.previous; record != null; record = record.previous) {
+            if (record.version <= oldest) {
+                record.previous = null;
+                break;
+            }
+        }
+
+        Map<String, InMemoryIndex> typeIndexes = indexes.get(op.getType());
+        Collection<InMemoryIndex> typeIndexList = typeIndexes == null
+                ? Collections.emptyList()
+                : typeIndexes.values();
+        if (instance == null) {
+            typeIndexList.forEach(index -> index.remove(id));
+        } else {
+            typeIndexList.forEach(index ->
+                    index.put(id, PersistentResource.getValue(instance, index.getField(), dictionary)));
+        }
+    }
+}
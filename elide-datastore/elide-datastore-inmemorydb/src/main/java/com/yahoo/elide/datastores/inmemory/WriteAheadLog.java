@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.inmemory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of committed records, written through memory-mapped segment files.
+ *
+ * Each record is framed by its length and CRC32, so replay stops at the first record torn by a crash.  Appending
+ * only copies a record into the mapping; {@link #sync} forces the mapping to disk, and one force covers every
+ * record appended before it, so committers waiting at the same time share a single sync.  Segments are named after
+ * the first store version they may hold, so a snapshot of version v makes every segment started before v + 1
+ * obsolete.
+ */
+class WriteAheadLog implements Closeable {
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final int regionSize;
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private long segmentStart = -1;
+    private volatile MappedByteBuffer region;
+    private long regionOffset;
+    // bytes appended since the log was opened, across segments
+    private long appended;
+    private volatile long synced;
+
+    /**
+     * Log writing to a directory.  Nothing is written until {@link #rotate}.
+     *
+     * @param directory the directory
+     * @param regionSize the size of each mapped region, the most a segment grows at a time
+     */
+    WriteAheadLog(Path directory, int regionSize) {
+        this.directory = directory;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param payload the record
+     * @return the position to {@link #sync} to make the record durable
+     * @throws IOException if the segment cannot be extended
+     */
+    synchronized long append(byte[] payload) throws IOException {
+        if (region == null) {
+            throw new IOException("Write-ahead log is closed");
+        }
+        int size = HEADER_SIZE + payload.length;
+        if (region.remaining() < size) {
+            // map on from the end of the last record, so the segment has no gap for replay to stop at
+            region.force();
+            regionOffset += region.position();
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionOffset, Math.max(regionSize, size));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        region.putInt(payload.length);
+        region.putInt((int) crc.getValue());
+        region.put(payload);
+        appended += size;
+        return appended;
+    }
+
+    /**
+     * Make every record up to a position durable.
+     *
+     * @param position the position returned by {@link #append}
+     */
+    void sync(long position) {
+        if (synced >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            // a sync which ran while this one waited may have covered it
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            MappedByteBuffer buffer;
+            synchronized (this) {
+                target = appended;
+                buffer = region;
+            }
+            // regions and segments are forced before they are replaced
+            if (buffer != null) {
+                buffer.force();
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Start a new segment.  Records appended before are made durable first.
+     *
+     * @param startVersion the first store version the segment may hold
+     * @throws IOException if the segment cannot be created
+     */
+    synchronized void rotate(long startVersion) throws IOException {
+        if (startVersion == segmentStart) {
+            return;
+        }
+        closeSegment();
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, startVersion, SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        syncDirectory(directory);
+        segmentStart = startVersion;
+        regionOffset = 0;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+    }
+
+    /**
+     * Delete the segments started before a store version.
+     *
+     * @param version the store version
+     * @throws IOException if a segment cannot be deleted
+     */
+    synchronized void deleteBefore(long version) throws IOException {
+        for (Path segment : segments(directory)) {
+            if (startVersion(segment) < version && startVersion(segment) != segmentStart) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+    }
+
+    private void closeSegment() throws IOException {
+        if (region != null) {
+            region.force();
+            region = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        segmentStart = -1;
+    }
+
+    /**
+     * List the segments in a directory, oldest first.
+     *
+     * @param directory the directory
+     * @return the segment files
+     * @throws IOException if the directory cannot be read
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Get the first store version a segment may hold.
+     *
+     * @param segment the segment file
+     * @return the store version
+     */
+    static long startVersion(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Read the records of a segment, up to the end of the log or the first torn record.
+     *
+     * @param segment the segment file
+     * @param consumer receives each record
+     * @throws IOException if the segment cannot be read
+     */
+    static void replay(Path segment, Consumer<byte[]> consumer) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    return;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    return;
+                }
+                consumer.accept(payload);
+            }
+        }
+    }
+
+    /**
+     * Make a file created in a directory durable, where the platform supports it.
+     *
+     * @param directory the directory
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // not supported on every platform
+        }
+    }
+}
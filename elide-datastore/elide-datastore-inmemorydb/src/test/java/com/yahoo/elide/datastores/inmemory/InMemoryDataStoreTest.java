@@ -5,19 +5,40 @@
  */
 package com.yahoo.elide.datastores.inmemory;
 
+import com.yahoo.elide.audit.Slf4jLogger;
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.FilterScope;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.TransactionException;
+import com.yahoo.elide.core.filter.FilterExpression;
 import com.yahoo.elide.example.beans.ExcludedBean;
 import com.yahoo.elide.example.beans.FirstBean;
 import com.yahoo.elide.example.beans.NonEntity;
 import com.yahoo.elide.example.beans.SecondBean;
+import com.yahoo.elide.security.User;
+import example.Author;
+import example.Book;
+import com.google.common.collect.Sets;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 /**
  * InMemoryDataStore tests.
@@ -60,4 +81,232 @@ public class InMemoryDataStoreTest {
             assertTrue(bean.id == 1 && bean.name.equals("Test"));
         }
     }
+
+    @Test
+    public void testFilterCollection() throws Exception {
+        EntityDictionary dictionary = inMemoryDataStore.getDictionary();
+        List<FirstBean> beans = new ArrayList<>();
+        for (String name : Arrays.asList("Alpha", "Beta", "Gamma")) {
+            FirstBean bean = new FirstBean();
+            bean.id = beans.size() + 1;
+            bean.name = name;
+            beans.add(bean);
+        }
+
+        FilterExpression filter = dictionary.getFilterCompiler().parse(FirstBean.class, "name=postfix=a;!id=in=1");
+        try (DataStoreTransaction t = inMemoryDataStore.beginTransaction()) {
+            Collection<FirstBean> filtered = t.filterCollection(beans, FirstBean.class, filter, null);
+            assertEquals(filtered, Arrays.asList(beans.get(1), beans.get(2)));
+        }
+    }
+
+    @Test
+    public void testIndexedLoad() throws Exception {
+        InMemoryDataStore store = new InMemoryDataStore(FirstBean.class.getPackage())
+                .addIndex(SecondBean.class, "age", InMemoryDataStore.IndexType.SORTED);
+        store.populateEntityDictionary(new EntityDictionary());
+        store.addIndex(FirstBean.class, "name", InMemoryDataStore.IndexType.HASH);
+
+        List<SecondBean> beans = new ArrayList<>();
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            for (int age : new int[] {5, 10, 15, 20, 25}) {
+                SecondBean bean = t.createObject(SecondBean.class);
+                bean.age = age;
+                t.save(bean);
+                beans.add(bean);
+            }
+            t.commit();
+        }
+
+        assertEquals(loadFiltered(store, "filter[secondBean]", "age=gt=10;age=le=20"),
+                Sets.newHashSet(beans.get(2).id, beans.get(3).id));
+        assertEquals(loadFiltered(store, "filter[secondBean.age][in]", "5,25,30"),
+                Sets.newHashSet(beans.get(0).id, beans.get(4).id));
+        assertEquals(loadFiltered(store, "filter[secondBean]", "age=lt=10,age=ge=25"),
+                Sets.newHashSet(beans.get(0).id, beans.get(4).id));
+
+        // uncommitted changes are not indexed, but candidates are still tested
+        beans.get(2).age = 100;
+        assertEquals(loadFiltered(store, "filter[secondBean]", "age=gt=10;age=le=20"),
+                Sets.newHashSet(beans.get(3).id));
+
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            t.save(beans.get(2));
+            t.delete(beans.get(3));
+            t.commit();
+        }
+        assertEquals(loadFiltered(store, "filter[secondBean]", "age=ge=20"),
+                Sets.newHashSet(beans.get(2).id, beans.get(4).id));
+        assertEquals(loadFiltered(store, "filter[secondBean]", "!age=ge=20"),
+                Sets.newHashSet(beans.get(0).id, beans.get(1).id));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testIndexUnknownField() {
+        inMemoryDataStore.addIndex(FirstBean.class, "nickname", InMemoryDataStore.IndexType.HASH);
+    }
+
+    @Test
+    public void testSnapshotIsolation() throws Exception {
+        InMemoryDataStore store = new InMemoryDataStore(FirstBean.class.getPackage());
+        store.populateEntityDictionary(new EntityDictionary());
+
+        SecondBean first;
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            first = t.createObject(SecondBean.class);
+            t.save(first);
+            t.commit();
+        }
+
+        try (DataStoreTransaction reader = store.beginTransaction()) {
+            SecondBean second;
+            try (DataStoreTransaction writer = store.beginTransaction()) {
+                second = writer.createObject(SecondBean.class);
+                writer.save(second);
+                writer.delete(first);
+                writer.commit();
+            }
+
+            // the reader still sees the records committed when it began
+            assertEquals(ids(reader.loadObjects(SecondBean.class)), Sets.newHashSet(first.id));
+            assertEquals(reader.loadObject(SecondBean.class, first.id).id, first.id);
+            assertNull(reader.loadObject(SecondBean.class, second.id));
+
+            try (DataStoreTransaction later = store.beginTransaction()) {
+                assertEquals(ids(later.loadObjects(SecondBean.class)), Sets.newHashSet(second.id));
+                assertNull(later.loadObject(SecondBean.class, first.id));
+            }
+        }
+    }
+
+    @Test
+    public void testWriteConflict() throws Exception {
+        InMemoryDataStore store = new InMemoryDataStore(FirstBean.class.getPackage());
+        store.populateEntityDictionary(new EntityDictionary());
+
+        SecondBean bean;
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            bean = t.createObject(SecondBean.class);
+            t.save(bean);
+            t.commit();
+        }
+
+        try (DataStoreTransaction first = store.beginTransaction();
+             DataStoreTransaction second = store.beginTransaction()) {
+            first.save(bean);
+            second.delete(bean);
+            first.commit();
+            try {
+                second.commit();
+                fail("Expected a write conflict");
+            } catch (TransactionException e) {
+                assertEquals(e.getStatus(), 423);
+            }
+
+            // a committed transaction reads and writes on from its own commit
+            first.save(bean);
+            first.commit();
+        }
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            assertEquals(t.loadObject(SecondBean.class, bean.id).id, bean.id);
+        }
+    }
+
+    @Test
+    public void testCopyOnWrite() throws Exception {
+        InMemoryDataStore store = new InMemoryDataStore(FirstBean.class.getPackage());
+        store.populateEntityDictionary(new EntityDictionary());
+
+        SecondBean bean;
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            bean = t.createObject(SecondBean.class);
+            bean.age = 1;
+            t.save(bean);
+            t.commit();
+        }
+
+        try (DataStoreTransaction writer = store.beginTransaction()) {
+            SecondBean copy = writer.loadObject(SecondBean.class, bean.id);
+            assertTrue(copy == writer.loadObjects(SecondBean.class).iterator().next(), "Reads share one copy");
+            copy.age = 2;
+            writer.save(copy);
+
+            try (DataStoreTransaction reader = store.beginTransaction()) {
+                assertEquals(reader.loadObject(SecondBean.class, bean.id).age, 1);
+            }
+            writer.commit();
+        }
+
+        try (DataStoreTransaction aborted = store.beginTransaction()) {
+            aborted.loadObject(SecondBean.class, bean.id).age = 3;
+        }
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            assertEquals(t.loadObject(SecondBean.class, bean.id).age, 2);
+        }
+    }
+
+    @Test
+    public void testDurableRecovery() throws Exception {
+        Path directory = Files.createTempDirectory("elide-inmemory");
+        long bookId;
+        long otherId;
+        try (InMemoryDataStore store = new InMemoryDataStore(Book.class.getPackage(), directory, 0)) {
+            store.populateEntityDictionary(new EntityDictionary());
+            try (DataStoreTransaction t = store.beginTransaction()) {
+                Author author = t.createObject(Author.class);
+                author.setName("Ursula");
+                Book book = t.createObject(Book.class);
+                book.setTitle("The Dispossessed");
+                book.setAuthors(Arrays.asList(author));
+                author.setBooks(Arrays.asList(book));
+                Book other = t.createObject(Book.class);
+                t.save(author);
+                t.save(book);
+                t.save(other);
+                t.commit();
+                bookId = book.getId();
+                otherId = other.getId();
+            }
+            store.checkpoint();
+            try (DataStoreTransaction t = store.beginTransaction()) {
+                Book book = t.loadObject(Book.class, bookId);
+                book.setTitle("The Left Hand of Darkness");
+                t.save(book);
+                t.delete(t.loadObject(Book.class, otherId));
+                t.commit();
+            }
+        }
+
+        try (InMemoryDataStore store = new InMemoryDataStore(Book.class.getPackage(), directory, 0)) {
+            store.populateEntityDictionary(new EntityDictionary());
+            try (DataStoreTransaction t = store.beginTransaction()) {
+                Book book = t.loadObject(Book.class, bookId);
+                assertEquals(book.getTitle(), "The Left Hand of Darkness");
+                assertEquals(book.getAuthors().size(), 1);
+                Author author = book.getAuthors().iterator().next();
+                assertEquals(author.getName(), "Ursula");
+                assertEquals(author.getBooks(), Arrays.asList(book));
+                assertNull(t.loadObject(Book.class, otherId));
+
+                Book created = t.createObject(Book.class);
+                assertTrue(created.getId() > otherId, "Created ids follow the restored ids");
+            }
+        }
+    }
+
+    private static Set<Integer> ids(Iterable<SecondBean> beans) {
+        Set<Integer> ids = Sets.newHashSet();
+        beans.forEach(bean -> ids.add(bean.id));
+        return ids;
+    }
+
+    private static Set<Integer> loadFiltered(InMemoryDataStore store, String key, String value) throws Exception {
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        params.add(key, value);
+        try (DataStoreTransaction t = store.beginTransaction()) {
+            RequestScope scope = new RequestScope(null, t, new User(null), store.getDictionary(), null,
+                    new Slf4jLogger(), params);
+            return ids(t.loadObjects(SecondBean.class, new FilterScope<>(scope)));
+        }
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015, Yahoo Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.inmemory;
+
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * WriteAheadLog tests.
+ */
+public class WriteAheadLogTest {
+    @Test
+    public void testReplayAcrossRegions() throws Exception {
+        Path directory = Files.createTempDirectory("elide-wal");
+        List<String> written = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(directory, 64)) {
+            log.rotate(1);
+            long position = 0;
+            for (int i = 0; i < 20; i++) {
+                String record = "record " + i;
+                position = log.append(record.getBytes(StandardCharsets.UTF_8));
+                written.add(record);
+            }
+            log.sync(position);
+        }
+
+        List<Path> segments = WriteAheadLog.segments(directory);
+        assertEquals(segments.size(), 1);
+        assertEquals(WriteAheadLog.startVersion(segments.get(0)), 1);
+        assertEquals(replay(segments.get(0)), written);
+    }
+
+    @Test
+    public void testReplayStopsAtTornRecord() throws Exception {
+        Path directory = Files.createTempDirectory("elide-wal");
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024)) {
+            log.rotate(1);
+            log.append("first".getBytes(StandardCharsets.UTF_8));
+            log.append("second".getBytes(StandardCharsets.UTF_8));
+            log.append("third".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // corrupt the payload of the second record
+        Path segment = WriteAheadLog.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), 8 + "first".length() + 8);
+        }
+        assertEquals(replay(segment), Arrays.asList("first"));
+    }
+
+    @Test
+    public void testRotateAndDelete() throws Exception {
+        Path directory = Files.createTempDirectory("elide-wal");
+        try (WriteAheadLog log = new WriteAheadLog(directory, 1024)) {
+            log.rotate(1);
+            log.append("first".getBytes(StandardCharsets.UTF_8));
+            log.rotate(5);
+            log.append("second".getBytes(StandardCharsets.UTF_8));
+            assertEquals(WriteAheadLog.segments(directory).size(), 2);
+
+            log.deleteBefore(5);
+            List<Path> segments = WriteAheadLog.segments(directory);
+            assertEquals(segments.size(), 1);
+            assertEquals(WriteAheadLog.startVersion(segments.get(0)), 5);
+            assertEquals(replay(segments.get(0)), Arrays.asList("second"));
+        }
+    }
+
+    private static List<String> replay(Path segment) throws Exception {
+        List<String> records = new ArrayList<>();
+        WriteAheadLog.replay(segment, payload -> records.add(new String(payload, StandardCharsets.UTF_8)));
+        return records;
+    }
+}
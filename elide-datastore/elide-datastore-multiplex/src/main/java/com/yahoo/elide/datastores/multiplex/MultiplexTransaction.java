@@ -8,7 +8,11 @@ package com.yahoo.elide.datastores.multiplex;
 import com.yahoo.elide.core.DataStore;
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.FilterScope;
+import com.yahoo.elide.core.Pagination;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.Sorting;
 import com.yahoo.elide.core.exceptions.InvalidCollectionException;
+import com.yahoo.elide.core.filter.FilterExpression;
 import com.yahoo.elide.core.filter.Predicate;
 import com.yahoo.elide.security.User;
 
@@ -76,11 +80,45 @@ public abstract class MultiplexTransaction implements DataStoreTransaction {
         return getTransaction(entityClass).loadObjects(entityClass, filterScope);
     }
 
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> entityClass, FilterScope<T> filterScope, Pagination pagination) {
+        return getTransaction(entityClass).loadObjects(entityClass, filterScope, pagination);
+    }
+
+    @Override
+    public <T> Iterable<T> loadObjects(Class<T> entityClass, FilterScope<T> filterScope, Sorting sorting,
+                                       Pagination pagination) {
+        return getTransaction(entityClass).loadObjects(entityClass, filterScope, sorting, pagination);
+    }
+
+    @Override
+    public <T> void batchLoadRelation(Class<T> entityClass, Collection<T> entities, String relationName) {
+        getTransaction(entityClass).batchLoadRelation(entityClass, entities, relationName);
+    }
+
+    @Override
+    public <T> Collection<Serializable> loadRelationIdentifiers(Class<T> entityClass, T entity,
+                                                                String relationName, Object relation) {
+        return getTransaction(entityClass).loadRelationIdentifiers(entityClass, entity, relationName, relation);
+    }
+
     @Override
     public <T> Collection filterCollection(Collection collection, Class<T> entityClass, Set<Predicate> predicates) {
         return getTransaction(entityClass).filterCollection(collection, entityClass, predicates);
     }
 
+    @Override
+    public <T> Collection filterCollection(Collection collection, Class<T> entityClass,
+                                           FilterExpression filterExpression, RequestScope requestScope) {
+        return getTransaction(entityClass).filterCollection(collection, entityClass, filterExpression, requestScope);
+    }
+
+    @Override
+    public boolean supportsConcurrentReads() {
+        // records of any sub-database may be read
+        return transactions.values().stream().allMatch(DataStoreTransaction::supportsConcurrentReads);
+    }
+
     @Override
     public void flush() {
         transactions.values().forEach(DataStoreTransaction::flush);
@@ -21,7 +21,9 @@ public class ElideResourceConfig extends ResourceConfig {
                 bind(noUserFn).to(JsonApiEndpoint.DefaultOpaqueUserFunction.class).named("elideUserExtractionFunction");
 
                 SessionFactory sessionFactory = new Configuration().configure().buildSessionFactory();
-                Elide elide = new Elide(new Slf4jLogger(), new HibernateStore(sessionFactory));
+                Elide elide = new Elide.Builder(new HibernateStore(sessionFactory))
+                        .withAuditLogger(new Slf4jLogger())
+                        .build();
                 bind(elide).to(Elide.class).named("elide");
             }
         });
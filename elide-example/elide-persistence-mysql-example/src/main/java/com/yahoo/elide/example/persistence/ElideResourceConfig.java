@@ -25,7 +25,9 @@ public class ElideResourceConfig extends ResourceConfig {
 
                 EntityManagerFactory entityManagerFactory =
                         Persistence.createEntityManagerFactory("com.yahoo.elide.example");
-                bind(new Elide(new Slf4jLogger(), new PersistenceStore(entityManagerFactory)))
+                bind(new Elide.Builder(new PersistenceStore(entityManagerFactory))
+                        .withAuditLogger(new Slf4jLogger())
+                        .build())
                         .to(Elide.class).named("elide");
             }
         });
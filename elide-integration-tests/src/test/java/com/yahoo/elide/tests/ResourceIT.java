@@ -11,7 +11,6 @@ import com.yahoo.elide.Elide;
 import com.yahoo.elide.ElideResponse;
 import com.yahoo.elide.audit.TestLogger;
 import com.yahoo.elide.core.DataStoreTransaction;
-import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.SecurityMode;
 import com.yahoo.elide.initialization.AbstractIntegrationTestInitializer;
 import com.yahoo.elide.jsonapi.models.Data;
@@ -1426,7 +1425,9 @@ public class ResourceIT extends AbstractIntegrationTestInitializer {
     public void elideBypassSecurity() {
         String expected = jsonParser.getJson("/ResourceIT/elideBypassSecurity.json");
 
-        Elide elide = new Elide(new TestLogger(), AbstractIntegrationTestInitializer.getDatabaseManager(), new EntityDictionary());
+        Elide elide = new Elide.Builder(AbstractIntegrationTestInitializer.getDatabaseManager())
+                .withAuditLogger(new TestLogger())
+                .build();
         ElideResponse response =
                 elide.get("parent/1/children/1", new MultivaluedHashMap<>(), -1, SecurityMode.SECURITY_INACTIVE);
         assertEquals(response.getResponseCode(), HttpStatus.SC_OK);
@@ -1435,7 +1436,9 @@ public class ResourceIT extends AbstractIntegrationTestInitializer {
 
     @Test
     public void elideSecurityEnabled() {
-        Elide elide = new Elide(new TestLogger(), AbstractIntegrationTestInitializer.getDatabaseManager(), new EntityDictionary());
+        Elide elide = new Elide.Builder(AbstractIntegrationTestInitializer.getDatabaseManager())
+                .withAuditLogger(new TestLogger())
+                .build();
         ElideResponse response = elide.get("parent/1/children", new MultivaluedHashMap<>(), -1, SecurityMode.SECURITY_ACTIVE);
         assertEquals(response.getResponseCode(), HttpStatus.SC_OK);
         assertEquals(response.getBody(), "{\"data\":[]}");